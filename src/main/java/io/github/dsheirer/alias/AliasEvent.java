@@ -17,9 +17,13 @@
  ******************************************************************************/
 package io.github.dsheirer.alias;
 
+import java.util.Collections;
+import java.util.List;
+
 public class AliasEvent
 {
 	private Alias mAlias;
+	private List<Alias> mAliases;
 	private Event mEvent;
 
 	/**
@@ -33,10 +37,36 @@ public class AliasEvent
 		mEvent = event;
 	}
 	
+	/**
+	 * AliasEvent - bulk event describing a group of aliases that were added to the model in a single operation.
+	 * @param aliases - aliases that were added
+	 */
+	public AliasEvent( List<Alias> aliases )
+	{
+		mAliases = aliases;
+		mEvent = Event.ADD_ALL;
+	}
+
+	/**
+	 * Alias for single-alias events, or null for an ADD_ALL bulk event
+	 */
 	public Alias getAlias()
 	{
 		return mAlias;
 	}
+
+	/**
+	 * Aliases for an ADD_ALL bulk event, or a single element list containing the alias for all other events
+	 */
+	public List<Alias> getAliases()
+	{
+		if(mAliases != null)
+		{
+			return mAliases;
+		}
+
+		return mAlias != null ? Collections.singletonList(mAlias) : Collections.emptyList();
+	}
 	
 	public Event getEvent()
 	{
@@ -49,6 +79,7 @@ public class AliasEvent
 	public enum Event
 	{
 		ADD,
+		ADD_ALL,
 		CHANGE,
 		DELETE;
 	}
@@ -252,6 +252,15 @@ public class AliasList implements Listener<AliasEvent>
                         addAlias(alias);
                     }
                     break;
+                case ADD_ALL:
+                    for(Alias added : event.getAliases())
+                    {
+                        if(added.getList() != null && getName().equalsIgnoreCase(added.getList()))
+                        {
+                            addAlias(added);
+                        }
+                    }
+                    break;
                 case CHANGE:
                     if(alias.getList() != null && getName().equalsIgnoreCase(alias.getList()))
                     {
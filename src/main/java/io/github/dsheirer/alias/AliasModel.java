@@ -208,13 +208,37 @@ public class AliasModel extends AbstractTableModel
     }
 
     /**
-     * Bulk loading of aliases
+     * Bulk loading of aliases.  Aliases are appended to the model in a single operation with one table insert
+     * notification and one ADD_ALL alias event, avoiding a copy of the underlying copy-on-write list and a listener
+     * broadcast for each alias when a large playlist is loaded.
      */
     public void addAliases(List<Alias> aliases)
     {
+        if(aliases == null || aliases.isEmpty())
+        {
+            return;
+        }
+
+        List<Alias> added = new ArrayList<>(aliases.size());
+
         for(Alias alias : aliases)
         {
-            addAlias(alias);
+            if(alias != null)
+            {
+                alias.validate();
+                added.add(alias);
+            }
+        }
+
+        if(!added.isEmpty())
+        {
+            int first = mAliases.size();
+
+            mAliases.addAll(added);
+
+            fireTableRowsInserted(first, first + added.size() - 1);
+
+            mAliasEventBroadcaster.broadcast(new AliasEvent(added));
         }
     }
 
@@ -41,6 +41,7 @@ public abstract class AbstractAudioModule extends Module implements IAudioSegmen
     private Listener<AudioSegment> mAudioSegmentListener;
     protected MutableIdentifierCollection mIdentifierCollection = new MutableIdentifierCollection();
     private Broadcaster<IdentifierUpdateNotification> mIdentifierUpdateNotificationBroadcaster = new Broadcaster<>();
+    private Listener<IdentifierUpdateNotification> mIdentifierUpdateListener = this::receiveIdentifierUpdate;
     private AliasList mAliasList;
     private AudioSegment mAudioSegment;
     private int mAudioSampleCount = 0;
@@ -68,6 +69,10 @@ public abstract class AbstractAudioModule extends Module implements IAudioSegmen
             {
                 mAudioSegment.completeProperty().set(true);
                 mIdentifierUpdateNotificationBroadcaster.removeListener(mAudioSegment);
+
+                //Release this producer's reference so that the segment's audio storage can be reclaimed once all
+                //consumers are finished with it
+                mAudioSegment.decrementConsumerCount();
                 mAudioSegment = null;
             }
         }
@@ -90,6 +95,7 @@ public abstract class AbstractAudioModule extends Module implements IAudioSegmen
             if(mAudioSegment == null)
             {
                 mAudioSegment = new AudioSegment(mAliasList, getTimeslot());
+                mAudioSegment.incrementConsumerCount();
                 mAudioSegment.addIdentifiers(mIdentifierCollection.getIdentifiers());
                 mIdentifierUpdateNotificationBroadcaster.addListener(mAudioSegment);
 
@@ -156,7 +162,19 @@ public abstract class AbstractAudioModule extends Module implements IAudioSegmen
     @Override
     public Listener<IdentifierUpdateNotification> getIdentifierUpdateListener()
     {
-        return mIdentifierUpdateNotificationBroadcaster;
+        return mIdentifierUpdateListener;
+    }
+
+    /**
+     * Applies the identifier update to the identifier collection and to the current audio segment.  Subclasses that
+     * create audio segments on a different thread than the decoder thread override this method to apply the update
+     * on that thread.
+     *
+     * @param notification of an updated identifier
+     */
+    protected void receiveIdentifierUpdate(IdentifierUpdateNotification notification)
+    {
+        mIdentifierUpdateNotificationBroadcaster.receive(notification);
     }
 
     /**
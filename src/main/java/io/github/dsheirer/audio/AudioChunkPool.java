@@ -0,0 +1,168 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.audio;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide pool of fixed-size audio sample chunks used to store audio segment audio.  Chunks are recycled when an
+ * audio segment is disposed so that long calls and many concurrent calls don't continually allocate and discard large
+ * sample arrays.
+ *
+ * The pool also tracks the memory held by audio segments and applies the optional spill threshold.  When the audio
+ * held in memory by all audio segments exceeds the threshold, audio segments move their full chunks to temporary
+ * files on disk as they're filled.
+ */
+public class AudioChunkPool
+{
+    /**
+     * Samples per chunk - 0.5 seconds of 8 kHz audio
+     */
+    public static final int CHUNK_SIZE = 4000;
+    public static final int CHUNK_BYTES = CHUNK_SIZE * Float.BYTES;
+
+    /**
+     * Maximum number of idle chunks retained for reuse - 2 minutes of 8 kHz audio
+     */
+    private static final int MAX_POOLED_CHUNKS = 240;
+
+    private static final Queue<float[]> sPool = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger sPooledChunkCount = new AtomicInteger();
+    private static final AtomicInteger sInUseChunkCount = new AtomicInteger();
+    private static final AtomicLong sSpilledBytes = new AtomicLong();
+    private static volatile long sSpillThresholdBytes = 0;
+
+    private AudioChunkPool()
+    {
+        //Static access only
+    }
+
+    /**
+     * Gets a chunk from the pool, or allocates a new chunk when the pool is empty.  Chunk contents are not cleared.
+     */
+    static float[] getChunk()
+    {
+        float[] chunk = sPool.poll();
+
+        if(chunk != null)
+        {
+            sPooledChunkCount.decrementAndGet();
+        }
+        else
+        {
+            chunk = new float[CHUNK_SIZE];
+        }
+
+        sInUseChunkCount.incrementAndGet();
+
+        return chunk;
+    }
+
+    /**
+     * Returns a chunk to the pool for reuse.  The chunk is discarded if the pool is already full.
+     */
+    static void release(float[] chunk)
+    {
+        sInUseChunkCount.decrementAndGet();
+
+        if(sPooledChunkCount.get() < MAX_POOLED_CHUNKS)
+        {
+            sPooledChunkCount.incrementAndGet();
+            sPool.offer(chunk);
+        }
+    }
+
+    /**
+     * Accounts for a chunk that has been spilled to disk.  The chunk is not returned to the pool since concurrent
+     * consumers may still be reading from it.
+     */
+    static void spilled(float[] chunk)
+    {
+        sInUseChunkCount.decrementAndGet();
+        sSpilledBytes.addAndGet(CHUNK_BYTES);
+    }
+
+    /**
+     * Accounts for spilled chunks that have been deleted from disk
+     * @param bytes deleted
+     */
+    static void spillDeleted(long bytes)
+    {
+        sSpilledBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Indicates if audio held in memory exceeds the spill threshold and full chunks should be spilled to disk.
+     */
+    static boolean isSpillRequired()
+    {
+        long threshold = sSpillThresholdBytes;
+        return threshold > 0 && getInUseBytes() > threshold;
+    }
+
+    /**
+     * Sets the threshold for audio held in memory by all audio segments, beyond which full audio chunks are spilled
+     * to disk.
+     *
+     * @param thresholdBytes threshold in bytes, or zero to disable spilling
+     */
+    public static void setSpillThreshold(long thresholdBytes)
+    {
+        sSpillThresholdBytes = Math.max(thresholdBytes, 0);
+    }
+
+    /**
+     * Current spill threshold in bytes, or zero when spilling is disabled.
+     */
+    public static long getSpillThreshold()
+    {
+        return sSpillThresholdBytes;
+    }
+
+    /**
+     * Bytes of audio held in memory by audio segments
+     */
+    public static long getInUseBytes()
+    {
+        return (long)sInUseChunkCount.get() * CHUNK_BYTES;
+    }
+
+    /**
+     * Bytes held by idle chunks in the pool
+     */
+    public static long getPooledBytes()
+    {
+        return (long)sPooledChunkCount.get() * CHUNK_BYTES;
+    }
+
+    /**
+     * Bytes of audio currently spilled to disk by audio segments
+     */
+    public static long getSpilledBytes()
+    {
+        return sSpilledBytes.get();
+    }
+}
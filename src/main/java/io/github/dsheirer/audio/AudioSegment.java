@@ -24,6 +24,7 @@ import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.identifier.MutableIdentifierCollection;
+import io.github.dsheirer.metrics.jfr.AudioSegmentEvent;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import javafx.beans.property.BooleanProperty;
@@ -41,7 +42,6 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -60,6 +60,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * will signal the completion of an audio segment by setting the complete property to true.  This allows consumers the
  * option to process the audio buffers throughout the life-cycle of the segment, or to process all of the buffers once
  * the segment is complete.
+ *
+ * Audio is stored in pooled, fixed-size chunks that are returned to the pool when the segment is disposed, and full
+ * chunks may be spilled to disk when the audio held in memory exceeds the AudioChunkPool spill threshold.  Consumers
+ * read audio through their own AudioSegmentCursor.
  */
 public class AudioSegment implements Listener<IdentifierUpdateNotification>
 {
@@ -70,13 +74,14 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
     private ObservableSet<BroadcastChannel> mBroadcastChannels = FXCollections.observableSet(new HashSet<>());
     private MutableIdentifierCollection mIdentifierCollection = new MutableIdentifierCollection();
     private Broadcaster<IdentifierUpdateNotification> mIdentifierUpdateNotificationBroadcaster = new Broadcaster<>();
-    private List<float[]> mAudioBuffers = new CopyOnWriteArrayList();
+    private ChunkedAudioBuffer mAudioBuffer = new ChunkedAudioBuffer();
     private AtomicInteger mConsumerCount = new AtomicInteger();
     private AliasList mAliasList;
     private long mStartTimestamp = System.currentTimeMillis();
     private boolean mDisposing = false;
     private AudioSegment mLinkedAudioSegment;
     private int mTimeslot;
+    private AudioSegmentEvent mAudioSegmentEvent;
 
     /**
      * Constructs an instance
@@ -88,6 +93,13 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
         mAliasList = aliasList;
         mTimeslot = timeslot;
         mIdentifierCollection.setTimeslot(timeslot);
+
+        //Only create the flight recorder event when a recording is collecting audio segment events
+        if(AudioSegmentEvent.isTypeEnabled())
+        {
+            mAudioSegmentEvent = new AudioSegmentEvent();
+            mAudioSegmentEvent.begin();
+        }
     }
 
     /**
@@ -242,63 +254,103 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
     }
 
     /**
-     * Unmodifiable copy of the list of audio buffers for this segment.
+     * Unmodifiable list of the audio currently contained in this segment, as one buffer per storage chunk.  Consumers
+     * that process audio while the segment is still being produced should use a cursor instead.
      *
      * @return list of audio buffers
      */
     public List<float[]> getAudioBuffers()
     {
-        return Collections.unmodifiableList(mAudioBuffers);
+        return Collections.unmodifiableList(mAudioBuffer.getAudioBuffers());
+    }
+
+    /**
+     * Creates a cursor for reading the audio from this segment, starting with the first audio sample.  Each consumer
+     * should use its own cursor.
+     */
+    public AudioSegmentCursor getCursor()
+    {
+        return new AudioSegmentCursor(mAudioBuffer);
     }
 
     /**
-     * Count of audio buffers contained in this segment.
+     * Count of audio samples contained in this segment.
      *
-     * Note: audio buffers can be added to an audio segment throughout the segment's life-cycle by the audio producer.
+     * Note: audio can be added to an audio segment throughout the segment's life-cycle by the audio producer.
      */
-    public int getAudioBufferCount()
+    public int getSampleCount()
     {
-        return mAudioBuffers.size();
+        return mAudioBuffer.getSampleCount();
     }
 
     /**
-     * Gets the audio buffer at the specified index
-     * @param index of the buffer to fetch
-     * @return audio buffer
-     * @throws IllegalArgumentException if requested index is not valid
+     * Bytes of audio held in memory by this segment.  Audio that has been spilled to disk is not included.
      */
-    public float[] getAudioBuffer(int index)
+    public long getMemoryUsage()
     {
-        if(0 <= index && index < getAudioBufferCount())
-        {
-            return mAudioBuffers.get(index);
-        }
-        else
-        {
-            throw new IllegalArgumentException("Requested audio buffer at index [" + index + "] does not exist");
-        }
+        return mAudioBuffer.getMemoryUsage();
+    }
+
+    /**
+     * Moves this segment's audio from memory to a temporary file on disk.  The audio remains readable via cursors.
+     *
+     * @return bytes of memory released
+     */
+    public long spillAudio()
+    {
+        return mAudioBuffer.spill();
     }
 
     /**
-     * Indicates if this audio segment has one or more audio buffers
+     * Indicates if this audio segment has audio
      */
     public boolean hasAudio()
     {
-        return !mAudioBuffers.isEmpty();
+        return mAudioBuffer.getSampleCount() > 0;
     }
 
     /**
-     * Removes all audio buffers and decrements the user count on each so that the audio buffer can be reclaimed.
+     * Releases the audio storage so that it can be reused by other audio segments.
      */
     private void dispose()
     {
+        if(!mDisposing)
+        {
+            recordAudioSegmentEvent();
+        }
+
         mDisposing = true;
-        mAudioBuffers.clear();
+        mAudioBuffer.dispose();
         mIdentifierCollection.clear();
         mIdentifierUpdateNotificationBroadcaster.clear();
         mLinkedAudioSegment = null;
     }
 
+    /**
+     * Commits the flight recorder event covering this segment's life-cycle, prior to releasing the audio storage
+     */
+    private void recordAudioSegmentEvent()
+    {
+        if(mAudioSegmentEvent == null)
+        {
+            return;
+        }
+
+        mAudioSegmentEvent.end();
+
+        if(mAudioSegmentEvent.shouldCommit())
+        {
+            mAudioSegmentEvent.timeslot = mTimeslot;
+            mAudioSegmentEvent.samples = mAudioBuffer.getSampleCount();
+            mAudioSegmentEvent.memory = mAudioBuffer.getMemoryUsage();
+            mAudioSegmentEvent.complete = mComplete.get();
+            mAudioSegmentEvent.linked = mLinkedAudioSegment != null;
+            mAudioSegmentEvent.commit();
+        }
+
+        mAudioSegmentEvent = null;
+    }
+
     /**
      * Increments the consumer count to indicate that a consumer is currently processing this segment.  When the
      * consumer count returns to zero, this indicates that all consumers are finished with the audio segment and the
@@ -328,9 +380,8 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
     }
 
     /**
-     * Adds an audio buffer to this segment.  Note the producer of the audio buffer should increment the user count
-     * of the buffer prior to adding it to this segment.  This segment will decrement the audio buffer user count once
-     * all consumers of this audio segment have de-registered via the decrementConsumerCount() method.
+     * Appends the audio samples to this segment.  The samples are copied into the segment's pooled audio storage, so
+     * the producer can reuse the audio buffer once this method returns.
      *
      * @param audioBuffer to add to this segment
      */
@@ -346,7 +397,7 @@ public class AudioSegment implements Listener<IdentifierUpdateNotification>
             throw new IllegalStateException("Can't add audio to an audio segment that is being disposed");
         }
 
-        mAudioBuffers.add(audioBuffer);
+        mAudioBuffer.append(audioBuffer);
     }
 
     /**
@@ -43,7 +43,7 @@ public class AudioSegmentBroadcaster<T extends AudioSegment> extends Broadcaster
         for(Listener<T> listener : mListeners)
         {
             audioSegment.incrementConsumerCount();
-            listener.receive(audioSegment);
+            deliver(listener, audioSegment);
         }
 
         //Decrement consumer counter for this broadcaster
@@ -0,0 +1,125 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.audio;
+
+/**
+ * Read cursor for consuming the audio from an audio segment.  The cursor tracks the consumer's read position so that
+ * audio can be consumed incrementally while the producer continues to add audio to the segment.
+ *
+ * A cursor is not thread-safe and should only be used by a single consumer thread.
+ */
+public class AudioSegmentCursor
+{
+    private ChunkedAudioBuffer mAudioBuffer;
+    private int mPosition;
+    private float[] mSamples = new float[0];
+
+    /**
+     * Constructs a cursor positioned at the first audio sample.
+     *
+     * @param audioBuffer to read from
+     */
+    AudioSegmentCursor(ChunkedAudioBuffer audioBuffer)
+    {
+        mAudioBuffer = audioBuffer;
+    }
+
+    /**
+     * Current read position, in samples, from the start of the audio segment
+     */
+    public int getPosition()
+    {
+        return mPosition;
+    }
+
+    /**
+     * Number of audio samples currently available to read
+     */
+    public int available()
+    {
+        return Math.max(mAudioBuffer.getSampleCount() - mPosition, 0);
+    }
+
+    /**
+     * Indicates if there are audio samples available to read
+     */
+    public boolean hasRemaining()
+    {
+        return available() > 0;
+    }
+
+    /**
+     * Reads available audio samples into the destination array and advances the cursor.
+     *
+     * @param destination array
+     * @param offset into the destination array
+     * @param length maximum number of samples to read
+     * @return number of samples read
+     */
+    public int read(float[] destination, int offset, int length)
+    {
+        int read = mAudioBuffer.read(mPosition, destination, offset, length);
+        mPosition += read;
+        return read;
+    }
+
+    /**
+     * Reads the next block of available audio samples and advances the cursor.  The returned array is owned by the
+     * cursor and is overwritten by the next call, so consumers must finish with the samples before calling again.
+     * The array length always matches the number of samples read and the array is only reallocated when the block
+     * length changes, normally for the final partial block.
+     *
+     * @param maxSamples maximum number of samples to read
+     * @return audio samples or null if there are no samples available
+     */
+    public float[] next(int maxSamples)
+    {
+        int length = Math.min(available(), maxSamples);
+
+        if(length <= 0)
+        {
+            return null;
+        }
+
+        if(mSamples.length != length)
+        {
+            mSamples = new float[length];
+        }
+
+        int read = read(mSamples, 0, length);
+
+        if(read < length)
+        {
+            if(read <= 0)
+            {
+                return null;
+            }
+
+            float[] partial = new float[read];
+            System.arraycopy(mSamples, 0, partial, 0, read);
+            return partial;
+        }
+
+        return mSamples;
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.audio;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Append-only audio sample storage backed by pooled, fixed-size chunks.
+ *
+ * Appending audio copies the samples into the current chunk and only allocates (or reuses) a new chunk when the
+ * current chunk fills, so the cost of adding audio doesn't grow with the length of the segment.  Full chunks can be
+ * spilled to a temporary file when the audio chunk pool indicates that audio held in memory exceeds the configured
+ * spill threshold.
+ *
+ * Threading: a single producer thread appends audio while any number of consumer threads read audio concurrently.
+ * The sample count is published after the samples are copied, so readers only ever see fully written samples.
+ * Appending and disposal are synchronized so that chunks can't be returned to the pool while audio is being added.
+ */
+public class ChunkedAudioBuffer
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ChunkedAudioBuffer.class);
+    private static final int INITIAL_CHUNK_ARRAY_SIZE = 8;
+
+    private volatile float[][] mChunks = new float[INITIAL_CHUNK_ARRAY_SIZE][];
+    private volatile int mSampleCount;
+    private volatile int mInMemoryChunkCount;
+    private volatile boolean mDisposed;
+    private int mSpilledChunkCount;
+    private boolean mSpillFailed;
+    private Path mSpillPath;
+    private FileChannel mSpillChannel;
+
+    /**
+     * Constructs an empty buffer
+     */
+    public ChunkedAudioBuffer()
+    {
+    }
+
+    /**
+     * Number of audio samples contained in this buffer
+     */
+    public int getSampleCount()
+    {
+        return mSampleCount;
+    }
+
+    /**
+     * Bytes of audio held in memory by this buffer
+     */
+    public long getMemoryUsage()
+    {
+        return (long)mInMemoryChunkCount * AudioChunkPool.CHUNK_BYTES;
+    }
+
+    /**
+     * Appends the audio samples.  This method should only be invoked by the audio producer thread.
+     *
+     * @param samples to append
+     */
+    public synchronized void append(float[] samples)
+    {
+        if(mDisposed)
+        {
+            throw new IllegalStateException("Can't add audio to a disposed audio buffer");
+        }
+
+        int count = mSampleCount;
+        int offset = 0;
+
+        while(offset < samples.length)
+        {
+            int chunkIndex = count / AudioChunkPool.CHUNK_SIZE;
+            int chunkOffset = count % AudioChunkPool.CHUNK_SIZE;
+
+            float[][] chunks = mChunks;
+
+            if(chunkIndex >= chunks.length)
+            {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+                mChunks = chunks;
+            }
+
+            if(chunkOffset == 0)
+            {
+                chunks[chunkIndex] = AudioChunkPool.getChunk();
+                mInMemoryChunkCount++;
+            }
+
+            int length = Math.min(samples.length - offset, AudioChunkPool.CHUNK_SIZE - chunkOffset);
+            System.arraycopy(samples, offset, chunks[chunkIndex], chunkOffset, length);
+            offset += length;
+            count += length;
+
+            //Publish the samples before (optionally) spilling the oldest full chunk
+            if(count % AudioChunkPool.CHUNK_SIZE == 0)
+            {
+                mSampleCount = count;
+
+                if(AudioChunkPool.isSpillRequired())
+                {
+                    spillOldestChunk();
+                }
+            }
+        }
+
+        mSampleCount = count;
+    }
+
+    /**
+     * Moves all full chunks that are held in memory to the spill file.  A trailing partial chunk remains in memory.
+     *
+     * @return bytes of memory released
+     */
+    public synchronized long spill()
+    {
+        long released = 0;
+
+        while(!mDisposed && spillOldestChunk())
+        {
+            released += AudioChunkPool.CHUNK_BYTES;
+        }
+
+        return released;
+    }
+
+    /**
+     * Moves the oldest full chunk that is held in memory to the spill file.
+     *
+     * @return true if a chunk was spilled
+     */
+    private boolean spillOldestChunk()
+    {
+        int fullChunkCount = mSampleCount / AudioChunkPool.CHUNK_SIZE;
+
+        if(mSpillFailed || mSpilledChunkCount >= fullChunkCount)
+        {
+            return false;
+        }
+
+        int chunkIndex = mSpilledChunkCount;
+        float[] chunk = mChunks[chunkIndex];
+
+        try
+        {
+            if(mSpillChannel == null)
+            {
+                mSpillPath = Files.createTempFile("sdrtrunk_audio_", ".tmp");
+                mSpillChannel = FileChannel.open(mSpillPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(AudioChunkPool.CHUNK_BYTES);
+            buffer.asFloatBuffer().put(chunk);
+
+            long position = (long)chunkIndex * AudioChunkPool.CHUNK_BYTES;
+
+            while(buffer.hasRemaining())
+            {
+                position += mSpillChannel.write(buffer, position);
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error spilling audio to disk - audio segment will remain in memory", ioe);
+            mSpillFailed = true;
+            return false;
+        }
+
+        //Publish a copy of the chunk array without the spilled chunk so that readers switch to the spill file
+        float[][] chunks = mChunks.clone();
+        chunks[chunkIndex] = null;
+        mChunks = chunks;
+
+        mSpilledChunkCount++;
+        mInMemoryChunkCount--;
+        AudioChunkPool.spilled(chunk);
+        return true;
+    }
+
+    /**
+     * Reads audio samples starting at the sample position.
+     *
+     * @param position of the first sample to read
+     * @param destination array
+     * @param offset into the destination array
+     * @param length maximum number of samples to read
+     * @return number of samples read, which may be less than the requested length
+     */
+    public int read(int position, float[] destination, int offset, int length)
+    {
+        //Read the sample count before the chunk array so that all counted samples are visible
+        int available = mSampleCount - position;
+        float[][] chunks = mChunks;
+
+        if(mDisposed || available <= 0)
+        {
+            return 0;
+        }
+
+        int toRead = Math.min(length, available);
+        int read = 0;
+
+        while(read < toRead)
+        {
+            int chunkIndex = (position + read) / AudioChunkPool.CHUNK_SIZE;
+            int chunkOffset = (position + read) % AudioChunkPool.CHUNK_SIZE;
+            int count = Math.min(toRead - read, AudioChunkPool.CHUNK_SIZE - chunkOffset);
+
+            float[] chunk = chunks[chunkIndex];
+
+            if(chunk != null)
+            {
+                System.arraycopy(chunk, chunkOffset, destination, offset + read, count);
+            }
+            else if(!readSpilled(chunkIndex, chunkOffset, destination, offset + read, count))
+            {
+                break;
+            }
+
+            read += count;
+        }
+
+        return read;
+    }
+
+    /**
+     * Reads samples from a spilled chunk
+     *
+     * @return true if the samples were read successfully
+     */
+    private boolean readSpilled(int chunkIndex, int chunkOffset, float[] destination, int offset, int count)
+    {
+        FileChannel channel = mSpillChannel;
+
+        if(channel == null)
+        {
+            return false;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(count * Float.BYTES);
+        long position = (long)chunkIndex * AudioChunkPool.CHUNK_BYTES + (long)chunkOffset * Float.BYTES;
+
+        try
+        {
+            while(buffer.hasRemaining())
+            {
+                int read = channel.read(buffer, position);
+
+                if(read < 0)
+                {
+                    return false;
+                }
+
+                position += read;
+            }
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error reading spilled audio from disk", ioe);
+            return false;
+        }
+
+        buffer.flip();
+        buffer.asFloatBuffer().get(destination, offset, count);
+        return true;
+    }
+
+    /**
+     * Creates a list of audio buffers, one per chunk, containing all of the audio in this buffer.  Full chunks that are
+     * held in memory are returned directly and must not be modified.
+     */
+    public List<float[]> getAudioBuffers()
+    {
+        int sampleCount = mSampleCount;
+        float[][] chunks = mChunks;
+        List<float[]> buffers = new ArrayList<>();
+
+        for(int position = 0; position < sampleCount; position += AudioChunkPool.CHUNK_SIZE)
+        {
+            int length = Math.min(AudioChunkPool.CHUNK_SIZE, sampleCount - position);
+            float[] chunk = chunks[position / AudioChunkPool.CHUNK_SIZE];
+
+            if(chunk != null && length == AudioChunkPool.CHUNK_SIZE)
+            {
+                buffers.add(chunk);
+            }
+            else
+            {
+                float[] buffer = new float[length];
+                read(position, buffer, 0, length);
+                buffers.add(buffer);
+            }
+        }
+
+        return buffers;
+    }
+
+    /**
+     * Returns all in-memory chunks to the pool and deletes the spill file.  Invoke only once all consumers are
+     * finished reading from this buffer.
+     */
+    public synchronized void dispose()
+    {
+        mDisposed = true;
+
+        float[][] chunks = mChunks;
+
+        for(int x = 0; x < chunks.length; x++)
+        {
+            if(chunks[x] != null)
+            {
+                AudioChunkPool.release(chunks[x]);
+                chunks[x] = null;
+            }
+        }
+
+        mInMemoryChunkCount = 0;
+        mSampleCount = 0;
+
+        if(mSpillChannel != null)
+        {
+            try
+            {
+                mSpillChannel.close();
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error closing audio spill file [" + mSpillPath + "]", ioe);
+            }
+
+            AudioChunkPool.spillDeleted((long)mSpilledChunkCount * AudioChunkPool.CHUNK_BYTES);
+            mSpillChannel = null;
+            mSpillPath = null;
+        }
+    }
+}
@@ -134,14 +134,8 @@ public class AudioStreamingManager implements Listener<AudioSegment>
                 if(mAudioRecordingListener != null && audioSegment.hasBroadcastChannels())
                 {
                     Path path = getTemporaryRecordingPath();
-                    long length = 0;
-
-                    for(float[] audioBuffer: audioSegment.getAudioBuffers())
-                    {
-                        length += audioBuffer.length;
-                    }
-
-                    length /= 8; //Sample rate is 8000 samples per second, or 8 samples per millisecond.
+                    //Sample rate is 8000 samples per second, or 8 samples per millisecond.
+                    long length = audioSegment.getSampleCount() / 8;
 
                     try
                     {
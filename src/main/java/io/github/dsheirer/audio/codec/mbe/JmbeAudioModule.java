@@ -27,31 +27,25 @@ import io.github.dsheirer.alias.AliasList;
 import io.github.dsheirer.audio.AbstractAudioModule;
 import io.github.dsheirer.audio.squelch.ISquelchStateListener;
 import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.sample.Listener;
 import jmbe.iface.IAudioCodec;
-import jmbe.iface.IAudioCodecLibrary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.InvocationTargetException;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 public abstract class JmbeAudioModule extends AbstractAudioModule implements Listener<IMessage>, IMessageListener,
     ISquelchStateListener
 {
     private static final Logger mLog = LoggerFactory.getLogger(JmbeAudioModule.class);
-    private static final String JMBE_AUDIO_LIBRARY = "JMBE";
-    private static List<String> mLibraryLoadStatusLogged = new ArrayList<>();
-    private IAudioCodec mAudioCodec;
+    private volatile IAudioCodec mAudioCodec;
+    private Executor mVocoder = VocoderPool.getInstance().createVocoder();
     private UserPreferences mUserPreferences;
 
     public JmbeAudioModule(UserPreferences userPreferences, AliasList aliasList)
@@ -91,7 +85,6 @@ public abstract class JmbeAudioModule extends AbstractAudioModule implements Lis
     {
         if(preferenceType == PreferenceType.JMBE_LIBRARY)
         {
-            mLibraryLoadStatusLogged.clear();
             loadConverter();
         }
     }
@@ -102,139 +95,44 @@ public abstract class JmbeAudioModule extends AbstractAudioModule implements Lis
     protected abstract String getCodecName();
 
     /**
-     * Loads audio frame processing chain.  Constructs an imbe targetdataline
-     * to receive the raw imbe frames.  Adds an IMBE to 8k PCM format conversion
-     * stream wrapper.  Finally, adds an upsampling (8k to 48k) stream wrapper.
+     * Loads the audio codec for this module from the shared JMBE library registry.  The JMBE library is loaded once
+     * and shared by all audio modules, and each module receives its own codec instance.
      */
     protected void loadConverter()
     {
-        IAudioCodec audioConverter = null;
-
         Path path = mUserPreferences.getJmbeLibraryPreference().getPathJmbeLibrary();
+        mAudioCodec = JmbeLibraryRegistry.getInstance().getAudioCodec(path, getCodecName());
+    }
 
-        if(path != null)
-        {
-            try
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.info("Loading JMBE library from [" + path.toString() + "]");
-                }
-
-                URLClassLoader childClassLoader = new URLClassLoader(new URL[]{path.toUri().toURL()},
-                    this.getClass().getClassLoader());
-
-                Class classToLoad = Class.forName("jmbe.JMBEAudioLibrary", true, childClassLoader);
-
-                Object instance = classToLoad.getDeclaredConstructor().newInstance();
-
-                if(instance instanceof IAudioCodecLibrary)
-                {
-                    IAudioCodecLibrary library = (IAudioCodecLibrary)instance;
-
-                    if((library.getMajorVersion() == 1 && library.getMinorVersion() >= 0 &&
-                        library.getBuildVersion() >= 0) || library.getMajorVersion() >= 1)
-                    {
-                        audioConverter = library.getAudioConverter(getCodecName());
+    /**
+     * Submits a voice frame synthesis task to this module's vocoder.  Tasks run in submission order, either inline
+     * or on the shared vocoder worker pool when enabled, so that the decoder thread is not blocked by synthesis.
+     * End of call processing that must follow the call's audio should also be submitted as a vocoder task.
+     *
+     * @param task to synthesize a voice frame and dispatch the audio
+     */
+    protected void vocode(Runnable task)
+    {
+        mVocoder.execute(task);
+    }
 
-                        if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                        {
-                            mLog.info("JMBE audio conversion library loaded: " + library.getVersion());
-                            mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                        }
-                    }
-                    else
-                    {
-                        if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                        {
-                            mLog.warn("JMBE library version 1.0.0 or higher is required - found: " + library.getVersion());
-                            mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                        }
-                    }
-                }
-                else
-                {
-                    if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                    {
-                        mLog.info("JMBE audio conversion library NOT FOUND");
-                        mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                    }
-                }
-            }
-            catch(IllegalArgumentException iae)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY + getCodecName()))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library - " + iae.getMessage());
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY + getCodecName());
-                }
-            }
-            catch(NoSuchMethodException nsme)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library - no such method exception");
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                }
-            }
-            catch(MalformedURLException mue)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library from path [" + path + "]");
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                }
-            }
-            catch(ClassNotFoundException e1)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library - class not found");
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                }
-            }
-            catch(InvocationTargetException ite)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library - invocation target exception", ite);
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                }
-            }
-            catch(InstantiationException e1)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library - instantiation exception", e1);
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                }
-            }
-            catch(IllegalAccessException e1)
-            {
-                if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-                {
-                    mLog.error("Couldn't load JMBE audio conversion library - security restrictions");
-                    mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-                }
-            }
-        }
-        else
-        {
-            if(!mLibraryLoadStatusLogged.contains(JMBE_AUDIO_LIBRARY))
-            {
-                mLog.warn("JMBE audio library path is NOT SET in your User Preferences.");
-                mLibraryLoadStatusLogged.add(JMBE_AUDIO_LIBRARY);
-            }
-        }
+    /**
+     * Applies identifier updates on the vocoder so that the identifier collection and the current audio segment are
+     * only modified by the thread that creates and fills the audio segments.
+     */
+    @Override
+    protected void receiveIdentifierUpdate(IdentifierUpdateNotification notification)
+    {
+        vocode(() -> super.receiveIdentifierUpdate(notification));
+    }
 
-        if(audioConverter != null)
-        {
-            mAudioCodec = audioConverter;
-        }
-        else
-        {
-            mAudioCodec = null;
-        }
+    /**
+     * Closes the current audio segment once any pending voice frames have been synthesized
+     */
+    @Override
+    public void stop()
+    {
+        vocode(this::closeAudioSegment);
     }
 
     @Override
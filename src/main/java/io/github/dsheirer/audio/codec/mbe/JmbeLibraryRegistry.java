@@ -0,0 +1,205 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.audio.codec.mbe;
+
+import jmbe.iface.IAudioCodec;
+import jmbe.iface.IAudioCodecLibrary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Process-wide registry for the JMBE audio codec library.
+ *
+ * The library is loaded once into a dedicated class loader and shared by all MBE audio modules, so that starting a
+ * channel only creates a new (stateful) audio codec instance from the already loaded library.  The library is
+ * reloaded when the library path preference changes or when the library file at the same path is replaced.
+ */
+public class JmbeLibraryRegistry
+{
+    private static final Logger mLog = LoggerFactory.getLogger(JmbeLibraryRegistry.class);
+    private static final String JMBE_LIBRARY_CLASS = "jmbe.JMBEAudioLibrary";
+    private static final JmbeLibraryRegistry INSTANCE = new JmbeLibraryRegistry();
+
+    private IAudioCodecLibrary mLibrary;
+    private Path mLoadedPath;
+    private long mLoadedTimestamp;
+    private boolean mPathNotSetLogged;
+    private Set<String> mCodecErrorsLogged = new HashSet<>();
+
+    /**
+     * Singleton constructor.  Use getInstance()
+     */
+    private JmbeLibraryRegistry()
+    {
+    }
+
+    /**
+     * Shared JMBE library registry
+     */
+    public static JmbeLibraryRegistry getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new audio codec instance from the JMBE library at the specified path.  The library is loaded on the
+     * first request for the path and reused for subsequent requests.
+     *
+     * @param path to the JMBE library jar
+     * @param codecName of the codec to create
+     * @return audio codec or null if the library or the codec is not available
+     */
+    public synchronized IAudioCodec getAudioCodec(Path path, String codecName)
+    {
+        if(path == null)
+        {
+            if(!mPathNotSetLogged)
+            {
+                mLog.warn("JMBE audio library path is NOT SET in your User Preferences.");
+                mPathNotSetLogged = true;
+            }
+
+            return null;
+        }
+
+        mPathNotSetLogged = false;
+
+        long timestamp = getLastModified(path);
+
+        //Load the library only on the first request for the path or when the library file has been replaced
+        if(!path.equals(mLoadedPath) || timestamp != mLoadedTimestamp)
+        {
+            mLoadedPath = path;
+            mLoadedTimestamp = timestamp;
+            mCodecErrorsLogged.clear();
+            mLibrary = load(path);
+        }
+
+        if(mLibrary != null)
+        {
+            try
+            {
+                return mLibrary.getAudioConverter(codecName);
+            }
+            catch(IllegalArgumentException iae)
+            {
+                if(mCodecErrorsLogged.add(codecName))
+                {
+                    mLog.error("Couldn't load JMBE audio conversion library - " + iae.getMessage());
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Loads the JMBE library from the path into a dedicated class loader.
+     *
+     * @param path to the library jar
+     * @return loaded library or null if the library cannot be loaded or is not a compatible version
+     */
+    private IAudioCodecLibrary load(Path path)
+    {
+        mLog.info("Loading JMBE library from [" + path.toString() + "]");
+
+        try
+        {
+            URLClassLoader childClassLoader = new URLClassLoader(new URL[]{path.toUri().toURL()},
+                JmbeLibraryRegistry.class.getClassLoader());
+
+            Class classToLoad = Class.forName(JMBE_LIBRARY_CLASS, true, childClassLoader);
+
+            Object instance = classToLoad.getDeclaredConstructor().newInstance();
+
+            if(instance instanceof IAudioCodecLibrary)
+            {
+                IAudioCodecLibrary library = (IAudioCodecLibrary)instance;
+
+                if((library.getMajorVersion() == 1 && library.getMinorVersion() >= 0 &&
+                    library.getBuildVersion() >= 0) || library.getMajorVersion() >= 1)
+                {
+                    mLog.info("JMBE audio conversion library loaded: " + library.getVersion());
+                    return library;
+                }
+
+                mLog.warn("JMBE library version 1.0.0 or higher is required - found: " + library.getVersion());
+            }
+            else
+            {
+                mLog.info("JMBE audio conversion library NOT FOUND");
+            }
+        }
+        catch(NoSuchMethodException nsme)
+        {
+            mLog.error("Couldn't load JMBE audio conversion library - no such method exception");
+        }
+        catch(MalformedURLException mue)
+        {
+            mLog.error("Couldn't load JMBE audio conversion library from path [" + path + "]");
+        }
+        catch(ClassNotFoundException cnfe)
+        {
+            mLog.error("Couldn't load JMBE audio conversion library - class not found");
+        }
+        catch(InvocationTargetException ite)
+        {
+            mLog.error("Couldn't load JMBE audio conversion library - invocation target exception", ite);
+        }
+        catch(InstantiationException ie)
+        {
+            mLog.error("Couldn't load JMBE audio conversion library - instantiation exception", ie);
+        }
+        catch(IllegalAccessException iae)
+        {
+            mLog.error("Couldn't load JMBE audio conversion library - security restrictions");
+        }
+
+        return null;
+    }
+
+    /**
+     * Last modified timestamp of the library file, or 0 if the file is not accessible
+     */
+    private static long getLastModified(Path path)
+    {
+        try
+        {
+            return Files.getLastModifiedTime(path).toMillis();
+        }
+        catch(IOException ioe)
+        {
+            return 0;
+        }
+    }
+}
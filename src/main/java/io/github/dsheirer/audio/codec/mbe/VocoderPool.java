@@ -0,0 +1,227 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.audio.codec.mbe;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.metrics.PipelineMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional worker pool for MBE (IMBE/AMBE) voice frame synthesis.
+ *
+ * When enabled, each audio module obtains a serial vocoder that hands voice frames off to the shared worker pool so
+ * that synthesis does not run on the decoder thread.  Frames submitted to a serial vocoder are processed one at a time
+ * and in submission order, preserving per-call audio ordering, while frames from different channels are processed in
+ * parallel across the pool.  When disabled, frames are synthesized inline on the calling (decoder) thread.
+ *
+ * Vocoder queue latency and synthesis time are recorded in the pipeline metrics for every frame.
+ *
+ * System properties:
+ *   sdrtrunk.vocoder.threads=N   enables the worker pool with N threads (default 0 - disabled)
+ */
+public class VocoderPool
+{
+    private static final Logger mLog = LoggerFactory.getLogger(VocoderPool.class);
+    public static final String THREADS_PROPERTY = "sdrtrunk.vocoder.threads";
+    private static final VocoderPool INSTANCE = new VocoderPool();
+
+    private ExecutorService mExecutorService;
+
+    /**
+     * Singleton constructor.  Use getInstance()
+     */
+    private VocoderPool()
+    {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 0);
+
+        if(threads > 0)
+        {
+            mExecutorService = Executors.newFixedThreadPool(threads, new NamingThreadFactory("sdrtrunk vocoder"));
+            mLog.info("MBE vocoder worker pool created with [" + threads + "] threads");
+        }
+    }
+
+    /**
+     * Shared vocoder pool
+     */
+    public static VocoderPool getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Indicates if voice frames are synthesized on the worker pool (true) or inline on the decoder thread (false)
+     */
+    public boolean isEnabled()
+    {
+        return mExecutorService != null;
+    }
+
+    /**
+     * Creates a vocoder for a single audio module.  Tasks submitted to the vocoder are run in submission order.
+     */
+    public Executor createVocoder()
+    {
+        if(isEnabled())
+        {
+            return new SerialVocoder(mExecutorService);
+        }
+
+        return new InlineVocoder();
+    }
+
+    /**
+     * Shuts down the worker pool
+     */
+    public void shutdown()
+    {
+        if(mExecutorService != null)
+        {
+            mExecutorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the task and records the vocoder queue latency and synthesis time
+     *
+     * @param task to run
+     * @param queuedTimestamp System.nanoTime() when the task was submitted
+     */
+    private static void run(Runnable task, long queuedTimestamp)
+    {
+        long start = System.nanoTime();
+
+        try
+        {
+            task.run();
+        }
+        catch(Throwable t)
+        {
+            mLog.error("Error while synthesizing MBE audio frame", t);
+        }
+
+        PipelineMetrics.getInstance().getVocoderMetrics().recordFrame(start - queuedTimestamp,
+            System.nanoTime() - start);
+    }
+
+    /**
+     * Vocoder that runs each task on the calling thread
+     */
+    private static class InlineVocoder implements Executor
+    {
+        @Override
+        public void execute(Runnable task)
+        {
+            run(task, System.nanoTime());
+        }
+    }
+
+    /**
+     * Vocoder that runs tasks one at a time, in submission order, on the shared worker pool.  A drain task is only
+     * scheduled on the pool when the vocoder has pending tasks, so an idle vocoder does not occupy a worker thread.
+     */
+    private static class SerialVocoder implements Executor
+    {
+        private Queue<QueuedTask> mQueue = new ConcurrentLinkedQueue<>();
+        private AtomicBoolean mScheduled = new AtomicBoolean();
+        private ExecutorService mExecutorService;
+
+        public SerialVocoder(ExecutorService executorService)
+        {
+            mExecutorService = executorService;
+        }
+
+        @Override
+        public void execute(Runnable task)
+        {
+            mQueue.offer(new QueuedTask(task, System.nanoTime()));
+            schedule();
+        }
+
+        /**
+         * Schedules a drain of the queue on the worker pool if one is not already scheduled or running
+         */
+        private void schedule()
+        {
+            if(mScheduled.compareAndSet(false, true))
+            {
+                try
+                {
+                    mExecutorService.execute(this::drain);
+                }
+                catch(RejectedExecutionException ree)
+                {
+                    //Pool is shutting down - discard pending frames
+                    mQueue.clear();
+                    mScheduled.set(false);
+                }
+            }
+        }
+
+        /**
+         * Processes queued tasks until the queue is empty
+         */
+        private void drain()
+        {
+            QueuedTask queuedTask = mQueue.poll();
+
+            while(queuedTask != null)
+            {
+                VocoderPool.run(queuedTask.mTask, queuedTask.mTimestamp);
+                queuedTask = mQueue.poll();
+            }
+
+            mScheduled.set(false);
+
+            //Reschedule if a task was queued after the final poll and before the scheduled flag was cleared
+            if(!mQueue.isEmpty())
+            {
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Vocoder task with the timestamp when it was submitted
+     */
+    private static class QueuedTask
+    {
+        private Runnable mTask;
+        private long mTimestamp;
+
+        public QueuedTask(Runnable task, long timestamp)
+        {
+            mTask = task;
+            mTimestamp = timestamp;
+        }
+    }
+}
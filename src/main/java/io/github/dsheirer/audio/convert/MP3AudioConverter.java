@@ -27,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
 
@@ -37,6 +39,10 @@ public class MP3AudioConverter implements IAudioConverter
     private LameEncoder mEncoder;
     private ByteArrayOutputStream mMP3Stream = new ByteArrayOutputStream();
     private byte[] mMP3Buffer;
+    private byte[] mPCMBuffer;
+    private byte[] mEncodedBuffer;
+    private int mBitRate;
+    private boolean mVariableBitRate;
 
     /**
      * Converts PCM 8kHz 16-bit Little Endian audio packets to Mono, Low Quality MP3 compressed audio.
@@ -46,12 +52,83 @@ public class MP3AudioConverter implements IAudioConverter
      */
     public MP3AudioConverter(int bitRate, boolean variableBitRate)
     {
-        mEncoder = new LameEncoder(AudioFormats.PCM_SIGNED_8KHZ_16BITS_MONO,
-                bitRate, MPEGMode.MONO, AUDIO_QUALITY, variableBitRate);
-
+        mBitRate = bitRate;
+        mVariableBitRate = variableBitRate;
+        mEncoder = createEncoder();
         mMP3Buffer = new byte[mEncoder.getPCMBufferSize()];
     }
 
+    /**
+     * Creates a LAME encoder configured for this converter
+     */
+    private LameEncoder createEncoder()
+    {
+        return new LameEncoder(AudioFormats.PCM_SIGNED_8KHZ_16BITS_MONO, mBitRate, MPEGMode.MONO, AUDIO_QUALITY,
+            mVariableBitRate);
+    }
+
+    /**
+     * Prepares this converter to encode a new MP3 stream after the previous stream was completed via flush().  LAME
+     * finalizes its stream state when flushed, so the encoder is replaced while this converter's PCM and MP3 buffers
+     * are retained for reuse.
+     */
+    public void reset()
+    {
+        mEncoder = createEncoder();
+    }
+
+    /**
+     * Converts the audio samples to MP3 and writes any encoded MP3 frames to the output stream.  Audio is converted
+     * using this converter's reusable buffers, so no per-call arrays are created once the buffers are sized.
+     *
+     * @param audio samples to convert
+     * @param length number of samples from the audio array to convert
+     * @param outputStream to receive the encoded MP3 frames
+     * @throws IOException if there is an error writing to the output stream or encoding the audio
+     */
+    public void convert(float[] audio, int length, OutputStream outputStream) throws IOException
+    {
+        int pcmLength = length * 2;
+
+        if(mPCMBuffer == null || mPCMBuffer.length < pcmLength)
+        {
+            mPCMBuffer = new byte[pcmLength];
+        }
+
+        if(mEncodedBuffer == null)
+        {
+            mEncodedBuffer = new byte[mEncoder.getMP3BufferSize()];
+        }
+
+        //Converting from 32-bit floats to signed 16-bit little endian samples
+        for(int x = 0; x < length; x++)
+        {
+            short sample = (short)(audio[x] * Short.MAX_VALUE);
+            mPCMBuffer[x * 2] = (byte)(sample & 0xFF);
+            mPCMBuffer[x * 2 + 1] = (byte)((sample >> 8) & 0xFF);
+        }
+
+        int pcmPosition = 0;
+
+        while(pcmPosition < pcmLength)
+        {
+            int pcmChunkSize = Math.min(mMP3Buffer.length, pcmLength - pcmPosition);
+            int encoded = mEncoder.encodeBuffer(mPCMBuffer, pcmPosition, pcmChunkSize, mEncodedBuffer);
+
+            if(encoded < 0)
+            {
+                throw new IOException("LAME encoder error [" + encoded + "]");
+            }
+
+            if(encoded > 0)
+            {
+                outputStream.write(mEncodedBuffer, 0, encoded);
+            }
+
+            pcmPosition += pcmChunkSize;
+        }
+    }
+
     @Override
     public byte[] convert(List<float[]> audioPackets)
     {
@@ -25,6 +25,7 @@ import com.google.common.eventbus.Subscribe;
 import io.github.dsheirer.alias.id.priority.Priority;
 import io.github.dsheirer.audio.AudioEvent;
 import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.audio.AudioSegmentCursor;
 import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.IdentifierUpdateNotification;
@@ -63,6 +64,7 @@ import java.util.concurrent.locks.ReentrantLock;
 public abstract class AudioOutput implements LineListener, Listener<IdentifierUpdateNotification>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AudioOutput.class);
+    private static final int PLAYBACK_BLOCK_SIZE = 800; //100 ms of 8 kHz audio
     private int mBufferStartThreshold;
     private int mBufferStopThreshold;
     private Listener<IdentifierCollection> mIdentifierCollectionListener;
@@ -79,7 +81,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
     private AudioSegment mCurrentAudioSegment;
     private AudioSegment mNextAudioSegment;
     private ReentrantLock mLock = new ReentrantLock();
-    private int mCurrentBufferIndex = 0;
+    private AudioSegmentCursor mCurrentAudioCursor;
     private UserPreferences mUserPreferences;
     private BooleanProperty mEmptyProperty = new SimpleBooleanProperty(true);
     private IntegerProperty mAudioPriority = new SimpleIntegerProperty(Priority.DEFAULT_PRIORITY);
@@ -398,7 +400,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
                     {
                         mCurrentAudioSegment = mNextAudioSegment;
                         mNextAudioSegment = null;
-                        mCurrentBufferIndex = 0;
+                        mCurrentAudioCursor = mCurrentAudioSegment.getCursor();
 
                         if(mCurrentAudioSegment != null)
                         {
@@ -419,9 +421,8 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
                     {
                         playAudio(getAudioSegmentStartTone());
                     }
-                    else if(mCurrentBufferIndex > 0 &&
-                        (!mCurrentAudioSegment.completeProperty().get() ||
-                            mCurrentBufferIndex < mCurrentAudioSegment.getAudioBufferCount()))
+                    else if(mCurrentAudioCursor.getPosition() > 0 &&
+                        (!mCurrentAudioSegment.completeProperty().get() || mCurrentAudioCursor.hasRemaining()))
                     {
                         playAudio(getAudioSegmentPreemptionTone());
                     }
@@ -434,7 +435,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
                     dispose(mCurrentAudioSegment);
                     mCurrentAudioSegment = mNextAudioSegment;
                     mNextAudioSegment = null;
-                    mCurrentBufferIndex = 0;
+                    mCurrentAudioCursor = mCurrentAudioSegment != null ? mCurrentAudioSegment.getCursor() : null;
 
                     if(mCurrentAudioSegment != null)
                     {
@@ -458,7 +459,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
         {
             //Check for completed audio segment or a segment flagged as Do Not Monitor
             if(mCurrentAudioSegment.isDoNotMonitor() || (mCurrentAudioSegment.completeProperty().get() &&
-               mCurrentBufferIndex >= mCurrentAudioSegment.getAudioBufferCount()))
+               !mCurrentAudioCursor.hasRemaining()))
             {
                 if(mCurrentAudioSegment.isDoNotMonitor())
                 {
@@ -467,6 +468,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
 
                 dispose(mCurrentAudioSegment);
                 mCurrentAudioSegment = null;
+                mCurrentAudioCursor = null;
 
                 mLock.lock();
 
@@ -489,10 +491,10 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
             //while processing, exit the loop so that we can evaluate the next for higher priority preempt.  If the next
             //segment is a linked segment, ignore it so that we can close out the current segment.
             while((mNextAudioSegment == null || mNextAudioSegment.isLinked()) &&
-                   mCurrentBufferIndex < mCurrentAudioSegment.getAudioBufferCount() &&
+                   mCurrentAudioCursor.hasRemaining() &&
                    !mCurrentAudioSegment.isDoNotMonitor())
             {
-                float[] audioBuffer = mCurrentAudioSegment.getAudioBuffers().get(mCurrentBufferIndex++);
+                float[] audioBuffer = mCurrentAudioCursor.next(PLAYBACK_BLOCK_SIZE);
 
                 if(audioBuffer != null)
                 {
@@ -536,6 +538,7 @@ public abstract class AudioOutput implements LineListener, Listener<IdentifierUp
 
         dispose(mCurrentAudioSegment);
         mCurrentAudioSegment = null;
+        mCurrentAudioCursor = null;
 
         mAudioEventBroadcaster.clear();
         mIdentifierCollectionListener = null;
@@ -22,4 +22,19 @@ package io.github.dsheirer.bits;
 public interface IBinarySymbolProcessor
 {
     void process(boolean symbol);
+
+    /**
+     * Processes a block of symbols packed into the low order bits of the word, most significant (oldest) symbol
+     * first.  Implementations that can consume packed symbols directly should override this method.
+     *
+     * @param symbols packed into the word
+     * @param symbolCount number of symbols in the word, 1 - 64
+     */
+    default void process(long symbols, int symbolCount)
+    {
+        for(int x = symbolCount - 1; x >= 0; x--)
+        {
+            process(((symbols >>> x) & 1) == 1);
+        }
+    }
 }
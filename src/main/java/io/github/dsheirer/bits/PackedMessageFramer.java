@@ -0,0 +1,321 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.bits;
+
+import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
+import io.github.dsheirer.dsp.symbol.SyncDetectProvider;
+import io.github.dsheirer.sample.Broadcaster;
+import io.github.dsheirer.sample.Listener;
+
+import java.util.BitSet;
+
+/**
+ * Message framer that detects a sync pattern in a bit stream and extracts each message, including the sync pattern,
+ * for a total bit length of messageLength.
+ *
+ * Bits can be provided individually or packed into words (most significant bit first).  All received bits are
+ * stored in a single circular bit history and a message is created by slicing the history once the final message
+ * bit arrives, so there are no per-sync assembler objects and no per-bit iteration over partially assembled messages.
+ * The bit positions of detected sync patterns are held in a circular queue of pending messages, so overlapping
+ * messages are framed simultaneously, in sync detection order, the same as the MessageFramer.
+ *
+ * Supports sync patterns up to 63 bits long.
+ */
+public class PackedMessageFramer implements IBinarySymbolProcessor, Listener<Boolean>, SyncDetectProvider
+{
+    private int mMessageLength;
+    private int mSyncLength;
+    private long mSync;
+    private long mSyncMask;
+    private long mSyncRegister;
+    private ISyncDetectListener mSyncDetectListener;
+    private Broadcaster<CorrectedBinaryMessage> mBroadcaster = new Broadcaster<>();
+
+    /* Circular bit history, stored least significant bit first so that slices map directly onto BitSet words */
+    private long[] mHistory;
+    private int mHistoryWordMask;
+    private long mBitPosition;
+
+    /* Circular queue of the bit positions of the final message bit for each detected sync pattern */
+    private long[] mPending;
+    private int mPendingMask;
+    private int mPendingHead;
+    private int mPendingCount;
+    private long mNextDuePosition = Long.MAX_VALUE;
+
+    /**
+     * Constructs an instance
+     *
+     * @param syncPattern to detect, 63 bits or less
+     * @param messageLength in bits, including the sync pattern
+     */
+    public PackedMessageFramer(boolean[] syncPattern, int messageLength)
+    {
+        if(syncPattern.length == 0 || syncPattern.length > 63)
+        {
+            throw new IllegalArgumentException("Sync pattern length must be 1 - 63 bits");
+        }
+
+        if(messageLength < syncPattern.length)
+        {
+            throw new IllegalArgumentException("Message length must be at least as long as the sync pattern");
+        }
+
+        mSyncLength = syncPattern.length;
+        mSyncMask = (1L << mSyncLength) - 1;
+
+        for(boolean bit: syncPattern)
+        {
+            mSync = (mSync << 1) | (bit ? 1 : 0);
+        }
+
+        mMessageLength = messageLength;
+
+        //History holds the longest message plus the packed word that completes it and the spill of that word into the
+        //following history word, since a packed word is written to the history before the messages that complete
+        //within that word are sliced from the history.  An unaligned message spans one extra word.
+        int requiredWords = ((messageLength + 128 + 63) / 64) + 1;
+        int historyWords = Integer.highestOneBit(requiredWords * 2 - 1);
+        mHistory = new long[Math.max(historyWords, 4)];
+        mHistoryWordMask = mHistory.length - 1;
+
+        //A message can't complete before every later sync detection, so the pending queue never exceeds the number of
+        //bit positions spanned by a message after its sync pattern
+        int pendingSize = Integer.highestOneBit((messageLength - mSyncLength + 1) * 2 - 1);
+        mPending = new long[pendingSize];
+        mPendingMask = pendingSize - 1;
+    }
+
+    /**
+     * Clears any partially framed messages and any partially received sync pattern
+     */
+    public void reset()
+    {
+        mSyncRegister = 0;
+        mPendingHead = 0;
+        mPendingCount = 0;
+        mNextDuePosition = Long.MAX_VALUE;
+    }
+
+    public void dispose()
+    {
+        mBroadcaster.dispose();
+        reset();
+    }
+
+    /**
+     * Processes a single bit
+     */
+    @Override
+    public void process(boolean bit)
+    {
+        int value = bit ? 1 : 0;
+        int offset = (int)(mBitPosition & 63);
+        int index = (int)(mBitPosition >>> 6) & mHistoryWordMask;
+
+        if(offset == 0)
+        {
+            mHistory[index] = value;
+        }
+        else
+        {
+            mHistory[index] |= ((long)value) << offset;
+        }
+
+        processBit(value);
+    }
+
+    /**
+     * Processes the low order bitCount bits of the packed word, most significant bit first.
+     *
+     * @param bits packed into the word
+     * @param bitCount number of bits in the word, 1 - 64
+     */
+    @Override
+    public void process(long bits, int bitCount)
+    {
+        if(bitCount <= 0)
+        {
+            return;
+        }
+
+        //Reverse into first-bit-in-LSB order to match the history word layout.  The left shift discards any bits
+        //above bitCount so that only the bitCount low order bits of the reversed word are set.
+        long reversed = Long.reverse(bits << (64 - bitCount));
+
+        int offset = (int)(mBitPosition & 63);
+        int index = (int)(mBitPosition >>> 6) & mHistoryWordMask;
+
+        //Bits at and beyond the current position are stale, so they can be overwritten without masking
+        mHistory[index] = (mHistory[index] & ((1L << offset) - 1)) | (reversed << offset);
+
+        if(offset != 0 && offset + bitCount > 64)
+        {
+            mHistory[(index + 1) & mHistoryWordMask] = reversed >>> (64 - offset);
+        }
+
+        for(int x = 0; x < bitCount; x++)
+        {
+            processBit((int)(reversed >>> x) & 1);
+        }
+    }
+
+    /**
+     * Processes each bit of the bytes, most significant bit first.
+     *
+     * @param bytes to process
+     */
+    public void process(byte[] bytes)
+    {
+        int x = 0;
+
+        for(; x + 8 <= bytes.length; x += 8)
+        {
+            long word = 0;
+
+            for(int y = x; y < x + 8; y++)
+            {
+                word = (word << 8) | (bytes[y] & 0xFF);
+            }
+
+            process(word, 64);
+        }
+
+        for(; x < bytes.length; x++)
+        {
+            process(bytes[x] & 0xFF, 8);
+        }
+    }
+
+    /**
+     * Updates sync detection and completes any pending message for the bit that was just added to the history.
+     */
+    private void processBit(int value)
+    {
+        long position = mBitPosition++;
+
+        mSyncRegister = ((mSyncRegister << 1) | value) & mSyncMask;
+
+        if(position == mNextDuePosition)
+        {
+            completeMessage(position);
+        }
+
+        if(mSyncRegister == mSync)
+        {
+            long due = position + mMessageLength - mSyncLength;
+
+            if(due == position)
+            {
+                broadcast(position);
+            }
+            else
+            {
+                mPending[(mPendingHead + mPendingCount) & mPendingMask] = due;
+
+                if(mPendingCount++ == 0)
+                {
+                    mNextDuePosition = due;
+                }
+            }
+
+            if(mSyncDetectListener != null)
+            {
+                mSyncDetectListener.syncDetected(0);
+            }
+        }
+    }
+
+    /**
+     * Removes the pending message from the head of the queue and broadcasts it.
+     *
+     * @param position of the final message bit
+     */
+    private void completeMessage(long position)
+    {
+        mPendingHead = (mPendingHead + 1) & mPendingMask;
+        mPendingCount--;
+        mNextDuePosition = mPendingCount > 0 ? mPending[mPendingHead] : Long.MAX_VALUE;
+        broadcast(position);
+    }
+
+    /**
+     * Slices the message ending at the bit position from the history and broadcasts it.
+     */
+    private void broadcast(long lastPosition)
+    {
+        long start = lastPosition - mMessageLength + 1;
+        int wordCount = (mMessageLength + 63) >>> 6;
+        long[] words = new long[wordCount];
+        int offset = (int)(start & 63);
+        int index = (int)(start >>> 6);
+
+        for(int x = 0; x < wordCount; x++)
+        {
+            long word = mHistory[(index + x) & mHistoryWordMask] >>> offset;
+
+            if(offset != 0)
+            {
+                word |= mHistory[(index + x + 1) & mHistoryWordMask] << (64 - offset);
+            }
+
+            words[x] = word;
+        }
+
+        int tail = mMessageLength & 63;
+
+        if(tail != 0)
+        {
+            words[wordCount - 1] &= (1L << tail) - 1;
+        }
+
+        CorrectedBinaryMessage message = new CorrectedBinaryMessage(BitSet.valueOf(words), mMessageLength);
+        message.setPointer(mMessageLength);
+        mBroadcaster.receive(message);
+    }
+
+    @Deprecated //Legacy support ... remove once all producers are converted to use receive(boolean bit) method
+    @Override
+    public void receive(Boolean bit)
+    {
+        process(bit);
+    }
+
+    @Override
+    public void setSyncDetectListener(ISyncDetectListener listener)
+    {
+        mSyncDetectListener = listener;
+    }
+
+    /**
+     * Allow a message listener to register with this framer to receive all framed messages
+     */
+    public void addMessageListener(Listener<CorrectedBinaryMessage> listener)
+    {
+        mBroadcaster.addListener(listener);
+    }
+
+    public void removeMessageListener(Listener<CorrectedBinaryMessage> listener)
+    {
+        mBroadcaster.removeListener(listener);
+    }
+}
@@ -25,6 +25,7 @@ import com.google.common.eventbus.Subscribe;
 import io.github.dsheirer.alias.Alias;
 import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.gui.table.TableUpdateBatcher;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.decoder.DecoderLogicalChannelNameIdentifier;
 import io.github.dsheirer.preference.PreferenceType;
@@ -39,6 +40,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Channel metadata table model.  Metadata field updates arrive from the decoder threads at a high rate and are
+ * coalesced per channel metadata row and applied on the Swing event dispatch thread, at most
+ * TableUpdateBatcher.UPDATES_PER_SECOND times per second.
+ */
 public class ChannelMetadataModel extends AbstractTableModel implements IChannelMetadataUpdateListener
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelMetadataModel.class);
@@ -53,10 +59,14 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
     public static final int COLUMN_CONFIGURATION_FREQUENCY = 7;
     public static final int COLUMN_CONFIGURATION_CHANNEL = 8;
 
+    private static final int PENDING_UPDATE_CAPACITY = 10000;
+
     private static final String[] COLUMNS = {"Status", "Decoder", "From", "Alias", "To", "Alias", "Channel", "Frequency", "Channel Name"};
 
     private List<ChannelMetadata> mChannelMetadata = new ArrayList();
     private Map<ChannelMetadata,Channel> mMetadataChannelMap = new HashMap();
+    private TableUpdateBatcher<ChannelMetadata> mUpdateBatcher = new TableUpdateBatcher<>(PENDING_UPDATE_CAPACITY,
+        this::applyUpdates);
 
     public ChannelMetadataModel()
     {
@@ -72,11 +82,17 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
     {
         if(preferenceType == PreferenceType.IDENTIFIER)
         {
-            for(int row = 0; row < mChannelMetadata.size(); row++)
+            EventQueue.invokeLater(new Runnable()
             {
-                fireTableCellUpdated(row, COLUMN_USER_FROM);
-                fireTableCellUpdated(row, COLUMN_USER_TO);
-            }
+                @Override
+                public void run()
+                {
+                    if(!mChannelMetadata.isEmpty())
+                    {
+                        fireTableRowsUpdated(0, mChannelMetadata.size() - 1);
+                    }
+                }
+            });
         }
     }
 
@@ -89,14 +105,21 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
             @Override
             public void run()
             {
+                if(channelMetadatas.isEmpty())
+                {
+                    return;
+                }
+
+                int first = mChannelMetadata.size();
+
                 for(ChannelMetadata channelMetadata: channelMetadatas)
                 {
                     mChannelMetadata.add(channelMetadata);
                     mMetadataChannelMap.put(channelMetadata, channel);
-                    int index = mChannelMetadata.indexOf(channelMetadata);
-                    fireTableRowsInserted(index, index);
                     channelMetadata.setUpdateEventListener(ChannelMetadataModel.this);
                 }
+
+                fireTableRowsInserted(first, mChannelMetadata.size() - 1);
             }
         });
     }
@@ -111,9 +134,13 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
             {
                 channelMetadata.removeUpdateEventListener();
                 int index = mChannelMetadata.indexOf(channelMetadata);
-                mChannelMetadata.remove(channelMetadata);
-                mMetadataChannelMap.remove(channelMetadata);
-                fireTableRowsDeleted(index, index);
+
+                if(index >= 0)
+                {
+                    mChannelMetadata.remove(index);
+                    mMetadataChannelMap.remove(channelMetadata);
+                    fireTableRowsDeleted(index, index);
+                }
             }
         });
     }
@@ -232,47 +259,39 @@ public class ChannelMetadataModel extends AbstractTableModel implements IChannel
         return null;
     }
 
+    /**
+     * Queues a row update for the channel metadata.  Updates are coalesced so that each changed row is repainted
+     * once per batch regardless of the number of fields that changed.
+     */
     @Override
     public void updated(ChannelMetadata channelMetadata, ChannelMetadataField channelMetadataField)
     {
-        final int rowIndex = mChannelMetadata.indexOf(channelMetadata);
+        mUpdateBatcher.add(channelMetadata);
+    }
+
+    /**
+     * Applies a batch of channel metadata updates on the Swing event dispatch thread using a single row update event
+     * that spans the updated rows.
+     */
+    private void applyUpdates(List<ChannelMetadata> updated)
+    {
+        int firstRow = Integer.MAX_VALUE;
+        int lastRow = -1;
 
-        if(rowIndex >= 0)
+        for(ChannelMetadata channelMetadata : updated)
         {
-            //Execute on the swing thread to avoid threading issues
-            EventQueue.invokeLater(new Runnable()
+            int row = mChannelMetadata.indexOf(channelMetadata);
+
+            if(row >= 0)
             {
-                @Override
-                public void run()
-                {
-                    switch(channelMetadataField)
-                    {
-                        case CONFIGURATION_CHANNEL:
-                            fireTableCellUpdated(rowIndex, COLUMN_CONFIGURATION_CHANNEL);
-                            break;
-                        case CONFIGURATION_FREQUENCY:
-                            fireTableCellUpdated(rowIndex, COLUMN_CONFIGURATION_FREQUENCY);
-                            break;
-                        case DECODER_CHANNEL_NAME:
-                            fireTableCellUpdated(rowIndex, COLUMN_DECODER_LOGICAL_CHANNEL_NAME);
-                            break;
-                        case DECODER_TYPE:
-                            fireTableCellUpdated(rowIndex, COLUMN_DECODER_TYPE);
-                            break;
-                        case DECODER_STATE:
-                            fireTableCellUpdated(rowIndex, COLUMN_DECODER_STATE);
-                            break;
-                        case USER_FROM:
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_FROM);
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_FROM_ALIAS);
-                            break;
-                        case USER_TO:
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_TO);
-                            fireTableCellUpdated(rowIndex, COLUMN_USER_TO_ALIAS);
-                            break;
-                    }
-                }
-            });
+                firstRow = Math.min(firstRow, row);
+                lastRow = Math.max(lastRow, row);
+            }
+        }
+
+        if(lastRow >= 0)
+        {
+            fireTableRowsUpdated(firstRow, lastRow);
         }
     }
 }
@@ -114,6 +114,7 @@ public class MultiChannelState extends AbstractChannelState implements IDecoderS
             stateMachine.addListener(squelchController);
 
             stateMachine.setChannelType(mChannel.getChannelType());
+            stateMachine.setChannelName(mChannel.getName());
             stateMachine.setIdentifierUpdateListener(mutableIdentifierCollection);
             stateMachine.setEndTimeoutBuffer(RESET_TIMEOUT_DELAY);
             if(channel.getChannelType() == ChannelType.STANDARD)
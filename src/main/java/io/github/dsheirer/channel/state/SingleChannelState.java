@@ -107,6 +107,7 @@ public class SingleChannelState extends AbstractChannelState implements IDecoder
         mStateMachine.addListener(this);
         mStateMachine.addListener(mSquelchController);
         mStateMachine.setChannelType(mChannel.getChannelType());
+        mStateMachine.setChannelName(mChannel.getName());
         mStateMachine.setIdentifierUpdateListener(mIdentifierCollection);
         mStateMachine.setEndTimeoutBuffer(RESET_TIMEOUT_DELAY);
         if(channel.getChannelType() == ChannelType.STANDARD)
@@ -25,6 +25,7 @@ package io.github.dsheirer.channel.state;
 import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.identifier.decoder.ChannelStateIdentifier;
+import io.github.dsheirer.metrics.jfr.StateChangeEvent;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +49,7 @@ public class StateMachine
     private int mTimeslot;
     private EnumSet<State> mActiveStates;
     private Channel.ChannelType mChannelType = Channel.ChannelType.STANDARD;
+    private String mChannelName;
     private List<IStateMachineListener> mStateMachineListeners = new ArrayList<>();
     private Listener<IdentifierUpdateNotification> mIdentifierUpdateListener;
 
@@ -83,6 +85,14 @@ public class StateMachine
         mChannelType = channelType;
     }
 
+    /**
+     * Sets the channel name used to identify this state machine in flight recorder state change events
+     */
+    public void setChannelName(String channelName)
+    {
+        mChannelName = channelName;
+    }
+
     public void checkState()
     {
         if(mActiveStates.contains(mState) && mFadeTimeout <= System.currentTimeMillis())
@@ -111,6 +121,8 @@ public class StateMachine
         }
         else if(mState.canChangeTo(state))
         {
+            State previousState = mState;
+
             if(mActiveStates.contains(state))
             {
                 updateFadeTimeout();
@@ -165,6 +177,17 @@ public class StateMachine
             //If the state successfully changed to the new state, announce it
             if(mState == state)
             {
+                StateChangeEvent event = new StateChangeEvent();
+
+                if(event.shouldCommit())
+                {
+                    event.channel = mChannelName;
+                    event.timeslot = mTimeslot;
+                    event.previousState = previousState.name();
+                    event.state = state.name();
+                    event.commit();
+                }
+
                 for(IStateMachineListener listener: mStateMachineListeners)
                 {
                     listener.stateChanged(mState, mTimeslot);
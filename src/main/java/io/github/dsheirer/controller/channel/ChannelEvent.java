@@ -109,6 +109,8 @@ public class ChannelEvent
         REQUEST_DISABLE,
         //Request to enable a channel - response will be a PROCESSING_START_NOTIFICATION
         REQUEST_ENABLE,
+        //Request to construct a traffic channel's processing chain ahead of the first channel grant
+        REQUEST_PREWARM,
         //Request to select the channel
         REQUEST_SELECT;
     }
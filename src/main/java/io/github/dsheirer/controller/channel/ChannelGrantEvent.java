@@ -30,6 +30,7 @@ public class ChannelGrantEvent extends ChannelEvent
 {
     private IChannelDescriptor mChannelDescriptor;
     private IdentifierCollection mIdentifierCollection;
+    private long mGrantTimestampNanos = System.nanoTime();
 
     /**
      * Constructs a channel grant event
@@ -54,6 +55,14 @@ public class ChannelGrantEvent extends ChannelEvent
         return mChannelDescriptor;
     }
 
+    /**
+     * System nano time when the channel grant was issued, for measuring grant to voice latency
+     */
+    public long getGrantTimestampNanos()
+    {
+        return mGrantTimestampNanos;
+    }
+
     /**
      * Identifier collection to use in preloading the channel state for the allocated channel
      */
@@ -26,6 +26,7 @@ import io.github.dsheirer.audio.AudioSegment;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.channel.metadata.ChannelMetadata;
 import io.github.dsheirer.channel.metadata.ChannelMetadataModel;
+import io.github.dsheirer.controller.NamingThreadFactory;
 import io.github.dsheirer.controller.channel.map.ChannelMapModel;
 import io.github.dsheirer.filter.FilterSet;
 import io.github.dsheirer.identifier.Form;
@@ -35,6 +36,8 @@ import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.IdentifierUpdateNotification;
 import io.github.dsheirer.identifier.decoder.DecoderLogicalChannelNameIdentifier;
 import io.github.dsheirer.message.IMessage;
+import io.github.dsheirer.metrics.PipelineMetrics;
+import io.github.dsheirer.metrics.jfr.ChannelProcessingEvent;
 import io.github.dsheirer.module.Module;
 import io.github.dsheirer.module.ProcessingChain;
 import io.github.dsheirer.module.decode.DecoderFactory;
@@ -49,26 +52,43 @@ import io.github.dsheirer.source.Source;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.SourceManager;
+import io.github.dsheirer.source.config.SourceConfigTuner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Channel processing manager handles all starting and stopping of channel decoding.  A processing chain is created
  * for each channel that is enabled.  The processing chain contains all of the components needed to decode a specific
  * channel and protocol along with all logging and baseband or bitstream recording.  Audio recording is handled outside
  * of this class by the RecorderManager.
+ *
+ * Each channel has a lifecycle state machine with its own lock, so that start, stop and delete requests for a single
+ * channel are serialized while requests for different channels proceed in parallel.  Tuner channel source allocation
+ * is serialized per tuner by the tuner's channel source manager.  Channel event notifications are broadcast after the
+ * channel's lifecycle lock is released so that listeners can safely issue requests for other channels.
  */
 public class ChannelProcessingManager implements Listener<ChannelEvent>
 {
     private final static Logger mLog = LoggerFactory.getLogger(ChannelProcessingManager.class);
     private static final String TUNER_UNAVAILABLE_DESCRIPTION = "TUNER UNAVAILABLE";
-    private Map<Channel,ProcessingChain> mProcessingChains = new HashMap<>();
+    private static final int PREWARM_THREAD_COUNT = 2;
+    private Map<Channel,ProcessingChain> mProcessingChains = new ConcurrentHashMap<>();
+    private Map<Channel,ChannelLifecycle> mChannelLifecycles = new ConcurrentHashMap<>();
+    private Set<Channel> mPrewarmingChannels = ConcurrentHashMap.newKeySet();
+    private ThreadPoolExecutor mPrewarmExecutor = new ThreadPoolExecutor(PREWARM_THREAD_COUNT, PREWARM_THREAD_COUNT,
+        30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamingThreadFactory("sdrtrunk prewarm"));
 
     private List<Listener<AudioSegment>> mAudioSegmentListeners = new CopyOnWriteArrayList<>();
     private List<Listener<IDecodeEvent>> mDecodeEventListeners = new CopyOnWriteArrayList<>();
@@ -99,6 +119,9 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         mAliasModel = aliasModel;
         mUserPreferences = userPreferences;
         mChannelMetadataModel = new ChannelMetadataModel();
+
+        //Pre-warm threads are only needed while traffic channel pools are being pre-warmed
+        mPrewarmExecutor.allowCoreThreadTimeOut(true);
     }
 
     /**
@@ -109,15 +132,6 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         return mChannelMetadataModel;
     }
 
-    /**
-     * Indicates if a processing chain is constructed for the channel and that
-     * the processing chain is currently processing.
-     */
-    private boolean isProcessing(Channel channel)
-    {
-        return mProcessingChains.containsKey(channel) && mProcessingChains.get(channel).isProcessing();
-    }
-
     /**
      * Returns the current processing chain associated with the channel, or
      * null if a processing chain is not currently setup for the channel
@@ -155,46 +169,30 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
      * @param event that requests either enable/start or disable/stop a channel.
      */
     @Override
-    public synchronized void receive(ChannelEvent event)
+    public void receive(ChannelEvent event)
     {
-        Channel channel = event.getChannel();
-
         switch(event.getEvent())
         {
             case REQUEST_ENABLE:
-                if(!isProcessing(channel))
-                {
-                    startProcessing(event);
-                }
-                break;
             case REQUEST_DISABLE:
-                if(channel.isProcessing())
-                {
-                    switch(channel.getChannelType())
-                    {
-                        case STANDARD:
-                            stopProcessing(channel, true);
-                            break;
-                        case TRAFFIC:
-                            //Don't remove traffic channel processing chains
-                            //until explicitly deleted, so that we can reuse them
-                            stopProcessing(channel, false);
-                            break;
-                        default:
-                            break;
-                    }
-                }
             case NOTIFICATION_DELETE:
-                if(channel.isProcessing())
-                {
-                    stopProcessing(channel, true);
-                }
-                break;
             case NOTIFICATION_CONFIGURATION_CHANGE:
-                if(isProcessing(channel))
+                process(event, System.nanoTime());
+                break;
+            case REQUEST_PREWARM:
+                Channel channel = event.getChannel();
+
+                if(!mProcessingChains.containsKey(channel) && mPrewarmingChannels.add(channel))
                 {
-                    stopProcessing(channel, true);
-                    startProcessing(event);
+                    try
+                    {
+                        mPrewarmExecutor.execute(() -> prewarm(channel));
+                    }
+                    catch(RejectedExecutionException ree)
+                    {
+                        //Shutting down
+                        mPrewarmingChannels.remove(channel);
+                    }
                 }
                 break;
             default:
@@ -202,12 +200,150 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
         }
     }
 
+    /**
+     * Processes a channel lifecycle request while holding the channel's lifecycle lock and broadcasts any resulting
+     * channel event notifications once the lock is released.
+     *
+     * @param event requesting a channel lifecycle change
+     * @param requestTimestamp System.nanoTime() when the request was received
+     */
+    private void process(ChannelEvent event, long requestTimestamp)
+    {
+        Channel channel = event.getChannel();
+        List<ChannelEvent> notifications = new ArrayList<>();
+        ChannelLifecycle lifecycle = lockLifecycle(channel);
+
+        try
+        {
+            switch(event.getEvent())
+            {
+                case REQUEST_ENABLE:
+                    if(lifecycle.getState() != ChannelLifecycle.State.PROCESSING)
+                    {
+                        startProcessing(event, lifecycle, requestTimestamp, notifications);
+                    }
+                    break;
+                case REQUEST_DISABLE:
+                    if(channel.isProcessing())
+                    {
+                        switch(channel.getChannelType())
+                        {
+                            case STANDARD:
+                                stopProcessing(channel, lifecycle, true, notifications);
+                                break;
+                            case TRAFFIC:
+                                //Don't remove traffic channel processing chains
+                                //until explicitly deleted, so that we can reuse them
+                                stopProcessing(channel, lifecycle, false, notifications);
+                                break;
+                            default:
+                                break;
+                        }
+                    }
+                    break;
+                case NOTIFICATION_DELETE:
+                    mPrewarmingChannels.remove(channel);
+
+                    if(channel.isProcessing())
+                    {
+                        stopProcessing(channel, lifecycle, true, notifications);
+                    }
+                    else
+                    {
+                        disposeIdleProcessingChain(channel);
+                    }
+
+                    retireLifecycle(channel, lifecycle);
+                    break;
+                case NOTIFICATION_CONFIGURATION_CHANGE:
+                    if(lifecycle.getState() == ChannelLifecycle.State.PROCESSING)
+                    {
+                        stopProcessing(channel, lifecycle, true, notifications);
+                        startProcessing(event, lifecycle, requestTimestamp, notifications);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        finally
+        {
+            lifecycle.unlock();
+        }
+
+        for(ChannelEvent notification: notifications)
+        {
+            mChannelEventBroadcaster.broadcast(notification);
+        }
+    }
+
+    /**
+     * Stops and removes the processing chain for the channel and broadcasts the stop notification.
+     *
+     * @param channel to stop
+     */
+    private void stopAndRemove(Channel channel)
+    {
+        List<ChannelEvent> notifications = new ArrayList<>();
+        ChannelLifecycle lifecycle = lockLifecycle(channel);
+
+        try
+        {
+            stopProcessing(channel, lifecycle, true, notifications);
+        }
+        finally
+        {
+            lifecycle.unlock();
+        }
+
+        for(ChannelEvent notification: notifications)
+        {
+            mChannelEventBroadcaster.broadcast(notification);
+        }
+    }
+
+    /**
+     * Obtains and locks the lifecycle for the channel, creating the lifecycle as needed.
+     *
+     * @param channel for the lifecycle
+     * @return locked lifecycle.  Caller must unlock the lifecycle when finished.
+     */
+    private ChannelLifecycle lockLifecycle(Channel channel)
+    {
+        while(true)
+        {
+            ChannelLifecycle lifecycle = mChannelLifecycles.computeIfAbsent(channel, key -> new ChannelLifecycle());
+            lifecycle.lock();
+
+            //A lifecycle is retired when its channel is deleted - obtain the replacement lifecycle
+            if(!lifecycle.isRetired())
+            {
+                return lifecycle;
+            }
+
+            lifecycle.unlock();
+        }
+    }
+
+    /**
+     * Retires and removes the locked lifecycle for a deleted channel.
+     */
+    private void retireLifecycle(Channel channel, ChannelLifecycle lifecycle)
+    {
+        lifecycle.retire();
+        mChannelLifecycles.remove(channel, lifecycle);
+    }
+
     /**
      * Starts a channel/processing chain
      *
      * @param event that requested the channel start
+     * @param lifecycle for the channel, locked by the calling thread
+     * @param requestTimestamp System.nanoTime() when the start was requested
+     * @param notifications to receive channel event notifications to broadcast once the lifecycle is unlocked
      */
-    private void startProcessing(ChannelEvent event)
+    private void startProcessing(ChannelEvent event, ChannelLifecycle lifecycle, long requestTimestamp,
+                                 List<ChannelEvent> notifications)
     {
         Channel channel = event.getChannel();
 
@@ -219,8 +355,11 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             return;
         }
 
+        lifecycle.setState(ChannelLifecycle.State.STARTING);
+
         //Ensure that we can get a source before we construct a new processing chain
         Source source = null;
+        long sourceRequestTimestamp = System.nanoTime();
 
         try
         {
@@ -232,74 +371,34 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             mLog.debug("Error obtaining source for channel [" + channel.getName() + "]", se);
         }
 
+        long sourceNanos = System.nanoTime() - sourceRequestTimestamp;
+
         if(source == null)
         {
             channel.setProcessing(false);
+            lifecycle.setState(ChannelLifecycle.State.STOPPED);
+
+            long frequency = channel.getSourceConfiguration() instanceof SourceConfigTuner ?
+                ((SourceConfigTuner)channel.getSourceConfiguration()).getFrequency() : 0;
+            recordChannelProcessingEvent(channel, ChannelProcessingEvent.START_REJECTED, frequency,
+                TUNER_UNAVAILABLE_DESCRIPTION);
 
-            mChannelEventBroadcaster.broadcast(new ChannelEvent(channel,
-                ChannelEvent.Event.NOTIFICATION_PROCESSING_START_REJECTED, TUNER_UNAVAILABLE_DESCRIPTION));
+            notifications.add(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_START_REJECTED,
+                TUNER_UNAVAILABLE_DESCRIPTION));
 
             return;
         }
 
+        boolean warm = processingChain != null;
+
         if(processingChain == null)
         {
-            processingChain = new ProcessingChain(channel, mAliasModel);
-            mChannelEventBroadcaster.addListener(processingChain);
-
-            /* Register global listeners */
-            for(Listener<AudioSegment> listener : mAudioSegmentListeners)
-            {
-                processingChain.addAudioSegmentListener(listener);
-            }
-
-            for(Listener<IDecodeEvent> listener : mDecodeEventListeners)
-            {
-                processingChain.addDecodeEventListener(listener);
-            }
-
-            //Add a listener to detect source error state that indicates the channel should be shutdown
-            processingChain.addSourceEventListener(sourceEvent ->
-            {
-                if(sourceEvent.getEvent() == SourceEvent.Event.NOTIFICATION_ERROR_STATE && sourceEvent.getSource() != null)
-                {
-                    Channel toShutdown = null;
-
-                    for(Map.Entry<Channel,ProcessingChain> entry: mProcessingChains.entrySet())
-                    {
-                        if(entry.getValue().hasSource(sourceEvent.getSource()))
-                        {
-                            toShutdown = entry.getKey();
-                            break;
-                        }
-                    }
-
-                    if(toShutdown != null)
-                    {
-                        mLog.info("Channel source error detected - stopping channel [" + toShutdown.getName() + "]");
-                        stopProcessing(toShutdown, true);
-                    }
-                }
-            });
-
-            //Register this manager to receive channel events from traffic channel manager modules within
-            //the processing chain
-            processingChain.addChannelEventListener(this);
-
-            //Register channel to receive frequency correction events to show in the spectral display (hack!)
-            processingChain.addFrequencyChangeListener(channel);
-
-            /* Processing Modules */
-            List<Module> modules = DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences);
-            processingChain.addModules(modules);
-
-            /* Setup message activity model with filtering */
-            FilterSet<IMessage> messageFilter = DecoderFactory.getMessageFilters(modules);
-            MessageActivityModel messageModel = new MessageActivityModel(messageFilter);
-            processingChain.setMessageActivityModel(messageModel);
-
+            processingChain = createProcessingChain(channel);
         }
 
+        //Register channel to receive frequency correction events to show in the spectral display (hack!)
+        processingChain.addFrequencyChangeListener(channel);
+
         /* Setup event logging */
         List<Module> loggers = mEventLogManager.getLoggers(channel);
 
@@ -322,6 +421,9 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
 
             IdentifierCollection identifierCollection = channelGrantEvent.getIdentifierCollection();
 
+            processingChain.setChannelGrant(channelDescriptor != null ? channelDescriptor.toString() : channel.getName(),
+                channelGrantEvent.getGrantTimestampNanos(), warm);
+
             if(channelDescriptor != null)
             {
                 for(int timeslot = 0; timeslot < channelDescriptor.getTimeslotCount(); timeslot++)
@@ -365,27 +467,165 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
 
         processingChain.start();
         channel.setProcessing(true);
+        lifecycle.setState(ChannelLifecycle.State.PROCESSING);
 
         getChannelMetadataModel().add(processingChain.getChannelState().getChannelMetadata(), channel);
 
         mProcessingChains.put(channel, processingChain);
 
-        mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_START));
+        PipelineMetrics.getInstance().getChannelLifecycleMetrics().recordChannelStartLatency(sourceNanos,
+            System.nanoTime() - requestTimestamp);
+        recordChannelProcessingEvent(channel, ChannelProcessingEvent.START, source.getFrequency(), null);
+
+        notifications.add(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_START));
+    }
+
+    /**
+     * Constructs the processing chain for a traffic channel ahead of the first channel grant so that the decoder
+     * modules and filters are ready when the channel is started.  The chain is constructed on the calling thread,
+     * outside of the channel's lifecycle lock, and is only retained if the channel was not started or deleted while
+     * the chain was being constructed.
+     *
+     * @param channel to pre-warm
+     */
+    private void prewarm(Channel channel)
+    {
+        ProcessingChain processingChain;
+
+        try
+        {
+            processingChain = createProcessingChain(channel);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error pre-warming processing chain for channel [" + channel.getName() + "]", e);
+            mPrewarmingChannels.remove(channel);
+            return;
+        }
+
+        ChannelLifecycle lifecycle = lockLifecycle(channel);
+
+        try
+        {
+            if(mPrewarmingChannels.remove(channel) && !mProcessingChains.containsKey(channel))
+            {
+                mProcessingChains.put(channel, processingChain);
+                return;
+            }
+
+            //The channel was deleted while the chain was being constructed
+            if(!mProcessingChains.containsKey(channel))
+            {
+                retireLifecycle(channel, lifecycle);
+            }
+        }
+        finally
+        {
+            lifecycle.unlock();
+        }
+
+        mChannelEventBroadcaster.removeListener(processingChain);
+        processingChain.dispose();
+    }
+
+    /**
+     * Creates a processing chain for the channel with the decoder modules and the global listeners registered.  The
+     * source, event loggers and recorders are applied each time that the channel is started.
+     *
+     * @param channel to create a processing chain for
+     * @return processing chain
+     */
+    private ProcessingChain createProcessingChain(Channel channel)
+    {
+        ProcessingChain processingChain = new ProcessingChain(channel, mAliasModel);
+        mChannelEventBroadcaster.addListener(processingChain);
+
+        /* Register global listeners */
+        for(Listener<AudioSegment> listener : mAudioSegmentListeners)
+        {
+            processingChain.addAudioSegmentListener(listener);
+        }
+
+        for(Listener<IDecodeEvent> listener : mDecodeEventListeners)
+        {
+            processingChain.addDecodeEventListener(listener);
+        }
+
+        //Add a listener to detect source error state that indicates the channel should be shutdown
+        processingChain.addSourceEventListener(sourceEvent ->
+        {
+            if(sourceEvent.getEvent() == SourceEvent.Event.NOTIFICATION_ERROR_STATE && sourceEvent.getSource() != null)
+            {
+                Channel toShutdown = null;
+
+                for(Map.Entry<Channel,ProcessingChain> entry: mProcessingChains.entrySet())
+                {
+                    if(entry.getValue().hasSource(sourceEvent.getSource()))
+                    {
+                        toShutdown = entry.getKey();
+                        break;
+                    }
+                }
+
+                if(toShutdown != null)
+                {
+                    mLog.info("Channel source error detected - stopping channel [" + toShutdown.getName() + "]");
+                    stopAndRemove(toShutdown);
+                }
+            }
+        });
+
+        //Register this manager to receive channel events from traffic channel manager modules within
+        //the processing chain
+        processingChain.addChannelEventListener(this);
+
+        /* Processing Modules */
+        List<Module> modules = DecoderFactory.getModules(mChannelMapModel, channel, mAliasModel, mUserPreferences);
+        processingChain.addModules(modules);
+
+        /* Setup message activity model with filtering */
+        FilterSet<IMessage> messageFilter = DecoderFactory.getMessageFilters(modules);
+        MessageActivityModel messageModel = new MessageActivityModel(messageFilter);
+        processingChain.setMessageActivityModel(messageModel);
+
+        return processingChain;
+    }
+
+    /**
+     * Removes and disposes the retained, non-processing chain for the channel (ie a pre-warmed or stopped traffic
+     * channel processing chain).
+     *
+     * @param channel for the processing chain
+     */
+    private void disposeIdleProcessingChain(Channel channel)
+    {
+        ProcessingChain processingChain = mProcessingChains.remove(channel);
+
+        if(processingChain != null)
+        {
+            mChannelEventBroadcaster.removeListener(processingChain);
+            processingChain.dispose();
+        }
     }
 
     /**
      * Stops the channel/processing chain.
      *
      * @param channel to stop
+     * @param lifecycle for the channel, locked by the calling thread
      * @param remove set to true to remove the associated processing chain.
+     * @param notifications to receive channel event notifications to broadcast once the lifecycle is unlocked
      */
-    private void stopProcessing(Channel channel, boolean remove)
+    private void stopProcessing(Channel channel, ChannelLifecycle lifecycle, boolean remove,
+                                List<ChannelEvent> notifications)
     {
         channel.setProcessing(false);
 
-        if(mProcessingChains.containsKey(channel))
+        ProcessingChain processingChain = mProcessingChains.get(channel);
+
+        if(processingChain != null)
         {
-            ProcessingChain processingChain = mProcessingChains.get(channel);
+            lifecycle.setState(ChannelLifecycle.State.STOPPING);
 
             for(ChannelMetadata channelMetadata: processingChain.getChannelState().getChannelMetadata())
             {
@@ -402,7 +642,9 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
             processingChain.removeFrequencyChangeListener(channel);
             channel.resetFrequencyCorrection();
 
-            mChannelEventBroadcaster.broadcast(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_STOP));
+            recordChannelProcessingEvent(channel, ChannelProcessingEvent.STOP, 0, null);
+
+            notifications.add(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_PROCESSING_STOP));
 
             if(remove)
             {
@@ -411,6 +653,32 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
                 processingChain.dispose();
             }
         }
+
+        lifecycle.setState(ChannelLifecycle.State.STOPPED);
+    }
+
+    /**
+     * Commits a flight recorder event for a channel processing start, start rejection or stop
+     *
+     * @param channel that was started, rejected or stopped
+     * @param action for the channel
+     * @param frequency of the channel source, or 0 if unknown
+     * @param reason for a start rejection, or null
+     */
+    private static void recordChannelProcessingEvent(Channel channel, String action, long frequency, String reason)
+    {
+        ChannelProcessingEvent event = new ChannelProcessingEvent();
+
+        if(event.shouldCommit())
+        {
+            event.channel = channel.getName();
+            event.channelType = channel.getChannelType().name();
+            event.decoder = channel.getDecodeConfiguration().getDecoderType().name();
+            event.frequency = frequency;
+            event.action = action;
+            event.reason = reason;
+            event.commit();
+        }
     }
 
     /**
@@ -418,11 +686,13 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
      */
     public void shutdown()
     {
+        mPrewarmExecutor.shutdownNow();
+
         List<Channel> channelsToStop = new ArrayList<>(mProcessingChains.keySet());
 
         for(Channel channel : channelsToStop)
         {
-            stopProcessing(channel, true);
+            stopAndRemove(channel);
         }
     }
 
@@ -475,4 +745,53 @@ public class ChannelProcessingManager implements Listener<ChannelEvent>
     {
         mChannelEventBroadcaster.removeListener(listener);
     }
+
+    /**
+     * Lifecycle state machine for a single channel.  The lock serializes start, stop and delete requests for the
+     * channel and the state is visible to any thread.
+     */
+    private static class ChannelLifecycle
+    {
+        private enum State {STOPPED, STARTING, PROCESSING, STOPPING}
+
+        private ReentrantLock mLock = new ReentrantLock();
+        private volatile State mState = State.STOPPED;
+        private boolean mRetired;
+
+        public void lock()
+        {
+            mLock.lock();
+        }
+
+        public void unlock()
+        {
+            mLock.unlock();
+        }
+
+        public State getState()
+        {
+            return mState;
+        }
+
+        public void setState(State state)
+        {
+            mState = state;
+        }
+
+        /**
+         * Indicates if this lifecycle was retired because the channel was deleted.  Only access while locked.
+         */
+        public boolean isRetired()
+        {
+            return mRetired;
+        }
+
+        /**
+         * Retires this lifecycle when the channel is deleted.  Only access while locked.
+         */
+        public void retire()
+        {
+            mRetired = true;
+        }
+    }
 }
@@ -0,0 +1,164 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.controller.channel;
+
+import io.github.dsheirer.controller.channel.Channel.ChannelType;
+import io.github.dsheirer.module.decode.config.DecodeConfiguration;
+import io.github.dsheirer.sample.Listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable traffic channels for a trunking system control channel.
+ *
+ * Traffic channels are allocated from the pool for each channel grant and returned to the pool once the traffic
+ * channel stops processing.  The channel processing manager keeps the processing chain for each traffic channel after
+ * it stops so that the chain (filters, decoders and channel state) is reused by the next grant.  The pool can be
+ * pre-warmed so that the processing chain for each traffic channel is constructed ahead of the first grant, leaving
+ * only the tuner source allocation and chain restart in the grant-to-audio path.
+ */
+public class TrafficChannelPool
+{
+    private Queue<Channel> mAvailableChannels = new ConcurrentLinkedQueue<>();
+    private List<Channel> mChannels;
+    private AtomicBoolean mPrewarmed = new AtomicBoolean();
+
+    /**
+     * Constructs a pool of traffic channels configured from the parent control channel.
+     *
+     * @param parentChannel that owns the traffic channels
+     * @param decodeConfigurationSupplier to provide the decode configuration for each traffic channel
+     * @param size of the pool
+     */
+    public TrafficChannelPool(Channel parentChannel, Supplier<DecodeConfiguration> decodeConfigurationSupplier,
+                              int size)
+    {
+        List<Channel> channels = new ArrayList<>();
+
+        for(int x = 0; x < size; x++)
+        {
+            Channel trafficChannel = new Channel("TRAFFIC", ChannelType.TRAFFIC);
+            trafficChannel.setAliasListName(parentChannel.getAliasListName());
+            trafficChannel.setSystem(parentChannel.getSystem());
+            trafficChannel.setSite(parentChannel.getSite());
+            trafficChannel.setDecodeConfiguration(decodeConfigurationSupplier.get());
+            trafficChannel.setEventLogConfiguration(parentChannel.getEventLogConfiguration());
+            trafficChannel.setRecordConfiguration(parentChannel.getRecordConfiguration());
+            channels.add(trafficChannel);
+        }
+
+        mAvailableChannels.addAll(channels);
+        mChannels = Collections.unmodifiableList(channels);
+    }
+
+    /**
+     * Allocates a traffic channel from the pool
+     *
+     * @return traffic channel or null if all traffic channels are allocated
+     */
+    public Channel allocate()
+    {
+        return mAvailableChannels.poll();
+    }
+
+    /**
+     * Returns the traffic channel to the pool for reuse
+     */
+    public void release(Channel channel)
+    {
+        if(mChannels.contains(channel) && !mAvailableChannels.contains(channel))
+        {
+            mAvailableChannels.add(channel);
+        }
+    }
+
+    /**
+     * Indicates if the channel is managed by this pool
+     */
+    public boolean contains(Channel channel)
+    {
+        return mChannels.contains(channel);
+    }
+
+    /**
+     * All traffic channels managed by this pool
+     */
+    public List<Channel> getChannels()
+    {
+        return mChannels;
+    }
+
+    /**
+     * Number of traffic channels managed by this pool
+     */
+    public int size()
+    {
+        return mChannels.size();
+    }
+
+    /**
+     * Number of traffic channels currently available for allocation
+     */
+    public int getAvailableCount()
+    {
+        return mAvailableChannels.size();
+    }
+
+    /**
+     * Requests that the processing chain for each traffic channel be constructed ahead of the first channel grant.
+     * Only the first invocation has an effect.
+     *
+     * @param listener to receive the pre-warm requests (ie channel processing manager)
+     */
+    public void prewarm(Listener<ChannelEvent> listener)
+    {
+        if(mPrewarmed.compareAndSet(false, true))
+        {
+            for(Channel channel: mChannels)
+            {
+                listener.receive(new ChannelEvent(channel, ChannelEvent.Event.REQUEST_PREWARM));
+            }
+        }
+    }
+
+    /**
+     * Notifies the listener that each of the traffic channels is deleted so that the retained processing chains can
+     * be released, and empties the pool.
+     *
+     * @param listener to receive the channel delete notifications (ie channel processing manager)
+     */
+    public void dispose(Listener<ChannelEvent> listener)
+    {
+        mAvailableChannels.clear();
+
+        for(Channel channel: mChannels)
+        {
+            listener.receive(new ChannelEvent(channel, ChannelEvent.Event.NOTIFICATION_DELETE));
+        }
+    }
+}
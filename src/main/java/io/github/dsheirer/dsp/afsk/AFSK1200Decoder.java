@@ -20,8 +20,8 @@
 package io.github.dsheirer.dsp.afsk;
 
 import io.github.dsheirer.bits.IBinarySymbolProcessor;
-import io.github.dsheirer.buffer.FloatAveragingBuffer;
-import io.github.dsheirer.dsp.filter.resample.RealResampler;
+import io.github.dsheirer.dsp.filter.Window;
+import io.github.dsheirer.dsp.filter.resample.RationalResampler;
 import io.github.dsheirer.dsp.mixer.IOscillator;
 import io.github.dsheirer.dsp.mixer.Oscillator;
 import io.github.dsheirer.sample.Listener;
@@ -36,6 +36,10 @@ import org.slf4j.LoggerFactory;
  * which equates to six samples per symbol.  Each symbol is correlated over an eight sample period with correlation
  * values averaged over a seven correlation value period.
  *
+ * Each incoming buffer is processed as a block: the buffer is resampled by a 9/10 polyphase rational resampler, the
+ * mark and space correlation values are calculated for the full block, and the decoded symbols are delivered to the
+ * symbol processor packed into words.
+ *
  * Provides normal or inverted decoded output.
  */
 public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
@@ -57,6 +61,12 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
     public static final double SPACE = 1800.0;
     public static final float TIMING_ERROR_GAIN = 1.0f / 3.0f; //Timing error adjustments over 3 symbol periods
 
+    //Resample 8000 Hz to 7200 Hz: interpolate by 9 and decimate by 10
+    private static final int RESAMPLER_INTERPOLATION = 9;
+    private static final int RESAMPLER_DECIMATION = 10;
+    private static final int RESAMPLER_TAPS_PER_PHASE = 24;
+    private static final double RESAMPLER_CUTOFF = 0.45;
+
     private Correlator mCorrelatorMark = new Correlator(SAMPLE_RATE, MARK, AVERAGING_PERIOD, CORRELATION_PERIOD);
     private Correlator mCorrelatorSpace = new Correlator(SAMPLE_RATE, SPACE, AVERAGING_PERIOD, CORRELATION_PERIOD);
     private float[] mCorrelationValuesMark;
@@ -68,9 +78,13 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
     protected AFSKTimingErrorDetector mTimingErrorDetector = new AFSKTimingErrorDetector(SAMPLES_PER_SYMBOL);
     protected IBinarySymbolProcessor mBinarySymbolProcessor;
     private boolean mSampleDecision;
+    private long mSymbols;
+    private int mSymbolCount;
 
     //Resample to an integral of the baud rate 1200 baud * 6 samples per symbol = 7200.0 Hertz
-    private RealResampler mResampler = new RealResampler(8000.0, SAMPLE_RATE, 2000, 1);
+    private RationalResampler mResampler = new RationalResampler(RESAMPLER_INTERPOLATION, RESAMPLER_DECIMATION,
+        RESAMPLER_TAPS_PER_PHASE, RESAMPLER_CUTOFF, Window.WindowType.BLACKMAN);
+    private float[] mResampled = new float[0];
 
     /**
      * Constructs a decoder using the provided arguments.
@@ -84,7 +98,6 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
         mTimingErrorDetector = detector;
         mSampleBuffer = sampleBuffer;
         mSampleBuffer.setTimingGain(mSymbolTimingGain);
-        mResampler.setListener(new Decoder());
         mNormalOutput = (output == Output.NORMAL);
     }
 
@@ -107,23 +120,90 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
     }
 
     /**
-     * Processes the buffer samples by converting all samples to boolean values reflecting if the sample value is
-     * greater than zero (or not).  Average symbol timing offset is calculated for the full buffer and the offset is
-     * adjusted and then each of the symbols are decoded using a simple majority decision.
+     * Processes the buffer samples as a block.  Samples are resampled to 7200 Hz and correlated against the mark and
+     * space reference signals.  Each resampled sample is converted to a mark/space decision that is used for symbol
+     * timing and each symbol is decoded using a simple majority decision.
      *
      * @param buffer containing 8.0 kHz unfiltered FM demodulated audio samples with sub-audible LTR signalling.
      */
     @Override
     public void receive(ReusableFloatBuffer buffer)
     {
-        mResampler.resample(buffer);
+        float[] samples = buffer.getSamples();
+        int length = buffer.getSampleCount();
+
+        int maxLength = mResampler.getMaxOutputLength(length);
+
+        if(mResampled.length < maxLength)
+        {
+            mResampled = new float[maxLength];
+        }
+
+        int resampledLength = mResampler.resample(samples, length, mResampled);
+
+        buffer.decrementUserCount();
+
+        //Calculate correlation values against each 1200/1800 reference signal
+        mCorrelationValuesMark = mCorrelatorMark.process(mResampled, resampledLength);
+        mCorrelationValuesSpace = mCorrelatorSpace.process(mResampled, resampledLength);
+
+        for(int x = 0; x < resampledLength; x++)
+        {
+            //1200 = Mark (1) and 1800 = Space (0)
+            mSampleDecision = mCorrelationValuesMark[x] > mCorrelationValuesSpace[x];
+            mSampleBuffer.receive(mSampleDecision);
+            mTimingErrorDetector.receive(mSampleDecision);
+
+            if(mSampleBuffer.hasSymbol())
+            {
+                dispatch(mSampleBuffer.getSymbol());
+                mSampleBuffer.resetAndAdjust(mTimingErrorDetector.getError());
+            }
+        }
+
+        flushSymbols();
     }
 
+    /**
+     * Adds the decoded symbol to the packed symbols word that is delivered to the symbol processor.
+     */
     protected void dispatch(boolean symbol)
     {
-        if(mBinarySymbolProcessor != null)
+        mSymbols = (mSymbols << 1) | (symbol ? 1 : 0);
+        mSymbolCount++;
+
+        if(mSymbolCount == 64)
+        {
+            flushSymbols();
+        }
+    }
+
+    /**
+     * Delivers the packed symbols to the symbol processor, applying output inversion when required.
+     */
+    private void flushSymbols()
+    {
+        if(mSymbolCount > 0)
         {
-            mBinarySymbolProcessor.process(mNormalOutput ? symbol : !symbol);
+            if(mBinarySymbolProcessor != null)
+            {
+                long symbols = mSymbols;
+
+                if(!mNormalOutput)
+                {
+                    symbols = ~symbols;
+
+                    if(mSymbolCount < 64)
+                    {
+                        symbols &= (1L << mSymbolCount) - 1;
+                    }
+                }
+
+                mBinarySymbolProcessor.process(symbols, mSymbolCount);
+            }
+
+            mSymbols = 0;
+            mSymbolCount = 0;
         }
     }
 
@@ -145,34 +225,6 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
         mBinarySymbolProcessor = null;
     }
 
-
-    public class Decoder implements Listener<ReusableFloatBuffer>
-    {
-        @Override
-        public void receive(ReusableFloatBuffer buffer)
-        {
-            //Calculate correlation values against each 1200/1800 reference signal
-            mCorrelationValuesMark = mCorrelatorMark.process(buffer);
-            mCorrelationValuesSpace = mCorrelatorSpace.process(buffer);
-
-            buffer.decrementUserCount();
-
-            for(int x = 0; x < mCorrelationValuesMark.length; x++)
-            {
-                //1200 = Mark (1) and 1800 = Space (0)
-                mSampleDecision = mCorrelationValuesMark[x] > mCorrelationValuesSpace[x];
-                mSampleBuffer.receive(mSampleDecision);
-                mTimingErrorDetector.receive(mSampleDecision);
-
-                if(mSampleBuffer.hasSymbol())
-                {
-                    dispatch(mSampleBuffer.getSymbol());
-                    mSampleBuffer.resetAndAdjust(mTimingErrorDetector.getError());
-                }
-            }
-        }
-    }
-
     /**
      * Generates a correlation value for each FM demodulated sample against samples generated for an established
      * reference frequency, correlated and averaged over separate periods relative to the samples per symbol period.
@@ -185,14 +237,20 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
      *
      * Averaging period defines the number of correlation values to average before producing the final correlation
      * value for each sample.
+     *
+     * Samples are processed a block at a time.  The correlation and averaging loops iterate over the full block for
+     * each reference sample and averaging offset, so the inner loops are simple element-wise array operations that the
+     * JIT compiler can promote to SIMD instructions when the host processor supports them.
      */
     public class Correlator
     {
-        private FloatAveragingBuffer mAveragingBuffer;
         private float[] mReferenceSamples;
+        private int mCorrelationHistory;
+        private int mAveragingHistory;
+        private float mAveragingGain;
         private float[] mDemodulatedSamples;
-        private float[] mCorrelationValues;
-        private float mCorrelationAccumulator;
+        private float[] mCorrelations;
+        private float[] mCorrelationValues = new float[0];
 
         /**
          * Constructs a correlator instance,
@@ -204,53 +262,87 @@ public class AFSK1200Decoder implements Listener<ReusableFloatBuffer>
          */
         public Correlator(double sampleRate, double frequency, int averagingPeriod, int correlationPeriod)
         {
-            mAveragingBuffer = new FloatAveragingBuffer(averagingPeriod);
-
             IOscillator referenceSignalGenerator = new Oscillator(frequency, sampleRate);
             mReferenceSamples = referenceSignalGenerator.generateReal(correlationPeriod);
 
-            mDemodulatedSamples = new float[correlationPeriod];
+            mCorrelationHistory = correlationPeriod - 1;
+            mAveragingHistory = averagingPeriod - 1;
+            mAveragingGain = 1.0f / averagingPeriod;
+            mDemodulatedSamples = new float[mCorrelationHistory];
+            mCorrelations = new float[mAveragingHistory];
         }
 
         /**
-         * Processes each sample in the incoming sample buffer against a generated reference sample set for one symbol
-         * period to derive a correlation value that is in-turn averaged over one symbol period.
+         * Processes each sample in the block against a generated reference sample set for one symbol period to derive
+         * a correlation value that is in-turn averaged over one symbol period.
          *
-         * @param reusableFloatBuffer containing FM demodulated samples
+         * @param samples containing FM demodulated samples
+         * @param length number of samples to process
          * @return a reusable array of correlation values for each sample
          */
-        public float[] process(ReusableFloatBuffer reusableFloatBuffer)
+        public float[] process(float[] samples, int length)
         {
-            if(mCorrelationValues == null || mCorrelationValues.length != reusableFloatBuffer.getSampleCount())
+            if(mDemodulatedSamples.length < mCorrelationHistory + length)
             {
-                mCorrelationValues = new float[reusableFloatBuffer.getSampleCount()];
+                float[] demodulated = new float[mCorrelationHistory + length];
+                System.arraycopy(mDemodulatedSamples, 0, demodulated, 0, mCorrelationHistory);
+                mDemodulatedSamples = demodulated;
+
+                float[] correlations = new float[mAveragingHistory + length];
+                System.arraycopy(mCorrelations, 0, correlations, 0, mAveragingHistory);
+                mCorrelations = correlations;
+
+                mCorrelationValues = new float[length];
             }
 
-            float[] samples = reusableFloatBuffer.getSamples();
+            float[] demodulated = mDemodulatedSamples;
+            float[] correlations = mCorrelations;
+            float[] values = mCorrelationValues;
+
+            System.arraycopy(samples, 0, demodulated, mCorrelationHistory, length);
 
-            int y;
+            for(int x = 0; x < length; x++)
+            {
+                correlations[mAveragingHistory + x] = 0.0f;
+                values[x] = 0.0f;
+            }
 
-            for(int x = 0; x < samples.length; x++)
+            //Correlate each sample with the reference samples over the preceding correlation period
+            for(int y = 0; y < mReferenceSamples.length; y++)
             {
-                //Note: we're using array copy and dot product structures that the JRE can promote to SIMD intrinsics
-                //when the host processor supports SIMD instructions
-                System.arraycopy(mDemodulatedSamples, 1, mDemodulatedSamples, 0, mDemodulatedSamples.length - 1);
-                mDemodulatedSamples[mDemodulatedSamples.length - 1] = samples[x];
+                float reference = mReferenceSamples[y];
+
+                for(int x = 0; x < length; x++)
+                {
+                    correlations[mAveragingHistory + x] += demodulated[x + y] * reference;
+                }
+            }
 
-                mCorrelationAccumulator = 0.0f;
+            //We use absolute value because we don't care if the signal is out of phase with the reference samples
+            for(int x = 0; x < length; x++)
+            {
+                correlations[mAveragingHistory + x] = Math.abs(correlations[mAveragingHistory + x]);
+            }
 
-                for(y = 0; y < mDemodulatedSamples.length; y++)
+            //Average the absolute correlation values over the averaging period
+            for(int y = 0; y <= mAveragingHistory; y++)
+            {
+                for(int x = 0; x < length; x++)
                 {
-                    mCorrelationAccumulator += mDemodulatedSamples[y] * mReferenceSamples[y];
+                    values[x] += correlations[x + y];
                 }
+            }
 
-                //Add the absolute value of correlation accumulator value to the averaging buffer and store the current
-                //average as the correlation value for this sample.  We use absolute value because we don't care if the
-                //signal is out of phase with the reference samples
-                mCorrelationValues[x] = mAveragingBuffer.get(Math.abs(mCorrelationAccumulator));
+            for(int x = 0; x < length; x++)
+            {
+                values[x] *= mAveragingGain;
             }
 
-            return mCorrelationValues;
+            //Retain the trailing samples and correlation values as history for the next block
+            System.arraycopy(demodulated, length, demodulated, 0, mCorrelationHistory);
+            System.arraycopy(correlations, length, correlations, 0, mAveragingHistory);
+
+            return values;
         }
     }
 }
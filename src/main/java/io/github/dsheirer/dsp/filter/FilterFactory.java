@@ -22,9 +22,9 @@
  ******************************************************************************/
 package io.github.dsheirer.dsp.filter;
 
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
-import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesignerWithLagrange;
 import org.jtransforms.fft.FloatFFT_1D;
 import org.slf4j.Logger;
@@ -667,7 +667,8 @@ public class FilterFactory
     }
 
     /**
-     * Creates a filter from the filter specification using the remez exchange design algorithm
+     * Creates a filter from the filter specification using the remez exchange design algorithm.  Filters are
+     * designed once per specification and reused from the process-wide filter design cache.
      *
      * @param specification
      * @return filter coefficients
@@ -675,14 +676,7 @@ public class FilterFactory
      */
     public static float[] getTaps(FIRFilterSpecification specification) throws FilterDesignException
     {
-        RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-        if(designer.isValid())
-        {
-            return designer.getImpulseResponse();
-        }
-
-        return null;
+        return FilterDesignCache.getInstance().getRemezFilter(specification);
     }
 
     /**
@@ -759,6 +753,17 @@ public class FilterFactory
      */
     public static float[] getSincM2Synthesizer(double channelSampleRate, double channelBandwidth, int channels,
                                                int tapsPerChannel) throws FilterDesignException
+    {
+        return FilterDesignCache.getInstance().getFilter("sinc-m2-synthesizer:" + channelSampleRate + ":" +
+            channelBandwidth + ":" + channels + ":" + tapsPerChannel,
+            () -> designSincM2Synthesizer(channelSampleRate, channelBandwidth, channels, tapsPerChannel));
+    }
+
+    /**
+     * Designs the polyphase M2 synthesizer sync filter.
+     */
+    private static float[] designSincM2Synthesizer(double channelSampleRate, double channelBandwidth, int channels,
+                                                   int tapsPerChannel) throws FilterDesignException
     {
         int filterLength = (channels * tapsPerChannel) - 1;
 
@@ -812,6 +817,23 @@ public class FilterFactory
      */
     public static float[] getSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
                                                boolean logResults) throws FilterDesignException
+    {
+        //Bypass the cache when the design results are requested so that the design summary is logged
+        if(logResults)
+        {
+            return designSincM2Channelizer(channelBandwidth, channels, tapsPerChannel, true);
+        }
+
+        return FilterDesignCache.getInstance().getFilter("sinc-m2-channelizer:" + channelBandwidth + ":" +
+            channels + ":" + tapsPerChannel, () -> designSincM2Channelizer(channelBandwidth, channels,
+            tapsPerChannel, false));
+    }
+
+    /**
+     * Designs the polyphase M2 channelizer sync filter.
+     */
+    private static float[] designSincM2Channelizer(double channelBandwidth, int channels, int tapsPerChannel,
+                                                   boolean logResults) throws FilterDesignException
     {
         int currentTapsPerChannel = tapsPerChannel;
         int filterLength = (channels * currentTapsPerChannel) - 1;
@@ -192,6 +192,7 @@ public class ComplexPolyphaseChannelizerM2 extends AbstractComplexPolyphaseChann
     {
         ReusableChannelResultsBuffer channelResultsBuffer = getChannelResultsBuffer();
         channelResultsBuffer.setTimestamp(reusableComplexBuffer.getTimestamp());
+        channelResultsBuffer.setTopBlock(mTopBlockIndicator);
 
         float[] samples = reusableComplexBuffer.getSamples();
 
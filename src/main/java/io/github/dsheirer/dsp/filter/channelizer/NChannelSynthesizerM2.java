@@ -0,0 +1,255 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
+import org.jtransforms.fft.FloatFFT_1D;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Implements an N-channel polyphase filter synthesizer.  This class is intended to be used with an M2 polyphase
+ * channelizer in order to recover a signal that spans a contiguous run of more than two channelizer channels.  The
+ * synthesizer rejoins the neighboring M2 channels into a single stream sampled at the minimum rate that contains all
+ * of the synthesis channels, which is the synthesis channel count times the channel bandwidth.
+ *
+ * The synthesizer is modeled on the M-path, M/2 output structure described by Fred Harris et al.  Each channelizer
+ * output frame is placed into an M-point inverse FFT where M is the (even) synthesis channel count.  The synthesizer
+ * produces M/2 output samples per frame and interpolates each M2 channel by M/2, so output sample P of each frame is
+ * the sum of M-path filter path P, applied to the IFFT outputs of the even aged frames, and path P + M/2, applied to
+ * the IFFT outputs of the odd aged frames.  Top block frames draw from the lower half of each stored IFFT output and
+ * bottom block frames draw from the upper half to account for the M/2 phase shift of each channel.  The top/bottom
+ * block sequence must stay aligned with the channelizer's top/bottom block sequence, otherwise adjacent channels
+ * combine out of phase and cancel at the channel boundaries.
+ *
+ * Input channels are placed in ascending frequency order into consecutive IFFT bins.  An odd count of input channels
+ * is centered on the middle channel.  An even count of input channels is centered one half channel below the
+ * boundary between the two middle channels, which the output processor corrects when it mixes the signal of interest
+ * to baseband.  Unused synthesis channels are zero filled, so a synthesizer can process any count of input channels
+ * up to the synthesis channel count without changing its output sample rate.
+ *
+ * The lower and upper halves of each IFFT output are stored in separate serpentine data buffers that are shifted by
+ * M/2 samples per frame, so that each data buffer lines up with the I/Q interleaved filter in its natural coefficient
+ * order.  Filtering is calculated as the product of the active data buffer and the filter and then accumulated per
+ * output, which allows java to use SIMD for the array product, as in the TwoChannelSynthesizerM2.
+ */
+public class NChannelSynthesizerM2
+{
+    private ReusableComplexBufferQueue mReusableComplexBufferQueue =
+        new ReusableComplexBufferQueue("N Channel Synthesizer M2");
+    private int mChannelCount;
+    private int mHalfChannelCount;
+    private float[] mLowerSerpentineDataBuffer;
+    private float[] mUpperSerpentineDataBuffer;
+    private float[] mIQInterleavedFilter;
+    private float[] mFilterVectorProduct;
+    private float[] mIFFTBuffer;
+    private int[] mChannelOffsets = new int[0];
+    private int[] mIFFTOffsets = new int[0];
+    private float mIAccumulator;
+    private float mQAccumulator;
+    private FloatFFT_1D mFFT;
+    private boolean mTopBlockFlag = true;
+
+    /**
+     * Polyphase synthesizer for combining up to channelCount M2 oversampled channels into a composite channel using
+     * perfect reconstruction filters (-6db at band edge).  Output sample rate is channelCount / 2 times the sample
+     * rate of one of the input channels.
+     *
+     * @param filter to use for polyphase synthesis, designed as a unity gain low-pass filter at the output sample rate
+     * with a cutoff at the channel bandwidth.
+     * @param channelCount of synthesis channels.  This must be an even value of two or more.
+     */
+    public NChannelSynthesizerM2(float[] filter, int channelCount)
+    {
+        if(channelCount < 2 || channelCount % 2 != 0)
+        {
+            throw new IllegalArgumentException("Synthesis channel count must be an even value of two or more - " +
+                "requested count " + channelCount);
+        }
+
+        mChannelCount = channelCount;
+        mHalfChannelCount = channelCount / 2;
+        mFFT = new FloatFFT_1D(channelCount);
+        mIFFTBuffer = new float[channelCount * 2];
+
+        init(filter);
+    }
+
+    /**
+     * Initializes the synthesizer filter and data buffers for operation.
+     *
+     * @param filter to use for polyphase synthesis.
+     */
+    private void init(float[] filter)
+    {
+        int framesPerFilter = (int)Math.ceil((double)filter.length / mHalfChannelCount);
+
+        mIQInterleavedFilter = getInterleavedFilter(filter, mHalfChannelCount, framesPerFilter);
+        mLowerSerpentineDataBuffer = new float[mIQInterleavedFilter.length];
+        mUpperSerpentineDataBuffer = new float[mIQInterleavedFilter.length];
+        mFilterVectorProduct = new float[mIQInterleavedFilter.length];
+    }
+
+    /**
+     * Number of synthesis channels
+     */
+    public int getChannelCount()
+    {
+        return mChannelCount;
+    }
+
+    /**
+     * Sets the channelizer results array offsets for the input channels to synthesize.
+     *
+     * @param channelOffsets for the inphase sample of each input channel in ascending frequency order.  The
+     * quadrature sample is assumed to be one greater than the inphase offset.
+     * @throws IllegalArgumentException if the offset count is zero or exceeds the synthesis channel count
+     */
+    public void setChannelOffsets(int[] channelOffsets)
+    {
+        if(channelOffsets.length < 1 || channelOffsets.length > mChannelCount)
+        {
+            throw new IllegalArgumentException("Synthesizer requires between 1 and " + mChannelCount +
+                " input channels - provided channel count " + channelOffsets.length);
+        }
+
+        int[] ifftOffsets = new int[channelOffsets.length];
+        int firstBin = -((channelOffsets.length - 1) / 2);
+
+        for(int x = 0; x < channelOffsets.length; x++)
+        {
+            ifftOffsets[x] = ((firstBin + x + mChannelCount) % mChannelCount) * 2;
+        }
+
+        mIFFTOffsets = ifftOffsets;
+        mChannelOffsets = channelOffsets.clone();
+    }
+
+    /**
+     * Synthesizes a new channel from a list of channelizer results arrays where each array contains I/Q sample pairs
+     * for every channelizer channel (I0,Q0,I1,Q1...In,Qn).
+     *
+     * @param channelResults to synthesize
+     * @param topBlock indicates if the first channel results array was produced by the channelizer as a top block.
+     * @return synthesized channel results containing channelCount / 2 samples for each channelizer results array.
+     */
+    public ReusableComplexBuffer process(List<float[]> channelResults, boolean topBlock)
+    {
+        ReusableComplexBuffer synthesizedComplexBuffer =
+            mReusableComplexBufferQueue.getBuffer(channelResults.size() * mChannelCount);
+
+        float[] output = synthesizedComplexBuffer.getSamples();
+        int outputPointer = 0;
+
+        mTopBlockFlag = topBlock;
+
+        for(float[] results: channelResults)
+        {
+            //Load samples from each input channel into the bins for the IFFT and zero fill the unused bins
+            Arrays.fill(mIFFTBuffer, 0.0f);
+
+            for(int x = 0; x < mChannelOffsets.length; x++)
+            {
+                mIFFTBuffer[mIFFTOffsets[x]] = results[mChannelOffsets[x]];
+                mIFFTBuffer[mIFFTOffsets[x] + 1] = results[mChannelOffsets[x] + 1];
+            }
+
+            //Perform Inverse FFT (IFFT) - the unscaled transform applies the M synthesis gain
+            mFFT.complexInverse(mIFFTBuffer, false);
+
+            //Perform serpentine shift of data blocks in each data buffer - make room for M/2 new samples
+            System.arraycopy(mLowerSerpentineDataBuffer, 0, mLowerSerpentineDataBuffer, mChannelCount,
+                mLowerSerpentineDataBuffer.length - mChannelCount);
+            System.arraycopy(mUpperSerpentineDataBuffer, 0, mUpperSerpentineDataBuffer, mChannelCount,
+                mUpperSerpentineDataBuffer.length - mChannelCount);
+
+            //Load the lower and upper halves of the IFFT outputs into the data buffers
+            System.arraycopy(mIFFTBuffer, 0, mLowerSerpentineDataBuffer, 0, mChannelCount);
+            System.arraycopy(mIFFTBuffer, mChannelCount, mUpperSerpentineDataBuffer, 0, mChannelCount);
+
+            //Top Block - filter the lower half IFFT outputs.  Bottom Block - filter the upper half IFFT outputs to
+            //account for the M/2 phase shift
+            float[] dataBuffer = mTopBlockFlag ? mLowerSerpentineDataBuffer : mUpperSerpentineDataBuffer;
+
+            //Multiply data samples by the I/Q interleaved filter to form the vector product
+            for(int y = 0; y < dataBuffer.length; y++)
+            {
+                mFilterVectorProduct[y] = dataBuffer[y] * mIQInterleavedFilter[y];
+            }
+
+            //Accumulate each output I/Q sample from the vector product where each M/2 block alternates between
+            //path P and path P + M/2 of the M-path filter
+            for(int path = 0; path < mHalfChannelCount; path++)
+            {
+                mIAccumulator = 0.0f;
+                mQAccumulator = 0.0f;
+
+                for(int y = path * 2; y < mFilterVectorProduct.length; y += mChannelCount)
+                {
+                    mIAccumulator += mFilterVectorProduct[y];
+                    mQAccumulator += mFilterVectorProduct[y + 1];
+                }
+
+                output[outputPointer++] = mIAccumulator;
+                output[outputPointer++] = mQAccumulator;
+            }
+
+            mTopBlockFlag = !mTopBlockFlag;
+        }
+
+        return synthesizedComplexBuffer;
+    }
+
+    /**
+     * Creates an interleaved I/Q filter where each coefficient from the filter argument is duplicated and scaled by
+     * the M/2 interpolation gain.  Coefficient P + (K * M/2) is applied to the sample for output P from the frame
+     * that is K frames old, which alternates between path P and path P + M/2 of the M-path filter.
+     *
+     * Note: the returned filter array is sized to:  2 * M/2 * frames per filter, which may be slightly more
+     * than twice the length of the original filter.  Any Added filter array elements will contain zero values.
+     *
+     * @param coefficients to create an interleaved filter
+     * @param halfChannelCount of synthesis channels (M/2)
+     * @param framesPerFilter count
+     * @return filter
+     */
+    private static float[] getInterleavedFilter(float[] coefficients, int halfChannelCount, int framesPerFilter)
+    {
+        float[] filter = new float[halfChannelCount * framesPerFilter * 2];
+
+        int coefficientPointer = 0;
+        int filterPointer = 0;
+
+        //Create a new filter that duplicates each tap to produce an interleaved I/Q filter
+        while(coefficientPointer < coefficients.length)
+        {
+            float coefficient = coefficients[coefficientPointer++] * halfChannelCount;
+            filter[filterPointer++] = coefficient;
+            filter[filterPointer++] = coefficient;
+        }
+
+        return filter;
+    }
+}
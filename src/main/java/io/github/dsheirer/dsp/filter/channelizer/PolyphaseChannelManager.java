@@ -23,6 +23,7 @@ package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.dsp.filter.FilterFactory;
 import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputProcessor;
+import io.github.dsheirer.dsp.filter.channelizer.output.NChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.channelizer.output.OneChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.channelizer.output.TwoChannelOutputProcessor;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
@@ -41,9 +42,7 @@ import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Queue;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -82,7 +81,6 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
     private ChannelSourceEventListener mChannelSourceEventListener = new ChannelSourceEventListener();
     private BufferSourceEventMonitor mBufferSourceEventMonitor = new BufferSourceEventMonitor();
     private ContinuousBufferProcessor<ReusableComplexBuffer> mBufferProcessor;
-    private Map<Integer,float[]> mOutputProcessorFilters = new HashMap<>();
 
     /**
      * Creates a polyphase channel manager instance.
@@ -167,17 +165,22 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         try
         {
             List<Integer> polyphaseIndexes = mChannelCalculator.getChannelIndexes(tunerChannel);
+            int synthesisChannelCount = getSynthesisChannelCount(tunerChannel);
 
-            IPolyphaseChannelOutputProcessor outputProcessor = getOutputProcessor(polyphaseIndexes);
+            IPolyphaseChannelOutputProcessor outputProcessor = getOutputProcessor(polyphaseIndexes,
+                synthesisChannelCount);
 
             if(outputProcessor != null)
             {
                 long centerFrequency = mChannelCalculator.getCenterFrequencyForIndexes(polyphaseIndexes);
+                double sampleRate = synthesisChannelCount > 0 ? NChannelOutputProcessor
+                    .getOutputSampleRate(mChannelCalculator.getChannelSampleRate(), synthesisChannelCount) :
+                    mChannelCalculator.getChannelSampleRate();
 
                 try
                 {
                     channelSource = new PolyphaseChannelSource(tunerChannel, outputProcessor, mChannelSourceEventListener,
-                        mChannelCalculator.getChannelSampleRate(), centerFrequency, channelSpecification);
+                        sampleRate, centerFrequency, channelSpecification);
 
                     mChannelSources.add(channelSource);
                 }
@@ -197,14 +200,55 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
         return channelSource;
     }
 
+    /**
+     * Determines the number of synthesis channels for a wideband tuner channel that can span more than two polyphase
+     * channels.  The count covers the maximum number of polyphase channels that the tuner channel can span at any
+     * tuned center frequency, so that the channel source sample rate doesn't change when the channel indexes are
+     * updated.
+     *
+     * @param tunerChannel to evaluate
+     * @return even synthesis channel count, or zero if the tuner channel is served by one or two polyphase channels
+     */
+    private int getSynthesisChannelCount(TunerChannel tunerChannel)
+    {
+        double channelBandwidth = mChannelCalculator.getChannelBandwidth();
+
+        if(tunerChannel.getBandwidth() <= channelBandwidth)
+        {
+            return 0;
+        }
+
+        int channelCount = (int)Math.ceil(tunerChannel.getBandwidth() / channelBandwidth) + 1;
+
+        return channelCount + (channelCount % 2);
+    }
+
     /**
      * Creates a processor to process the channelizer channel indexes into a composite output stream providing
      * channelized complex sample buffers to a registered source listener.
      * @param indexes to target by the output processor
+     * @param synthesisChannelCount for wideband channels or zero to select the processor by the indexes count
      * @return output processor compatible with the number of indexes to monitor
      */
-    private IPolyphaseChannelOutputProcessor getOutputProcessor(List<Integer> indexes)
+    private IPolyphaseChannelOutputProcessor getOutputProcessor(List<Integer> indexes, int synthesisChannelCount)
     {
+        if(synthesisChannelCount > 0)
+        {
+            try
+            {
+                float[] filter = getWidebandOutputProcessorFilter(synthesisChannelCount);
+
+                return new NChannelOutputProcessor(mChannelCalculator.getChannelSampleRate(), synthesisChannelCount,
+                    indexes, filter, mChannelCalculator.getChannelCount());
+            }
+            catch(FilterDesignException fde)
+            {
+                mLog.error("Error designing " + synthesisChannelCount +
+                    " channel synthesis filter for output processor");
+                return null;
+            }
+        }
+
         switch(indexes.size())
         {
             case 1:
@@ -222,7 +266,6 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
                     mLog.error("Error designing 2 channel synthesis filter for output processor");
                 }
             default:
-                //TODO: create output processor for greater than 2 input channels
                 mLog.error("Request to create an output processor for unexpected channel index size:" + indexes.size());
                 mLog.info(mChannelCalculator.toString());
                 return null;
@@ -362,9 +405,6 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
             {
                 mLog.error("Could not create filter for polyphase channelizer for sample rate [" + tunerSampleRate + "]", fde);
             }
-
-            //Clear any previous channel synthesis filters so they can be recreated for the new channel sample rate
-            mOutputProcessorFilters.clear();
         }
     }
 
@@ -413,19 +453,25 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
             long centerFrequency = mChannelCalculator.getCenterFrequencyForIndexes(indexes);
 
-            //If the indexes size is the same then update the current processor, otherwise create a new one
+            //Wideband channels use a fixed synthesis channel count for any count of indexes
+            int synthesisChannelCount = getSynthesisChannelCount(channelSource.getTunerChannel());
+            int inputChannelCount = synthesisChannelCount > 0 ? synthesisChannelCount : indexes.size();
+
+            //If the input channel count is the same then update the current processor, otherwise create a new one
             IPolyphaseChannelOutputProcessor outputProcessor = channelSource.getPolyphaseChannelOutputProcessor();
 
-            if(outputProcessor != null && outputProcessor.getInputChannelCount() == indexes.size())
+            if(outputProcessor != null && outputProcessor.getInputChannelCount() == inputChannelCount)
             {
                 channelSource.getPolyphaseChannelOutputProcessor().setPolyphaseChannelIndices(indexes);
                 channelSource.setFrequency(centerFrequency);
 
-                if(indexes.size() > 1)
+                if(inputChannelCount > 1)
                 {
                     try
                     {
-                        float[] filter = getOutputProcessorFilter(indexes.size());
+                        float[] filter = synthesisChannelCount > 0 ?
+                            getWidebandOutputProcessorFilter(inputChannelCount) :
+                            getOutputProcessorFilter(inputChannelCount);
                         channelSource.getPolyphaseChannelOutputProcessor().setSynthesisFilter(filter);
                     }
                     catch(FilterDesignException fde)
@@ -436,7 +482,8 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
             }
             else
             {
-                channelSource.setPolyphaseChannelOutputProcessor(getOutputProcessor(indexes), centerFrequency);
+                channelSource.setPolyphaseChannelOutputProcessor(getOutputProcessor(indexes, synthesisChannelCount),
+                    centerFrequency);
             }
         }
         catch(IllegalArgumentException iae)
@@ -490,25 +537,31 @@ public class PolyphaseChannelManager implements ISourceEventProcessor
 
     /**
      * Generates (or reuses) an output processor filter for the specified number of channels.  Each
-     * filter is created only once and stored in a map for reuse.  This map is cleared anytime that the
-     * input sample rate changes, so that the filters can be recreated with the new channel sample rate.
+     * filter is designed once per channel sample rate and channel count and is reused from the
+     * process-wide filter design cache.
      * @param channels count
      * @return filter
      * @throws FilterDesignException if the filter cannot be designed to specification (-6 dB band edge)
      */
     private float[] getOutputProcessorFilter(int channels) throws FilterDesignException
     {
-        float[] taps = mOutputProcessorFilters.get(channels);
-
-        if(taps == null)
-        {
-            taps = FilterFactory.getSincM2Synthesizer(mChannelCalculator.getChannelSampleRate(),
-                mChannelCalculator.getChannelBandwidth(), channels, POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL);
-
-            mOutputProcessorFilters.put(channels, taps);
-        }
+        return FilterFactory.getSincM2Synthesizer(mChannelCalculator.getChannelSampleRate(),
+            mChannelCalculator.getChannelBandwidth(), channels, POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL);
+    }
 
-        return taps;
+    /**
+     * Generates (or reuses) a wideband output processor filter for the specified number of synthesis channels.  The
+     * synthesizer interpolates each channel by half of the synthesis channel count, so the filter is designed at the
+     * synthesized sample rate with a cutoff at the channel bandwidth.
+     * @param synthesisChannelCount even count of synthesis channels
+     * @return filter
+     * @throws FilterDesignException if the filter cannot be designed to specification
+     */
+    private float[] getWidebandOutputProcessorFilter(int synthesisChannelCount) throws FilterDesignException
+    {
+        return FilterFactory.getSincM2Synthesizer(mChannelCalculator.getChannelSampleRate(),
+            mChannelCalculator.getChannelBandwidth(), synthesisChannelCount / 2,
+            POLYPHASE_SYNTHESIZER_TAPS_PER_CHANNEL * 2);
     }
 
     /**
@@ -20,11 +20,12 @@
 package io.github.dsheirer.dsp.filter.channelizer;
 
 import io.github.dsheirer.dsp.filter.channelizer.output.IPolyphaseChannelOutputProcessor;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
-import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
@@ -33,9 +34,6 @@ import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class PolyphaseChannelSource extends TunerChannelSource
 {
 //    private final static Logger mLog = LoggerFactory.getLogger(PolyphaseChannelSource.class);
@@ -45,7 +43,6 @@ public class PolyphaseChannelSource extends TunerChannelSource
     private IPolyphaseChannelOutputProcessor mReplacementPolyphaseChannelOutputProcessor;
     private long mReplacementFrequency;
     private ComplexFIRFilter2 mLowPassFilter;
-    private static Map<Integer,float[]> sLowPassFilters = new HashMap();
 
     private double mChannelSampleRate;
     private long mIndexCenterFrequency;
@@ -53,8 +50,8 @@ public class PolyphaseChannelSource extends TunerChannelSource
 
     /**
      * Polyphase channelizer tuner channel source implementation.  Adapts the channel array output samples from the
-     * polyphase channelizer into a single channel, or a channel synthesized from two adjacent channels that is
-     * frequency translated and decimated to a single channel.
+     * polyphase channelizer into a single channel, or a channel synthesized from two or more adjacent channels that
+     * is frequency translated to center the channel of interest.
      *
      * @param tunerChannel describing the desired channel frequency and bandwidth/minimum sample rate
      * @param outputProcessor - to process polyphase channelizer channel results into a channel stream
@@ -107,6 +104,13 @@ public class PolyphaseChannelSource extends TunerChannelSource
         return mPolyphaseChannelOutputProcessor;
     }
 
+    @Override
+    public OverflowableTransferQueue<?> getSampleQueue()
+    {
+        IPolyphaseChannelOutputProcessor outputProcessor = mPolyphaseChannelOutputProcessor;
+        return outputProcessor != null ? outputProcessor.getChannelResultsQueue() : null;
+    }
+
     /**
      * Sets/updates the output processor for this channel source, replacing the existing output processor.
      *
@@ -172,6 +176,7 @@ public class PolyphaseChannelSource extends TunerChannelSource
 
         mReusableComplexBufferAssembler.updateTimestamp(channelResultsBuffer.getTimestamp());
         mPolyphaseChannelOutputProcessor.receiveChannelResults(channelResultsBuffer);
+        signalSamplesAvailable();
     }
 
     /**
@@ -285,12 +290,6 @@ public class PolyphaseChannelSource extends TunerChannelSource
      */
     private float[] getLowPassFilter(double sampleRate, double passFrequency, double stopFrequency) throws FilterDesignException
     {
-        //Use existing filter if we've already designed one
-        if(sLowPassFilters.containsKey((int)sampleRate))
-        {
-            return sLowPassFilters.get((int)sampleRate);
-        }
-
         FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
             .sampleRate(sampleRate)
             .gridDensity(16)
@@ -302,12 +301,12 @@ public class PolyphaseChannelSource extends TunerChannelSource
             .stopBandRipple(0.01)
             .build();
 
-        RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-        //This will throw an exception if the filter cannot be designed
-        float[] taps = designer.getImpulseResponse();
+        float[] taps = FilterDesignCache.getInstance().getRemezFilter(specification);
 
-        sLowPassFilters.put((int)sampleRate, taps);
+        if(taps == null)
+        {
+            throw new FilterDesignException("Couldn't design low pass filter for sample rate: " + sampleRate);
+        }
 
         return taps;
     }
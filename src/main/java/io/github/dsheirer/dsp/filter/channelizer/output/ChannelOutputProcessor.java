@@ -21,6 +21,7 @@ package io.github.dsheirer.dsp.filter.channelizer.output;
 import io.github.dsheirer.dsp.mixer.IOscillator;
 import io.github.dsheirer.dsp.mixer.Oscillator;
 import io.github.dsheirer.sample.IOverflowListener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
 import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
 import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
 import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
@@ -149,6 +150,15 @@ public abstract class ChannelOutputProcessor implements IPolyphaseChannelOutputP
         mChannelResultsQueue.setSourceOverflowListener(source);
     }
 
+    /**
+     * Internal channelizer channel results queue, for depth and overflow monitoring
+     */
+    @Override
+    public OverflowableTransferQueue<?> getChannelResultsQueue()
+    {
+        return mChannelResultsQueue;
+    }
+
     /**
      * Removes the overflow listener from monitoring the internal channelizer channel results queue overflow state
      */
@@ -0,0 +1,166 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.channelizer.output;
+
+import io.github.dsheirer.dsp.filter.channelizer.NChannelSynthesizerM2;
+import io.github.dsheirer.sample.buffer.ReusableChannelResultsBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
+
+import java.util.List;
+
+public class NChannelOutputProcessor extends ChannelOutputProcessor
+{
+    private NChannelSynthesizerM2 mSynthesizer;
+    private int mSynthesisChannelCount;
+    private double mChannelSampleRate;
+    private int[] mChannelOffsets;
+    private long mFrequencyOffset;
+    private long mSynthesisCenterOffset;
+
+    /**
+     * Processor to extract a contiguous run of channels from a polyphase channelizer, synthesize/recombine the
+     * channels, apply frequency translation and frequency correction, and output an I/Q complex sample stream at the
+     * minimum sample rate for the synthesis channel count.
+     *
+     * The synthesis channel count is fixed for the life of this processor so that the output sample rate doesn't
+     * change as the polyphase channel indexes are updated.  It can process any count of channel indexes up to the
+     * synthesis channel count.
+     *
+     * @param channelSampleRate of each polyphase channelizer channel.
+     * @param synthesisChannelCount even number of channels to synthesize.  Output sample rate is the channel sample
+     * rate times half of the synthesis channel count.
+     * @param channelIndexes containing between one and synthesis channel count indexes in ascending frequency order.
+     * @param filter for the synthesis channel count.
+     * @param gain to apply to output.  Typically this is equal to the channelizer's channel count.
+     */
+    public NChannelOutputProcessor(double channelSampleRate, int synthesisChannelCount, List<Integer> channelIndexes,
+                                   float[] filter, double gain)
+    {
+        super(synthesisChannelCount, channelSampleRate, gain);
+        mChannelSampleRate = channelSampleRate;
+        mSynthesisChannelCount = synthesisChannelCount;
+
+        //Frequency correction is applied after synthesis, so match the oscillator to the synthesized sample rate
+        getFrequencyCorrectionMixer().setSampleRate(getOutputSampleRate(channelSampleRate, synthesisChannelCount));
+
+        setPolyphaseChannelIndices(channelIndexes);
+        setSynthesisFilter(filter);
+    }
+
+    /**
+     * Calculates the output sample rate for a synthesis channel count.
+     *
+     * @param channelSampleRate of each polyphase channelizer channel.
+     * @param synthesisChannelCount even number of channels to synthesize.
+     * @return output sample rate in hertz.
+     */
+    public static double getOutputSampleRate(double channelSampleRate, int synthesisChannelCount)
+    {
+        return channelSampleRate * synthesisChannelCount / 2;
+    }
+
+    /**
+     * Sets the frequency offset to apply to the incoming samples to mix the desired signal to baseband.
+     *
+     * @param frequencyOffset in hertz
+     */
+    @Override
+    public void setFrequencyOffset(long frequencyOffset)
+    {
+        mFrequencyOffset = frequencyOffset;
+        super.setFrequencyOffset(mFrequencyOffset + mSynthesisCenterOffset);
+    }
+
+    @Override
+    public void setSynthesisFilter(float[] filter)
+    {
+        NChannelSynthesizerM2 synthesizer = new NChannelSynthesizerM2(filter, mSynthesisChannelCount);
+        synthesizer.setChannelOffsets(mChannelOffsets);
+        mSynthesizer = synthesizer;
+    }
+
+    /**
+     * Updates this processor to extract the specified channel indexes.
+     *
+     * @param indexes containing between one and synthesis channel count indexes in ascending frequency order.
+     * @throws IllegalArgumentException if the list of indexes is empty or exceeds the synthesis channel count.
+     */
+    public void setPolyphaseChannelIndices(List<Integer> indexes)
+    {
+        if(indexes.isEmpty() || indexes.size() > mSynthesisChannelCount)
+        {
+            throw new IllegalArgumentException("N channel output processor requires between 1 and " +
+                mSynthesisChannelCount + " indexes to process - provided indexes " + indexes.toString());
+        }
+
+        //Set the channelized output results offsets to twice the channel index to account for each channel having
+        //an I/Q pair
+        int[] channelOffsets = new int[indexes.size()];
+
+        for(int x = 0; x < indexes.size(); x++)
+        {
+            channelOffsets[x] = indexes.get(x) * 2;
+        }
+
+        mChannelOffsets = channelOffsets;
+
+        if(mSynthesizer != null)
+        {
+            mSynthesizer.setChannelOffsets(mChannelOffsets);
+        }
+
+        //The synthesizer centers an even count of channels one half channel (channel sample rate / 4) below the
+        //boundary between the two middle channels, so shift the boundary down to baseband while mixing
+        mSynthesisCenterOffset = (indexes.size() % 2 == 0) ? -(long)(mChannelSampleRate / 4) : 0;
+        setFrequencyOffset(mFrequencyOffset);
+    }
+
+    /**
+     * Synthesize the channels from the channel results array, apply frequency translation, and deliver the
+     * synthesized frequency-corrected channel I/Q sample set to the complex sample listener.
+     *
+     * @param channelResultsBuffers to process containing an array of channel I/Q sample pairs (I0,Q0,I1,Q1...In,Qn)
+     * @param reusableComplexBufferAssembler to receive the synthesized, frequency-translated channel results
+     */
+    @Override
+    public void process(List<ReusableChannelResultsBuffer> channelResultsBuffers,
+                        ReusableComplexBufferAssembler reusableComplexBufferAssembler)
+    {
+        for(ReusableChannelResultsBuffer buffer : channelResultsBuffers)
+        {
+            ReusableComplexBuffer synthesized = mSynthesizer.process(buffer.getChannelResults(), buffer.isTopBlock());
+
+            //Apply offset and frequency correction to center the signal of interest within the synthesized channel
+            if(hasFrequencyCorrection())
+            {
+                getFrequencyCorrectionMixer().mixComplex(synthesized.getSamples());
+            }
+
+            synthesized.applyGain(getGain());
+
+            reusableComplexBufferAssembler.receive(synthesized);
+
+            buffer.decrementUserCount();
+        }
+    }
+}
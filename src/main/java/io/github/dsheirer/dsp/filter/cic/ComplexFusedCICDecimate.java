@@ -0,0 +1,290 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.cic;
+
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.dsp.filter.fir.complex.ComplexFIRFilter2;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.sample.buffer.ReusableComplexBufferAssembler;
+import org.apache.commons.lang3.Validate;
+
+import java.util.List;
+
+/**
+ * Fused digital down converter (DDC) that combines frequency translation, prime-factor CIC decimation and the final
+ * low-pass cleanup filter into a single loop over the input sample buffer.
+ *
+ * This produces the same output as a LowPhaseNoiseOscillator mixer feeding a ComplexPrimeCICDecimate filter, but
+ * without the per-sample listener chain between mixer, CIC stages, decimators and output.  Oscillator state and the
+ * CIC stage state are held in primitive fields and flat arrays, the per-stage gain values are folded into a single
+ * output gain and the cleanup filter only runs at the decimated output rate.
+ *
+ * Multiple decimators that receive the same input buffer can share a single pass over the input samples via the
+ * static process(samples, decimators, count, angles) method, so that each input sample is loaded once for all channels.
+ *
+ * This class is not thread-safe, except for mixer frequency updates which can occur from any thread.
+ */
+public class ComplexFusedCICDecimate
+{
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double THREE_HALVES = 3.0 / 2.0;
+    private static final int OUTPUT_BUFFER_SIZE = 2400;
+
+    private double mSampleRate;
+
+    //Low phase noise oscillator (Lyons, Digital Signal Processing 3e, p.786)
+    private double mInphase = 1.0;
+    private double mQuadrature = 0.0;
+    private double mGain = 1.0;
+    private volatile double mCosineAngle = 1.0;
+    private volatile double mSineAngle = 0.0;
+
+    //CIC stages - each stage is a running sum (moving average) followed by a decimator
+    private int mStageCount;
+    private int[] mStageDecimation;
+    private int[] mStageCounter;
+    private int[] mStageWindow;
+    private int[] mStagePointer;
+    private float[][] mStageInphase;
+    private float[][] mStageQuadrature;
+    private float[] mStageInphaseSum;
+    private float[] mStageQuadratureSum;
+    private float mOutputGain = 1.0f;
+
+    private ComplexFIRFilter2 mLowPassFilter;
+    private ReusableComplexBufferAssembler mBufferAssembler;
+    private Listener<ReusableComplexBuffer> mListener;
+
+    /**
+     * Constructs a fused mixer and decimation filter.
+     *
+     * @param sampleRate of the input sample stream
+     * @param decimation - overall decimation rate
+     * @param passFrequency for the final cleanup filter
+     * @param stopFrequency for the final cleanup filter
+     * @param mixerFrequency to translate to baseband
+     * @throws FilterDesignException if a final low-pass cleanup filter cannot be created for the output channel rate
+     *                               and specified pass/stop frequencies.
+     */
+    public ComplexFusedCICDecimate(double sampleRate, int decimation, double passFrequency, double stopFrequency,
+                                   double mixerFrequency) throws FilterDesignException
+    {
+        Validate.isTrue(decimation <= ComplexPrimeCICDecimate.PRIMES[ComplexPrimeCICDecimate.PRIMES.length - 1]);
+
+        mSampleRate = sampleRate;
+
+        List<Integer> stageSizes = ComplexPrimeCICDecimate.getPrimeFactors(decimation);
+
+        mStageCount = stageSizes.size();
+        mStageDecimation = new int[mStageCount];
+        mStageCounter = new int[mStageCount];
+        mStageWindow = new int[mStageCount];
+        mStagePointer = new int[mStageCount];
+        mStageInphase = new float[mStageCount][];
+        mStageQuadrature = new float[mStageCount][];
+        mStageInphaseSum = new float[mStageCount];
+        mStageQuadratureSum = new float[mStageCount];
+
+        for(int x = 0; x < mStageCount; x++)
+        {
+            int size = stageSizes.get(x);
+
+            //Matches the ComplexPrimeCICDecimate stage windows: size 2 stages sum the current and previous sample
+            //and larger stages average the most recent (size - 1) samples.
+            int window = (size == 2) ? 2 : size - 1;
+
+            mStageDecimation[x] = size;
+            mStageWindow[x] = window;
+            mStageInphase[x] = new float[window];
+            mStageQuadrature[x] = new float[window];
+            mOutputGain /= (float)window;
+        }
+
+        double channelRate = sampleRate / (double)decimation;
+
+        mLowPassFilter = new ComplexFIRFilter2(ComplexPrimeCICDecimate.getLowPassFilter(channelRate, passFrequency,
+            stopFrequency), 1.0f);
+        mBufferAssembler = new ReusableComplexBufferAssembler(OUTPUT_BUFFER_SIZE, channelRate);
+        mBufferAssembler.setListener(new Listener<ReusableComplexBuffer>()
+        {
+            @Override
+            public void receive(ReusableComplexBuffer reusableComplexBuffer)
+            {
+                if(mListener != null)
+                {
+                    mListener.receive(reusableComplexBuffer);
+                }
+                else
+                {
+                    reusableComplexBuffer.decrementUserCount();
+                }
+            }
+        });
+
+        setMixerFrequency(mixerFrequency);
+    }
+
+    /**
+     * Sets the frequency of the mixing oscillator.  May be invoked from any thread.
+     *
+     * @param frequency in hertz
+     */
+    public void setMixerFrequency(double frequency)
+    {
+        double anglePerSample = TWO_PI * frequency / mSampleRate;
+        mCosineAngle = Math.cos(anglePerSample);
+        mSineAngle = Math.sin(anglePerSample);
+    }
+
+    /**
+     * Sets the listener to receive the decimated output of this filter
+     */
+    public void setListener(Listener<ReusableComplexBuffer> listener)
+    {
+        mListener = listener;
+    }
+
+    /**
+     * Removes the listener from the output of this filter
+     */
+    public void removeListener()
+    {
+        mListener = null;
+    }
+
+    public void dispose()
+    {
+        mListener = null;
+        mBufferAssembler.dispose();
+        mLowPassFilter.dispose();
+    }
+
+    /**
+     * Translates and decimates the interleaved complex (I,Q,I,Q...) samples in a single pass.
+     *
+     * @param samples to process
+     */
+    public void process(float[] samples)
+    {
+        double cosine = mCosineAngle;
+        double sine = mSineAngle;
+
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            process(samples[x], samples[x + 1], cosine, sine);
+        }
+    }
+
+    /**
+     * Translates and decimates the interleaved complex (I,Q,I,Q...) samples for each of the decimators in a single
+     * shared pass over the sample array.
+     *
+     * @param samples to process
+     * @param decimators to receive the samples
+     * @param count of decimators to use from the decimators array
+     * @param angles scratch array owned by the caller for the oscillator angles, sized to at least (2 * count)
+     */
+    public static void process(float[] samples, ComplexFusedCICDecimate[] decimators, int count, double[] angles)
+    {
+        if(count == 1)
+        {
+            decimators[0].process(samples);
+            return;
+        }
+
+        //Cosine and sine angle pairs for each decimator, captured once per buffer
+        for(int x = 0; x < count; x++)
+        {
+            angles[2 * x] = decimators[x].mCosineAngle;
+            angles[2 * x + 1] = decimators[x].mSineAngle;
+        }
+
+        for(int x = 0; x < samples.length; x += 2)
+        {
+            float inphase = samples[x];
+            float quadrature = samples[x + 1];
+
+            for(int y = 0; y < count; y++)
+            {
+                decimators[y].process(inphase, quadrature, angles[2 * y], angles[2 * y + 1]);
+            }
+        }
+    }
+
+    /**
+     * Processes a single complex sample: rotate the oscillator, mix, then run the sample through as many CIC stages
+     * as the stage decimators allow.
+     */
+    private void process(float inphase, float quadrature, double cosine, double sine)
+    {
+        double oscillatorInphase = ((mInphase * cosine) - (mQuadrature * sine)) * mGain;
+        double oscillatorQuadrature = ((mInphase * sine) + (mQuadrature * cosine)) * mGain;
+        mInphase = oscillatorInphase;
+        mQuadrature = oscillatorQuadrature;
+        mGain = THREE_HALVES - ((oscillatorInphase * oscillatorInphase) + (oscillatorQuadrature * oscillatorQuadrature));
+
+        float mixerInphase = (float)oscillatorInphase;
+        float mixerQuadrature = (float)oscillatorQuadrature;
+
+        float i = (inphase * mixerInphase) - (quadrature * mixerQuadrature);
+        float q = (quadrature * mixerInphase) + (inphase * mixerQuadrature);
+
+        for(int stage = 0; stage < mStageCount; stage++)
+        {
+            int pointer = mStagePointer[stage];
+            float[] inphaseHistory = mStageInphase[stage];
+            float[] quadratureHistory = mStageQuadrature[stage];
+
+            float inphaseSum = mStageInphaseSum[stage] - inphaseHistory[pointer] + i;
+            float quadratureSum = mStageQuadratureSum[stage] - quadratureHistory[pointer] + q;
+            mStageInphaseSum[stage] = inphaseSum;
+            mStageQuadratureSum[stage] = quadratureSum;
+            inphaseHistory[pointer] = i;
+            quadratureHistory[pointer] = q;
+
+            pointer++;
+
+            if(pointer >= mStageWindow[stage])
+            {
+                pointer = 0;
+            }
+
+            mStagePointer[stage] = pointer;
+
+            int counter = mStageCounter[stage] + 1;
+
+            if(counter < mStageDecimation[stage])
+            {
+                mStageCounter[stage] = counter;
+                return;
+            }
+
+            mStageCounter[stage] = 0;
+            i = inphaseSum;
+            q = quadratureSum;
+        }
+
+        mBufferAssembler.receive(mLowPassFilter.filterInphase(i * mOutputGain),
+            mLowPassFilter.filterQuadrature(q * mOutputGain));
+    }
+}
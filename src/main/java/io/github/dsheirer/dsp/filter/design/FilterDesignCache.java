@@ -0,0 +1,323 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.design;
+
+import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
+import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
+import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesignerWithLagrange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Process-wide cache of designed filter coefficients keyed by the full filter specification.
+ *
+ * Decoders and channel sources request the same filters each time that a channel starts.  The first request for a
+ * specification designs the filter and subsequent requests from any thread reuse the designed coefficients.  Each
+ * request returns a copy of the cached coefficients so that callers are free to modify the returned array.
+ *
+ * The cache is optionally persisted to the application directory on shutdown and reloaded on startup so that
+ * filters designed in a previous session are available immediately.  Persistence is enabled by default and can be
+ * disabled with -Dsdrtrunk.filter.cache.persist=false
+ *
+ * The persisted file header records the designer version and the application version.  A file written by a different
+ * designer or application version is discarded on startup so that filters are redesigned with the current designers.
+ * Increment DESIGNER_VERSION whenever a change to a filter designer or to a design key would alter the coefficients.
+ */
+public class FilterDesignCache
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FilterDesignCache.class);
+
+    public static final String PERSIST_PROPERTY = "sdrtrunk.filter.cache.persist";
+    public static final String CACHE_FILE_NAME = "filter_design_cache.bin";
+    private static final int FILE_MAGIC = 0x53444643; //SDFC
+    private static final int FILE_VERSION = 2;
+    private static final int DESIGNER_VERSION = 1;
+    private static final FilterDesignCache INSTANCE = new FilterDesignCache();
+
+    private Map<String,float[]> mFilters = new ConcurrentHashMap<>();
+    private AtomicBoolean mModified = new AtomicBoolean();
+    private Path mCacheFile;
+
+    /**
+     * Singleton constructor.  Use getInstance()
+     */
+    private FilterDesignCache()
+    {
+    }
+
+    /**
+     * Process-wide filter design cache
+     */
+    public static FilterDesignCache getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Designs a filter from the specification using the remez exchange algorithm, or reuses a previously designed
+     * filter for an identical specification.
+     *
+     * @param specification of the filter
+     * @return filter coefficients or null if the designer cannot converge on a solution for the specification
+     * @throws FilterDesignException if the filter cannot be designed
+     */
+    public float[] getRemezFilter(FIRFilterSpecification specification) throws FilterDesignException
+    {
+        return getFilter("remez:" + specification.getDesignKey(), () -> {
+            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
+            return designer.isValid() ? designer.getImpulseResponse() : null;
+        });
+    }
+
+    /**
+     * Designs a filter from the specification using the remez exchange algorithm with lagrange interpolation, or
+     * reuses a previously designed filter for an identical specification.
+     *
+     * @param specification of the filter
+     * @return filter coefficients
+     * @throws FilterDesignException if the filter cannot be designed
+     */
+    public float[] getRemezLagrangeFilter(FIRFilterSpecification specification) throws FilterDesignException
+    {
+        return getFilter("remez-lagrange:" + specification.getDesignKey(),
+            () -> new RemezFIRFilterDesignerWithLagrange(specification).getImpulseResponse());
+    }
+
+    /**
+     * Returns the cached filter for the key, or designs the filter and caches it when the key is not cached.
+     *
+     * The design is performed outside of any lock so that concurrent requests for different filters do not block
+     * each other.  Concurrent requests for the same uncached filter may each design the filter, but only the first
+     * result is retained.
+     *
+     * @param key that uniquely identifies every parameter of the filter design
+     * @param design to create the filter when the key is not cached
+     * @return a copy of the filter coefficients or null if the design produced no filter
+     * @throws FilterDesignException if the filter cannot be designed
+     */
+    public float[] getFilter(String key, FilterDesign design) throws FilterDesignException
+    {
+        float[] filter = mFilters.get(key);
+
+        if(filter == null)
+        {
+            float[] designed = design.design();
+
+            if(designed == null)
+            {
+                return null;
+            }
+
+            filter = mFilters.putIfAbsent(key, designed);
+
+            if(filter == null)
+            {
+                filter = designed;
+                mModified.set(true);
+            }
+        }
+
+        return filter.clone();
+    }
+
+    /**
+     * Number of cached filters
+     */
+    public int size()
+    {
+        return mFilters.size();
+    }
+
+    /**
+     * Removes all cached filters
+     */
+    public void clear()
+    {
+        mFilters.clear();
+        mModified.set(true);
+    }
+
+    /**
+     * Loads any previously persisted filters from the directory, when persistence is enabled.
+     *
+     * @param directory containing the persisted cache file
+     */
+    public void start(Path directory)
+    {
+        if(directory == null || !Boolean.parseBoolean(System.getProperty(PERSIST_PROPERTY, "true")))
+        {
+            return;
+        }
+
+        mCacheFile = directory.resolve(CACHE_FILE_NAME);
+
+        if(Files.exists(mCacheFile))
+        {
+            try
+            {
+                int count = load(mCacheFile);
+                mLog.info("Loaded [" + count + "] previously designed filters from " + mCacheFile);
+            }
+            catch(IOException ioe)
+            {
+                mLog.warn("Unable to load filter design cache [" + mCacheFile + "] - filters will be redesigned", ioe);
+            }
+        }
+    }
+
+    /**
+     * Persists the cached filters when persistence is enabled and filters were added since the cache was loaded.
+     */
+    public void stop()
+    {
+        if(mCacheFile != null && mModified.compareAndSet(true, false))
+        {
+            try
+            {
+                save(mCacheFile);
+            }
+            catch(IOException ioe)
+            {
+                mLog.warn("Unable to save filter design cache [" + mCacheFile + "]", ioe);
+            }
+        }
+    }
+
+    /**
+     * Version identifier for the designed filters that combines the designer version and the application version, so
+     * that filters persisted by a different release are not reused.
+     */
+    private static String getDesignVersion()
+    {
+        String applicationVersion = FilterDesignCache.class.getPackage().getImplementationVersion();
+        return DESIGNER_VERSION + ":" + (applicationVersion != null ? applicationVersion : "development");
+    }
+
+    /**
+     * Loads filters from the file into this cache.  Filters already in the cache are retained.  When the file was
+     * written by a different designer or application version, the file contents are ignored and the cache is flagged
+     * as modified so that the file is rewritten on shutdown.
+     *
+     * @param file to read
+     * @return number of filters read from the file
+     * @throws IOException if the file cannot be read or has an unrecognized format
+     */
+    public int load(Path file) throws IOException
+    {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            if(in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION)
+            {
+                mLog.info("Discarding filter design cache [" + file + "] - unrecognized file format");
+                mModified.set(true);
+                return 0;
+            }
+
+            String designVersion = in.readUTF();
+
+            if(!designVersion.equals(getDesignVersion()))
+            {
+                mLog.info("Discarding filter design cache [" + file + "] - designed by version [" + designVersion +
+                    "] and current version is [" + getDesignVersion() + "]");
+                mModified.set(true);
+                return 0;
+            }
+
+            int count = in.readInt();
+
+            for(int x = 0; x < count; x++)
+            {
+                String key = in.readUTF();
+                float[] filter = new float[in.readInt()];
+
+                for(int y = 0; y < filter.length; y++)
+                {
+                    filter[y] = in.readFloat();
+                }
+
+                mFilters.putIfAbsent(key, filter);
+            }
+
+            return count;
+        }
+    }
+
+    /**
+     * Writes the cached filters to the file.  The filters are written to a temporary file that replaces the target
+     * file once complete, so that an interrupted save cannot corrupt a previously saved cache.
+     *
+     * @param file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException
+    {
+        Map<String,float[]> snapshot = new TreeMap<>(mFilters);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeUTF(getDesignVersion());
+            out.writeInt(snapshot.size());
+
+            for(Map.Entry<String,float[]> entry : snapshot.entrySet())
+            {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+
+                for(float coefficient : entry.getValue())
+                {
+                    out.writeFloat(coefficient);
+                }
+            }
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Filter design function that may throw a filter design exception
+     */
+    public interface FilterDesign
+    {
+        /**
+         * Designs the filter
+         * @return filter coefficients or null if the filter cannot be designed
+         * @throws FilterDesignException if the filter cannot be designed
+         */
+        float[] design() throws FilterDesignException;
+    }
+}
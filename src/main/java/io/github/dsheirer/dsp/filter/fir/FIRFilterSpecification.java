@@ -60,6 +60,26 @@ public class FIRFilterSpecification
         return sb.toString();
     }
 
+    /**
+     * Canonical description of every parameter that affects the designed filter.  Two specifications with the same
+     * design key produce identical filter coefficients, so the key can be used to cache designed filters.
+     */
+    public String getDesignKey()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getClass().getSimpleName());
+        sb.append(":").append(mRemezFilterType.name());
+        sb.append(":").append(mOrder);
+        sb.append(":").append(mGridDensity);
+
+        for(FrequencyBand band : mFrequencyBands)
+        {
+            sb.append(":").append(band.getDesignKey());
+        }
+
+        return sb.toString();
+    }
+
     public void addFrequencyBand(FrequencyBand band)
     {
         mFrequencyBands.add(band);
@@ -1065,6 +1085,15 @@ public class FIRFilterSpecification
             return sb.toString();
         }
 
+        /**
+         * Canonical description of the parameters of this band that affect the filter design
+         */
+        public String getDesignKey()
+        {
+            return "[" + mStart + "," + mEnd + "," + mAmplitude + "," + mRippleDB + "," +
+                (mWeight != null ? mWeight : "-") + "]";
+        }
+
         /**
          * Start frequency edge for this band normalized to 1 Hz.
          */
@@ -0,0 +1,182 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.dsp.filter.resample;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.Window;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+
+/**
+ * Polyphase rational resampler for real sample blocks.  Resamples by a factor of interpolation / decimation using a
+ * windowed-sinc low-pass prototype filter that is decomposed into one sub-filter per interpolation phase, so that
+ * only the non-zero (ie non-zero-stuffed) products are calculated for each output sample.
+ *
+ * Each phase sub-filter is stored time-reversed so that each output sample is a forward dot product against a
+ * contiguous span of the input samples.  Filter state is retained across calls to support streaming block input.
+ */
+public class RationalResampler
+{
+    private int mInterpolation;
+    private int mDecimation;
+    private int mTapsPerPhase;
+    private float[][] mPhaseFilters;
+    private float[] mBuffer;
+    private int mPhase;
+    private int mInputIndex;
+
+    /**
+     * Constructs an instance
+     *
+     * @param interpolation factor (L)
+     * @param decimation factor (M)
+     * @param tapsPerPhase number of filter taps in each polyphase sub-filter
+     * @param cutoff frequency as a fraction (0.0 <> 0.5) of the lower of the input and output sample rates
+     * @param windowType for the prototype filter design
+     */
+    public RationalResampler(int interpolation, int decimation, int tapsPerPhase, double cutoff,
+                             Window.WindowType windowType)
+    {
+        if(interpolation < 1 || decimation < 1 || tapsPerPhase < 1)
+        {
+            throw new IllegalArgumentException("Interpolation, decimation and taps per phase must be positive");
+        }
+
+        mInterpolation = interpolation;
+        mDecimation = decimation;
+        mTapsPerPhase = tapsPerPhase;
+
+        //Prototype filter operates at the interpolated sample rate and must be odd-length
+        int length = interpolation * tapsPerPhase;
+        int oddLength = (length % 2 == 0) ? length - 1 : length;
+        double prototypeCutoff = cutoff * Math.min(1.0, (double)interpolation / decimation) / interpolation;
+
+        float[] prototype;
+
+        try
+        {
+            prototype = FilterFactory.getSinc(prototypeCutoff, oddLength, windowType);
+        }
+        catch(FilterDesignException fde)
+        {
+            throw new IllegalArgumentException("Unable to design resampler filter", fde);
+        }
+
+        //Decompose into phase sub-filters with interpolation gain applied to offset the zero-stuffing loss
+        mPhaseFilters = new float[interpolation][tapsPerPhase];
+
+        for(int phase = 0; phase < interpolation; phase++)
+        {
+            for(int tap = 0; tap < tapsPerPhase; tap++)
+            {
+                int index = phase + tap * interpolation;
+                float coefficient = index < prototype.length ? prototype[index] * interpolation : 0.0f;
+                mPhaseFilters[phase][tapsPerPhase - 1 - tap] = coefficient;
+            }
+        }
+
+        mBuffer = new float[tapsPerPhase - 1];
+    }
+
+    /**
+     * Maximum number of output samples that can be produced from a block of input samples.
+     *
+     * @param inputLength number of input samples
+     * @return maximum output sample count
+     */
+    public int getMaxOutputLength(int inputLength)
+    {
+        return (int)(((long)inputLength * mInterpolation) / mDecimation) + 1;
+    }
+
+    /**
+     * Resamples the input samples into the output array.
+     *
+     * @param input samples
+     * @param length of input samples to process
+     * @param output array sized to at least getMaxOutputLength(length)
+     * @return number of output samples produced
+     */
+    public int resample(float[] input, int length, float[] output)
+    {
+        int history = mTapsPerPhase - 1;
+        int required = history + length;
+
+        if(mBuffer.length < required)
+        {
+            float[] buffer = new float[required];
+            System.arraycopy(mBuffer, 0, buffer, 0, history);
+            mBuffer = buffer;
+        }
+
+        System.arraycopy(input, 0, mBuffer, history, length);
+
+        float[] buffer = mBuffer;
+        int count = 0;
+        int phase = mPhase;
+        int inputIndex = mInputIndex;
+
+        while(inputIndex < length)
+        {
+            float[] filter = mPhaseFilters[phase];
+            float accumulator = 0.0f;
+
+            //Input index is relative to the start of this block, so the newest sample is at history + inputIndex and
+            //the filter span starts tapsPerPhase - 1 samples before it
+            for(int tap = 0; tap < mTapsPerPhase; tap++)
+            {
+                accumulator += filter[tap] * buffer[inputIndex + tap];
+            }
+
+            output[count++] = accumulator;
+
+            phase += mDecimation;
+
+            while(phase >= mInterpolation)
+            {
+                phase -= mInterpolation;
+                inputIndex++;
+            }
+        }
+
+        mPhase = phase;
+        mInputIndex = inputIndex - length;
+
+        //Retain the final input samples as filter history for the next block
+        System.arraycopy(buffer, length, buffer, 0, history);
+
+        return count;
+    }
+
+    /**
+     * Clears the filter history and resets the interpolation phase
+     */
+    public void reset()
+    {
+        for(int x = 0; x < mBuffer.length; x++)
+        {
+            mBuffer[x] = 0.0f;
+        }
+
+        mPhase = 0;
+        mInputIndex = 0;
+    }
+}
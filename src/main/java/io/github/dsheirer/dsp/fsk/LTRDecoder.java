@@ -21,12 +21,12 @@
  */
 package io.github.dsheirer.dsp.fsk;
 
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.dsp.filter.dc.IIRSinglePoleDCRemovalFilter;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
 import io.github.dsheirer.dsp.filter.fir.FIRFilterSpecification;
 import io.github.dsheirer.dsp.filter.fir.real.RealFIRFilter2;
-import io.github.dsheirer.dsp.filter.fir.remez.RemezFIRFilterDesigner;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableFloatBuffer;
@@ -77,12 +77,7 @@ public class LTRDecoder implements Listener<ReusableFloatBuffer>, ISyncDetectLis
 
         try
         {
-            RemezFIRFilterDesigner designer = new RemezFIRFilterDesigner(specification);
-
-            if(designer.isValid())
-            {
-                sLowPassFilterCoefficients = designer.getImpulseResponse();
-            }
+            sLowPassFilterCoefficients = FilterDesignCache.getInstance().getRemezFilter(specification);
         }
         catch(FilterDesignException fde)
         {
@@ -96,7 +91,7 @@ public class LTRDecoder implements Listener<ReusableFloatBuffer>, ISyncDetectLis
     protected SynchronizationMonitor mSynchronizationMonitor;
     private IIRSinglePoleDCRemovalFilter mDCFilter = new IIRSinglePoleDCRemovalFilter(0.99999f);
     private RealFIRFilter2 mLowPassFilter = new RealFIRFilter2(sLowPassFilterCoefficients);
-    private MessageFramer mMessageFramer;
+    private PackedMessageFramer mMessageFramer;
 
     private boolean mSampleDecision;
 
@@ -187,7 +182,7 @@ public class LTRDecoder implements Listener<ReusableFloatBuffer>, ISyncDetectLis
      *
      * @param messageFramer to receive symbols.
      */
-    public void setMessageFramer(MessageFramer messageFramer)
+    public void setMessageFramer(PackedMessageFramer messageFramer)
     {
         mMessageFramer = messageFramer;
     }
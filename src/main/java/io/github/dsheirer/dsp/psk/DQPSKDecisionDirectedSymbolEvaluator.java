@@ -25,7 +25,6 @@ public class DQPSKDecisionDirectedSymbolEvaluator implements IPSKSymbolEvaluator
     private static final Complex ROTATE_FROM_MINUS_45 = Complex.fromAngle(1.0 * Math.PI / 4.0);
     private static final Complex ROTATE_FROM_MINUS_135 = Complex.fromAngle(3.0 * Math.PI / 4.0);
 
-    private Complex mEvaluationSymbol = new Complex(0, 0);
     private float mPhaseError = 0.0f;
     private float mTimingError = 0.0f;
     private float mTimingErrorPolarity = 1.0f;
@@ -59,43 +58,58 @@ public class DQPSKDecisionDirectedSymbolEvaluator implements IPSKSymbolEvaluator
      */
     public void setSymbol(Complex preceding, Complex current)
     {
-        mEvaluationSymbol.setValues(current);
+        setSymbol(preceding.quadrature(), current.inphase(), current.quadrature());
+    }
+
+    /**
+     * Primitive variant of setSymbol(Complex,Complex).  Only the quadrature value of the preceding symbol is
+     * required to detect the direction of vector rotation.
+     *
+     * @param precedingQuadrature of the differential-decoded preceding sample/symbol
+     * @param currentInphase of the interpolated symbol to be evaluated
+     * @param currentQuadrature of the interpolated symbol to be evaluated
+     */
+    public void setSymbol(float precedingQuadrature, float currentInphase, float currentQuadrature)
+    {
+        Complex rotation;
 
-        if(mEvaluationSymbol.quadrature() > 0.0f)
+        if(currentQuadrature > 0.0f)
         {
-            if(mEvaluationSymbol.inphase() > 0.0f)
+            if(currentInphase > 0.0f)
             {
                 mSymbolDecision = Dibit.D00_PLUS_1;
-                mTimingErrorPolarity = (preceding.quadrature() > current.quadrature() ? 1.0f : -1.0f);
-                mEvaluationSymbol.multiply(ROTATE_FROM_PLUS_45);
+                mTimingErrorPolarity = (precedingQuadrature > currentQuadrature ? 1.0f : -1.0f);
+                rotation = ROTATE_FROM_PLUS_45;
             }
             else
             {
                 mSymbolDecision = Dibit.D01_PLUS_3;
-                mTimingErrorPolarity = (preceding.quadrature() < current.quadrature() ? 1.0f : -1.0f);
-                mEvaluationSymbol.multiply(ROTATE_FROM_PLUS_135);
+                mTimingErrorPolarity = (precedingQuadrature < currentQuadrature ? 1.0f : -1.0f);
+                rotation = ROTATE_FROM_PLUS_135;
             }
 
         }
         else
         {
-            if(mEvaluationSymbol.inphase() > 0.0f)
+            if(currentInphase > 0.0f)
             {
                 mSymbolDecision = Dibit.D10_MINUS_1;
-                mTimingErrorPolarity = (preceding.quadrature() > current.quadrature() ? 1.0f : -1.0f);
-                mEvaluationSymbol.multiply(ROTATE_FROM_MINUS_45);
+                mTimingErrorPolarity = (precedingQuadrature > currentQuadrature ? 1.0f : -1.0f);
+                rotation = ROTATE_FROM_MINUS_45;
             }
             else
             {
                 mSymbolDecision = Dibit.D11_MINUS_3;
-                mTimingErrorPolarity = (preceding.quadrature() < current.quadrature() ? 1.0f : -1.0f);
-                mEvaluationSymbol.multiply(ROTATE_FROM_MINUS_135);
+                mTimingErrorPolarity = (precedingQuadrature < currentQuadrature ? 1.0f : -1.0f);
+                rotation = ROTATE_FROM_MINUS_135;
             }
         }
 
         //Since we've rotated the error symbol back to 0 radians, the quadrature value closely approximates the
         //arctan of the error angle relative to 0 radians and this provides our error value
-        float errorNormalized = normalize(mEvaluationSymbol.quadrature(), 0.3f);
+        float rotatedQuadrature = Complex.multiplyQuadrature(currentInphase, currentQuadrature, rotation.inphase(),
+            rotation.quadrature());
+        float errorNormalized = normalize(rotatedQuadrature, 0.3f);
 
         mPhaseError = -errorNormalized;
 
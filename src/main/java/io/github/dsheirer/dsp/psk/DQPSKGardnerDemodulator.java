@@ -22,9 +22,10 @@ import io.github.dsheirer.sample.complex.Complex;
 public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
 {
     protected DQPSKGardnerSymbolEvaluator mSymbolEvaluator = new DQPSKGardnerSymbolEvaluator();
-    private Complex mPreviousCurrentSample = new Complex(0, 0);
-    private Complex mPreviousMiddleSample = new Complex(0, 0);
-    private Complex mMiddleSymbol = new Complex(0, 0);
+    private float mPreviousCurrentSampleInphase = 0.0f;
+    private float mPreviousCurrentSampleQuadrature = 0.0f;
+    private float mPreviousMiddleSampleInphase = 0.0f;
+    private float mPreviousMiddleSampleQuadrature = 0.0f;
     protected Complex mCurrentSymbol = new Complex(0, 0);
 
     /**
@@ -47,43 +48,67 @@ public class DQPSKGardnerDemodulator extends PSKDemodulator<Dibit>
     @Override
     protected void calculateSymbol()
     {
+        InterpolatingSampleBuffer buffer = getInterpolatingSampleBuffer();
+
         //Note: the interpolating sample buffer holds 2 symbols worth of samples and the current sample method points
         //to the sample at the mid-point between those 2 symbol periods and the middle sample method points to the
         //sample that is half a symbol period after the current sample.  Since we need a middle sample and a current
         //symbol sample for the gardner calculation, we'll treat the interpolating buffer's current sample as the
         //gardner mid-point and we'll treat the interpolating buffer's mid-point sample as the current symbol
         //sample (ie flip-flopped)
-        Complex middleSample = getInterpolatingSampleBuffer().getCurrentSample();
-        Complex currentSample = getInterpolatingSampleBuffer().getMiddleSample();
+        float middleSampleInphase = buffer.getCurrentInphase();
+        float middleSampleQuadrature = buffer.getCurrentQuadrature();
+        float currentSampleInphase = buffer.getMiddleInphase();
+        float currentSampleQuadrature = buffer.getMiddleQuadrature();
 
         //Differential decode middle and current symbols by calculating the angular rotation between the previous and
         //current samples (current sample x complex conjugate of previous sample).
-        mMiddleSymbol.setInphase(Complex.multiplyInphase(middleSample.inphase(), middleSample.quadrature(),
-            mPreviousMiddleSample.inphase(), -mPreviousMiddleSample.quadrature()));
-        mMiddleSymbol.setQuadrature(Complex.multiplyQuadrature(middleSample.inphase(), middleSample.quadrature(),
-            mPreviousMiddleSample.inphase(), -mPreviousMiddleSample.quadrature()));
+        float middleSymbolInphase = Complex.multiplyInphase(middleSampleInphase, middleSampleQuadrature,
+            mPreviousMiddleSampleInphase, -mPreviousMiddleSampleQuadrature);
+        float middleSymbolQuadrature = Complex.multiplyQuadrature(middleSampleInphase, middleSampleQuadrature,
+            mPreviousMiddleSampleInphase, -mPreviousMiddleSampleQuadrature);
 
-        mCurrentSymbol.setInphase(Complex.multiplyInphase(currentSample.inphase(), currentSample.quadrature(),
-            mPreviousCurrentSample.inphase(), -mPreviousCurrentSample.quadrature()));
-        mCurrentSymbol.setQuadrature(Complex.multiplyQuadrature(currentSample.inphase(), currentSample.quadrature(),
-            mPreviousCurrentSample.inphase(), -mPreviousCurrentSample.quadrature()));
+        float currentSymbolInphase = Complex.multiplyInphase(currentSampleInphase, currentSampleQuadrature,
+            mPreviousCurrentSampleInphase, -mPreviousCurrentSampleQuadrature);
+        float currentSymbolQuadrature = Complex.multiplyQuadrature(currentSampleInphase, currentSampleQuadrature,
+            mPreviousCurrentSampleInphase, -mPreviousCurrentSampleQuadrature);
 
         //Set gain to unity before we calculate the error value
-        mMiddleSymbol.normalize();
-        mCurrentSymbol.normalize();
+        float middleSymbolMagnitude = Complex.magnitude(middleSymbolInphase, middleSymbolQuadrature);
+
+        if(middleSymbolMagnitude != 0)
+        {
+            float gain = 1.0f / middleSymbolMagnitude;
+            middleSymbolInphase *= gain;
+            middleSymbolQuadrature *= gain;
+        }
+
+        float currentSymbolMagnitude = Complex.magnitude(currentSymbolInphase, currentSymbolQuadrature);
+
+        if(currentSymbolMagnitude != 0)
+        {
+            float gain = 1.0f / currentSymbolMagnitude;
+            currentSymbolInphase *= gain;
+            currentSymbolQuadrature *= gain;
+        }
+
+        mCurrentSymbol.setValues(currentSymbolInphase, currentSymbolQuadrature);
 
         //Pass symbols to evaluator to determine timing and phase error and make symbol decision
-        mSymbolEvaluator.setSymbols(mMiddleSymbol, mCurrentSymbol);
+        mSymbolEvaluator.setSymbols(middleSymbolInphase, middleSymbolQuadrature, currentSymbolInphase,
+            currentSymbolQuadrature);
 
         //Update symbol timing error
-        getInterpolatingSampleBuffer().resetAndAdjust(mSymbolEvaluator.getTimingError());
+        buffer.resetAndAdjust(mSymbolEvaluator.getTimingError());
 
         //Update PLL phase error
         getPLL().adjust(mSymbolEvaluator.getPhaseError());
 
         //Store current samples/symbols for next symbol calculation
-        mPreviousMiddleSample.setValues(middleSample);
-        mPreviousCurrentSample.setValues(currentSample);
+        mPreviousMiddleSampleInphase = middleSampleInphase;
+        mPreviousMiddleSampleQuadrature = middleSampleQuadrature;
+        mPreviousCurrentSampleInphase = currentSampleInphase;
+        mPreviousCurrentSampleQuadrature = currentSampleQuadrature;
 
         broadcast(mSymbolEvaluator.getSymbolDecision());
     }
@@ -21,7 +21,6 @@
  */
 package io.github.dsheirer.dsp.psk;
 
-import io.github.dsheirer.sample.complex.Complex;
 import io.github.dsheirer.sample.complex.ComplexSampleListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,14 +39,15 @@ public class InterpolatingSampleBufferInstrumented extends InterpolatingSampleBu
         mSymbolDecisionData = new SymbolDecisionData(mBufferLength);
     }
 
-    public void receive(Complex sample)
+    @Override
+    public void receive(float inphase, float quadrature)
     {
-        super.receive(sample);
-        mSymbolDecisionData.receive(sample);
+        super.receive(inphase, quadrature);
+        mSymbolDecisionData.receive(inphase, quadrature);
 
         if(mSampleListener != null)
         {
-            mSampleListener.receive(sample.inphase(), sample.quadrature());
+            mSampleListener.receive(inphase, quadrature);
         }
     }
 
@@ -25,7 +25,6 @@ public abstract class PSKDemodulator<T> implements ComplexSampleListener
 {
     private InterpolatingSampleBuffer mInterpolatingSampleBuffer;
     private IPhaseLockedLoop mPLL;
-    private Complex mReceivedSample = new Complex(0, 0);
     private Listener<T> mSymbolListener;
 
     /**
@@ -83,10 +82,25 @@ public abstract class PSKDemodulator<T> implements ComplexSampleListener
     public void receive(ReusableComplexBuffer reusableComplexBuffer)
     {
         float[] samples = reusableComplexBuffer.getSamples();
+        IPhaseLockedLoop pll = mPLL;
+        InterpolatingSampleBuffer interpolatingSampleBuffer = mInterpolatingSampleBuffer;
 
         for(int x = 0; x < samples.length; x += 2)
         {
-            receive(samples[x], samples[x + 1]);
+            //Mix sample with costas loop to remove any rotation that is present from a mis-tuned carrier frequency
+            pll.increment();
+            float vectorInphase = pll.getCurrentInphase();
+            float vectorQuadrature = pll.getCurrentQuadrature();
+
+            interpolatingSampleBuffer.receive(
+                Complex.multiplyInphase(samples[x], samples[x + 1], vectorInphase, vectorQuadrature),
+                Complex.multiplyQuadrature(samples[x], samples[x + 1], vectorInphase, vectorQuadrature));
+
+            //Calculate the symbol once we've stored enough samples
+            if(interpolatingSampleBuffer.hasSymbol())
+            {
+                calculateSymbol();
+            }
         }
 
         reusableComplexBuffer.decrementUserCount();
@@ -100,14 +114,14 @@ public abstract class PSKDemodulator<T> implements ComplexSampleListener
     @Override
     public void receive(float inphase, float quadrature)
     {
-        //Update current sample with values
-        mReceivedSample.setValues(inphase, quadrature);
-
         //Mix current sample with costas loop to remove any rotation that is present from a mis-tuned carrier frequency
-        mReceivedSample.multiply(mPLL.incrementAndGetCurrentVector());
+        mPLL.increment();
+        float vectorInphase = mPLL.getCurrentInphase();
+        float vectorQuadrature = mPLL.getCurrentQuadrature();
 
         //Store the sample in the interpolating buffer
-        mInterpolatingSampleBuffer.receive(mReceivedSample);
+        mInterpolatingSampleBuffer.receive(Complex.multiplyInphase(inphase, quadrature, vectorInphase, vectorQuadrature),
+            Complex.multiplyQuadrature(inphase, quadrature, vectorInphase, vectorQuadrature));
 
         //Calculate the symbol once we've stored enough samples
         if(mInterpolatingSampleBuffer.hasSymbol())
@@ -60,13 +60,21 @@ public class QPSKStarSlicer implements IQPSKSymbolDecoder, Listener<Complex>
     @Override
     public Dibit decode(Complex sample)
     {
-        if(sample.inphase() > 0)
+        return decode(sample.inphase(), sample.quadrature());
+    }
+
+    /**
+     * Primitive variant of decode(Complex) that slices the symbol from inphase and quadrature values.
+     */
+    public Dibit decode(float inphase, float quadrature)
+    {
+        if(inphase > 0)
         {
-            return sample.quadrature() > 0 ? Dibit.D00_PLUS_1 : Dibit.D10_MINUS_1;
+            return quadrature > 0 ? Dibit.D00_PLUS_1 : Dibit.D10_MINUS_1;
         }
         else
         {
-            return sample.quadrature() > 0 ? Dibit.D01_PLUS_3 : Dibit.D11_MINUS_3;
+            return quadrature > 0 ? Dibit.D01_PLUS_3 : Dibit.D11_MINUS_3;
         }
     }
 
@@ -164,6 +164,24 @@ public class CostasLoop implements IPhaseLockedLoop
         return getCurrentVector();
     }
 
+    /**
+     * Inphase component of the current vector of the loop.
+     */
+    @Override
+    public float getCurrentInphase()
+    {
+        return (float)Math.cos(mLoopPhase);
+    }
+
+    /**
+     * Quadrature component of the current vector of the loop.
+     */
+    @Override
+    public float getCurrentQuadrature()
+    {
+        return (float)Math.sin(mLoopPhase);
+    }
+
     public double getLoopFrequency()
     {
         return mLoopFrequency;
@@ -52,6 +52,17 @@ public interface IPhaseLockedLoop
      */
     Complex incrementAndGetCurrentVector();
 
+    /**
+     * Inphase component of the current vector of the PLL.  Use with getCurrentQuadrature() to de-spin incoming
+     * samples without accessing a complex vector object.
+     */
+    float getCurrentInphase();
+
+    /**
+     * Quadrature component of the current vector of the PLL.
+     */
+    float getCurrentQuadrature();
+
     /**
      * Reset tracking to 0
      */
@@ -94,6 +94,44 @@ public class BinaryToByteBufferAssembler implements IBinarySymbolProcessor, IReu
 
     }
 
+    /**
+     * Processes packed symbols, most significant symbol first, transferring whole bytes into the current buffer once
+     * the assembler is byte aligned.
+     */
+    @Override
+    public void process(long symbols, int symbolCount)
+    {
+        int remaining = symbolCount;
+
+        while(remaining > 0)
+        {
+            if(mBitCount == 0 && remaining >= 8)
+            {
+                remaining -= 8;
+                mCurrentBuffer.getBytes()[mBufferPointer++] = (byte)(symbols >>> remaining);
+
+                if(mBufferPointer >= mBufferSize)
+                {
+                    getNextBuffer();
+                }
+            }
+            else
+            {
+                remaining--;
+                process(((symbols >>> remaining) & 1) == 1);
+            }
+        }
+    }
+
+    /**
+     * Discards any partially assembled byte so that the next symbol starts a new byte.
+     */
+    public void reset()
+    {
+        mCurrentByte = 0;
+        mBitCount = 0;
+    }
+
     /**
      * Registers the listener to receive fully assembled byte buffers from this assembler.
      */
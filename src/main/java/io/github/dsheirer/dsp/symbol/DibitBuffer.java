@@ -0,0 +1,163 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.dsp.symbol;
+
+import java.util.Arrays;
+
+/**
+ * Batch of dibit symbols packed four dibits per byte with the first dibit in the most significant bit positions,
+ * matching the packing used by ReusableByteBuffer and Dibit.parse().  The dibit count does not have to be a multiple
+ * of four - the final byte may be partially filled.
+ *
+ * Dibit buffers are owned by the producer and reused between broadcasts.  Listeners must fully process (or copy) the
+ * buffer contents before returning from the receive() call.
+ */
+public class DibitBuffer
+{
+    private byte[] mBytes;
+    private int mDibitCount;
+
+    /**
+     * Constructs a dibit buffer
+     * @param capacity in dibits.  Capacity is rounded up to the next multiple of four.
+     */
+    public DibitBuffer(int capacity)
+    {
+        if(capacity <= 0)
+        {
+            throw new IllegalArgumentException("Dibit buffer capacity must be greater than zero");
+        }
+
+        mBytes = new byte[(capacity + 3) / 4];
+    }
+
+    /**
+     * Appends the dibit to this buffer.
+     * @param dibit to add
+     * @throws ArrayIndexOutOfBoundsException if the buffer is full
+     */
+    public void add(Dibit dibit)
+    {
+        add(dibit.getLowValue());
+    }
+
+    /**
+     * Appends the dibit value (0-3) to this buffer.
+     * @param value of the dibit
+     * @throws ArrayIndexOutOfBoundsException if the buffer is full
+     */
+    public void add(int value)
+    {
+        int index = mDibitCount >> 2;
+        int shift = (3 - (mDibitCount & 0x3)) << 1;
+        mBytes[index] = (byte)((mBytes[index] & ~(0x3 << shift)) | ((value & 0x3) << shift));
+        mDibitCount++;
+    }
+
+    /**
+     * Dibit value (0-3) at the specified index
+     * @param index of the dibit
+     */
+    public int getValue(int index)
+    {
+        return (mBytes[index >> 2] >> ((3 - (index & 0x3)) << 1)) & 0x3;
+    }
+
+    /**
+     * Dibit at the specified index
+     * @param index of the dibit
+     */
+    public Dibit getDibit(int index)
+    {
+        return Dibit.fromValue(getValue(index));
+    }
+
+    /**
+     * Packed dibit byte array.  Only the first (getDibitCount() + 3) / 4 bytes are valid.
+     */
+    public byte[] getBytes()
+    {
+        return mBytes;
+    }
+
+    /**
+     * Number of dibits currently contained in this buffer
+     */
+    public int getDibitCount()
+    {
+        return mDibitCount;
+    }
+
+    /**
+     * Maximum number of dibits that this buffer can hold
+     */
+    public int getCapacity()
+    {
+        return mBytes.length * 4;
+    }
+
+    /**
+     * Indicates if this buffer is full
+     */
+    public boolean isFull()
+    {
+        return mDibitCount >= getCapacity();
+    }
+
+    /**
+     * Indicates if this buffer is empty
+     */
+    public boolean isEmpty()
+    {
+        return mDibitCount == 0;
+    }
+
+    /**
+     * Empties this buffer so that it can be reused.
+     */
+    public void clear()
+    {
+        mDibitCount = 0;
+    }
+
+    /**
+     * Loads this buffer with the packed dibit contents of the byte array, resizing the buffer if necessary.
+     * @param bytes containing four packed dibits per byte
+     */
+    public void load(byte[] bytes)
+    {
+        if(mBytes.length < bytes.length)
+        {
+            mBytes = new byte[bytes.length];
+        }
+
+        System.arraycopy(bytes, 0, mBytes, 0, bytes.length);
+        mDibitCount = bytes.length * 4;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DibitBuffer dibits:" + mDibitCount + " " + Arrays.toString(Arrays.copyOf(mBytes, (mDibitCount + 3) / 4));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.dsp.symbol;
+
+import io.github.dsheirer.sample.Listener;
+
+/**
+ * Accumulates a stream of dibit symbols from a demodulator into a reusable packed dibit buffer and delivers the
+ * buffer to the registered listener when the buffer fills or when flush() is invoked.  Decoders normally flush at
+ * the end of each incoming sample buffer so that bulk consumers, such as the dibit to byte buffer assembler, receive
+ * one batch per sample buffer instead of one call per symbol.
+ */
+public class DibitBufferAssembler implements Listener<Dibit>
+{
+    private DibitBuffer mDibitBuffer;
+    private Listener<DibitBuffer> mListener;
+
+    /**
+     * Constructs an instance
+     * @param capacity of the dibit buffer.  When the buffer fills, it is automatically flushed.
+     */
+    public DibitBufferAssembler(int capacity)
+    {
+        mDibitBuffer = new DibitBuffer(capacity);
+    }
+
+    /**
+     * Registers the listener to receive dibit buffers
+     */
+    public void setListener(Listener<DibitBuffer> listener)
+    {
+        mListener = listener;
+    }
+
+    @Override
+    public void receive(Dibit dibit)
+    {
+        mDibitBuffer.add(dibit.getLowValue());
+
+        if(mDibitBuffer.isFull())
+        {
+            flush();
+        }
+    }
+
+    /**
+     * Delivers any accumulated dibits to the listener and empties the buffer.
+     */
+    public void flush()
+    {
+        if(!mDibitBuffer.isEmpty())
+        {
+            if(mListener != null)
+            {
+                mListener.receive(mDibitBuffer);
+            }
+
+            mDibitBuffer.clear();
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class DibitToByteBufferAssembler implements Listener<Dibit>, IReusableByt
     private byte mCurrentByte;
     private int mDibitCount;
     private Listener<ReusableByteBuffer> mBufferListener;
+    private Listener<DibitBuffer> mDibitBufferListener = this::receive;
 
     /**
      * Constructs an assembler to produce reusable byte buffers of the specified size
@@ -66,24 +67,60 @@ public class DibitToByteBufferAssembler implements Listener<Dibit>, IReusableByt
     @Override
     public void receive(Dibit dibit)
     {
-        mCurrentByte <<= 2;
+        add(dibit.getLowValue());
+    }
+
+    /**
+     * Bulk method for receiving a buffer of packed dibits.  When the dibit buffer and this assembler are byte-aligned
+     * the packed bytes are copied directly, otherwise the dibits are added individually.
+     *
+     * @param dibitBuffer to process
+     */
+    public void receive(DibitBuffer dibitBuffer)
+    {
+        int dibitCount = dibitBuffer.getDibitCount();
+        int index = 0;
+
+        if(mDibitCount == 0)
+        {
+            byte[] source = dibitBuffer.getBytes();
+
+            while(dibitCount - index >= 4)
+            {
+                int length = Math.min((dibitCount - index) / 4, mBufferSize - mBufferPointer);
+                System.arraycopy(source, index / 4, mCurrentBuffer.getBytes(), mBufferPointer, length);
+                mBufferPointer += length;
+                index += length * 4;
+
+                if(mBufferPointer >= mBufferSize)
+                {
+                    getNextBuffer();
+                }
+            }
+        }
 
-        switch(dibit)
+        while(index < dibitCount)
         {
-            case D01_PLUS_3:
-                mCurrentByte |= 0x01;
-                break;
-            case D00_PLUS_1:
-                //no-op - value is already 00
-                break;
-            case D10_MINUS_1:
-                mCurrentByte |= 0x02;
-                break;
-            case D11_MINUS_3:
-                mCurrentByte |= 0x03;
-                break;
+            add(dibitBuffer.getValue(index++));
         }
+    }
+
+    /**
+     * Listener for receiving dibit buffers that delegates to the bulk receive(DibitBuffer) method.
+     */
+    public Listener<DibitBuffer> getDibitBufferListener()
+    {
+        return mDibitBufferListener;
+    }
 
+    /**
+     * Adds the dibit value (0-3) to the current byte and transfers the byte to the current buffer once four dibits
+     * have been added.
+     */
+    private void add(int value)
+    {
+        mCurrentByte <<= 2;
+        mCurrentByte |= (value & 0x3);
         mDibitCount++;
 
         if(mDibitCount >= 4)
@@ -25,6 +25,7 @@ import io.github.dsheirer.audio.broadcast.AudioStreamingManager;
 import io.github.dsheirer.audio.broadcast.BroadcastFormat;
 import io.github.dsheirer.audio.broadcast.BroadcastModel;
 import io.github.dsheirer.audio.broadcast.BroadcastStatusPanel;
+import io.github.dsheirer.audio.codec.mbe.VocoderPool;
 import io.github.dsheirer.audio.playback.AudioPlaybackManager;
 import io.github.dsheirer.controller.ControllerPanel;
 import io.github.dsheirer.controller.channel.Channel;
@@ -33,13 +34,18 @@ import io.github.dsheirer.controller.channel.ChannelModel;
 import io.github.dsheirer.controller.channel.ChannelProcessingManager;
 import io.github.dsheirer.controller.channel.ChannelSelectionManager;
 import io.github.dsheirer.controller.channel.map.ChannelMapModel;
+import io.github.dsheirer.dsp.filter.design.FilterDesignCache;
 import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.gui.preference.PreferenceEditorType;
 import io.github.dsheirer.gui.preference.PreferenceEditorViewRequest;
 import io.github.dsheirer.icon.IconManager;
 import io.github.dsheirer.log.ApplicationLog;
 import io.github.dsheirer.map.MapService;
+import io.github.dsheirer.metrics.PipelineMetrics;
+import io.github.dsheirer.metrics.jfr.FlightRecorderManager;
+import io.github.dsheirer.module.decode.event.archive.DecodeEventArchive;
 import io.github.dsheirer.module.log.EventLogManager;
+import io.github.dsheirer.module.log.EventLogWriter;
 import io.github.dsheirer.playlist.PlaylistManager;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.properties.SystemProperties;
@@ -123,6 +129,7 @@ public class SDRTrunk implements Listener<TunerEvent>
     private JavaFxWindowManager mJavaFxWindowManager;
     private UserPreferences mUserPreferences = new UserPreferences();
     private ApplicationLog mApplicationLog;
+    private FlightRecorderManager mFlightRecorderManager = new FlightRecorderManager();
 
     private String mTitle;
 
@@ -151,6 +158,12 @@ public class SDRTrunk implements Listener<TunerEvent>
 
         ThreadPool.logSettings();
 
+        PipelineMetrics.getInstance().start();
+
+        mFlightRecorderManager.start(mUserPreferences.getDirectoryPreference().getDirectoryApplicationLog());
+
+        FilterDesignCache.getInstance().start(mUserPreferences.getDirectoryPreference().getDirectoryApplicationRoot());
+
         mLog.info("Home path: " + home.toString());
 
         //Load properties file
@@ -209,6 +222,10 @@ public class SDRTrunk implements Listener<TunerEvent>
         MapService mapService = new MapService(mIconManager);
         mChannelProcessingManager.addDecodeEventListener(mapService);
 
+        DecodeEventArchive.getInstance().start(mUserPreferences.getDirectoryPreference().getDirectoryEventLog()
+            .resolve(DecodeEventArchive.ARCHIVE_DIRECTORY));
+        mChannelProcessingManager.addDecodeEventListener(DecodeEventArchive.getInstance());
+
         mControllerPanel = new ControllerPanel(audioPlaybackManager, aliasModel, mBroadcastModel,
             mChannelModel, channelMapModel, mChannelProcessingManager, mIconManager,
             mapService, mSettingsManager, mSourceManager, tunerModel, mUserPreferences);
@@ -469,11 +486,17 @@ public class SDRTrunk implements Listener<TunerEvent>
         mJavaFxWindowManager.shutdown();
         mLog.info("Stopping channels ...");
         mChannelProcessingManager.shutdown();
+        VocoderPool.getInstance().shutdown();
+        EventLogWriter.getInstance().shutdown();
         mAudioRecordingManager.stop();
+        DecodeEventArchive.getInstance().stop();
 
         mLog.info("Stopping spectral display ...");
         mSpectralPanel.clearTuner();
         mSourceManager.shutdown();
+        PipelineMetrics.getInstance().stop();
+        mFlightRecorderManager.stop();
+        FilterDesignCache.getInstance().stop();
         mLog.info("Shutdown complete.");
         mApplicationLog.stop();
     }
@@ -22,11 +22,14 @@ package io.github.dsheirer.gui.preference.record;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.record.RecordPreference;
 import io.github.dsheirer.record.RecordFormat;
+import io.github.dsheirer.record.RecordingDurability;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.Insets;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.SpinnerValueFactory;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -43,6 +46,10 @@ public class RecordPreferenceEditor extends HBox
     private RecordPreference mRecordPreference;
     private GridPane mEditorPane;
     private ComboBox<RecordFormat> mRecordFormatComboBox;
+    private Spinner<Integer> mAudioSpillThresholdSpinner;
+    private Spinner<Integer> mRecordingThreadCountSpinner;
+    private ComboBox<RecordingDurability> mRecordingDurabilityComboBox;
+    private Spinner<Integer> mRecordingBacklogBudgetSpinner;
 
     public RecordPreferenceEditor(UserPreferences userPreferences)
     {
@@ -64,6 +71,23 @@ public class RecordPreferenceEditor extends HBox
             mEditorPane.add(label, 0, 0);
 
             mEditorPane.add(getRecordFormatComboBox(), 1, 0);
+
+            Label spillLabel = new Label("Audio Memory Spill Threshold (MB, 0 = Disabled):");
+            mEditorPane.add(spillLabel, 0, 1);
+
+            mEditorPane.add(getAudioSpillThresholdSpinner(), 1, 1);
+
+            Label threadLabel = new Label("Recording Threads (Requires Restart):");
+            mEditorPane.add(threadLabel, 0, 2);
+            mEditorPane.add(getRecordingThreadCountSpinner(), 1, 2);
+
+            Label durabilityLabel = new Label("Recording File Durability:");
+            mEditorPane.add(durabilityLabel, 0, 3);
+            mEditorPane.add(getRecordingDurabilityComboBox(), 1, 3);
+
+            Label budgetLabel = new Label("Recording Backlog Memory Budget (MB, 0 = Unlimited):");
+            mEditorPane.add(budgetLabel, 0, 4);
+            mEditorPane.add(getRecordingBacklogBudgetSpinner(), 1, 4);
         }
 
         return mEditorPane;
@@ -88,4 +112,62 @@ public class RecordPreferenceEditor extends HBox
 
         return mRecordFormatComboBox;
     }
+
+    private Spinner<Integer> getAudioSpillThresholdSpinner()
+    {
+        if(mAudioSpillThresholdSpinner == null)
+        {
+            mAudioSpillThresholdSpinner = new Spinner<>();
+            mAudioSpillThresholdSpinner.setEditable(true);
+            mAudioSpillThresholdSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0,
+                8192, mRecordPreference.getAudioSpillThreshold(), 16));
+            mAudioSpillThresholdSpinner.valueProperty()
+                .addListener((observable, oldValue, newValue) -> mRecordPreference.setAudioSpillThreshold(newValue));
+        }
+
+        return mAudioSpillThresholdSpinner;
+    }
+
+    private Spinner<Integer> getRecordingThreadCountSpinner()
+    {
+        if(mRecordingThreadCountSpinner == null)
+        {
+            mRecordingThreadCountSpinner = new Spinner<>();
+            mRecordingThreadCountSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1,
+                RecordPreference.MAX_RECORDING_THREAD_COUNT, mRecordPreference.getRecordingThreadCount()));
+            mRecordingThreadCountSpinner.valueProperty()
+                .addListener((observable, oldValue, newValue) -> mRecordPreference.setRecordingThreadCount(newValue));
+        }
+
+        return mRecordingThreadCountSpinner;
+    }
+
+    private ComboBox<RecordingDurability> getRecordingDurabilityComboBox()
+    {
+        if(mRecordingDurabilityComboBox == null)
+        {
+            mRecordingDurabilityComboBox = new ComboBox<>();
+            mRecordingDurabilityComboBox.getItems().addAll(RecordingDurability.values());
+            mRecordingDurabilityComboBox.getSelectionModel().select(mRecordPreference.getRecordingDurability());
+            mRecordingDurabilityComboBox.getSelectionModel().selectedItemProperty()
+                .addListener((observable, oldValue, newValue) -> mRecordPreference.setRecordingDurability(newValue));
+        }
+
+        return mRecordingDurabilityComboBox;
+    }
+
+    private Spinner<Integer> getRecordingBacklogBudgetSpinner()
+    {
+        if(mRecordingBacklogBudgetSpinner == null)
+        {
+            mRecordingBacklogBudgetSpinner = new Spinner<>();
+            mRecordingBacklogBudgetSpinner.setEditable(true);
+            mRecordingBacklogBudgetSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(0,
+                8192, mRecordPreference.getRecordingBacklogBudget(), 16));
+            mRecordingBacklogBudgetSpinner.valueProperty()
+                .addListener((observable, oldValue, newValue) -> mRecordPreference.setRecordingBacklogBudget(newValue));
+        }
+
+        return mRecordingBacklogBudgetSpinner;
+    }
 }
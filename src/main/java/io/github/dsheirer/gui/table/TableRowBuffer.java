@@ -0,0 +1,209 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.gui.table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed capacity circular buffer of table rows ordered newest first, where row 0 is the most recently added item.
+ * Adding an item to a full buffer evicts the oldest item, so inserts and evictions are constant time regardless of
+ * the number of rows.
+ *
+ * Each added item is assigned a sequence number (the count of items added before it) that can be converted back to
+ * its current row while the item remains in the buffer.  This allows models to locate an updated item's row without
+ * searching the buffer.
+ *
+ * This class is not thread safe and is intended to be accessed only from the Swing event dispatch thread.
+ */
+public class TableRowBuffer<T>
+{
+    private Object[] mItems;
+    private int mHead;
+    private int mSize;
+    private long mAddedCount;
+
+    /**
+     * Constructs an instance
+     * @param capacity maximum number of rows
+     */
+    public TableRowBuffer(int capacity)
+    {
+        mItems = new Object[Math.max(1, capacity)];
+    }
+
+    /**
+     * Current number of rows
+     */
+    public int size()
+    {
+        return mSize;
+    }
+
+    /**
+     * Maximum number of rows
+     */
+    public int getCapacity()
+    {
+        return mItems.length;
+    }
+
+    /**
+     * Total number of items added to this buffer.  This is also the sequence number that will be assigned to the
+     * next added item.
+     */
+    public long getAddedCount()
+    {
+        return mAddedCount;
+    }
+
+    /**
+     * Item at the specified row where row 0 is the newest item
+     * @param row index
+     * @return item or null if the row is out of range
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int row)
+    {
+        if(row < 0 || row >= mSize)
+        {
+            return null;
+        }
+
+        return (T)mItems[index(row)];
+    }
+
+    /**
+     * Current row for the item that was assigned the sequence number when it was added.
+     * @param sequence number of the item
+     * @return row or -1 if the item has since been evicted
+     */
+    public int getRow(long sequence)
+    {
+        long row = mAddedCount - 1 - sequence;
+
+        return (row >= 0 && row < mSize) ? (int)row : -1;
+    }
+
+    /**
+     * Adds the item as the newest row (row 0).
+     * @param item to add
+     * @return evicted oldest item when the buffer was full, or null
+     */
+    @SuppressWarnings("unchecked")
+    public T addFirst(T item)
+    {
+        T evicted = null;
+
+        if(mSize == mItems.length)
+        {
+            evicted = (T)mItems[mHead];
+        }
+        else
+        {
+            mSize++;
+        }
+
+        mItems[mHead] = item;
+        mHead = (mHead + 1) % mItems.length;
+        mAddedCount++;
+
+        return evicted;
+    }
+
+    /**
+     * Removes and returns the oldest item (the last row)
+     * @return removed item or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T removeLast()
+    {
+        if(mSize == 0)
+        {
+            return null;
+        }
+
+        int index = index(mSize - 1);
+        T removed = (T)mItems[index];
+        mItems[index] = null;
+        mSize--;
+
+        return removed;
+    }
+
+    /**
+     * Removes all rows
+     */
+    public void clear()
+    {
+        for(int x = 0; x < mItems.length; x++)
+        {
+            mItems[x] = null;
+        }
+
+        mHead = 0;
+        mSize = 0;
+    }
+
+    /**
+     * Changes the capacity of the buffer, retaining the newest rows that fit within the new capacity.
+     * @param capacity new maximum number of rows
+     * @return list of oldest items that no longer fit, ordered newest to oldest
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> setCapacity(int capacity)
+    {
+        capacity = Math.max(1, capacity);
+
+        List<T> removed = new ArrayList<>();
+
+        for(int row = capacity; row < mSize; row++)
+        {
+            removed.add((T)mItems[index(row)]);
+        }
+
+        int retained = Math.min(mSize, capacity);
+        Object[] items = new Object[capacity];
+
+        //Copy oldest to newest so that the newest item is immediately before the head
+        for(int x = 0; x < retained; x++)
+        {
+            items[x] = mItems[index(retained - 1 - x)];
+        }
+
+        mItems = items;
+        mSize = retained;
+        mHead = retained % capacity;
+
+        return removed;
+    }
+
+    /**
+     * Array index for the row
+     */
+    private int index(int row)
+    {
+        int index = mHead - 1 - row;
+
+        return index < 0 ? index + mItems.length : index;
+    }
+}
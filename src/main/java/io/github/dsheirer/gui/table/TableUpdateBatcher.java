@@ -0,0 +1,174 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.gui.table;
+
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.EventQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Coalesces table model updates produced on decoder threads and applies them on the Swing event dispatch thread
+ * in batches, at most a fixed number of times per second.
+ *
+ * Producers call add() which never blocks: the item is placed on a lock-free queue and a single drain is scheduled
+ * when one isn't already pending.  The drain runs on the event dispatch thread and hands all queued items to the
+ * batch listener as one list so that the table model can apply them with a single set of range row events.  When
+ * the event dispatch thread falls behind, the pending queue is bounded by discarding the oldest queued items.
+ *
+ * The batch list passed to the listener is reused and is only valid for the duration of the listener call.
+ *
+ * System properties:
+ * <ul>
+ *     <li>sdrtrunk.gui.table.updates.per.second - maximum batches applied per second per model (default: 10)</li>
+ * </ul>
+ */
+public class TableUpdateBatcher<T>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TableUpdateBatcher.class);
+
+    public static final int UPDATES_PER_SECOND = Math.max(1,
+        Integer.getInteger("sdrtrunk.gui.table.updates.per.second", 10));
+
+    private final Queue<T> mQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mPending = new AtomicInteger();
+    private final AtomicBoolean mDrainScheduled = new AtomicBoolean();
+    private final AtomicLong mDropped = new AtomicLong();
+    private final List<T> mBatch = new ArrayList<>();
+    private final Listener<List<T>> mBatchListener;
+    private final Runnable mDrainTask = this::drain;
+    private final Runnable mDispatchTask = () -> EventQueue.invokeLater(mDrainTask);
+    private final int mCapacity;
+    private final long mIntervalMilliseconds;
+
+    /**
+     * Constructs an instance.
+     *
+     * @param capacity maximum number of queued items awaiting the next batch
+     * @param batchListener to receive each batch of items on the event dispatch thread
+     */
+    public TableUpdateBatcher(int capacity, Listener<List<T>> batchListener)
+    {
+        if(capacity < 1)
+        {
+            throw new IllegalArgumentException("Capacity must be a positive value");
+        }
+
+        mCapacity = capacity;
+        mBatchListener = batchListener;
+        mIntervalMilliseconds = 1000 / UPDATES_PER_SECOND;
+    }
+
+    /**
+     * Queues the item for the next batch.  This method never blocks.
+     */
+    public void add(T item)
+    {
+        mQueue.offer(item);
+
+        if(mPending.incrementAndGet() > mCapacity && mQueue.poll() != null)
+        {
+            mPending.decrementAndGet();
+            mDropped.incrementAndGet();
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * Discards any queued items that have not yet been applied
+     */
+    public void clear()
+    {
+        while(mQueue.poll() != null)
+        {
+            mPending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Number of queued items that were discarded because the event dispatch thread did not keep up
+     */
+    public long getDroppedCount()
+    {
+        return mDropped.get();
+    }
+
+    /**
+     * Schedules a drain of the queue on the event dispatch thread, unless one is already scheduled.
+     */
+    private void scheduleDrain()
+    {
+        if(mDrainScheduled.compareAndSet(false, true))
+        {
+            ThreadPool.SCHEDULED.schedule(mDispatchTask, mIntervalMilliseconds, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Drains the queued items and dispatches them to the batch listener.  Invoked on the event dispatch thread.
+     */
+    private void drain()
+    {
+        //Reset the flag before draining so that items added during the drain schedule the next batch
+        mDrainScheduled.set(false);
+
+        T item;
+
+        while(mBatch.size() < mCapacity && (item = mQueue.poll()) != null)
+        {
+            mPending.decrementAndGet();
+            mBatch.add(item);
+        }
+
+        if(!mBatch.isEmpty())
+        {
+            try
+            {
+                mBatchListener.receive(mBatch);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error applying table model updates", e);
+            }
+            finally
+            {
+                mBatch.clear();
+            }
+        }
+
+        if(!mQueue.isEmpty())
+        {
+            scheduleDrain();
+        }
+    }
+}
@@ -39,6 +39,8 @@ import java.util.Map;
  * manager will replace that reference with the full patch group so that the call event has the full patch group
  * including all of the patched groups, which may not have been included in the patch group reference on the
  * traffic channel.
+ *
+ * A manager instance can be shared by the control and traffic channels of a system, so access is synchronized.
  */
 public class PatchGroupManager
 {
@@ -89,6 +91,25 @@ public class PatchGroupManager
         }
     }
 
+    /**
+     * Adds all of the patch groups currently managed by the other manager to this manager.
+     */
+    public void addPatchGroups(PatchGroupManager other)
+    {
+        for(PatchGroupIdentifier patchGroupIdentifier : other.getPatchGroups())
+        {
+            addPatchGroup(patchGroupIdentifier);
+        }
+    }
+
+    /**
+     * Snapshot of the patch groups currently managed by this manager
+     */
+    public synchronized List<PatchGroupIdentifier> getPatchGroups()
+    {
+        return new ArrayList<>(mPatchGroupMap.values());
+    }
+
     /**
      * Removes the patch group from this manager if it is currently being managed.
      *
@@ -140,7 +161,7 @@ public class PatchGroupManager
      * @param identifier for a talkgroup or a patch group.
      * @return current patch group or the original identifier
      */
-    public Identifier update(Identifier identifier)
+    public synchronized Identifier update(Identifier identifier)
     {
         if(identifier == null)
         {
@@ -0,0 +1,121 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import io.github.dsheirer.sample.Listener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-listener edge metrics for a single broadcaster in a processing chain.  A broadcaster that has been assigned a
+ * broadcast metrics instance times each listener delivery while pipeline metrics collection is enabled.
+ */
+public class BroadcastMetrics
+{
+    private String mChain;
+    private String mEdge;
+    private Map<Listener<?>,EdgeMetrics> mEdgeMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance
+     *
+     * @param chain name of the processing chain
+     * @param edge name of the broadcaster
+     */
+    public BroadcastMetrics(String chain, String edge)
+    {
+        mChain = chain;
+        mEdge = edge;
+    }
+
+    public String getChain()
+    {
+        return mChain;
+    }
+
+    public String getEdge()
+    {
+        return mEdge;
+    }
+
+    /**
+     * Records a delivery of an element to the listener
+     *
+     * @param listener that received the element
+     * @param nanos elapsed for the delivery
+     */
+    public void record(Listener<?> listener, long nanos)
+    {
+        EdgeMetrics edgeMetrics = mEdgeMetrics.get(listener);
+
+        if(edgeMetrics == null)
+        {
+            edgeMetrics = mEdgeMetrics.computeIfAbsent(listener,
+                key -> new EdgeMetrics(mChain, mEdge, getListenerName(key)));
+        }
+
+        edgeMetrics.record(nanos);
+    }
+
+    /**
+     * Edge metrics for each listener that has received an element from the broadcaster
+     */
+    public Collection<EdgeMetrics> getEdgeMetrics()
+    {
+        return mEdgeMetrics.values();
+    }
+
+    /**
+     * Removes the metrics for listeners that are no longer registered with the broadcaster
+     */
+    public void remove(Listener<?> listener)
+    {
+        mEdgeMetrics.remove(listener);
+    }
+
+    /**
+     * Descriptive name for the listener.  Module listeners are commonly inner classes or lambdas, so the enclosing
+     * class name is used and the synthetic lambda suffix is removed.
+     */
+    public static String getListenerName(Listener<?> listener)
+    {
+        String name = listener.getClass().getName();
+
+        int lambda = name.indexOf("$$Lambda");
+
+        if(lambda > 0)
+        {
+            name = name.substring(0, lambda);
+        }
+
+        int lastDot = name.lastIndexOf('.');
+
+        if(lastDot >= 0)
+        {
+            name = name.substring(lastDot + 1);
+        }
+
+        return name;
+    }
+}
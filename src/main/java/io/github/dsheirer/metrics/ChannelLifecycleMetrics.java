@@ -0,0 +1,95 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Channel start latency, for tuner channel source allocation and for the overall start request from receipt until
+ * the processing chain is started.
+ */
+public class ChannelLifecycleMetrics implements IMetricsGroup
+{
+    private static final String CHANNELS = "channels";
+    private static final String CHANNEL_START = "start";
+
+    private EdgeMetrics mSourceAllocationLatency = new EdgeMetrics(CHANNELS, CHANNEL_START, "source");
+    private EdgeMetrics mChannelStartLatency = new EdgeMetrics(CHANNELS, CHANNEL_START, "total");
+
+    /**
+     * Records the latency of a channel start
+     *
+     * @param sourceNanos elapsed while obtaining a source for the channel
+     * @param totalNanos elapsed from receipt of the start request until the channel processing chain is started,
+     * inclusive of any wait for another lifecycle operation on the same channel to complete
+     */
+    public void recordChannelStartLatency(long sourceNanos, long totalNanos)
+    {
+        mSourceAllocationLatency.record(sourceNanos);
+        mChannelStartLatency.record(totalNanos);
+    }
+
+    /**
+     * Channel start latency for source allocation and for the overall start request
+     */
+    public List<EdgeMetricsSnapshot> getChannelStartLatency()
+    {
+        List<EdgeMetricsSnapshot> snapshots = new ArrayList<>();
+        snapshots.add(EdgeMetricsSnapshot.of(mSourceAllocationLatency));
+        snapshots.add(EdgeMetricsSnapshot.of(mChannelStartLatency));
+        return snapshots;
+    }
+
+    /**
+     * Resets the channel start latency metrics
+     */
+    public void reset()
+    {
+        mSourceAllocationLatency.reset();
+        mChannelStartLatency.reset();
+    }
+
+    @Override
+    public void appendTextReport(StringBuilder sb)
+    {
+        sb.append(String.format("%-30s %12s %10s %10s %10s %10s\n", "Channel Start", "Starts", "Mean ms",
+            "Median ms", "P99 ms", "Max ms"));
+
+        for(EdgeMetricsSnapshot latency: getChannelStartLatency())
+        {
+            MetricsReport.appendMillisecondsRow(sb, latency.getListener(), latency);
+        }
+    }
+
+    @Override
+    public void appendPrometheusReport(StringBuilder sb)
+    {
+        sb.append("# HELP sdrtrunk_channel_start_seconds Time to start a channel, for tuner channel source " +
+            "allocation and for the overall start request\n");
+        sb.append("# TYPE sdrtrunk_channel_start_seconds histogram\n");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_channel_start_seconds", mSourceAllocationLatency,
+            "{phase=\"source\"");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_channel_start_seconds", mChannelStartLatency,
+            "{phase=\"total\"");
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing metrics for a single broadcaster to listener edge of a processing chain.  Tracks the number of elements
+ * delivered to the listener, the elapsed time of each delivery and a log2 histogram of the delivery times.
+ *
+ * Delivery time is measured around the listener's receive() call and is inclusive of any downstream processing that
+ * the listener performs on the calling thread.
+ */
+public class EdgeMetrics
+{
+    /**
+     * Histogram bucket count.  Bucket 0 holds times under 256 nanoseconds and each subsequent bucket doubles the upper
+     * bound, so the final bucket holds all times of 2^30 nanoseconds (~1 second) or longer.
+     */
+    public static final int BUCKET_COUNT = 24;
+    private static final int BUCKET_SHIFT = 8;
+
+    private String mChain;
+    private String mEdge;
+    private String mListener;
+    private LongAdder mCount = new LongAdder();
+    private LongAdder mElapsedNanos = new LongAdder();
+    private AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private volatile long mMaxNanos;
+    private volatile double mRate;
+    private long mRateCount;
+    private long mRateTimestamp = System.nanoTime();
+
+    /**
+     * Constructs an instance
+     *
+     * @param chain name of the processing chain
+     * @param edge name of the broadcaster
+     * @param listener name of the listener
+     */
+    public EdgeMetrics(String chain, String edge, String listener)
+    {
+        mChain = chain;
+        mEdge = edge;
+        mListener = listener;
+    }
+
+    /**
+     * Records a single delivery to the listener
+     *
+     * @param nanos elapsed for the delivery
+     */
+    public void record(long nanos)
+    {
+        mCount.increment();
+        mElapsedNanos.add(nanos);
+        mBuckets.incrementAndGet(getBucket(nanos));
+
+        //Unsynchronized max tracking ... an occasional lost update is acceptable for a diagnostic value
+        if(nanos > mMaxNanos)
+        {
+            mMaxNanos = nanos;
+        }
+    }
+
+    /**
+     * Histogram bucket index for the elapsed time
+     */
+    public static int getBucket(long nanos)
+    {
+        int bits = 64 - Long.numberOfLeadingZeros(nanos);
+        return Math.min(Math.max(bits - BUCKET_SHIFT, 0), BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Exclusive upper bound in nanoseconds of the histogram bucket, or Long.MAX_VALUE for the final bucket.
+     */
+    public static long getBucketUpperBound(int bucket)
+    {
+        return bucket < BUCKET_COUNT - 1 ? 1L << (bucket + BUCKET_SHIFT) : Long.MAX_VALUE;
+    }
+
+    /**
+     * Updates the delivery rate from the count of deliveries since the previous update.  Invoked periodically by the
+     * pipeline metrics registry.
+     *
+     * @param timestamp System.nanoTime() of the update
+     */
+    void updateRate(long timestamp)
+    {
+        long count = getCount();
+        long elapsed = timestamp - mRateTimestamp;
+
+        if(elapsed > 0)
+        {
+            mRate = (count - mRateCount) * 1E9 / elapsed;
+        }
+
+        mRateCount = count;
+        mRateTimestamp = timestamp;
+    }
+
+    /**
+     * Resets the counters and the histogram
+     */
+    public void reset()
+    {
+        mCount.reset();
+        mElapsedNanos.reset();
+
+        for(int x = 0; x < BUCKET_COUNT; x++)
+        {
+            mBuckets.set(x, 0);
+        }
+
+        mMaxNanos = 0;
+        mRate = 0.0;
+        mRateCount = 0;
+        mRateTimestamp = System.nanoTime();
+    }
+
+    public String getChain()
+    {
+        return mChain;
+    }
+
+    public String getEdge()
+    {
+        return mEdge;
+    }
+
+    public String getListener()
+    {
+        return mListener;
+    }
+
+    /**
+     * Number of elements delivered to the listener
+     */
+    public long getCount()
+    {
+        return mCount.sum();
+    }
+
+    /**
+     * Total elapsed time of all deliveries
+     */
+    public long getElapsedNanos()
+    {
+        return mElapsedNanos.sum();
+    }
+
+    /**
+     * Longest single delivery time
+     */
+    public long getMaxNanos()
+    {
+        return mMaxNanos;
+    }
+
+    /**
+     * Deliveries per second over the most recent rate update interval
+     */
+    public double getRate()
+    {
+        return mRate;
+    }
+
+    /**
+     * Mean delivery time in nanoseconds
+     */
+    public double getMeanNanos()
+    {
+        long count = getCount();
+        return count > 0 ? (double)getElapsedNanos() / count : 0.0;
+    }
+
+    /**
+     * Count of deliveries in the histogram bucket
+     */
+    public long getBucketCount(int bucket)
+    {
+        return mBuckets.get(bucket);
+    }
+
+    /**
+     * Approximate delivery time percentile, reported as the upper bound of the histogram bucket that contains the
+     * percentile.
+     *
+     * @param percentile 0.0 - 1.0
+     * @return nanoseconds
+     */
+    public long getPercentileNanos(double percentile)
+    {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+
+        for(int x = 0; x < BUCKET_COUNT; x++)
+        {
+            counts[x] = mBuckets.get(x);
+            total += counts[x];
+        }
+
+        if(total == 0)
+        {
+            return 0;
+        }
+
+        long target = (long)Math.ceil(total * percentile);
+        long cumulative = 0;
+
+        for(int x = 0; x < BUCKET_COUNT; x++)
+        {
+            cumulative += counts[x];
+
+            if(cumulative >= target)
+            {
+                return x < BUCKET_COUNT - 1 ? getBucketUpperBound(x) : mMaxNanos;
+            }
+        }
+
+        return mMaxNanos;
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time view of a broadcaster to listener edge, exposed through JMX
+ */
+public class EdgeMetricsSnapshot
+{
+    private String mChain;
+    private String mEdge;
+    private String mListener;
+    private long mCount;
+    private double mBuffersPerSecond;
+    private double mMeanNanos;
+    private long mMedianNanos;
+    private long mP99Nanos;
+    private long mMaxNanos;
+
+    @ConstructorProperties({"chain", "edge", "listener", "count", "buffersPerSecond", "meanNanos", "medianNanos",
+        "p99Nanos", "maxNanos"})
+    public EdgeMetricsSnapshot(String chain, String edge, String listener, long count, double buffersPerSecond,
+                               double meanNanos, long medianNanos, long p99Nanos, long maxNanos)
+    {
+        mChain = chain;
+        mEdge = edge;
+        mListener = listener;
+        mCount = count;
+        mBuffersPerSecond = buffersPerSecond;
+        mMeanNanos = meanNanos;
+        mMedianNanos = medianNanos;
+        mP99Nanos = p99Nanos;
+        mMaxNanos = maxNanos;
+    }
+
+    /**
+     * Creates a snapshot of the edge metrics
+     */
+    public static EdgeMetricsSnapshot of(EdgeMetrics metrics)
+    {
+        return new EdgeMetricsSnapshot(metrics.getChain(), metrics.getEdge(), metrics.getListener(),
+            metrics.getCount(), metrics.getRate(), metrics.getMeanNanos(), metrics.getPercentileNanos(0.5),
+            metrics.getPercentileNanos(0.99), metrics.getMaxNanos());
+    }
+
+    public String getChain()
+    {
+        return mChain;
+    }
+
+    public String getEdge()
+    {
+        return mEdge;
+    }
+
+    public String getListener()
+    {
+        return mListener;
+    }
+
+    public long getCount()
+    {
+        return mCount;
+    }
+
+    public double getBuffersPerSecond()
+    {
+        return mBuffersPerSecond;
+    }
+
+    public double getMeanNanos()
+    {
+        return mMeanNanos;
+    }
+
+    /**
+     * Median delivery time, as the upper bound of the containing histogram bucket
+     */
+    public long getMedianNanos()
+    {
+        return mMedianNanos;
+    }
+
+    /**
+     * 99th percentile delivery time, as the upper bound of the containing histogram bucket
+     */
+    public long getP99Nanos()
+    {
+        return mP99Nanos;
+    }
+
+    public long getMaxNanos()
+    {
+        return mMaxNanos;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Entries written and entries dropped by the asynchronous event log writer
+ */
+public class EventLogMetrics implements IMetricsGroup
+{
+    private AtomicLong mEntries = new AtomicLong();
+    private AtomicLong mDropped = new AtomicLong();
+
+    /**
+     * Records entries written to, and entries dropped from, an event log file by the event log writer
+     *
+     * @param written entries written to the event log file
+     * @param dropped entries discarded because the event log buffer was full or the file could not be written
+     */
+    public void recordEntries(long written, long dropped)
+    {
+        mEntries.addAndGet(written);
+        mDropped.addAndGet(dropped);
+    }
+
+    /**
+     * Entries written to event log files
+     */
+    public long getEntries()
+    {
+        return mEntries.get();
+    }
+
+    /**
+     * Event log entries discarded because the event log writer could not keep up
+     */
+    public long getDropped()
+    {
+        return mDropped.get();
+    }
+
+    @Override
+    public void appendTextReport(StringBuilder sb)
+    {
+        sb.append(String.format("%-30s %12s %12s\n", "Event Log", "Entries", "Dropped"));
+        sb.append(String.format("%-30s %12d %12d\n", "event log writer", getEntries(), getDropped()));
+    }
+
+    @Override
+    public void appendPrometheusReport(StringBuilder sb)
+    {
+        sb.append("# HELP sdrtrunk_eventlog_entries_total Entries written to event log files\n");
+        sb.append("# TYPE sdrtrunk_eventlog_entries_total counter\n");
+        sb.append("sdrtrunk_eventlog_entries_total ").append(getEntries()).append("\n");
+        sb.append("# HELP sdrtrunk_eventlog_dropped_total Event log entries discarded because the event log writer " +
+            "could not keep up\n");
+        sb.append("# TYPE sdrtrunk_eventlog_dropped_total counter\n");
+        sb.append("sdrtrunk_eventlog_dropped_total ").append(getDropped()).append("\n");
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+/**
+ * Group of related metrics for one application domain that contributes to the pipeline metrics reports
+ */
+public interface IMetricsGroup
+{
+    /**
+     * Appends the plain text report section for this group
+     */
+    void appendTextReport(StringBuilder sb);
+
+    /**
+     * Appends this group's metrics using the Prometheus text exposition format
+     */
+    void appendPrometheusReport(StringBuilder sb);
+}
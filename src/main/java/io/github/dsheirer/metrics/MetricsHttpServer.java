@@ -0,0 +1,95 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.dsheirer.controller.NamingThreadFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal HTTP server bound to the loopback interface that serves the pipeline metrics plain text report at / and
+ * the Prometheus text exposition format at /metrics.
+ */
+public class MetricsHttpServer
+{
+    private static final String PROMETHEUS_CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String TEXT_CONTENT_TYPE = "text/plain; charset=utf-8";
+
+    private HttpServer mHttpServer;
+    private ExecutorService mExecutorService;
+
+    /**
+     * Constructs and starts the server
+     *
+     * @param pipelineMetrics to report
+     * @param port to listen on, or 0 for an ephemeral port
+     * @throws IOException if the server can't bind to the port
+     */
+    public MetricsHttpServer(PipelineMetricsMXBean pipelineMetrics, int port) throws IOException
+    {
+        mHttpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        mHttpServer.createContext("/metrics", exchange ->
+            respond(exchange, PROMETHEUS_CONTENT_TYPE, pipelineMetrics.getPrometheusReport()));
+        mHttpServer.createContext("/", exchange ->
+            respond(exchange, TEXT_CONTENT_TYPE, pipelineMetrics.getTextReport()));
+        mExecutorService = Executors.newSingleThreadExecutor(new NamingThreadFactory("sdrtrunk metrics http"));
+        mHttpServer.setExecutor(mExecutorService);
+        mHttpServer.start();
+    }
+
+    /**
+     * Port the server is listening on
+     */
+    public int getPort()
+    {
+        return mHttpServer.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server
+     */
+    public void stop()
+    {
+        mHttpServer.stop(0);
+        mExecutorService.shutdownNow();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, bytes.length);
+
+        try(OutputStream outputStream = exchange.getResponseBody())
+        {
+            outputStream.write(bytes);
+        }
+    }
+}
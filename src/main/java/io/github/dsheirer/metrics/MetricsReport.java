@@ -0,0 +1,81 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+/**
+ * Report formatting utilities shared by the metrics groups
+ */
+class MetricsReport
+{
+    private MetricsReport()
+    {
+    }
+
+    /**
+     * Appends a plain text latency row in milliseconds for the metrics
+     *
+     * @param sb to append to
+     * @param name of the row
+     * @param metrics to report
+     */
+    static void appendMillisecondsRow(StringBuilder sb, String name, EdgeMetricsSnapshot metrics)
+    {
+        sb.append(String.format("%-30s %12d %10.1f %10.1f %10.1f %10.1f\n", name, metrics.getCount(),
+            metrics.getMeanNanos() / 1E6, metrics.getMedianNanos() / 1E6, metrics.getP99Nanos() / 1E6,
+            metrics.getMaxNanos() / 1E6));
+    }
+
+    /**
+     * Appends the Prometheus histogram bucket, sum and count samples for the metrics
+     *
+     * @param sb to append to
+     * @param name of the histogram metric
+     * @param metrics containing the histogram buckets
+     * @param labels opening label set, without the closing brace
+     */
+    static void appendHistogram(StringBuilder sb, String name, EdgeMetrics metrics, String labels)
+    {
+        long cumulative = 0;
+
+        for(int x = 0; x < EdgeMetrics.BUCKET_COUNT - 1; x++)
+        {
+            cumulative += metrics.getBucketCount(x);
+            String le = Double.toString(EdgeMetrics.getBucketUpperBound(x) / 1E9);
+            sb.append(name).append("_bucket").append(labels).append(",le=\"").append(le).append("\"} ")
+                .append(cumulative).append("\n");
+        }
+
+        cumulative += metrics.getBucketCount(EdgeMetrics.BUCKET_COUNT - 1);
+        sb.append(name).append("_bucket").append(labels).append(",le=\"+Inf\"} ").append(cumulative).append("\n");
+        sb.append(name).append("_sum").append(labels).append("} ").append(metrics.getElapsedNanos() / 1E9)
+            .append("\n");
+        sb.append(name).append("_count").append(labels).append("} ").append(cumulative).append("\n");
+    }
+
+    /**
+     * Escapes a Prometheus label value
+     */
+    static String escape(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,553 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import io.github.dsheirer.sample.OverflowableTransferQueue;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide registry of processing chain pipeline metrics.
+ *
+ * Each processing chain registers a broadcast metrics instance for each of its broadcasters and registers its source
+ * sample queue.  Broadcasters only time listener deliveries while collection is enabled, so the cost when disabled is
+ * a single volatile read per broadcast.  Other subsystems record to their own metrics group (see IMetricsGroup).
+ *
+ * Metrics are exported through JMX (io.github.dsheirer:type=PipelineMetrics) and optionally through a local HTTP
+ * server that serves a plain text report at / and the Prometheus text format at /metrics.
+ *
+ * System properties:
+ *   sdrtrunk.metrics.enabled=true     enables timing collection at startup
+ *   sdrtrunk.metrics.http.port=PORT   starts the HTTP server on the loopback interface at startup
+ */
+public class PipelineMetrics implements PipelineMetricsMXBean
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PipelineMetrics.class);
+    public static final String ENABLED_PROPERTY = "sdrtrunk.metrics.enabled";
+    public static final String HTTP_PORT_PROPERTY = "sdrtrunk.metrics.http.port";
+    public static final String OBJECT_NAME = "io.github.dsheirer:type=PipelineMetrics";
+    private static final long RATE_UPDATE_INTERVAL_SECONDS = 5;
+
+    private static volatile boolean sCollecting = Boolean.getBoolean(ENABLED_PROPERTY);
+    private static final PipelineMetrics INSTANCE = new PipelineMetrics();
+
+    private List<BroadcastMetrics> mBroadcastMetrics = new CopyOnWriteArrayList<>();
+    private Map<String,OverflowableTransferQueue<?>> mQueues = new ConcurrentHashMap<>();
+    private TrafficChannelMetrics mTrafficChannelMetrics = new TrafficChannelMetrics();
+    private ChannelLifecycleMetrics mChannelLifecycleMetrics = new ChannelLifecycleMetrics();
+    private VocoderMetrics mVocoderMetrics = new VocoderMetrics();
+    private EventLogMetrics mEventLogMetrics = new EventLogMetrics();
+    private RetuneMetrics mRetuneMetrics = new RetuneMetrics();
+    private List<IMetricsGroup> mMetricsGroups = List.of(mTrafficChannelMetrics, mChannelLifecycleMetrics,
+        mVocoderMetrics, mEventLogMetrics, mRetuneMetrics);
+    private ScheduledFuture<?> mRateUpdateFuture;
+    private MetricsHttpServer mHttpServer;
+    private boolean mStarted;
+
+    private PipelineMetrics()
+    {
+    }
+
+    /**
+     * Singleton instance
+     */
+    public static PipelineMetrics getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Indicates if broadcasters should time listener deliveries.  This is the fast-path check used by the
+     * broadcasters for each broadcast.
+     */
+    public static boolean isCollecting()
+    {
+        return sCollecting;
+    }
+
+    /**
+     * Registers the JMX management bean and starts the HTTP server and rate updates as configured by the system
+     * properties.  Invoked once at application startup.
+     */
+    public synchronized void start()
+    {
+        if(mStarted)
+        {
+            return;
+        }
+
+        mStarted = true;
+
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        }
+        catch(Exception e)
+        {
+            mLog.error("Unable to register pipeline metrics management bean", e);
+        }
+
+        Integer port = Integer.getInteger(HTTP_PORT_PROPERTY);
+
+        if(port != null)
+        {
+            startHttpServer(port);
+        }
+
+        if(sCollecting)
+        {
+            startRateUpdates();
+        }
+
+        mLog.info("Pipeline metrics collection is " + (sCollecting ? "enabled" : "disabled"));
+    }
+
+    /**
+     * Stops the HTTP server and rate updates.  Invoked at application shutdown.
+     */
+    public synchronized void stop()
+    {
+        stopHttpServer();
+        stopRateUpdates();
+    }
+
+    /**
+     * Creates and registers broadcast metrics for a processing chain broadcaster
+     *
+     * @param chain name of the processing chain
+     * @param edge name of the broadcaster
+     * @return registered broadcast metrics to assign to the broadcaster
+     */
+    public BroadcastMetrics register(String chain, String edge)
+    {
+        BroadcastMetrics broadcastMetrics = new BroadcastMetrics(chain, edge);
+        mBroadcastMetrics.add(broadcastMetrics);
+        return broadcastMetrics;
+    }
+
+    /**
+     * Registers a sample queue for depth and overflow reporting
+     *
+     * @param name of the queue
+     * @param queue to register
+     */
+    public void registerQueue(String name, OverflowableTransferQueue<?> queue)
+    {
+        if(queue != null)
+        {
+            mQueues.put(name, queue);
+        }
+    }
+
+    /**
+     * Removes a sample queue from reporting
+     */
+    public void unregisterQueue(String name)
+    {
+        mQueues.remove(name);
+    }
+
+    /**
+     * Removes all broadcast metrics and sample queues registered for the processing chain
+     *
+     * @param chain name of the processing chain
+     */
+    public void unregister(String chain)
+    {
+        mBroadcastMetrics.removeIf(broadcastMetrics -> broadcastMetrics.getChain().equals(chain));
+        mQueues.keySet().removeIf(name -> name.startsWith(chain + "/"));
+    }
+
+    /**
+     * Traffic channel grant to voice metrics
+     */
+    public TrafficChannelMetrics getTrafficChannelMetrics()
+    {
+        return mTrafficChannelMetrics;
+    }
+
+    /**
+     * Channel start metrics
+     */
+    public ChannelLifecycleMetrics getChannelLifecycleMetrics()
+    {
+        return mChannelLifecycleMetrics;
+    }
+
+    /**
+     * MBE vocoder metrics
+     */
+    public VocoderMetrics getVocoderMetrics()
+    {
+        return mVocoderMetrics;
+    }
+
+    /**
+     * Event log writer metrics
+     */
+    public EventLogMetrics getEventLogMetrics()
+    {
+        return mEventLogMetrics;
+    }
+
+    /**
+     * Tuner retune metrics
+     */
+    public RetuneMetrics getRetuneMetrics()
+    {
+        return mRetuneMetrics;
+    }
+
+    @Override
+    public boolean isEnabled()
+    {
+        return sCollecting;
+    }
+
+    @Override
+    public synchronized void setEnabled(boolean enabled)
+    {
+        if(sCollecting != enabled)
+        {
+            sCollecting = enabled;
+
+            if(enabled)
+            {
+                startRateUpdates();
+            }
+            else
+            {
+                stopRateUpdates();
+            }
+
+            mLog.info("Pipeline metrics collection " + (enabled ? "enabled" : "disabled"));
+        }
+    }
+
+    private void startRateUpdates()
+    {
+        if(mRateUpdateFuture == null)
+        {
+            mRateUpdateFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::updateRates,
+                RATE_UPDATE_INTERVAL_SECONDS, RATE_UPDATE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private void stopRateUpdates()
+    {
+        if(mRateUpdateFuture != null)
+        {
+            mRateUpdateFuture.cancel(false);
+            mRateUpdateFuture = null;
+        }
+    }
+
+    /**
+     * Updates the delivery rate for each edge
+     */
+    private void updateRates()
+    {
+        try
+        {
+            long timestamp = System.nanoTime();
+
+            for(BroadcastMetrics broadcastMetrics: mBroadcastMetrics)
+            {
+                for(EdgeMetrics edgeMetrics: broadcastMetrics.getEdgeMetrics())
+                {
+                    edgeMetrics.updateRate(timestamp);
+                }
+            }
+
+            mVocoderMetrics.updateRates(timestamp);
+        }
+        catch(Throwable t)
+        {
+            mLog.error("Error updating pipeline metrics rates", t);
+        }
+    }
+
+    /**
+     * Current edge metrics sorted by chain, edge and listener
+     */
+    private List<EdgeMetrics> getEdgeMetrics()
+    {
+        List<EdgeMetrics> edges = new ArrayList<>();
+
+        for(BroadcastMetrics broadcastMetrics: mBroadcastMetrics)
+        {
+            edges.addAll(broadcastMetrics.getEdgeMetrics());
+        }
+
+        edges.sort(Comparator.comparing(EdgeMetrics::getChain).thenComparing(EdgeMetrics::getEdge)
+            .thenComparing(EdgeMetrics::getListener));
+
+        return edges;
+    }
+
+    @Override
+    public List<EdgeMetricsSnapshot> getEdges()
+    {
+        List<EdgeMetricsSnapshot> snapshots = new ArrayList<>();
+
+        for(EdgeMetrics edgeMetrics: getEdgeMetrics())
+        {
+            snapshots.add(EdgeMetricsSnapshot.of(edgeMetrics));
+        }
+
+        return snapshots;
+    }
+
+    @Override
+    public List<QueueMetricsSnapshot> getQueues()
+    {
+        List<QueueMetricsSnapshot> snapshots = new ArrayList<>();
+
+        for(Map.Entry<String,OverflowableTransferQueue<?>> entry: mQueues.entrySet())
+        {
+            OverflowableTransferQueue<?> queue = entry.getValue();
+            snapshots.add(new QueueMetricsSnapshot(entry.getKey(), queue.getSize(), queue.getMaximumSize(),
+                queue.isOverflow(), queue.getOverflowCount(), queue.getDroppedCount()));
+        }
+
+        snapshots.sort(Comparator.comparing(QueueMetricsSnapshot::getName));
+
+        return snapshots;
+    }
+
+    @Override
+    public List<EdgeMetricsSnapshot> getGrantLatency()
+    {
+        return mTrafficChannelMetrics.getGrantLatency();
+    }
+
+    @Override
+    public List<EdgeMetricsSnapshot> getChannelStartLatency()
+    {
+        return mChannelLifecycleMetrics.getChannelStartLatency();
+    }
+
+    @Override
+    public List<EdgeMetricsSnapshot> getVocoder()
+    {
+        return mVocoderMetrics.getVocoder();
+    }
+
+    @Override
+    public long getEventLogEntries()
+    {
+        return mEventLogMetrics.getEntries();
+    }
+
+    @Override
+    public long getEventLogDropped()
+    {
+        return mEventLogMetrics.getDropped();
+    }
+
+    @Override
+    public EdgeMetricsSnapshot getTunerRetunes()
+    {
+        return mRetuneMetrics.getRetunes();
+    }
+
+    @Override
+    public long getTunerRetunesAvoided()
+    {
+        return mRetuneMetrics.getRetunesAvoided();
+    }
+
+    @Override
+    public String getTextReport()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Pipeline Metrics - collection ").append(sCollecting ? "enabled" : "disabled").append("\n\n");
+        sb.append(String.format("%-30s %-20s %-36s %12s %10s %10s %10s %10s %10s\n", "Chain", "Edge", "Listener",
+            "Buffers", "Buffers/s", "Mean ns", "Median ns", "P99 ns", "Max ns"));
+
+        for(EdgeMetricsSnapshot edge: getEdges())
+        {
+            sb.append(String.format("%-30s %-20s %-36s %12d %10.1f %10.0f %10d %10d %10d\n", edge.getChain(),
+                edge.getEdge(), edge.getListener(), edge.getCount(), edge.getBuffersPerSecond(), edge.getMeanNanos(),
+                edge.getMedianNanos(), edge.getP99Nanos(), edge.getMaxNanos()));
+        }
+
+        sb.append("\n");
+        sb.append(String.format("%-50s %10s %10s %10s %10s %12s\n", "Queue", "Depth", "Maximum", "Overflow",
+            "Overflows", "Dropped"));
+
+        for(QueueMetricsSnapshot queue: getQueues())
+        {
+            sb.append(String.format("%-50s %10d %10d %10s %10d %12d\n", queue.getName(), queue.getDepth(),
+                queue.getMaximumSize(), queue.isOverflow(), queue.getOverflowCount(), queue.getDroppedCount()));
+        }
+
+        for(IMetricsGroup metricsGroup: mMetricsGroups)
+        {
+            sb.append("\n");
+            metricsGroup.appendTextReport(sb);
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public String getPrometheusReport()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("# HELP sdrtrunk_pipeline_metrics_enabled Indicates if processing chain edge timing is enabled\n");
+        sb.append("# TYPE sdrtrunk_pipeline_metrics_enabled gauge\n");
+        sb.append("sdrtrunk_pipeline_metrics_enabled ").append(sCollecting ? 1 : 0).append("\n");
+
+        List<EdgeMetrics> edges = getEdgeMetrics();
+
+        sb.append("# HELP sdrtrunk_edge_buffers_total Elements delivered from a processing chain broadcaster to a " +
+            "listener\n");
+        sb.append("# TYPE sdrtrunk_edge_buffers_total counter\n");
+
+        for(EdgeMetrics edge: edges)
+        {
+            sb.append("sdrtrunk_edge_buffers_total").append(getLabels(edge)).append("} ")
+                .append(edge.getCount()).append("\n");
+        }
+
+        sb.append("# HELP sdrtrunk_edge_delivery_seconds Time to deliver an element to a listener, inclusive of " +
+            "downstream processing\n");
+        sb.append("# TYPE sdrtrunk_edge_delivery_seconds histogram\n");
+
+        for(EdgeMetrics edge: edges)
+        {
+            MetricsReport.appendHistogram(sb, "sdrtrunk_edge_delivery_seconds", edge, getLabels(edge));
+        }
+
+        for(IMetricsGroup metricsGroup: mMetricsGroups)
+        {
+            metricsGroup.appendPrometheusReport(sb);
+        }
+
+        List<QueueMetricsSnapshot> queues = getQueues();
+
+        sb.append("# HELP sdrtrunk_queue_depth Elements currently held in a sample queue\n");
+        sb.append("# TYPE sdrtrunk_queue_depth gauge\n");
+
+        for(QueueMetricsSnapshot queue: queues)
+        {
+            sb.append("sdrtrunk_queue_depth{queue=\"").append(MetricsReport.escape(queue.getName())).append("\"} ")
+                .append(queue.getDepth()).append("\n");
+        }
+
+        sb.append("# HELP sdrtrunk_queue_overflows_total Times a sample queue entered an overflow state\n");
+        sb.append("# TYPE sdrtrunk_queue_overflows_total counter\n");
+
+        for(QueueMetricsSnapshot queue: queues)
+        {
+            sb.append("sdrtrunk_queue_overflows_total{queue=\"").append(MetricsReport.escape(queue.getName()))
+                .append("\"} ").append(queue.getOverflowCount()).append("\n");
+        }
+
+        sb.append("# HELP sdrtrunk_queue_dropped_total Elements discarded by a sample queue during overflow\n");
+        sb.append("# TYPE sdrtrunk_queue_dropped_total counter\n");
+
+        for(QueueMetricsSnapshot queue: queues)
+        {
+            sb.append("sdrtrunk_queue_dropped_total{queue=\"").append(MetricsReport.escape(queue.getName()))
+                .append("\"} ").append(queue.getDroppedCount()).append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Opening Prometheus label set for the edge, without the closing brace so that additional labels can be appended
+     */
+    private static String getLabels(EdgeMetrics edge)
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{chain=\"").append(MetricsReport.escape(edge.getChain()));
+        sb.append("\",edge=\"").append(MetricsReport.escape(edge.getEdge()));
+        sb.append("\",listener=\"").append(MetricsReport.escape(edge.getListener())).append("\"");
+        return sb.toString();
+    }
+
+    @Override
+    public void reset()
+    {
+        for(BroadcastMetrics broadcastMetrics: mBroadcastMetrics)
+        {
+            for(EdgeMetrics edgeMetrics: broadcastMetrics.getEdgeMetrics())
+            {
+                edgeMetrics.reset();
+            }
+        }
+
+        mTrafficChannelMetrics.reset();
+        mChannelLifecycleMetrics.reset();
+        mVocoderMetrics.reset();
+        mRetuneMetrics.reset();
+    }
+
+    @Override
+    public synchronized int getHttpPort()
+    {
+        return mHttpServer != null ? mHttpServer.getPort() : 0;
+    }
+
+    @Override
+    public synchronized void startHttpServer(int port)
+    {
+        stopHttpServer();
+
+        try
+        {
+            mHttpServer = new MetricsHttpServer(this, port);
+            mLog.info("Pipeline metrics HTTP server listening on port " + mHttpServer.getPort());
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Unable to start pipeline metrics HTTP server on port " + port, ioe);
+        }
+    }
+
+    @Override
+    public synchronized void stopHttpServer()
+    {
+        if(mHttpServer != null)
+        {
+            mHttpServer.stop();
+            mHttpServer = null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.List;
+
+/**
+ * JMX management interface for processing chain pipeline metrics
+ */
+public interface PipelineMetricsMXBean
+{
+    /**
+     * Indicates if per-edge timing is currently being collected
+     */
+    boolean isEnabled();
+
+    /**
+     * Turns per-edge timing collection on or off
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Current metrics for each broadcaster to listener edge
+     */
+    List<EdgeMetricsSnapshot> getEdges();
+
+    /**
+     * Current metrics for each registered sample queue
+     */
+    List<QueueMetricsSnapshot> getQueues();
+
+    /**
+     * Traffic channel grant to first voice audio latency for cold (newly constructed) and warm (pre-built or reused)
+     * traffic channel processing chains
+     */
+    List<EdgeMetricsSnapshot> getGrantLatency();
+
+    /**
+     * Channel start latency for tuner channel source allocation and for the overall channel start request
+     */
+    List<EdgeMetricsSnapshot> getChannelStartLatency();
+
+    /**
+     * MBE vocoder voice frame queue latency and synthesis time, including the voice frame rate
+     */
+    List<EdgeMetricsSnapshot> getVocoder();
+
+    /**
+     * Entries written to event log files by the event log writer
+     */
+    long getEventLogEntries();
+
+    /**
+     * Event log entries discarded because the event log writer could not keep up
+     */
+    long getEventLogDropped();
+
+    /**
+     * Tuner center frequency changes made to fit a requested channel, with the time taken to apply each change
+     */
+    EdgeMetricsSnapshot getTunerRetunes();
+
+    /**
+     * Optimization retunes avoided by keeping the current tuner center frequency
+     */
+    long getTunerRetunesAvoided();
+
+    /**
+     * Plain text report of all edge and queue metrics
+     */
+    String getTextReport();
+
+    /**
+     * Metrics formatted using the Prometheus text exposition format
+     */
+    String getPrometheusReport();
+
+    /**
+     * Resets all edge timing, grant latency, channel start latency, vocoder and tuner retune timing metrics
+     */
+    void reset();
+
+    /**
+     * Port of the local metrics HTTP server, or 0 when the server is not running
+     */
+    int getHttpPort();
+
+    /**
+     * Starts the local metrics HTTP server on the loopback interface, replacing any running server.
+     *
+     * @param port to listen on
+     */
+    void startHttpServer(int port);
+
+    /**
+     * Stops the local metrics HTTP server
+     */
+    void stopHttpServer();
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Point-in-time view of an overflowable transfer queue, exposed through JMX
+ */
+public class QueueMetricsSnapshot
+{
+    private String mName;
+    private int mDepth;
+    private int mMaximumSize;
+    private boolean mOverflow;
+    private long mOverflowCount;
+    private long mDroppedCount;
+
+    @ConstructorProperties({"name", "depth", "maximumSize", "overflow", "overflowCount", "droppedCount"})
+    public QueueMetricsSnapshot(String name, int depth, int maximumSize, boolean overflow, long overflowCount,
+                                long droppedCount)
+    {
+        mName = name;
+        mDepth = depth;
+        mMaximumSize = maximumSize;
+        mOverflow = overflow;
+        mOverflowCount = overflowCount;
+        mDroppedCount = droppedCount;
+    }
+
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * Number of elements currently in the queue
+     */
+    public int getDepth()
+    {
+        return mDepth;
+    }
+
+    /**
+     * Queue size that triggers an overflow
+     */
+    public int getMaximumSize()
+    {
+        return mMaximumSize;
+    }
+
+    /**
+     * Indicates if the queue is currently in an overflow state
+     */
+    public boolean isOverflow()
+    {
+        return mOverflow;
+    }
+
+    /**
+     * Number of times the queue has entered an overflow state
+     */
+    public long getOverflowCount()
+    {
+        return mOverflowCount;
+    }
+
+    /**
+     * Number of elements discarded while in an overflow state
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount;
+    }
+}
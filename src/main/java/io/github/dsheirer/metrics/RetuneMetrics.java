@@ -0,0 +1,100 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tuner center frequency retunes made to fit a requested channel and optimization retunes avoided by keeping the
+ * current center frequency
+ */
+public class RetuneMetrics implements IMetricsGroup
+{
+    private EdgeMetrics mRetune = new EdgeMetrics("tuners", "retune", "center frequency");
+    private AtomicLong mRetunesAvoided = new AtomicLong();
+
+    /**
+     * Records a tuner center frequency change made to fit a requested channel
+     *
+     * @param nanos elapsed while the tuner controller applied the new center frequency
+     */
+    public void recordRetune(long nanos)
+    {
+        mRetune.record(nanos);
+    }
+
+    /**
+     * Records an optimization retune that was avoided by keeping the current tuner center frequency
+     */
+    public void recordRetuneAvoided()
+    {
+        mRetunesAvoided.incrementAndGet();
+    }
+
+    /**
+     * Tuner center frequency changes, with the time taken to apply each change
+     */
+    public EdgeMetricsSnapshot getRetunes()
+    {
+        return EdgeMetricsSnapshot.of(mRetune);
+    }
+
+    /**
+     * Optimization retunes avoided by keeping the current tuner center frequency
+     */
+    public long getRetunesAvoided()
+    {
+        return mRetunesAvoided.get();
+    }
+
+    /**
+     * Resets the retune timing metrics
+     */
+    public void reset()
+    {
+        mRetune.reset();
+    }
+
+    @Override
+    public void appendTextReport(StringBuilder sb)
+    {
+        EdgeMetricsSnapshot retunes = getRetunes();
+        sb.append(String.format("%-30s %12s %10s %10s %10s %10s %12s\n", "Tuner Retunes", "Retunes", "Mean ms",
+            "Median ms", "P99 ms", "Max ms", "Avoided"));
+        sb.append(String.format("%-30s %12d %10.1f %10.1f %10.1f %10.1f %12d\n", retunes.getListener(),
+            retunes.getCount(), retunes.getMeanNanos() / 1E6, retunes.getMedianNanos() / 1E6,
+            retunes.getP99Nanos() / 1E6, retunes.getMaxNanos() / 1E6, getRetunesAvoided()));
+    }
+
+    @Override
+    public void appendPrometheusReport(StringBuilder sb)
+    {
+        sb.append("# HELP sdrtrunk_tuner_retune_seconds Time to change a tuner center frequency to fit a requested " +
+            "channel\n");
+        sb.append("# TYPE sdrtrunk_tuner_retune_seconds histogram\n");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_tuner_retune_seconds", mRetune, "{reason=\"fit\"");
+        sb.append("# HELP sdrtrunk_tuner_retunes_avoided_total Optimization retunes avoided by keeping the current " +
+            "tuner center frequency\n");
+        sb.append("# TYPE sdrtrunk_tuner_retunes_avoided_total counter\n");
+        sb.append("sdrtrunk_tuner_retunes_avoided_total ").append(getRetunesAvoided()).append("\n");
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traffic channel grant to first voice audio latency, recorded separately for cold starts where the traffic channel
+ * processing chain was constructed for the grant and warm starts where a pre-built chain was reused.
+ */
+public class TrafficChannelMetrics implements IMetricsGroup
+{
+    private static final String TRAFFIC_CHANNELS = "traffic channels";
+    private static final String GRANT_TO_VOICE = "grant to voice";
+
+    private EdgeMetrics mColdGrantLatency = new EdgeMetrics(TRAFFIC_CHANNELS, GRANT_TO_VOICE, "cold");
+    private EdgeMetrics mWarmGrantLatency = new EdgeMetrics(TRAFFIC_CHANNELS, GRANT_TO_VOICE, "warm");
+
+    /**
+     * Records the latency from a traffic channel grant until the first voice audio produced by the traffic channel
+     *
+     * @param nanos elapsed from the grant to the first voice audio
+     * @param warm true if the traffic channel processing chain was pre-built or reused, false if it was constructed
+     * for the grant
+     */
+    public void recordGrantLatency(long nanos, boolean warm)
+    {
+        (warm ? mWarmGrantLatency : mColdGrantLatency).record(nanos);
+    }
+
+    /**
+     * Grant to voice latency for cold and warm starts
+     */
+    public List<EdgeMetricsSnapshot> getGrantLatency()
+    {
+        List<EdgeMetricsSnapshot> snapshots = new ArrayList<>();
+        snapshots.add(EdgeMetricsSnapshot.of(mColdGrantLatency));
+        snapshots.add(EdgeMetricsSnapshot.of(mWarmGrantLatency));
+        return snapshots;
+    }
+
+    /**
+     * Resets the grant latency metrics
+     */
+    public void reset()
+    {
+        mColdGrantLatency.reset();
+        mWarmGrantLatency.reset();
+    }
+
+    @Override
+    public void appendTextReport(StringBuilder sb)
+    {
+        sb.append(String.format("%-30s %12s %10s %10s %10s %10s\n", "Grant To Voice", "Grants", "Mean ms",
+            "Median ms", "P99 ms", "Max ms"));
+
+        for(EdgeMetricsSnapshot latency: getGrantLatency())
+        {
+            MetricsReport.appendMillisecondsRow(sb, latency.getListener(), latency);
+        }
+    }
+
+    @Override
+    public void appendPrometheusReport(StringBuilder sb)
+    {
+        sb.append("# HELP sdrtrunk_grant_to_voice_seconds Time from a traffic channel grant until the first voice " +
+            "audio from the traffic channel\n");
+        sb.append("# TYPE sdrtrunk_grant_to_voice_seconds histogram\n");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_grant_to_voice_seconds", mColdGrantLatency, "{start=\"cold\"");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_grant_to_voice_seconds", mWarmGrantLatency, "{start=\"warm\"");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MBE vocoder queue latency and synthesis time for each voice frame
+ */
+public class VocoderMetrics implements IMetricsGroup
+{
+    private static final String VOCODER = "vocoder";
+    private static final String VOICE_FRAME = "frame";
+
+    private EdgeMetrics mQueueLatency = new EdgeMetrics(VOCODER, VOICE_FRAME, "queue");
+    private EdgeMetrics mSynthesis = new EdgeMetrics(VOCODER, VOICE_FRAME, "synthesis");
+
+    /**
+     * Records the processing of an MBE voice frame by a vocoder
+     *
+     * @param queueNanos elapsed from submission of the frame to the vocoder until synthesis started
+     * @param synthesisNanos elapsed while synthesizing the frame and dispatching the audio
+     */
+    public void recordFrame(long queueNanos, long synthesisNanos)
+    {
+        mQueueLatency.record(queueNanos);
+        mSynthesis.record(synthesisNanos);
+    }
+
+    /**
+     * Voice frame queue latency and synthesis time, including the voice frame rate
+     */
+    public List<EdgeMetricsSnapshot> getVocoder()
+    {
+        List<EdgeMetricsSnapshot> snapshots = new ArrayList<>();
+        snapshots.add(EdgeMetricsSnapshot.of(mQueueLatency));
+        snapshots.add(EdgeMetricsSnapshot.of(mSynthesis));
+        return snapshots;
+    }
+
+    /**
+     * Updates the voice frame rates
+     *
+     * @param timestamp current system nano time
+     */
+    void updateRates(long timestamp)
+    {
+        mQueueLatency.updateRate(timestamp);
+        mSynthesis.updateRate(timestamp);
+    }
+
+    /**
+     * Resets the vocoder metrics
+     */
+    public void reset()
+    {
+        mQueueLatency.reset();
+        mSynthesis.reset();
+    }
+
+    @Override
+    public void appendTextReport(StringBuilder sb)
+    {
+        sb.append(String.format("%-30s %12s %10s %10s %10s %10s %10s\n", "Vocoder", "Frames", "Frames/s",
+            "Mean us", "Median us", "P99 us", "Max us"));
+
+        for(EdgeMetricsSnapshot vocoder: getVocoder())
+        {
+            sb.append(String.format("%-30s %12d %10.1f %10.1f %10.1f %10.1f %10.1f\n", vocoder.getListener(),
+                vocoder.getCount(), vocoder.getBuffersPerSecond(), vocoder.getMeanNanos() / 1E3,
+                vocoder.getMedianNanos() / 1E3, vocoder.getP99Nanos() / 1E3, vocoder.getMaxNanos() / 1E3));
+        }
+    }
+
+    @Override
+    public void appendPrometheusReport(StringBuilder sb)
+    {
+        sb.append("# HELP sdrtrunk_vocoder_frames_total MBE voice frames processed by the vocoders\n");
+        sb.append("# TYPE sdrtrunk_vocoder_frames_total counter\n");
+        sb.append("sdrtrunk_vocoder_frames_total ").append(mSynthesis.getCount()).append("\n");
+        sb.append("# HELP sdrtrunk_vocoder_seconds Time that a voice frame waits in the vocoder queue and time to " +
+            "synthesize the voice frame\n");
+        sb.append("# TYPE sdrtrunk_vocoder_seconds histogram\n");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_vocoder_seconds", mQueueLatency, "{phase=\"queue\"");
+        MetricsReport.appendHistogram(sb, "sdrtrunk_vocoder_seconds", mSynthesis, "{phase=\"synthesis\"");
+    }
+}
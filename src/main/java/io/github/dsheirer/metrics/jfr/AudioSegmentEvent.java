@@ -0,0 +1,74 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event covering the life-cycle of an audio segment.  The event begins when the segment is created
+ * and is committed when the last consumer releases the segment and its audio storage is reclaimed, so the event
+ * duration is the full time that the segment held audio resources.
+ */
+@Name("io.github.dsheirer.AudioSegment")
+@Label("Audio Segment")
+@Category({"SDRTrunk", "Audio"})
+@Description("Audio segment life-cycle from creation until its audio storage is reclaimed")
+@StackTrace(false)
+public class AudioSegmentEvent extends Event
+{
+    private static final EventType EVENT_TYPE = EventType.getEventType(AudioSegmentEvent.class);
+
+    @Label("Timeslot")
+    public int timeslot;
+
+    @Label("Samples")
+    public int samples;
+
+    @Label("Memory")
+    @Description("Audio held in memory at disposal.  Audio spilled to disk is not included.")
+    @DataAmount
+    public long memory;
+
+    @Label("Complete")
+    @Description("Indicates the producer marked the segment complete before it was reclaimed")
+    public boolean complete;
+
+    @Label("Linked")
+    @Description("Indicates the segment continues a previous segment from the same call")
+    public boolean linked;
+
+    /**
+     * Indicates if this event type is enabled in a running recording, so that callers can avoid creating an event
+     * for every audio segment when no recording is collecting them.
+     */
+    public static boolean isTypeEnabled()
+    {
+        return EVENT_TYPE.isEnabled();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a sample queue entering or leaving an overflow state.  Committed by the
+ * OverflowableTransferQueue on each overflow state change.
+ */
+@Name("io.github.dsheirer.BufferOverflow")
+@Label("Buffer Overflow")
+@Category({"SDRTrunk", "Sample Path"})
+@Description("Sample queue entered (overflow) or left (reset) an overflow state where inbound buffers are discarded")
+@StackTrace(false)
+public class BufferOverflowEvent extends Event
+{
+    @Label("Queue")
+    public String queue;
+
+    @Label("Overflow")
+    @Description("True when the queue entered overflow, false when the queue was reset to normal")
+    public boolean overflow;
+
+    @Label("Queue Size")
+    public int size;
+
+    @Label("Maximum Size")
+    public int maximumSize;
+
+    @Label("Reset Threshold")
+    public int resetThreshold;
+
+    @Label("Dropped Buffers")
+    @Description("Buffers discarded while the queue was in overflow.  Only set on reset.")
+    public long dropped;
+
+    @Label("Overflow Duration")
+    @Description("Elapsed time in the overflow state.  Only set on reset.")
+    @Timespan(Timespan.NANOSECONDS)
+    public long overflowDuration;
+}
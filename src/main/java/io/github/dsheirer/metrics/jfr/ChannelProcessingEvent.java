@@ -0,0 +1,67 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a channel processing start, start rejection, or stop.  Committed by the channel
+ * processing manager.
+ */
+@Name("io.github.dsheirer.ChannelProcessing")
+@Label("Channel Processing")
+@Category({"SDRTrunk", "Channel"})
+@Description("Channel processing started, was rejected, or stopped")
+@StackTrace(false)
+public class ChannelProcessingEvent extends Event
+{
+    public static final String START = "START";
+    public static final String START_REJECTED = "START REJECTED";
+    public static final String STOP = "STOP";
+
+    @Label("Channel")
+    public String channel;
+
+    @Label("Channel Type")
+    @Description("Standard (configured) or traffic channel")
+    public String channelType;
+
+    @Label("Decoder")
+    public String decoder;
+
+    @Label("Frequency")
+    @Frequency
+    public long frequency;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Reason")
+    @Description("Rejection reason when a channel start is rejected")
+    public String reason;
+}
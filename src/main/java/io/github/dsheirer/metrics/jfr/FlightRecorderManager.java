@@ -0,0 +1,162 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Registers the sdrtrunk flight recorder events and optionally runs a continuous, low-overhead flight recording
+ * using the bundled sdrtrunk.jfc settings.
+ *
+ * The continuous recording is enabled with -Dsdrtrunk.jfr.enabled=true and retains the most recent hour (or 250 MB)
+ * of events.  The retained recording is written to the application logs directory when the application exits and
+ * can be dumped at any time with: jcmd <pid> JFR.dump name=sdrtrunk filename=<file>.jfr
+ *
+ * The bundled settings can also be used without this manager: java -XX:StartFlightRecording=settings=sdrtrunk.jfc
+ */
+public class FlightRecorderManager
+{
+    private final static Logger mLog = LoggerFactory.getLogger(FlightRecorderManager.class);
+
+    public static final String ENABLED_PROPERTY = "sdrtrunk.jfr.enabled";
+    public static final String CONFIGURATION_RESOURCE = "/sdrtrunk.jfc";
+    public static final String RECORDING_NAME = "sdrtrunk";
+    private static final Duration MAX_AGE = Duration.ofHours(1);
+    private static final long MAX_SIZE_BYTES = 250 * 1024 * 1024;
+
+    private Recording mRecording;
+
+    /**
+     * Constructs an instance
+     */
+    public FlightRecorderManager()
+    {
+    }
+
+    /**
+     * Registers the event types so that they are listed by the flight recorder and can be configured before the
+     * first event is committed.
+     */
+    public static void registerEvents()
+    {
+        if(FlightRecorder.isAvailable())
+        {
+            FlightRecorder.register(AudioSegmentEvent.class);
+            FlightRecorder.register(BufferOverflowEvent.class);
+            FlightRecorder.register(ChannelProcessingEvent.class);
+            FlightRecorder.register(GrantLatencyEvent.class);
+            FlightRecorder.register(StateChangeEvent.class);
+            FlightRecorder.register(TrafficChannelGrantEvent.class);
+            FlightRecorder.register(UsbTransferErrorEvent.class);
+        }
+    }
+
+    /**
+     * Registers the event types and starts the continuous recording when enabled via system property.
+     *
+     * @param directory to receive the recording when the application exits
+     */
+    public synchronized void start(Path directory)
+    {
+        registerEvents();
+
+        if(!Boolean.getBoolean(ENABLED_PROPERTY) || mRecording != null)
+        {
+            return;
+        }
+
+        if(!FlightRecorder.isAvailable())
+        {
+            mLog.warn("Java flight recorder is not available - continuous recording disabled");
+            return;
+        }
+
+        try(InputStream inputStream = FlightRecorderManager.class.getResourceAsStream(CONFIGURATION_RESOURCE))
+        {
+            if(inputStream == null)
+            {
+                mLog.error("Unable to find flight recorder configuration [" + CONFIGURATION_RESOURCE + "]");
+                return;
+            }
+
+            Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+            Configuration configuration = Configuration.create(reader);
+
+            Recording recording = new Recording(configuration);
+            recording.setName(RECORDING_NAME);
+            recording.setToDisk(true);
+            recording.setMaxAge(MAX_AGE);
+            recording.setMaxSize(MAX_SIZE_BYTES);
+
+            if(directory != null)
+            {
+                String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+                recording.setDestination(directory.resolve("sdrtrunk_" + timestamp + ".jfr"));
+                recording.setDumpOnExit(true);
+            }
+
+            recording.start();
+            mRecording = recording;
+
+            mLog.info("Java flight recorder continuous recording started" +
+                (directory != null ? " - recording will be saved to [" + directory + "] on exit" : ""));
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error starting java flight recorder continuous recording", e);
+        }
+    }
+
+    /**
+     * Stops the continuous recording, if running, and writes the retained events to the recording destination.
+     */
+    public synchronized void stop()
+    {
+        if(mRecording != null)
+        {
+            try
+            {
+                mRecording.stop();
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error stopping java flight recorder continuous recording", e);
+            }
+
+            mRecording.close();
+            mRecording = null;
+        }
+    }
+}
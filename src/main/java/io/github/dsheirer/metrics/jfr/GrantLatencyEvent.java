@@ -0,0 +1,55 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for the latency from a traffic channel grant until the first voice audio produced by the
+ * traffic channel.  Committed by the traffic channel processing chain when it produces its first audio segment.
+ */
+@Name("io.github.dsheirer.GrantLatency")
+@Label("Grant To Voice Latency")
+@Category({"SDRTrunk", "Channel"})
+@Description("Latency from a traffic channel grant until the first voice audio from the traffic channel")
+@StackTrace(false)
+public class GrantLatencyEvent extends Event
+{
+    @Label("Channel")
+    @Description("Trunking system channel for the grant")
+    public String channel;
+
+    @Label("Latency")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+
+    @Label("Warm")
+    @Description("Indicates the traffic channel processing chain was pre-built or reused rather than constructed " +
+        "for the grant")
+    public boolean warm;
+}
@@ -0,0 +1,52 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a decoder channel state machine transition
+ */
+@Name("io.github.dsheirer.StateChange")
+@Label("Channel State Change")
+@Category({"SDRTrunk", "Channel"})
+@Description("Decoder channel state machine changed state")
+@StackTrace(false)
+public class StateChangeEvent extends Event
+{
+    @Label("Channel")
+    public String channel;
+
+    @Label("Timeslot")
+    public int timeslot;
+
+    @Label("Previous State")
+    public String previousState;
+
+    @Label("State")
+    public String state;
+}
@@ -0,0 +1,62 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Frequency;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a traffic channel grant processed by a trunking traffic channel manager.  The grant
+ * is either allocated to a traffic channel or rejected when all traffic channels are in use.
+ */
+@Name("io.github.dsheirer.TrafficChannelGrant")
+@Label("Traffic Channel Grant")
+@Category({"SDRTrunk", "Channel"})
+@Description("Trunked channel grant allocated to a traffic channel or rejected")
+@StackTrace(false)
+public class TrafficChannelGrantEvent extends Event
+{
+    @Label("Protocol")
+    public String protocol;
+
+    @Label("Control Channel")
+    public String controlChannel;
+
+    @Label("Channel")
+    @Description("Trunking system channel number for the grant")
+    public String channel;
+
+    @Label("Frequency")
+    @Frequency
+    public long frequency;
+
+    @Label("Rejected")
+    public boolean rejected;
+
+    @Label("Reason")
+    public String reason;
+}
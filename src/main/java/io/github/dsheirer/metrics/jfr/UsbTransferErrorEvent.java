@@ -0,0 +1,56 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a USB bulk transfer that completed with an error or could not be submitted to the
+ * tuner.  Committed by the USB transfer processor.
+ */
+@Name("io.github.dsheirer.UsbTransferError")
+@Label("USB Transfer Error")
+@Category({"SDRTrunk", "Tuner"})
+@Description("USB bulk transfer error reported by the tuner device")
+@StackTrace(false)
+public class UsbTransferErrorEvent extends Event
+{
+    @Label("Device")
+    public String device;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Transferred")
+    @DataAmount
+    public int actualLength;
+
+    @Label("Restart")
+    @Description("Indicates the error caused a restart of the tuner's bulk transfer processing")
+    public boolean restart;
+}
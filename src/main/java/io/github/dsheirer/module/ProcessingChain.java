@@ -44,6 +44,8 @@ import io.github.dsheirer.identifier.IdentifierUpdateProvider;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.message.IMessageProvider;
+import io.github.dsheirer.metrics.PipelineMetrics;
+import io.github.dsheirer.metrics.jfr.GrantLatencyEvent;
 import io.github.dsheirer.module.decode.event.DecodeEventModel;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
 import io.github.dsheirer.module.decode.event.IDecodeEventListener;
@@ -54,6 +56,7 @@ import io.github.dsheirer.record.binary.BinaryRecorder;
 import io.github.dsheirer.record.wave.ComplexBufferWaveRecorder;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
 import io.github.dsheirer.sample.buffer.IReusableBufferListener;
 import io.github.dsheirer.sample.buffer.IReusableBufferProvider;
 import io.github.dsheirer.sample.buffer.IReusableByteBufferListener;
@@ -72,12 +75,14 @@ import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.heartbeat.Heartbeat;
 import io.github.dsheirer.source.heartbeat.IHeartbeatListener;
 import io.github.dsheirer.source.heartbeat.IHeartbeatProvider;
+import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Processing chain provides a framework for connecting a complex or real sample
@@ -119,6 +124,8 @@ public class ProcessingChain implements Listener<ChannelEvent>
     private AbstractChannelState mChannelState;
     private MessageActivityModel mMessageActivityModel;
     protected Source mSource;
+    private String mMetricsName;
+    private GrantLatencyMonitor mGrantLatencyMonitor = new GrantLatencyMonitor();
 
     /**
      * Creates a processing chain for managing a set of modules
@@ -136,6 +143,10 @@ public class ProcessingChain implements Listener<ChannelEvent>
             mChannelState = new MultiChannelState(channel, aliasModel, channel.getDecodeConfiguration().getTimeslotCount());
         }
 
+        mMetricsName = channel.getName() + "#" + channel.getChannelID();
+
+        mAudioSegmentBroadcaster.addListener(mGrantLatencyMonitor);
+
         addModule(mChannelState);
         mDecodeEventModel = new DecodeEventModel();
         addDecodeEventListener(mDecodeEventModel);
@@ -605,6 +616,8 @@ public class ProcessingChain implements Listener<ChannelEvent>
                             + "sample type - cannot start processing chain");
                 }
 
+                registerMetrics();
+
                 /* Start each of the modules */
                 for(Module module : mModules)
                 {
@@ -625,6 +638,73 @@ public class ProcessingChain implements Listener<ChannelEvent>
         }
     }
 
+    /**
+     * Sets the channel grant that started this traffic channel processing chain so that the latency from the grant
+     * until the first voice audio can be measured.  Invoke prior to starting the processing chain.
+     *
+     * @param channel description of the trunking system channel for the grant
+     * @param grantTimestampNanos system nano time of the channel grant
+     * @param warm true if this processing chain was pre-built or reused, false if it was constructed for the grant
+     */
+    public void setChannelGrant(String channel, long grantTimestampNanos, boolean warm)
+    {
+        mGrantLatencyMonitor.set(channel, grantTimestampNanos, warm);
+    }
+
+    /**
+     * Registers each of the broadcasters and the source sample queue with the pipeline metrics registry so that
+     * per-edge delivery timing and queue depth can be monitored while this chain is running.
+     */
+    private void registerMetrics()
+    {
+        PipelineMetrics metrics = PipelineMetrics.getInstance();
+
+        mBasebandComplexBufferBroadcaster.setMetrics(metrics.register(mMetricsName, "baseband"));
+        mDemodulatedAudioBufferBroadcaster.setMetrics(metrics.register(mMetricsName, "demodulated audio"));
+        mDemodulatedBitstreamBufferBroadcaster.setMetrics(metrics.register(mMetricsName, "bitstream"));
+        mAudioSegmentBroadcaster.setMetrics(metrics.register(mMetricsName, "audio segments"));
+        mDecodeEventBroadcaster.setMetrics(metrics.register(mMetricsName, "decode events"));
+        mChannelEventBroadcaster.setMetrics(metrics.register(mMetricsName, "channel events"));
+        mDecoderStateEventBroadcaster.setMetrics(metrics.register(mMetricsName, "decoder state events"));
+        mHeartbeatBroadcaster.setMetrics(metrics.register(mMetricsName, "heartbeats"));
+        mIdentifierUpdateNotificationBroadcaster.setMetrics(metrics.register(mMetricsName, "identifier updates"));
+        mSourceEventBroadcaster.setMetrics(metrics.register(mMetricsName, "source events"));
+        mMessageBroadcaster.setMetrics(metrics.register(mMetricsName, "messages"));
+        mSquelchStateEventBroadcaster.setMetrics(metrics.register(mMetricsName, "squelch state"));
+
+        if(mSource instanceof TunerChannelSource)
+        {
+            OverflowableTransferQueue<?> queue = ((TunerChannelSource)mSource).getSampleQueue();
+
+            if(queue != null)
+            {
+                queue.setName(mMetricsName + "/source");
+                metrics.registerQueue(mMetricsName + "/source", queue);
+            }
+        }
+    }
+
+    /**
+     * Removes this chain's broadcasters and source queue from the pipeline metrics registry
+     */
+    private void unregisterMetrics()
+    {
+        PipelineMetrics.getInstance().unregister(mMetricsName);
+
+        mBasebandComplexBufferBroadcaster.setMetrics(null);
+        mDemodulatedAudioBufferBroadcaster.setMetrics(null);
+        mDemodulatedBitstreamBufferBroadcaster.setMetrics(null);
+        mAudioSegmentBroadcaster.setMetrics(null);
+        mDecodeEventBroadcaster.setMetrics(null);
+        mChannelEventBroadcaster.setMetrics(null);
+        mDecoderStateEventBroadcaster.setMetrics(null);
+        mHeartbeatBroadcaster.setMetrics(null);
+        mIdentifierUpdateNotificationBroadcaster.setMetrics(null);
+        mSourceEventBroadcaster.setMetrics(null);
+        mMessageBroadcaster.setMetrics(null);
+        mSquelchStateEventBroadcaster.setMetrics(null);
+    }
+
     /**
      * Stops processing if the chain is currently processing.  Invocations on an already stopped chain have no effect.
      */
@@ -656,6 +736,10 @@ public class ProcessingChain implements Listener<ChannelEvent>
                 mSource = null;
             }
 
+            unregisterMetrics();
+
+            mGrantLatencyMonitor.clear();
+
             /* Stop each of the remaining modules */
             for(Module module : mModules)
             {
@@ -879,4 +963,52 @@ public class ProcessingChain implements Listener<ChannelEvent>
     {
         mIdentifierUpdateNotificationBroadcaster.broadcast(updateNotification);
     }
+
+    /**
+     * Measures the latency from a traffic channel grant until the first audio segment produced by the processing
+     * chain, which is created when the first voice audio is decoded.
+     */
+    private class GrantLatencyMonitor implements Listener<AudioSegment>
+    {
+        private AtomicLong mGrantTimestampNanos = new AtomicLong();
+        private String mChannel;
+        private boolean mWarm;
+
+        public void set(String channel, long grantTimestampNanos, boolean warm)
+        {
+            mChannel = channel;
+            mWarm = warm;
+            mGrantTimestampNanos.set(grantTimestampNanos);
+        }
+
+        public void clear()
+        {
+            mGrantTimestampNanos.set(0);
+        }
+
+        @Override
+        public void receive(AudioSegment audioSegment)
+        {
+            long grantTimestampNanos = mGrantTimestampNanos.getAndSet(0);
+
+            if(grantTimestampNanos != 0)
+            {
+                long latency = System.nanoTime() - grantTimestampNanos;
+
+                PipelineMetrics.getInstance().getTrafficChannelMetrics().recordGrantLatency(latency, mWarm);
+
+                GrantLatencyEvent event = new GrantLatencyEvent();
+
+                if(event.shouldCommit())
+                {
+                    event.channel = mChannel;
+                    event.latency = latency;
+                    event.warm = mWarm;
+                    event.commit();
+                }
+            }
+
+            audioSegment.decrementConsumerCount();
+        }
+    }
 }
@@ -70,10 +70,12 @@ import io.github.dsheirer.module.decode.mpt1327.Sync;
 import io.github.dsheirer.module.decode.nbfm.DecodeConfigNBFM;
 import io.github.dsheirer.module.decode.nbfm.NBFMDecoder;
 import io.github.dsheirer.module.decode.nbfm.NBFMDecoderEditor;
+import io.github.dsheirer.module.decode.p25.P25NetworkStateManager;
 import io.github.dsheirer.module.decode.p25.P25TrafficChannelManager;
 import io.github.dsheirer.module.decode.p25.audio.P25P1AudioModule;
 import io.github.dsheirer.module.decode.p25.audio.P25P2AudioModule;
 import io.github.dsheirer.module.decode.p25.phase1.DecodeConfigP25Phase1;
+import io.github.dsheirer.module.decode.p25.phase1.P25P1Decoder;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1DecoderC4FM;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1DecoderEditor;
 import io.github.dsheirer.module.decode.p25.phase1.P25P1DecoderLSM;
@@ -240,20 +242,25 @@ public class DecoderFactory
                 break;
             case P25_PHASE1:
                 DecodeConfigP25Phase1 p25Config = (DecodeConfigP25Phase1)decodeConfig;
+                P25P1Decoder p25P1Decoder;
 
                 switch(p25Config.getModulation())
                 {
                     case C4FM:
-                        modules.add(new P25P1DecoderC4FM());
+                        p25P1Decoder = new P25P1DecoderC4FM();
                         break;
                     case CQPSK:
-                        modules.add(new P25P1DecoderLSM());
+                        p25P1Decoder = new P25P1DecoderLSM();
                         break;
                     default:
                         throw new IllegalArgumentException("Unrecognized P25 Phase 1 Modulation [" +
                             p25Config.getModulation() + "]");
                 }
 
+                //Control and traffic channels share network state (frequency bands, sites, patch groups)
+                p25P1Decoder.setNetworkState(P25NetworkStateManager.getInstance().getNetworkState(channel));
+                modules.add(p25P1Decoder);
+
                 if(channelType == ChannelType.STANDARD)
                 {
                     P25TrafficChannelManager trafficChannelManager = new P25TrafficChannelManager(channel);
@@ -277,7 +284,10 @@ public class DecoderFactory
                 }
                 break;
             case P25_PHASE2:
-                modules.add(new P25P2DecoderHDQPSK((DecodeConfigP25Phase2)channel.getDecodeConfiguration()));
+                P25P2DecoderHDQPSK p25P2Decoder =
+                    new P25P2DecoderHDQPSK((DecodeConfigP25Phase2)channel.getDecodeConfiguration());
+                p25P2Decoder.setNetworkState(P25NetworkStateManager.getInstance().getNetworkState(channel));
+                modules.add(p25P2Decoder);
 
                 modules.add(new P25P2DecoderState(channel, 0));
                 modules.add(new P25P2DecoderState(channel, 1));
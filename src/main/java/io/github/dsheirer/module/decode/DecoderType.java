@@ -83,7 +83,8 @@ public enum DecoderType
      * Decoders that produce a (recordable) bitstream
      */
     public static final EnumSet<DecoderType> BITSTREAM_DECODERS =
-        EnumSet.of(DecoderType.MPT1327,
+        EnumSet.of(DecoderType.FLEETSYNC2,
+            DecoderType.MPT1327,
             DecoderType.P25_PHASE1,
             DecoderType.P25_PHASE2);
 
@@ -24,6 +24,8 @@ package io.github.dsheirer.module.decode.event;
 import com.google.common.eventbus.Subscribe;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.eventbus.MyEventBus;
+import io.github.dsheirer.gui.table.TableRowBuffer;
+import io.github.dsheirer.gui.table.TableUpdateBatcher;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.sample.Listener;
@@ -31,10 +33,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.awt.EventQueue;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Decode event table model.  Decode events and event updates received from the decoder threads are batched and
+ * applied to a fixed size row buffer on the Swing event dispatch thread, at most
+ * TableUpdateBatcher.UPDATES_PER_SECOND times per second.
+ */
 public class DecodeEventModel extends AbstractTableModel implements Listener<IDecodeEvent>
 {
     private static final long serialVersionUID = 1L;
@@ -51,9 +61,15 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     public static final int COLUMN_FREQUENCY = 8;
     public static final int COLUMN_DETAILS = 9;
 
+    private static final int PENDING_EVENT_CAPACITY = 5000;
+
     protected int mMaxMessages = 500;
 
-    protected List<IDecodeEvent> mEvents = new ArrayList<>();
+    protected TableRowBuffer<IDecodeEvent> mEvents = new TableRowBuffer<>(mMaxMessages);
+    private Map<IDecodeEvent,Long> mEventSequenceMap = new HashMap<>();
+    private TableUpdateBatcher<IDecodeEvent> mUpdateBatcher = new TableUpdateBatcher<>(PENDING_EVENT_CAPACITY,
+        this::applyEvents);
+    private Set<IDecodeEvent> mBatchEvents = new LinkedHashSet<>();
 
     protected String[] mHeaders = new String[]{"Time", "Duration", "Event", "From", "Alias", "To", "Alias", "Channel", "Frequency", "Details"};
 
@@ -69,20 +85,19 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     @Subscribe
     public void preferenceUpdated(PreferenceType preferenceType)
     {
-        if(preferenceType == PreferenceType.DECODE_EVENT)
+        if(preferenceType == PreferenceType.DECODE_EVENT || preferenceType == PreferenceType.IDENTIFIER)
         {
-            for(int row = 0; row < mEvents.size(); row++)
+            EventQueue.invokeLater(new Runnable()
             {
-                fireTableCellUpdated(row, COLUMN_TIME);
-            }
-        }
-        else if(preferenceType == PreferenceType.IDENTIFIER)
-        {
-            for(int row = 0; row < mEvents.size(); row++)
-            {
-                fireTableCellUpdated(row, COLUMN_FROM_ID);
-                fireTableCellUpdated(row, COLUMN_TO_ID);
-            }
+                @Override
+                public void run()
+                {
+                    if(mEvents.size() > 0)
+                    {
+                        fireTableRowsUpdated(0, mEvents.size() - 1);
+                    }
+                }
+            });
         }
     }
 
@@ -90,18 +105,23 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     public void dispose()
     {
         MyEventBus.getEventBus().unregister(this);
-        Iterator<IDecodeEvent> it = mEvents.iterator();
+        mUpdateBatcher.clear();
 
-        while(it.hasNext())
+        EventQueue.invokeLater(new Runnable()
         {
-            it.remove();
-        }
+            @Override
+            public void run()
+            {
+                mEvents.clear();
+                mEventSequenceMap.clear();
+                fireTableDataChanged();
+            }
+        });
     }
 
     public void reset()
     {
         dispose();
-        fireTableDataChanged();
     }
 
     public int getMaxMessageCount()
@@ -112,6 +132,27 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     public void setMaxMessageCount(int count)
     {
         mMaxMessages = count;
+
+        EventQueue.invokeLater(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                int previousCount = mEvents.size();
+
+                List<IDecodeEvent> removed = mEvents.setCapacity(count);
+
+                for(IDecodeEvent event : removed)
+                {
+                    mEventSequenceMap.remove(event);
+                }
+
+                if(!removed.isEmpty())
+                {
+                    fireTableRowsDeleted(mEvents.size(), previousCount - 1);
+                }
+            }
+        });
     }
 
     /**
@@ -122,27 +163,90 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
      */
     public void receive(final IDecodeEvent event)
     {
-        if(!mEvents.contains(event))
+        mUpdateBatcher.add(event);
+    }
+
+    /**
+     * Applies a batch of new and updated events on the Swing event dispatch thread.  Repeated updates for the same
+     * event within the batch are coalesced.  Rows displaced by the new events are removed from the end of the table,
+     * the new events are inserted at the top of the table and a single row update event covers the range of any
+     * updated events that remain in the table.
+     *
+     * @param events in order of arrival
+     */
+    private void applyEvents(List<IDecodeEvent> events)
+    {
+        mBatchEvents.clear();
+        mBatchEvents.addAll(events);
+
+        int added = 0;
+
+        for(IDecodeEvent event : mBatchEvents)
         {
-            mEvents.add(0, event);
-            fireTableRowsInserted(0, 0);
-            prune();
+            if(!mEventSequenceMap.containsKey(event))
+            {
+                added++;
+            }
         }
-        else
+
+        int capacity = mEvents.getCapacity();
+        int skip = Math.max(0, added - capacity);
+        int inserted = added - skip;
+        int previousCount = mEvents.size();
+        int evicted = Math.max(0, previousCount + inserted - capacity);
+
+        if(evicted > 0)
         {
-            int row = mEvents.indexOf(event);
-            fireTableRowsUpdated(row, row);
+            for(int x = 0; x < evicted; x++)
+            {
+                mEventSequenceMap.remove(mEvents.removeLast());
+            }
+
+            fireTableRowsDeleted(previousCount - evicted, previousCount - 1);
         }
-    }
 
-    private void prune()
-    {
-        while(mEvents.size() > mMaxMessages)
+        int newCount = 0;
+
+        for(IDecodeEvent event : mBatchEvents)
+        {
+            if(!mEventSequenceMap.containsKey(event) && newCount++ >= skip)
+            {
+                mEventSequenceMap.put(event, mEvents.getAddedCount());
+                mEvents.addFirst(event);
+            }
+        }
+
+        if(inserted > 0)
+        {
+            fireTableRowsInserted(0, inserted - 1);
+        }
+
+        //Updated events that are still in the table, identified by rows below the newly inserted rows
+        int firstUpdated = Integer.MAX_VALUE;
+        int lastUpdated = -1;
+
+        for(IDecodeEvent event : mBatchEvents)
+        {
+            Long sequence = mEventSequenceMap.get(event);
+
+            if(sequence != null)
+            {
+                int row = mEvents.getRow(sequence);
+
+                if(row >= inserted)
+                {
+                    firstUpdated = Math.min(firstUpdated, row);
+                    lastUpdated = Math.max(lastUpdated, row);
+                }
+            }
+        }
+
+        if(lastUpdated >= 0)
         {
-            int index = mEvents.size() - 1;
-            mEvents.remove(index);
-            fireTableRowsDeleted(index, index);
+            fireTableRowsUpdated(firstUpdated, lastUpdated);
         }
+
+        mBatchEvents.clear();
     }
 
     @Override
@@ -165,58 +269,55 @@ public class DecodeEventModel extends AbstractTableModel implements Listener<IDe
     @Override
     public Object getValueAt(int rowIndex, int columnIndex)
     {
-        synchronized(mEvents)
-        {
-            IDecodeEvent event = mEvents.get(rowIndex);
+        IDecodeEvent event = mEvents.get(rowIndex);
 
-            if(event != null)
+        if(event != null)
+        {
+            switch(columnIndex)
             {
-                switch(columnIndex)
-                {
-                    case COLUMN_TIME:
-                        return event.getTimeStart();
-                    case COLUMN_DURATION:
-                        return event.getDuration();
-                    case COLUMN_EVENT:
-                        return event.getEventDescription();
-                    case COLUMN_FROM_ID:
-                        return event.getIdentifierCollection();
-                    case COLUMN_FROM_ALIAS:
-                        return event.getIdentifierCollection();
-                    case COLUMN_TO_ID:
-                        return event.getIdentifierCollection();
-                    case COLUMN_TO_ALIAS:
-                        return event.getIdentifierCollection();
-                    case COLUMN_CHANNEL:
-                        IChannelDescriptor channelDescriptor = event.getChannelDescriptor();
-
-                        if(channelDescriptor != null)
+                case COLUMN_TIME:
+                    return event.getTimeStart();
+                case COLUMN_DURATION:
+                    return event.getDuration();
+                case COLUMN_EVENT:
+                    return event.getEventDescription();
+                case COLUMN_FROM_ID:
+                    return event.getIdentifierCollection();
+                case COLUMN_FROM_ALIAS:
+                    return event.getIdentifierCollection();
+                case COLUMN_TO_ID:
+                    return event.getIdentifierCollection();
+                case COLUMN_TO_ALIAS:
+                    return event.getIdentifierCollection();
+                case COLUMN_CHANNEL:
+                    IChannelDescriptor channelDescriptor = event.getChannelDescriptor();
+
+                    if(channelDescriptor != null)
+                    {
+                        if(event.hasTimeslot())
                         {
-                            if(event.hasTimeslot())
-                            {
-                                return channelDescriptor.toString() + " TS:" + event.getTimeslot();
-                            }
-                            else
-                            {
-                                return channelDescriptor.toString();
-                            }
+                            return channelDescriptor.toString() + " TS:" + event.getTimeslot();
                         }
                         else
                         {
-                            if(event.hasTimeslot())
-                            {
-                                return "TS:" + event.getTimeslot();
-                            }
-                            else
-                            {
-                                return null;
-                            }
+                            return channelDescriptor.toString();
                         }
-                    case COLUMN_FREQUENCY:
-                        return event.getChannelDescriptor();
-                    case COLUMN_DETAILS:
-                        return event.getDetails();
-                }
+                    }
+                    else
+                    {
+                        if(event.hasTimeslot())
+                        {
+                            return "TS:" + event.getTimeslot();
+                        }
+                        else
+                        {
+                            return null;
+                        }
+                    }
+                case COLUMN_FREQUENCY:
+                    return event.getChannelDescriptor();
+                case COLUMN_DETAILS:
+                    return event.getDetails();
             }
         }
 
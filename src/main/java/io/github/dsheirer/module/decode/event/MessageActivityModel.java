@@ -22,6 +22,8 @@
 package io.github.dsheirer.module.decode.event;
 
 import io.github.dsheirer.filter.FilterSet;
+import io.github.dsheirer.gui.table.TableRowBuffer;
+import io.github.dsheirer.gui.table.TableUpdateBatcher;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.StuffBitsMessage;
 import io.github.dsheirer.sample.Listener;
@@ -29,8 +31,12 @@ import io.github.dsheirer.sample.Listener;
 import javax.swing.table.AbstractTableModel;
 import java.awt.EventQueue;
 import java.text.SimpleDateFormat;
-import java.util.LinkedList;
+import java.util.List;
 
+/**
+ * Message activity table model.  Messages received from the decoder threads are batched and applied to a fixed size
+ * row buffer on the Swing event dispatch thread, at most TableUpdateBatcher.UPDATES_PER_SECOND times per second.
+ */
 public class MessageActivityModel extends AbstractTableModel implements Listener<IMessage>
 {
     private static final long serialVersionUID = 1L;
@@ -38,9 +44,12 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
     private static final int PROTOCOL = 1;
     private static final int TIMESLOT = 2;
     private static final int MESSAGE = 3;
+    private static final int PENDING_MESSAGE_CAPACITY = 2000;
 
     protected int mMaxMessages = 500;
-    protected LinkedList<MessageItem> mMessageItems = new LinkedList<>();
+    protected TableRowBuffer<MessageItem> mMessageItems = new TableRowBuffer<>(mMaxMessages);
+    private TableUpdateBatcher<MessageItem> mUpdateBatcher = new TableUpdateBatcher<>(PENDING_MESSAGE_CAPACITY,
+        this::addMessages);
     protected int[] mColumnWidths = {20, 20, 500};
     protected String[] mHeaders = new String[]{"Time", "Protocol", "Timeslot", "Message"};
 
@@ -62,6 +71,8 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
      */
     public void clear()
     {
+        mUpdateBatcher.clear();
+
         EventQueue.invokeLater(new Runnable()
         {
             @Override
@@ -69,9 +80,11 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
             {
                 int messageCount = mMessageItems.size();
 
-                mMessageItems.clear();
-
-                fireTableRowsDeleted(0, messageCount - 1);
+                if(messageCount > 0)
+                {
+                    removeOldest(messageCount);
+                    fireTableRowsDeleted(0, messageCount - 1);
+                }
             }
         });
     }
@@ -83,7 +96,17 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
 
     public void dispose()
     {
-        mMessageItems.clear();
+        mUpdateBatcher.clear();
+
+        EventQueue.invokeLater(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                mMessageItems.clear();
+                fireTableDataChanged();
+            }
+        });
     }
 
     public int[] getColumnWidths()
@@ -111,6 +134,27 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
     public void setMaxMessageCount(int count)
     {
         mMaxMessages = count;
+
+        EventQueue.invokeLater(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                int previousCount = mMessageItems.size();
+
+                List<MessageItem> removed = mMessageItems.setCapacity(count);
+
+                for(MessageItem messageItem : removed)
+                {
+                    messageItem.dispose();
+                }
+
+                if(!removed.isEmpty())
+                {
+                    fireTableRowsDeleted(mMessageItems.size(), previousCount - 1);
+                }
+            }
+        });
     }
 
     public void receive(final IMessage message)
@@ -123,30 +167,64 @@ public class MessageActivityModel extends AbstractTableModel implements Listener
 
         if(mMessageFilter.passes(message))
         {
-            final MessageItem messageItem = new MessageItem(message);
+            mUpdateBatcher.add(new MessageItem(message));
+        }
+    }
 
-            EventQueue.invokeLater(new Runnable()
+    /**
+     * Applies a batch of received messages on the Swing event dispatch thread.  Rows that will be displaced by the
+     * batch are removed from the end of the table first, and then the batch is inserted at the top of the table, so
+     * that each batch produces at most one row deleted and one row inserted event.
+     *
+     * @param messageItems in order of arrival
+     */
+    private void addMessages(List<MessageItem> messageItems)
+    {
+        int capacity = mMessageItems.getCapacity();
+        int start = 0;
+
+        //Only the newest messages that fit in the table are displayed
+        if(messageItems.size() > capacity)
+        {
+            start = messageItems.size() - capacity;
+
+            for(int x = 0; x < start; x++)
             {
-                @Override
-                public void run()
-                {
-                    mMessageItems.addFirst(messageItem);
+                messageItems.get(x).dispose();
+            }
+        }
 
-                    MessageActivityModel.this.fireTableRowsInserted(0, 0);
+        int added = messageItems.size() - start;
+        int previousCount = mMessageItems.size();
+        int evicted = Math.max(0, previousCount + added - capacity);
 
-                    prune();
-                }
-            });
+        if(evicted > 0)
+        {
+            removeOldest(evicted);
+            fireTableRowsDeleted(previousCount - evicted, previousCount - 1);
+        }
+
+        for(int x = start; x < messageItems.size(); x++)
+        {
+            mMessageItems.addFirst(messageItems.get(x));
         }
+
+        fireTableRowsInserted(0, added - 1);
     }
 
-    private void prune()
+    /**
+     * Removes and disposes the specified number of oldest rows
+     */
+    private void removeOldest(int count)
     {
-        while(mMessageItems.size() > mMaxMessages)
+        for(int x = 0; x < count; x++)
         {
             MessageItem removed = mMessageItems.removeLast();
-            removed.dispose();
-            super.fireTableRowsDeleted(mMessageItems.size() - 1, mMessageItems.size() - 1);
+
+            if(removed != null)
+            {
+                removed.dispose();
+            }
         }
     }
 
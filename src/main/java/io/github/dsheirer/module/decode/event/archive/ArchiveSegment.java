@@ -0,0 +1,603 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.event.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory mapped, fixed capacity, columnar segment file of archived decode event records.
+ *
+ * Each column (event ID, start time, duration, from and to identifier keys, frequency, text offset and length,
+ * protocol and timeslot) is stored contiguously so that a scan of one column touches only that column's pages.
+ * Variable length text (event description, details, channel and identifiers, plus any linked recordings) is stored in
+ * a text heap at the end of the segment.
+ *
+ * Records are grouped into blocks of 256 records.  A sparse index holds the minimum and maximum start time and a 512-bit
+ * bloom filter of the from and to identifier keys for each block, so that time range and identifier queries only scan
+ * the blocks that can contain matching records.
+ *
+ * Layout: header (4096 bytes) | block time index | block identifier bloom filters | columns | text heap
+ */
+public class ArchiveSegment
+{
+    public static final String FILE_EXTENSION = ".evt";
+    public static final long NO_KEY = Long.MIN_VALUE;
+    public static final int NO_TIMESLOT = -1;
+    private static final int MAGIC = 0x53444541; //SDEA
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int BLOCK_SIZE = 256;
+    private static final int BLOOM_BYTES = 64;
+    private static final int BLOOM_BITS_MASK = BLOOM_BYTES * 8 - 1;
+
+    //Header field offsets
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int TEXT_CAPACITY_OFFSET = 12;
+    private static final int COUNT_OFFSET = 16;
+    private static final int TEXT_LENGTH_OFFSET = 20;
+    private static final int MIN_TIME_OFFSET = 24;
+    private static final int MAX_TIME_OFFSET = 32;
+    private static final int LAST_EVENT_ID_OFFSET = 40;
+    private static final int SEALED_OFFSET = 48;
+
+    private final Path mPath;
+    private final int mCapacity;
+    private final int mTextCapacity;
+    private final int mTimeIndexOffset;
+    private final int mBloomOffset;
+    private final int mEventIdOffset;
+    private final int mTimeOffset;
+    private final int mDurationOffset;
+    private final int mFromOffset;
+    private final int mToOffset;
+    private final int mFrequencyOffset;
+    private final int mTextOffsetOffset;
+    private final int mTextLengthOffset;
+    private final int mProtocolOffset;
+    private final int mTimeslotOffset;
+    private final int mTextHeapOffset;
+    private final int mFileSize;
+    private MappedByteBuffer mBuffer;
+    private boolean mWritable;
+    private volatile int mCount;
+    private int mTextLength;
+    private long mMinTime;
+    private long mMaxTime;
+    private long mLastEventId;
+    private boolean mSealed;
+
+    /**
+     * Constructs an instance.  Use create() or open().
+     */
+    private ArchiveSegment(Path path, int capacity, int textCapacity)
+    {
+        mPath = path;
+        mCapacity = capacity;
+        mTextCapacity = textCapacity;
+
+        int blocks = (capacity + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        mTimeIndexOffset = HEADER_SIZE;
+        mBloomOffset = mTimeIndexOffset + blocks * 16;
+        mEventIdOffset = mBloomOffset + blocks * BLOOM_BYTES;
+        mTimeOffset = mEventIdOffset + capacity * 8;
+        mDurationOffset = mTimeOffset + capacity * 8;
+        mFromOffset = mDurationOffset + capacity * 8;
+        mToOffset = mFromOffset + capacity * 8;
+        mFrequencyOffset = mToOffset + capacity * 8;
+        mTextOffsetOffset = mFrequencyOffset + capacity * 8;
+        mTextLengthOffset = mTextOffsetOffset + capacity * 4;
+        mProtocolOffset = mTextLengthOffset + capacity * 4;
+        mTimeslotOffset = mProtocolOffset + capacity;
+        mTextHeapOffset = mTimeslotOffset + capacity;
+        mFileSize = mTextHeapOffset + textCapacity;
+    }
+
+    /**
+     * Creates a new, empty segment file that is mapped for appending records
+     *
+     * @param path for the segment file
+     * @param capacity maximum number of records
+     * @param textCapacity maximum size of the text heap in bytes
+     * @return segment
+     * @throws IOException if the file can't be created
+     */
+    public static ArchiveSegment create(Path path, int capacity, int textCapacity) throws IOException
+    {
+        ArchiveSegment segment = new ArchiveSegment(path, capacity, textCapacity);
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE))
+        {
+            segment.mBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segment.mFileSize);
+        }
+
+        segment.mWritable = true;
+        segment.mMinTime = Long.MAX_VALUE;
+        segment.mMaxTime = Long.MIN_VALUE;
+        segment.mBuffer.putInt(MAGIC_OFFSET, MAGIC);
+        segment.mBuffer.putInt(VERSION_OFFSET, VERSION);
+        segment.mBuffer.putInt(CAPACITY_OFFSET, capacity);
+        segment.mBuffer.putInt(TEXT_CAPACITY_OFFSET, textCapacity);
+        segment.writeHeader();
+
+        int blocks = (capacity + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        for(int block = 0; block < blocks; block++)
+        {
+            segment.mBuffer.putLong(segment.mTimeIndexOffset + block * 16, Long.MAX_VALUE);
+            segment.mBuffer.putLong(segment.mTimeIndexOffset + block * 16 + 8, Long.MIN_VALUE);
+        }
+
+        return segment;
+    }
+
+    /**
+     * Opens an existing segment file, reading only the header.  The segment is mapped when it is first scanned or
+     * when it is opened for appending.
+     *
+     * @param path of the segment file
+     * @return segment
+     * @throws IOException if the file can't be read or is not a valid segment file
+     */
+    public static ArchiveSegment open(Path path) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(SEALED_OFFSET + 4);
+
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+        {
+            while(header.hasRemaining() && channel.read(header) >= 0)
+            {
+                //Read the complete header
+            }
+        }
+
+        if(header.hasRemaining() || header.getInt(MAGIC_OFFSET) != MAGIC)
+        {
+            throw new IOException("Not an event archive segment file:" + path);
+        }
+
+        if(header.getInt(VERSION_OFFSET) != VERSION)
+        {
+            throw new IOException("Unsupported event archive segment version [" + header.getInt(VERSION_OFFSET) +
+                "] in file:" + path);
+        }
+
+        ArchiveSegment segment = new ArchiveSegment(path, header.getInt(CAPACITY_OFFSET),
+            header.getInt(TEXT_CAPACITY_OFFSET));
+        segment.mCount = header.getInt(COUNT_OFFSET);
+        segment.mTextLength = header.getInt(TEXT_LENGTH_OFFSET);
+        segment.mMinTime = header.getLong(MIN_TIME_OFFSET);
+        segment.mMaxTime = header.getLong(MAX_TIME_OFFSET);
+        segment.mLastEventId = header.getLong(LAST_EVENT_ID_OFFSET);
+        segment.mSealed = header.getInt(SEALED_OFFSET) != 0;
+        return segment;
+    }
+
+    /**
+     * Maps this segment for appending records
+     *
+     * @throws IOException if the file can't be mapped
+     */
+    public void openForAppend() throws IOException
+    {
+        try(FileChannel channel = FileChannel.open(mPath, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            mBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mFileSize);
+        }
+
+        mWritable = true;
+    }
+
+    /**
+     * Segment file
+     */
+    public Path getPath()
+    {
+        return mPath;
+    }
+
+    /**
+     * Number of records in this segment
+     */
+    public int getCount()
+    {
+        return mCount;
+    }
+
+    /**
+     * Earliest event start time in this segment, or Long.MAX_VALUE when empty
+     */
+    public long getMinTime()
+    {
+        return mMinTime;
+    }
+
+    /**
+     * Latest event start time in this segment, or Long.MIN_VALUE when empty
+     */
+    public long getMaxTime()
+    {
+        return mMaxTime;
+    }
+
+    /**
+     * Highest event ID appended to this segment
+     */
+    public long getLastEventId()
+    {
+        return mLastEventId;
+    }
+
+    /**
+     * Indicates if this segment is sealed and no longer accepts records
+     */
+    public boolean isSealed()
+    {
+        return mSealed;
+    }
+
+    /**
+     * Indicates if this segment has room for another record with the specified text length
+     */
+    public boolean hasCapacity(int textLength)
+    {
+        return !mSealed && mCount < mCapacity && mTextLength + textLength <= mTextCapacity;
+    }
+
+    /**
+     * Indicates if the time range of this segment overlaps the start to end time range
+     */
+    public boolean overlaps(long start, long end)
+    {
+        return mCount > 0 && mMinTime <= end && mMaxTime >= start;
+    }
+
+    /**
+     * Appends a record.  Check hasCapacity() before appending.
+     *
+     * @return index of the record
+     */
+    public int append(long eventId, long time, long duration, long from, long to, long frequency, int protocol,
+                      int timeslot, byte[] text)
+    {
+        int index = mCount;
+        mBuffer.putLong(mEventIdOffset + index * 8, eventId);
+        mBuffer.putLong(mTimeOffset + index * 8, time);
+        mBuffer.put(mProtocolOffset + index, (byte)protocol);
+        mBuffer.put(mTimeslotOffset + index, (byte)timeslot);
+        write(index, duration, from, to, frequency, text);
+
+        int block = index / BLOCK_SIZE;
+        int blockIndex = mTimeIndexOffset + block * 16;
+        mBuffer.putLong(blockIndex, Math.min(mBuffer.getLong(blockIndex), time));
+        mBuffer.putLong(blockIndex + 8, Math.max(mBuffer.getLong(blockIndex + 8), time));
+        mMinTime = Math.min(mMinTime, time);
+        mMaxTime = Math.max(mMaxTime, time);
+        mLastEventId = Math.max(mLastEventId, eventId);
+
+        //Publish the record after it is fully written
+        mCount = index + 1;
+        writeHeader();
+        return index;
+    }
+
+    /**
+     * Updates the mutable fields of an existing record.  The updated text is appended to the text heap when it is
+     * provided, otherwise the existing text is retained.
+     *
+     * @return true if updated or false if the text heap does not have room for the updated text
+     */
+    public boolean update(int index, long duration, long from, long to, long frequency, byte[] text)
+    {
+        if(text != null && mTextLength + text.length > mTextCapacity)
+        {
+            return false;
+        }
+
+        write(index, duration, from, to, frequency, text);
+        writeHeader();
+        return true;
+    }
+
+    /**
+     * Writes the mutable record fields and updates the block identifier bloom filter
+     */
+    private void write(int index, long duration, long from, long to, long frequency, byte[] text)
+    {
+        mBuffer.putLong(mDurationOffset + index * 8, duration);
+        mBuffer.putLong(mFromOffset + index * 8, from);
+        mBuffer.putLong(mToOffset + index * 8, to);
+        mBuffer.putLong(mFrequencyOffset + index * 8, frequency);
+
+        if(text != null)
+        {
+            mBuffer.put(mTextHeapOffset + mTextLength, text);
+            mBuffer.putInt(mTextOffsetOffset + index * 4, mTextLength);
+            mBuffer.putInt(mTextLengthOffset + index * 4, text.length);
+            mTextLength += text.length;
+        }
+
+        int bloomOffset = mBloomOffset + (index / BLOCK_SIZE) * BLOOM_BYTES;
+        addToBloom(bloomOffset, from);
+        addToBloom(bloomOffset, to);
+    }
+
+    /**
+     * Seals this segment so that it no longer accepts records and forces it to storage
+     */
+    public void seal()
+    {
+        if(mWritable && !mSealed)
+        {
+            mSealed = true;
+            writeHeader();
+            force();
+        }
+    }
+
+    /**
+     * Forces any changes to storage
+     */
+    public void force()
+    {
+        if(mWritable && mBuffer != null)
+        {
+            mBuffer.force();
+        }
+    }
+
+    /**
+     * Writes the header fields that change as records are appended
+     */
+    private void writeHeader()
+    {
+        mBuffer.putInt(COUNT_OFFSET, mCount);
+        mBuffer.putInt(TEXT_LENGTH_OFFSET, mTextLength);
+        mBuffer.putLong(MIN_TIME_OFFSET, mMinTime);
+        mBuffer.putLong(MAX_TIME_OFFSET, mMaxTime);
+        mBuffer.putLong(LAST_EVENT_ID_OFFSET, mLastEventId);
+        mBuffer.putInt(SEALED_OFFSET, mSealed ? 1 : 0);
+    }
+
+    /**
+     * Scans this segment for records with a start time in the start to end time range, optionally matching one of the
+     * identifier keys as either the from or the to identifier and optionally matching the protocol.
+     *
+     * @param start time inclusive
+     * @param end time inclusive
+     * @param keys to match or null to match any identifier
+     * @param protocol ordinal to match or -1 to match any protocol
+     * @param visitor to receive the index of each matching record
+     * @throws IOException if the segment can't be mapped
+     */
+    public void scan(long start, long end, long[] keys, int protocol, Visitor visitor) throws IOException
+    {
+        if(!overlaps(start, end))
+        {
+            return;
+        }
+
+        ByteBuffer buffer = getBuffer();
+        int count = mCount;
+
+        for(int blockStart = 0; blockStart < count; blockStart += BLOCK_SIZE)
+        {
+            int block = blockStart / BLOCK_SIZE;
+            int blockIndex = mTimeIndexOffset + block * 16;
+
+            if(buffer.getLong(blockIndex) > end || buffer.getLong(blockIndex + 8) < start)
+            {
+                continue;
+            }
+
+            if(keys != null && !mightContain(buffer, mBloomOffset + block * BLOOM_BYTES, keys))
+            {
+                continue;
+            }
+
+            int blockEnd = Math.min(count, blockStart + BLOCK_SIZE);
+
+            for(int index = blockStart; index < blockEnd; index++)
+            {
+                long time = buffer.getLong(mTimeOffset + index * 8);
+
+                if(time < start || time > end)
+                {
+                    continue;
+                }
+
+                if(protocol >= 0 && buffer.get(mProtocolOffset + index) != protocol)
+                {
+                    continue;
+                }
+
+                if(keys != null && !matches(buffer.getLong(mFromOffset + index * 8),
+                    buffer.getLong(mToOffset + index * 8), keys))
+                {
+                    continue;
+                }
+
+                visitor.visit(this, index);
+            }
+        }
+    }
+
+    public long getEventId(int index) throws IOException
+    {
+        return getBuffer().getLong(mEventIdOffset + index * 8);
+    }
+
+    public long getTime(int index) throws IOException
+    {
+        return getBuffer().getLong(mTimeOffset + index * 8);
+    }
+
+    public long getDuration(int index) throws IOException
+    {
+        return getBuffer().getLong(mDurationOffset + index * 8);
+    }
+
+    public long getFrom(int index) throws IOException
+    {
+        return getBuffer().getLong(mFromOffset + index * 8);
+    }
+
+    public long getTo(int index) throws IOException
+    {
+        return getBuffer().getLong(mToOffset + index * 8);
+    }
+
+    public long getFrequency(int index) throws IOException
+    {
+        return getBuffer().getLong(mFrequencyOffset + index * 8);
+    }
+
+    public int getProtocol(int index) throws IOException
+    {
+        return getBuffer().get(mProtocolOffset + index);
+    }
+
+    public int getTimeslot(int index) throws IOException
+    {
+        return getBuffer().get(mTimeslotOffset + index);
+    }
+
+    /**
+     * UTF-8 encoded text of the record
+     */
+    public byte[] getText(int index) throws IOException
+    {
+        ByteBuffer buffer = getBuffer();
+        byte[] text = new byte[buffer.getInt(mTextLengthOffset + index * 4)];
+        buffer.get(mTextHeapOffset + buffer.getInt(mTextOffsetOffset + index * 4), text);
+        return text;
+    }
+
+    /**
+     * Mapped segment file, mapped read-only on first access when this segment is not open for appending
+     */
+    private synchronized ByteBuffer getBuffer() throws IOException
+    {
+        if(mBuffer == null)
+        {
+            try(FileChannel channel = FileChannel.open(mPath, StandardOpenOption.READ))
+            {
+                mBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, mFileSize);
+            }
+        }
+
+        return mBuffer;
+    }
+
+    /**
+     * Indicates if the from or to key matches one of the keys
+     */
+    private static boolean matches(long from, long to, long[] keys)
+    {
+        for(long key: keys)
+        {
+            if(key == from || key == to)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the key to the bloom filter at the offset
+     */
+    private void addToBloom(int offset, long key)
+    {
+        if(key != NO_KEY)
+        {
+            long hash = mix(key);
+            setBit(offset, (int)hash & BLOOM_BITS_MASK);
+            setBit(offset, (int)(hash >>> 32) & BLOOM_BITS_MASK);
+        }
+    }
+
+    private void setBit(int offset, int bit)
+    {
+        int byteOffset = offset + (bit >>> 3);
+        mBuffer.put(byteOffset, (byte)(mBuffer.get(byteOffset) | (1 << (bit & 7))));
+    }
+
+    /**
+     * Indicates if the bloom filter at the offset might contain one of the keys
+     */
+    private static boolean mightContain(ByteBuffer buffer, int offset, long[] keys)
+    {
+        for(long key: keys)
+        {
+            long hash = mix(key);
+
+            if(isSet(buffer, offset, (int)hash & BLOOM_BITS_MASK) &&
+               isSet(buffer, offset, (int)(hash >>> 32) & BLOOM_BITS_MASK))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isSet(ByteBuffer buffer, int offset, int bit)
+    {
+        return (buffer.get(offset + (bit >>> 3)) & (1 << (bit & 7))) != 0;
+    }
+
+    /**
+     * 64-bit hash finalizer (MurmurHash3 fmix64)
+     */
+    private static long mix(long key)
+    {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mPath.getFileName().toString();
+    }
+
+    /**
+     * Receives the index of each record that matches a scan
+     */
+    public interface Visitor
+    {
+        void visit(ArchiveSegment segment, int index) throws IOException;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.event.archive;
+
+import io.github.dsheirer.protocol.Protocol;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decode event read from the decode event archive
+ */
+public class ArchivedDecodeEvent
+{
+    private long mEventId;
+    private long mTimeStart;
+    private long mDuration;
+    private Protocol mProtocol;
+    private String mEventDescription;
+    private String mDetails;
+    private String mChannel;
+    private String mFrom;
+    private String mTo;
+    private long mFrequency;
+    private Integer mTimeslot;
+    private List<String> mRecordings;
+
+    public ArchivedDecodeEvent(long eventId, long timeStart, long duration, Protocol protocol, String eventDescription,
+                               String details, String channel, String from, String to, long frequency,
+                               Integer timeslot, List<String> recordings)
+    {
+        mEventId = eventId;
+        mTimeStart = timeStart;
+        mDuration = duration;
+        mProtocol = protocol;
+        mEventDescription = eventDescription;
+        mDetails = details;
+        mChannel = channel;
+        mFrom = from;
+        mTo = to;
+        mFrequency = frequency;
+        mTimeslot = timeslot;
+        mRecordings = recordings != null ? recordings : Collections.emptyList();
+    }
+
+    /**
+     * Archive-wide unique identifier for the event
+     */
+    public long getEventId()
+    {
+        return mEventId;
+    }
+
+    public long getTimeStart()
+    {
+        return mTimeStart;
+    }
+
+    public long getDuration()
+    {
+        return mDuration;
+    }
+
+    public Protocol getProtocol()
+    {
+        return mProtocol;
+    }
+
+    public String getEventDescription()
+    {
+        return mEventDescription;
+    }
+
+    public String getDetails()
+    {
+        return mDetails;
+    }
+
+    /**
+     * Channel descriptor for the event, or an empty string
+     */
+    public String getChannel()
+    {
+        return mChannel;
+    }
+
+    /**
+     * FROM identifier for the event, or an empty string
+     */
+    public String getFrom()
+    {
+        return mFrom;
+    }
+
+    /**
+     * TO identifier for the event, or an empty string
+     */
+    public String getTo()
+    {
+        return mTo;
+    }
+
+    /**
+     * Channel frequency in Hertz, or 0 when unknown
+     */
+    public long getFrequency()
+    {
+        return mFrequency;
+    }
+
+    public Integer getTimeslot()
+    {
+        return mTimeslot;
+    }
+
+    public boolean hasTimeslot()
+    {
+        return mTimeslot != null;
+    }
+
+    /**
+     * Paths of the audio recordings linked to this event
+     */
+    public List<String> getRecordings()
+    {
+        return mRecordings;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Event [" + mEventId + "] " + mProtocol + " " + mEventDescription + " FROM:" + mFrom + " TO:" + mTo;
+    }
+}
@@ -0,0 +1,775 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.event.archive;
+
+import io.github.dsheirer.channel.IChannelDescriptor;
+import io.github.dsheirer.identifier.Form;
+import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.identifier.IdentifierClass;
+import io.github.dsheirer.identifier.IdentifierCollection;
+import io.github.dsheirer.identifier.Role;
+import io.github.dsheirer.identifier.configuration.FrequencyConfigurationIdentifier;
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only archive of decode events from all channels, stored in memory mapped columnar segment files.
+ *
+ * Each decode event is assigned an archive-wide event ID when it is first received.  Decoders update and rebroadcast
+ * call events as the call progresses, so an updated event overwrites its record in place while the record is in the
+ * active segment, or is appended as a new version of the event (same event ID) once its segment is sealed.  Queries
+ * return the most recent version of each event.
+ *
+ * Completed audio recordings are linked to the most recent matching call event (same TO identifier, overlapping time)
+ * and the recording paths are stored with the event.
+ *
+ * Archive queries select events by start time range and optionally by an identifier value that matches either the
+ * FROM or the TO identifier, using the sparse block time index and identifier bloom filters of each segment.  See
+ * DecodeEventArchiveTool for command line queries.
+ *
+ * System properties:
+ *   sdrtrunk.event.archive.enabled=BOOL    enables the archive (default true)
+ *   sdrtrunk.event.archive.retention.days=N  deletes segments older than N days (default 90, 0 - keep all)
+ */
+public class DecodeEventArchive implements Listener<IDecodeEvent>
+{
+    private final static Logger mLog = LoggerFactory.getLogger(DecodeEventArchive.class);
+    public static final String ENABLED_PROPERTY = "sdrtrunk.event.archive.enabled";
+    public static final String RETENTION_PROPERTY = "sdrtrunk.event.archive.retention.days";
+    public static final String ARCHIVE_DIRECTORY = "archive";
+    private static final String SEGMENT_PREFIX = "segment_";
+    private static final int SEGMENT_CAPACITY = 65536;
+    private static final int SEGMENT_TEXT_CAPACITY = 8 * 1024 * 1024;
+    private static final long FORCE_INTERVAL_SECONDS = 5;
+    private static final long LINK_WINDOW_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long LINK_TOLERANCE_MS = 5000;
+    private static final int MAX_RECENT_EVENTS = 10000;
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final String FIELD_SEPARATOR_REGEX = "\u001F";
+    private static final Protocol[] PROTOCOLS = Protocol.values();
+    private static final DecodeEventArchive INSTANCE = new DecodeEventArchive();
+
+    private final Map<IDecodeEvent,TrackedEvent> mTrackedEvents = new WeakHashMap<>();
+    private final Deque<TrackedEvent> mRecentEvents = new ArrayDeque<>();
+    private final List<ArchiveSegment> mSegments = new ArrayList<>();
+    private ArchiveSegment mActiveSegment;
+    private Path mDirectory;
+    private long mNextEventId = 1;
+    private int mNextSegmentNumber = 1;
+    private long mRetentionMillis;
+    private ScheduledFuture<?> mForceFuture;
+
+    /**
+     * Singleton constructor.  Use getInstance()
+     */
+    private DecodeEventArchive()
+    {
+    }
+
+    /**
+     * Application-wide decode event archive
+     */
+    public static DecodeEventArchive getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Opens the archive in the directory and starts archiving received decode events
+     *
+     * @param directory containing the archive segment files
+     */
+    public synchronized void start(Path directory)
+    {
+        if(!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")))
+        {
+            mLog.info("Decode event archive is disabled");
+            return;
+        }
+
+        if(mActiveSegment != null)
+        {
+            return;
+        }
+
+        try
+        {
+            Files.createDirectories(directory);
+            mDirectory = directory;
+            mRetentionMillis = TimeUnit.DAYS.toMillis(Math.max(0, Long.getLong(RETENTION_PROPERTY, 90)));
+            mSegments.clear();
+            mSegments.addAll(loadSegments(directory));
+
+            for(ArchiveSegment segment: mSegments)
+            {
+                mNextEventId = Math.max(mNextEventId, segment.getLastEventId() + 1);
+                mNextSegmentNumber = Math.max(mNextSegmentNumber, getSegmentNumber(segment.getPath()) + 1);
+            }
+
+            ArchiveSegment last = mSegments.isEmpty() ? null : mSegments.get(mSegments.size() - 1);
+
+            if(last != null && last.hasCapacity(0))
+            {
+                last.openForAppend();
+                mActiveSegment = last;
+                applyRetention();
+            }
+            else
+            {
+                rollover();
+            }
+
+            mForceFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::force, FORCE_INTERVAL_SECONDS,
+                FORCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+
+            mLog.info("Decode event archive started with [" + mSegments.size() + "] segments in directory:" +
+                directory);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Couldn't start decode event archive in directory:" + directory, ioe);
+            mActiveSegment = null;
+        }
+    }
+
+    /**
+     * Stops archiving decode events and forces the active segment to storage
+     */
+    public synchronized void stop()
+    {
+        if(mForceFuture != null)
+        {
+            mForceFuture.cancel(false);
+            mForceFuture = null;
+        }
+
+        if(mActiveSegment != null)
+        {
+            mActiveSegment.force();
+            mActiveSegment = null;
+        }
+
+        mTrackedEvents.clear();
+        mRecentEvents.clear();
+    }
+
+    @Override
+    public void receive(IDecodeEvent decodeEvent)
+    {
+        try
+        {
+            archive(decodeEvent);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error archiving decode event", e);
+        }
+    }
+
+    /**
+     * Archive event ID assigned to the decode event
+     *
+     * @param decodeEvent that was archived
+     * @return event ID or 0 if the decode event has not been archived
+     */
+    public synchronized long getEventId(IDecodeEvent decodeEvent)
+    {
+        TrackedEvent trackedEvent = mTrackedEvents.get(decodeEvent);
+        return trackedEvent != null ? trackedEvent.mEventId : 0;
+    }
+
+    /**
+     * Links a completed audio recording to the most recent call event with the same TO identifier whose time span
+     * includes the start of the recording, preferring an event with the same FROM identifier.
+     *
+     * @param identifierCollection of the recorded audio
+     * @param timestamp of the start of the recorded audio
+     * @param recording path of the recording file
+     * @return event ID of the linked event or 0 if no matching event was found
+     */
+    public synchronized long linkRecording(IdentifierCollection identifierCollection, long timestamp, Path recording)
+    {
+        if(mActiveSegment == null || identifierCollection == null || recording == null)
+        {
+            return 0;
+        }
+
+        long to = getIdentifierKey(getFirst(identifierCollection, Role.TO));
+
+        if(to == ArchiveSegment.NO_KEY)
+        {
+            return 0;
+        }
+
+        long from = getIdentifierKey(getFirst(identifierCollection, Role.FROM));
+        TrackedEvent match = null;
+        Iterator<TrackedEvent> it = mRecentEvents.descendingIterator();
+
+        while(it.hasNext())
+        {
+            TrackedEvent trackedEvent = it.next();
+
+            if(trackedEvent.mTo == to && timestamp >= trackedEvent.mTimeStart - LINK_TOLERANCE_MS &&
+               timestamp <= trackedEvent.mTimeStart + trackedEvent.mDuration + LINK_TOLERANCE_MS)
+            {
+                if(from == ArchiveSegment.NO_KEY || trackedEvent.mFrom == from)
+                {
+                    match = trackedEvent;
+                    break;
+                }
+                else if(match == null)
+                {
+                    match = trackedEvent;
+                }
+            }
+        }
+
+        if(match == null)
+        {
+            return 0;
+        }
+
+        match.mRecordings.add(recording.toString());
+
+        try
+        {
+            write(match);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error linking recording [" + recording + "] to archived event [" + match.mEventId + "]", ioe);
+        }
+
+        return match.mEventId;
+    }
+
+    /**
+     * Queries the archive for events
+     *
+     * @param start time inclusive (milliseconds)
+     * @param end time inclusive (milliseconds)
+     * @param identifier value to match against the FROM or TO identifier, or null to match any identifier
+     * @param protocol to match, or null to match any protocol
+     * @param limit maximum number of events to return, keeping the most recent events, or 0 for no limit
+     * @return events ordered by start time
+     * @throws IOException if a segment can't be read
+     */
+    public synchronized List<ArchivedDecodeEvent> query(long start, long end, String identifier, Protocol protocol,
+                                                        int limit) throws IOException
+    {
+        return query(mSegments, start, end, identifier, protocol, limit);
+    }
+
+    /**
+     * Queries the archive segments for events
+     *
+     * @param segments to query, ordered from oldest to newest
+     * @param start time inclusive (milliseconds)
+     * @param end time inclusive (milliseconds)
+     * @param identifier value to match against the FROM or TO identifier, or null to match any identifier
+     * @param protocol to match, or null to match any protocol
+     * @param limit maximum number of events to return, keeping the most recent events, or 0 for no limit
+     * @return events ordered by start time
+     * @throws IOException if a segment can't be read
+     */
+    public static List<ArchivedDecodeEvent> query(List<ArchiveSegment> segments, long start, long end,
+                                                  String identifier, Protocol protocol, int limit) throws IOException
+    {
+        long[] keys = (identifier != null && !identifier.trim().isEmpty()) ? getQueryKeys(identifier) : null;
+        int protocolOrdinal = protocol != null ? protocol.ordinal() : -1;
+
+        //Later versions of an event replace earlier versions
+        Map<Long,ArchivedDecodeEvent> events = new HashMap<>();
+
+        for(ArchiveSegment segment: segments)
+        {
+            segment.scan(start, end, keys, protocolOrdinal, (archiveSegment, index) -> {
+                ArchivedDecodeEvent event = read(archiveSegment, index);
+                events.put(event.getEventId(), event);
+            });
+        }
+
+        List<ArchivedDecodeEvent> results = new ArrayList<>(events.values());
+        results.sort(Comparator.comparingLong(ArchivedDecodeEvent::getTimeStart)
+            .thenComparingLong(ArchivedDecodeEvent::getEventId));
+
+        if(limit > 0 && results.size() > limit)
+        {
+            results = new ArrayList<>(results.subList(results.size() - limit, results.size()));
+        }
+
+        return results;
+    }
+
+    /**
+     * Loads the archive segments from the directory, ordered from oldest to newest.  Segments are not mapped until
+     * they are queried.
+     *
+     * @param directory containing archive segment files
+     * @return segments
+     * @throws IOException if the directory can't be read
+     */
+    public static List<ArchiveSegment> loadSegments(Path directory) throws IOException
+    {
+        List<Path> paths = new ArrayList<>();
+
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+            SEGMENT_PREFIX + "*" + ArchiveSegment.FILE_EXTENSION))
+        {
+            for(Path path: stream)
+            {
+                paths.add(path);
+            }
+        }
+
+        paths.sort(Comparator.comparingInt(DecodeEventArchive::getSegmentNumber));
+
+        List<ArchiveSegment> segments = new ArrayList<>();
+
+        for(Path path: paths)
+        {
+            try
+            {
+                segments.add(ArchiveSegment.open(path));
+            }
+            catch(IOException ioe)
+            {
+                mLog.warn("Ignoring unreadable decode event archive segment [" + path + "] - " + ioe.getMessage());
+            }
+        }
+
+        return segments;
+    }
+
+    /**
+     * Archive key for an identifier.  Integral identifier values are stored as the numeric value and all other
+     * identifier values are stored as a hash of the value's text.
+     *
+     * @param identifier to key
+     * @return key or ArchiveSegment.NO_KEY when the identifier is null
+     */
+    public static long getIdentifierKey(Identifier identifier)
+    {
+        if(identifier == null || identifier.getValue() == null)
+        {
+            return ArchiveSegment.NO_KEY;
+        }
+
+        Object value = identifier.getValue();
+
+        if(value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte)
+        {
+            return ((Number)value).longValue();
+        }
+
+        return getTextKey(value.toString());
+    }
+
+    /**
+     * Archive key for a text identifier value.  Text keys are negative so that they are distinct from the numeric
+     * identifier values.
+     */
+    private static long getTextKey(String text)
+    {
+        long hash = 1125899906842597L;
+
+        for(int x = 0; x < text.length(); x++)
+        {
+            hash = 31 * hash + text.charAt(x);
+        }
+
+        hash |= Long.MIN_VALUE;
+
+        return hash == ArchiveSegment.NO_KEY ? hash + 1 : hash;
+    }
+
+    /**
+     * Candidate keys for an identifier query value: the numeric value when the query value is a decimal number and the
+     * hash of the query value text.
+     */
+    private static long[] getQueryKeys(String identifier)
+    {
+        String value = identifier.trim();
+
+        try
+        {
+            return new long[]{Long.parseLong(value), getTextKey(value)};
+        }
+        catch(NumberFormatException nfe)
+        {
+            return new long[]{getTextKey(value)};
+        }
+    }
+
+    /**
+     * Reads the archived event at the index from the segment
+     */
+    private static ArchivedDecodeEvent read(ArchiveSegment segment, int index) throws IOException
+    {
+        String[] fields = new String(segment.getText(index), StandardCharsets.UTF_8).split(FIELD_SEPARATOR_REGEX, -1);
+        List<String> recordings = new ArrayList<>();
+
+        for(int x = 5; x < fields.length; x++)
+        {
+            recordings.add(fields[x]);
+        }
+
+        int protocol = segment.getProtocol(index);
+        int timeslot = segment.getTimeslot(index);
+
+        return new ArchivedDecodeEvent(segment.getEventId(index), segment.getTime(index), segment.getDuration(index),
+            (protocol >= 0 && protocol < PROTOCOLS.length) ? PROTOCOLS[protocol] : Protocol.UNKNOWN,
+            getField(fields, 0), getField(fields, 1), getField(fields, 2), getField(fields, 3), getField(fields, 4),
+            segment.getFrequency(index), timeslot != ArchiveSegment.NO_TIMESLOT ? timeslot : null, recordings);
+    }
+
+    private static String getField(String[] fields, int index)
+    {
+        return index < fields.length ? fields[index] : "";
+    }
+
+    /**
+     * Archives a new or updated decode event
+     */
+    private synchronized void archive(IDecodeEvent decodeEvent) throws IOException
+    {
+        if(mActiveSegment == null || decodeEvent == null)
+        {
+            return;
+        }
+
+        IdentifierCollection identifierCollection = decodeEvent.getIdentifierCollection();
+        Identifier from = getFirst(identifierCollection, Role.FROM);
+        Identifier to = getFirst(identifierCollection, Role.TO);
+
+        TrackedEvent trackedEvent = mTrackedEvents.get(decodeEvent);
+
+        if(trackedEvent == null)
+        {
+            Protocol protocol = decodeEvent.getProtocol();
+            trackedEvent = new TrackedEvent(mNextEventId++, decodeEvent.getTimeStart(),
+                protocol != null ? protocol.ordinal() : Protocol.UNKNOWN.ordinal(),
+                decodeEvent.hasTimeslot() ? decodeEvent.getTimeslot() : ArchiveSegment.NO_TIMESLOT);
+            mTrackedEvents.put(decodeEvent, trackedEvent);
+            mRecentEvents.addLast(trackedEvent);
+        }
+
+        trackedEvent.mDuration = decodeEvent.getDuration();
+        trackedEvent.mFrom = getIdentifierKey(from);
+        trackedEvent.mTo = getIdentifierKey(to);
+        trackedEvent.mFrequency = getFrequency(decodeEvent);
+        trackedEvent.mFields = getFields(decodeEvent, from, to);
+
+        write(trackedEvent);
+        pruneRecentEvents();
+    }
+
+    /**
+     * Writes the tracked event, updating its record in place when it is in the active segment or appending a new
+     * version of the record otherwise
+     */
+    private void write(TrackedEvent trackedEvent) throws IOException
+    {
+        String text = trackedEvent.getText();
+        byte[] bytes = text.equals(trackedEvent.mWrittenText) ? null : text.getBytes(StandardCharsets.UTF_8);
+
+        if(trackedEvent.mSegment == mActiveSegment && mActiveSegment.update(trackedEvent.mIndex,
+            trackedEvent.mDuration, trackedEvent.mFrom, trackedEvent.mTo, trackedEvent.mFrequency, bytes))
+        {
+            trackedEvent.mWrittenText = text;
+            return;
+        }
+
+        if(bytes == null)
+        {
+            bytes = text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        if(!mActiveSegment.hasCapacity(bytes.length))
+        {
+            rollover();
+
+            if(!mActiveSegment.hasCapacity(bytes.length))
+            {
+                mLog.warn("Decode event [" + trackedEvent.mEventId + "] text exceeds the archive segment capacity");
+                return;
+            }
+        }
+
+        trackedEvent.mIndex = mActiveSegment.append(trackedEvent.mEventId, trackedEvent.mTimeStart,
+            trackedEvent.mDuration, trackedEvent.mFrom, trackedEvent.mTo, trackedEvent.mFrequency,
+            trackedEvent.mProtocol, trackedEvent.mTimeslot, bytes);
+        trackedEvent.mSegment = mActiveSegment;
+        trackedEvent.mWrittenText = text;
+    }
+
+    /**
+     * Seals the active segment and creates a new active segment
+     */
+    private void rollover() throws IOException
+    {
+        if(mActiveSegment != null)
+        {
+            mActiveSegment.seal();
+        }
+
+        Path path = mDirectory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, mNextSegmentNumber++,
+            ArchiveSegment.FILE_EXTENSION));
+
+        try
+        {
+            mActiveSegment = ArchiveSegment.create(path, SEGMENT_CAPACITY, SEGMENT_TEXT_CAPACITY);
+        }
+        catch(IOException ioe)
+        {
+            mActiveSegment = null;
+            throw new IOException("Couldn't create decode event archive segment [" + path +
+                "] - archiving is stopped", ioe);
+        }
+
+        mSegments.add(mActiveSegment);
+        applyRetention();
+    }
+
+    /**
+     * Deletes sealed segments that are empty or that only contain events older than the retention period
+     */
+    private void applyRetention()
+    {
+        long cutoff = System.currentTimeMillis() - mRetentionMillis;
+        Iterator<ArchiveSegment> it = mSegments.iterator();
+
+        while(it.hasNext())
+        {
+            ArchiveSegment segment = it.next();
+
+            if(segment != mActiveSegment && (segment.getCount() == 0 ||
+                (mRetentionMillis > 0 && segment.getMaxTime() < cutoff)))
+            {
+                it.remove();
+
+                try
+                {
+                    Files.deleteIfExists(segment.getPath());
+                    mLog.info("Deleted decode event archive segment [" + segment + "]");
+                }
+                catch(IOException ioe)
+                {
+                    mLog.warn("Couldn't delete decode event archive segment [" + segment + "] - " + ioe.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes tracked events that are too old to be linked to a recording
+     */
+    private void pruneRecentEvents()
+    {
+        long cutoff = System.currentTimeMillis() - LINK_WINDOW_MS;
+
+        while(!mRecentEvents.isEmpty() && (mRecentEvents.size() > MAX_RECENT_EVENTS ||
+            mRecentEvents.peekFirst().mTimeStart + mRecentEvents.peekFirst().mDuration < cutoff))
+        {
+            mRecentEvents.removeFirst();
+        }
+    }
+
+    /**
+     * Forces the active segment to storage
+     */
+    private void force()
+    {
+        ArchiveSegment activeSegment;
+
+        synchronized(this)
+        {
+            activeSegment = mActiveSegment;
+        }
+
+        if(activeSegment != null)
+        {
+            try
+            {
+                activeSegment.force();
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error forcing decode event archive segment [" + activeSegment + "] to storage", e);
+            }
+        }
+    }
+
+    /**
+     * Text fields for the event: description, details, channel, from and to
+     */
+    private static String getFields(IDecodeEvent decodeEvent, Identifier from, Identifier to)
+    {
+        IChannelDescriptor channelDescriptor = decodeEvent.getChannelDescriptor();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(clean(decodeEvent.getEventDescription())).append(FIELD_SEPARATOR);
+        sb.append(clean(decodeEvent.getDetails())).append(FIELD_SEPARATOR);
+        sb.append(channelDescriptor != null ? clean(channelDescriptor.toString()) : "").append(FIELD_SEPARATOR);
+        sb.append(from != null ? clean(from.toString()) : "").append(FIELD_SEPARATOR);
+        sb.append(to != null ? clean(to.toString()) : "");
+        return sb.toString();
+    }
+
+    /**
+     * Removes any field separator characters from the value
+     */
+    private static String clean(String value)
+    {
+        if(value == null)
+        {
+            return "";
+        }
+
+        return value.indexOf(FIELD_SEPARATOR) >= 0 ? value.replace(FIELD_SEPARATOR, ' ') : value;
+    }
+
+    /**
+     * Channel frequency for the event from the channel configuration or else from the channel descriptor
+     */
+    private static long getFrequency(IDecodeEvent decodeEvent)
+    {
+        IdentifierCollection identifierCollection = decodeEvent.getIdentifierCollection();
+
+        if(identifierCollection != null)
+        {
+            Identifier frequency = identifierCollection.getIdentifier(IdentifierClass.CONFIGURATION,
+                Form.CHANNEL_FREQUENCY, Role.ANY);
+
+            if(frequency instanceof FrequencyConfigurationIdentifier)
+            {
+                return ((FrequencyConfigurationIdentifier)frequency).getValue();
+            }
+        }
+
+        IChannelDescriptor channelDescriptor = decodeEvent.getChannelDescriptor();
+
+        return channelDescriptor != null ? channelDescriptor.getDownlinkFrequency() : 0;
+    }
+
+    private static Identifier getFirst(IdentifierCollection identifierCollection, Role role)
+    {
+        if(identifierCollection != null)
+        {
+            List<Identifier> identifiers = identifierCollection.getIdentifiers(role);
+
+            if(identifiers != null && !identifiers.isEmpty())
+            {
+                return identifiers.get(0);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Segment number parsed from the segment file name
+     */
+    private static int getSegmentNumber(Path path)
+    {
+        String name = path.getFileName().toString();
+
+        try
+        {
+            return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - ArchiveSegment.FILE_EXTENSION.length()));
+        }
+        catch(Exception e)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * Archive state for a decode event
+     */
+    private static class TrackedEvent
+    {
+        private final long mEventId;
+        private final long mTimeStart;
+        private final int mProtocol;
+        private final int mTimeslot;
+        private final List<String> mRecordings = new ArrayList<>();
+        private long mDuration;
+        private long mFrom = ArchiveSegment.NO_KEY;
+        private long mTo = ArchiveSegment.NO_KEY;
+        private long mFrequency;
+        private String mFields = "";
+        private String mWrittenText;
+        private ArchiveSegment mSegment;
+        private int mIndex;
+
+        public TrackedEvent(long eventId, long timeStart, int protocol, int timeslot)
+        {
+            mEventId = eventId;
+            mTimeStart = timeStart;
+            mProtocol = protocol;
+            mTimeslot = timeslot;
+        }
+
+        /**
+         * Record text: the event fields followed by any linked recordings
+         */
+        public String getText()
+        {
+            if(mRecordings.isEmpty())
+            {
+                return mFields;
+            }
+
+            StringBuilder sb = new StringBuilder(mFields);
+
+            for(String recording: mRecordings)
+            {
+                sb.append(FIELD_SEPARATOR).append(recording);
+            }
+
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.event.archive;
+
+import io.github.dsheirer.preference.UserPreferences;
+import io.github.dsheirer.protocol.Protocol;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command line query of the decode event archive.  Matching events are written to standard output as CSV.
+ *
+ * Usage: DecodeEventArchiveTool [options]
+ *
+ *   --directory PATH     archive directory (default: the archive folder in the event logs directory)
+ *   --days N             events from the last N days (default 1)
+ *   --start DATE[THH:MM[:SS]]  events starting at or after the local date/time (overrides --days)
+ *   --end DATE[THH:MM[:SS]]    events starting at or before the local date/time (default: now)
+ *   --id VALUE           events with a FROM or TO identifier matching the value
+ *   --protocol NAME      events for the protocol (e.g. APCO25)
+ *   --limit N            most recent N matching events (default: no limit)
+ *
+ * From the project directory: gradlew eventQuery --args="--days 30 --id 1234567"
+ */
+public class DecodeEventArchiveTool
+{
+    private static final String HEADER = "EVENT_ID,TIMESTAMP,DURATION_MS,PROTOCOL,EVENT,FROM,TO,CHANNEL_NUMBER," +
+        "FREQUENCY,TIMESLOT,DETAILS,RECORDINGS";
+
+    public static void main(String[] args)
+    {
+        Path directory = null;
+        long end = System.currentTimeMillis();
+        long start = end - TimeUnit.DAYS.toMillis(1);
+        boolean startSpecified = false;
+        int days = 1;
+        String identifier = null;
+        Protocol protocol = null;
+        int limit = 0;
+
+        try
+        {
+            for(int x = 0; x < args.length; x++)
+            {
+                String arg = args[x];
+
+                switch(arg)
+                {
+                    case "--directory":
+                        directory = Path.of(getValue(args, ++x, arg));
+                        break;
+                    case "--days":
+                        days = Integer.parseInt(getValue(args, ++x, arg));
+                        break;
+                    case "--start":
+                        start = parseTime(getValue(args, ++x, arg));
+                        startSpecified = true;
+                        break;
+                    case "--end":
+                        end = parseTime(getValue(args, ++x, arg));
+                        break;
+                    case "--id":
+                        identifier = getValue(args, ++x, arg);
+                        break;
+                    case "--protocol":
+                        protocol = Protocol.valueOf(getValue(args, ++x, arg).toUpperCase());
+                        break;
+                    case "--limit":
+                        limit = Integer.parseInt(getValue(args, ++x, arg));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unrecognized option: " + arg);
+                }
+            }
+
+            if(!startSpecified)
+            {
+                start = end - TimeUnit.DAYS.toMillis(days);
+            }
+        }
+        catch(IllegalArgumentException | DateTimeParseException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: DecodeEventArchiveTool [--directory PATH] [--days N] [--start DATE[THH:MM[:SS]]] " +
+                "[--end DATE[THH:MM[:SS]]] [--id VALUE] [--protocol NAME] [--limit N]");
+            System.exit(2);
+        }
+
+        if(directory == null)
+        {
+            directory = new UserPreferences().getDirectoryPreference().getDirectoryEventLog()
+                .resolve(DecodeEventArchive.ARCHIVE_DIRECTORY);
+        }
+
+        if(!Files.isDirectory(directory))
+        {
+            System.err.println("Decode event archive directory not found: " + directory);
+            System.exit(2);
+        }
+
+        try
+        {
+            long queryStart = System.nanoTime();
+            List<ArchiveSegment> segments = DecodeEventArchive.loadSegments(directory);
+            List<ArchivedDecodeEvent> events = DecodeEventArchive.query(segments, start, end, identifier, protocol,
+                limit);
+            long elapsed = System.nanoTime() - queryStart;
+
+            SimpleDateFormat timestampFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            StringBuilder sb = new StringBuilder();
+            System.out.println(HEADER);
+
+            for(ArchivedDecodeEvent event: events)
+            {
+                sb.setLength(0);
+                sb.append(event.getEventId());
+                append(sb, timestampFormat.format(new Date(event.getTimeStart())));
+                append(sb, event.getDuration() > 0 ? String.valueOf(event.getDuration()) : "");
+                append(sb, event.getProtocol().toString());
+                append(sb, event.getEventDescription());
+                append(sb, event.getFrom());
+                append(sb, event.getTo());
+                append(sb, event.getChannel());
+                append(sb, event.getFrequency() > 0 ? String.format("%.6f", event.getFrequency() / 1E6) : "");
+                append(sb, event.hasTimeslot() ? "TS:" + event.getTimeslot() : "");
+                append(sb, event.getDetails());
+                append(sb, String.join(";", event.getRecordings()));
+                System.out.println(sb);
+            }
+
+            System.err.println("Found [" + events.size() + "] events in [" + segments.size() + "] segments in [" +
+                String.format("%.1f", elapsed / 1E6) + "] ms");
+        }
+        catch(IOException ioe)
+        {
+            System.err.println("Error querying decode event archive: " + ioe.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static String getValue(String[] args, int index, String option)
+    {
+        if(index >= args.length)
+        {
+            throw new IllegalArgumentException("Missing value for option: " + option);
+        }
+
+        return args[index];
+    }
+
+    /**
+     * Parses a local date (yyyy-MM-dd) or date/time (yyyy-MM-ddTHH:mm[:ss]) to milliseconds
+     */
+    private static long parseTime(String value)
+    {
+        LocalDateTime dateTime = value.contains("T") ? LocalDateTime.parse(value) :
+            LocalDate.parse(value).atStartOfDay();
+
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Appends the value as a quoted CSV field
+     */
+    private static void append(StringBuilder sb, String value)
+    {
+        sb.append(",\"").append(value != null ? value.replace("\"", "\"\"") : "").append("\"");
+    }
+}
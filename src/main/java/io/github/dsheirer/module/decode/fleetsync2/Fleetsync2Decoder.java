@@ -19,21 +19,27 @@
  */
 package io.github.dsheirer.module.decode.fleetsync2;
 
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.IBinarySymbolProcessor;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
+import io.github.dsheirer.dsp.symbol.BinaryToByteBufferAssembler;
 import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.module.decode.afsk.AbstractAFSKDecoder;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.IReusableByteBufferProvider;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
 
 /**
  * Fleetsync II Decoder
  */
-public class Fleetsync2Decoder extends AbstractAFSKDecoder
+public class Fleetsync2Decoder extends AbstractAFSKDecoder implements IBinarySymbolProcessor, IReusableByteBufferProvider
 {
     //Message length - 5 x REVS + 16 x SYNC + 8 x 64Bit Blocks
-    private static final int MESSAGE_LENGTH = 537;
-    private MessageFramer mMessageFramer;
+    public static final int MESSAGE_LENGTH = 537;
+    private PackedMessageFramer mMessageFramer;
     private Fleetsync2MessageProcessor mMessageProcessor;
+    private BinaryToByteBufferAssembler mBinaryToByteBufferAssembler = new BinaryToByteBufferAssembler(512);
 
     /**
      * Constructs a decoder for Fleetsync II protocol
@@ -60,13 +66,27 @@ public class Fleetsync2Decoder extends AbstractAFSKDecoder
      */
     private void init()
     {
-        mMessageFramer = new MessageFramer(SyncPattern.FLEETSYNC2.getPattern(), MESSAGE_LENGTH);
-        getDecoder().setSymbolProcessor(mMessageFramer);
+        mMessageFramer = new PackedMessageFramer(SyncPattern.FLEETSYNC2.getPattern(), MESSAGE_LENGTH);
+        getDecoder().setSymbolProcessor(this);
         mMessageProcessor = new Fleetsync2MessageProcessor();
         mMessageFramer.addMessageListener(mMessageProcessor);
         mMessageProcessor.setMessageListener(getMessageListener());
     }
 
+    @Override
+    public void process(boolean symbol)
+    {
+        mMessageFramer.process(symbol);
+        mBinaryToByteBufferAssembler.process(symbol);
+    }
+
+    @Override
+    public void process(long symbols, int symbolCount)
+    {
+        mMessageFramer.process(symbols, symbolCount);
+        mBinaryToByteBufferAssembler.process(symbols, symbolCount);
+    }
+
     @Override
     public DecoderType getDecoderType()
     {
@@ -77,5 +97,24 @@ public class Fleetsync2Decoder extends AbstractAFSKDecoder
     public void reset()
     {
         mMessageFramer.reset();
+        mBinaryToByteBufferAssembler.reset();
+    }
+
+    @Override
+    public void setBufferListener(Listener<ReusableByteBuffer> listener)
+    {
+        mBinaryToByteBufferAssembler.setBufferListener(listener);
+    }
+
+    @Override
+    public void removeBufferListener(Listener<ReusableByteBuffer> listener)
+    {
+        mBinaryToByteBufferAssembler.removeBufferListener(listener);
+    }
+
+    @Override
+    public boolean hasBufferListeners()
+    {
+        return mBinaryToByteBufferAssembler.hasBufferListeners();
     }
 }
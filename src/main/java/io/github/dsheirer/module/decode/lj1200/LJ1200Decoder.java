@@ -20,7 +20,7 @@
 package io.github.dsheirer.module.decode.lj1200;
 
 import io.github.dsheirer.bits.IBinarySymbolProcessor;
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.module.decode.DecoderType;
@@ -34,8 +34,8 @@ public class LJ1200Decoder extends AbstractAFSKDecoder implements IBinarySymbolP
     /* Message length - 16-bit sync plus 64 bit message */
     private static final int MESSAGE_LENGTH = 80;
 
-    private MessageFramer mTowerMessageFramer;
-    private MessageFramer mTransponderMessageFramer;
+    private PackedMessageFramer mTowerMessageFramer;
+    private PackedMessageFramer mTransponderMessageFramer;
     private LJ1200MessageProcessor mMessageProcessor;
 
     protected LJ1200Decoder(AFSK1200Decoder decoder)
@@ -55,8 +55,8 @@ public class LJ1200Decoder extends AbstractAFSKDecoder implements IBinarySymbolP
     {
         getDecoder().setSymbolProcessor(this);
 
-        mTowerMessageFramer = new MessageFramer(SyncPattern.LJ1200.getPattern(), MESSAGE_LENGTH);
-        mTransponderMessageFramer = new MessageFramer(SyncPattern.LJ1200_TRANSPONDER.getPattern(), MESSAGE_LENGTH);
+        mTowerMessageFramer = new PackedMessageFramer(SyncPattern.LJ1200.getPattern(), MESSAGE_LENGTH);
+        mTransponderMessageFramer = new PackedMessageFramer(SyncPattern.LJ1200_TRANSPONDER.getPattern(), MESSAGE_LENGTH);
         mMessageProcessor = new LJ1200MessageProcessor();
         mTowerMessageFramer.addMessageListener(mMessageProcessor);
         mTransponderMessageFramer.addMessageListener(mMessageProcessor);
@@ -83,12 +83,19 @@ public class LJ1200Decoder extends AbstractAFSKDecoder implements IBinarySymbolP
         mTransponderMessageFramer.process(symbol);
     }
 
-    public MessageFramer getTowerMessageFramer()
+    @Override
+    public void process(long symbols, int symbolCount)
+    {
+        mTowerMessageFramer.process(symbols, symbolCount);
+        mTransponderMessageFramer.process(symbols, symbolCount);
+    }
+
+    public PackedMessageFramer getTowerMessageFramer()
     {
         return mTowerMessageFramer;
     }
 
-    public MessageFramer getTransponderMessageFramer()
+    public PackedMessageFramer getTransponderMessageFramer()
     {
         return mTransponderMessageFramer;
     }
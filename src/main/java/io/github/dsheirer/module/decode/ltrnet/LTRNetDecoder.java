@@ -15,7 +15,7 @@
  ******************************************************************************/
 package io.github.dsheirer.module.decode.ltrnet;
 
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.fsk.LTRDecoder;
 import io.github.dsheirer.message.MessageDirection;
@@ -29,7 +29,7 @@ public class LTRNetDecoder extends Decoder implements IReusableBufferListener, L
 {
     public static final int LTR_NET_MESSAGE_LENGTH = 40;
     protected LTRDecoder mLTRDecoder;
-    private MessageFramer mLTRMessageFramer;
+    private PackedMessageFramer mLTRMessageFramer;
     private LTRNetMessageProcessor mLTRMessageProcessor;
 
     /**
@@ -42,11 +42,13 @@ public class LTRNetDecoder extends Decoder implements IReusableBufferListener, L
 
         if(config.getMessageDirection() == MessageDirection.OSW)
         {
-            mLTRMessageFramer = new MessageFramer(SyncPattern.LTR_STANDARD_OSW.getPattern(), LTR_NET_MESSAGE_LENGTH);
+            mLTRMessageFramer = new PackedMessageFramer(SyncPattern.LTR_STANDARD_OSW.getPattern(),
+                LTR_NET_MESSAGE_LENGTH);
         }
         else
         {
-            mLTRMessageFramer = new MessageFramer(SyncPattern.LTR_STANDARD_ISW.getPattern(), LTR_NET_MESSAGE_LENGTH);
+            mLTRMessageFramer = new PackedMessageFramer(SyncPattern.LTR_STANDARD_ISW.getPattern(),
+                LTR_NET_MESSAGE_LENGTH);
         }
 
         mLTRDecoder.setMessageFramer(mLTRMessageFramer);
@@ -16,7 +16,7 @@
 package io.github.dsheirer.module.decode.ltrstandard;
 
 import io.github.dsheirer.alias.AliasList;
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.fsk.LTRDecoder;
 import io.github.dsheirer.message.MessageDirection;
@@ -31,7 +31,7 @@ public class LTRStandardDecoder extends Decoder implements IReusableBufferListen
     public static final int LTR_STANDARD_MESSAGE_LENGTH = 40;
 
     private LTRDecoder mLTRDecoder;
-    private MessageFramer mLTRMessageFramer;
+    private PackedMessageFramer mLTRMessageFramer;
     private LTRStandardMessageProcessor mLTRMessageProcessor;
 
     /**
@@ -44,11 +44,13 @@ public class LTRStandardDecoder extends Decoder implements IReusableBufferListen
 
         if(direction == MessageDirection.OSW)
         {
-            mLTRMessageFramer = new MessageFramer(SyncPattern.LTR_STANDARD_OSW.getPattern(), LTR_STANDARD_MESSAGE_LENGTH);
+            mLTRMessageFramer = new PackedMessageFramer(SyncPattern.LTR_STANDARD_OSW.getPattern(),
+                LTR_STANDARD_MESSAGE_LENGTH);
         }
         else
         {
-            mLTRMessageFramer = new MessageFramer(SyncPattern.LTR_STANDARD_ISW.getPattern(), LTR_STANDARD_MESSAGE_LENGTH);
+            mLTRMessageFramer = new PackedMessageFramer(SyncPattern.LTR_STANDARD_ISW.getPattern(),
+                LTR_STANDARD_MESSAGE_LENGTH);
         }
 
         mLTRDecoder.setMessageFramer(mLTRMessageFramer);
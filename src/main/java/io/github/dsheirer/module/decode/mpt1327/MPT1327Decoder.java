@@ -20,7 +20,7 @@
 package io.github.dsheirer.module.decode.mpt1327;
 
 import io.github.dsheirer.bits.IBinarySymbolProcessor;
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.dsp.afsk.AFSK1200Decoder;
 import io.github.dsheirer.dsp.symbol.BinaryToByteBufferAssembler;
 import io.github.dsheirer.module.decode.DecoderType;
@@ -40,10 +40,10 @@ public class MPT1327Decoder extends AbstractAFSKDecoder implements IBinarySymbol
 
     /* Message length -- longest possible message is:
      *   4xREVS + 16xSYNC + 64xADD1 + 64xDCW1 + 64xDCW2 + 64xDCW3 + 64xDCW4 */
-    private static final int MESSAGE_LENGTH = 350;
+    public static final int MESSAGE_LENGTH = 350;
 
-    private MessageFramer mControlMessageFramer;
-    private MessageFramer mTrafficMessageFramer;
+    private PackedMessageFramer mControlMessageFramer;
+    private PackedMessageFramer mTrafficMessageFramer;
     private MPT1327MessageProcessor mMessageProcessor;
     private BinaryToByteBufferAssembler mBinaryToByteBufferAssembler = new BinaryToByteBufferAssembler(512);
 
@@ -64,10 +64,10 @@ public class MPT1327Decoder extends AbstractAFSKDecoder implements IBinarySymbol
         getDecoder().setSymbolProcessor(this);
 
         //Message framer for control channel messages
-        mControlMessageFramer = new MessageFramer(sync.getControlSyncPattern().getPattern(), MESSAGE_LENGTH);
+        mControlMessageFramer = new PackedMessageFramer(sync.getControlSyncPattern().getPattern(), MESSAGE_LENGTH);
 
         //Message framer for traffic channel massages
-        mTrafficMessageFramer = new MessageFramer(sync.getTrafficSyncPattern().getPattern(), MESSAGE_LENGTH);
+        mTrafficMessageFramer = new PackedMessageFramer(sync.getTrafficSyncPattern().getPattern(), MESSAGE_LENGTH);
 
         //Fully decoded and framed messages processor
         mMessageProcessor = new MPT1327MessageProcessor();
@@ -84,6 +84,14 @@ public class MPT1327Decoder extends AbstractAFSKDecoder implements IBinarySymbol
         mBinaryToByteBufferAssembler.process(symbol);
     }
 
+    @Override
+    public void process(long symbols, int symbolCount)
+    {
+        mControlMessageFramer.process(symbols, symbolCount);
+        mTrafficMessageFramer.process(symbols, symbolCount);
+        mBinaryToByteBufferAssembler.process(symbols, symbolCount);
+    }
+
     @Override
     public DecoderType getDecoderType()
     {
@@ -115,12 +123,12 @@ public class MPT1327Decoder extends AbstractAFSKDecoder implements IBinarySymbol
         mTrafficMessageFramer.dispose();
     }
 
-    public MessageFramer getControlMessageFramer()
+    public PackedMessageFramer getControlMessageFramer()
     {
         return mControlMessageFramer;
     }
 
-    public MessageFramer getTrafficMessageFramer()
+    public PackedMessageFramer getTrafficMessageFramer()
     {
         return mTrafficMessageFramer;
     }
@@ -25,12 +25,13 @@ import io.github.dsheirer.controller.channel.ChannelEvent;
 import io.github.dsheirer.controller.channel.ChannelGrantEvent;
 import io.github.dsheirer.controller.channel.IChannelEventListener;
 import io.github.dsheirer.controller.channel.IChannelEventProvider;
+import io.github.dsheirer.controller.channel.TrafficChannelPool;
 import io.github.dsheirer.controller.channel.map.ChannelMap;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.Role;
+import io.github.dsheirer.metrics.jfr.TrafficChannelGrantEvent;
 import io.github.dsheirer.module.Module;
-import io.github.dsheirer.module.decode.config.DecodeConfiguration;
 import io.github.dsheirer.module.decode.event.DecodeEvent;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
 import io.github.dsheirer.module.decode.event.IDecodeEventProvider;
@@ -41,13 +42,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class MPT1327TrafficChannelManager extends Module implements IDecodeEventProvider, IChannelEventListener,
     IChannelEventProvider
@@ -57,14 +55,14 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
     public static final String CHANNEL_START_REJECTED = "CHANNEL START REJECTED";
     public static final String MAX_TRAFFIC_CHANNELS_EXCEEDED = "MAX TRAFFIC CHANNELS EXCEEDED";
 
-    private Queue<Channel> mAvailableTrafficChannelQueue = new ConcurrentLinkedQueue<>();
-    private List<Channel> mManagedTrafficChannels;
+    private TrafficChannelPool mTrafficChannelPool;
     private Map<MPT1327Channel,Channel> mAllocatedTrafficChannelMap = new ConcurrentHashMap<>();
     private Map<MPT1327Channel,MPT1327ChannelGrantEvent> mChannelGrantEventMap = new ConcurrentHashMap<>();
     private TrafficChannelTeardownMonitor mTrafficChannelTeardownMonitor = new TrafficChannelTeardownMonitor();
     private Listener<ChannelEvent> mChannelEventListener;
     private Listener<IDecodeEvent> mDecodeEventListener;
     private ChannelMap mChannelMap;
+    private String mParentChannelName;
 
     /**
      * Constructs an MPT1327 traffic channel manage.
@@ -73,8 +71,9 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
      */
     public MPT1327TrafficChannelManager(Channel parentChannel, ChannelMap channelMap)
     {
-        createTrafficChannels(parentChannel);
+        createTrafficChannelPool(parentChannel);
         mChannelMap = channelMap;
+        mParentChannelName = parentChannel.getName();
     }
 
     /**
@@ -121,12 +120,13 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
             }
             else
             {
-                Channel trafficChannel = mAvailableTrafficChannelQueue.poll();
+                Channel trafficChannel = mTrafficChannelPool.allocate();
 
                 if(trafficChannel == null)
                 {
                     channelGrantEvent.setDetails(MAX_TRAFFIC_CHANNELS_EXCEEDED);
                     channelGrantEvent.setEventDescription("Detect:" + channelGrantEvent.getEventDescription());
+                    recordTrafficChannelGrantEvent(mpt1327Channel, null, MAX_TRAFFIC_CHANNELS_EXCEEDED);
                     return;
                 }
 
@@ -134,6 +134,7 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
                 sourceConfig.setFrequency(mpt1327Channel.getDownlinkFrequency());
                 trafficChannel.setSourceConfiguration(sourceConfig);
                 mAllocatedTrafficChannelMap.put(mpt1327Channel, trafficChannel);
+                recordTrafficChannelGrantEvent(mpt1327Channel, trafficChannel, null);
                 broadcast(new ChannelGrantEvent(trafficChannel, ChannelEvent.Event.REQUEST_ENABLE, mpt1327Channel, identifierCollection));
             }
 
@@ -143,36 +144,21 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
 
 
     /**
-     * Creates up to the maximum number of traffic channels for use in allocating traffic channels.
+     * Creates the traffic channel pool sized from the decode configuration
      *
      * @param parentChannel for inheriting naming, alias list and traffic channel pool size properties
      */
-    private void createTrafficChannels(Channel parentChannel)
+    private void createTrafficChannelPool(Channel parentChannel)
     {
-        DecodeConfiguration decodeConfiguration = parentChannel.getDecodeConfiguration();
-        List<Channel> trafficChannelList = new ArrayList<>();
+        int poolSize = 0;
 
-        if(decodeConfiguration instanceof DecodeConfigMPT1327)
+        if(parentChannel.getDecodeConfiguration() instanceof DecodeConfigMPT1327)
         {
-            DecodeConfigMPT1327 decodeConfigMPT1327 = (DecodeConfigMPT1327)decodeConfiguration;
-
-            int maxTrafficChannels = decodeConfigMPT1327.getTrafficChannelPoolSize();
-
-            for(int x = 0; x < maxTrafficChannels; x++)
-            {
-                Channel trafficChannel = new Channel("TRAFFIC", Channel.ChannelType.TRAFFIC);
-                trafficChannel.setAliasListName(parentChannel.getAliasListName());
-                trafficChannel.setSystem(parentChannel.getSystem());
-                trafficChannel.setSite(parentChannel.getSite());
-                trafficChannel.setDecodeConfiguration(decodeConfigMPT1327);
-                trafficChannel.setEventLogConfiguration(parentChannel.getEventLogConfiguration());
-                trafficChannel.setRecordConfiguration(parentChannel.getRecordConfiguration());
-                trafficChannelList.add(trafficChannel);
-            }
+            poolSize = ((DecodeConfigMPT1327)parentChannel.getDecodeConfiguration()).getTrafficChannelPoolSize();
         }
 
-        mAvailableTrafficChannelQueue.addAll(trafficChannelList);
-        mManagedTrafficChannels = Collections.unmodifiableList(trafficChannelList);
+        mTrafficChannelPool = new TrafficChannelPool(parentChannel, parentChannel::getDecodeConfiguration,
+            Math.max(poolSize, 0));
     }
 
     /**
@@ -198,6 +184,29 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
         return mTrafficChannelTeardownMonitor;
     }
 
+    /**
+     * Commits a flight recorder event for a channel grant that was either allocated to a traffic channel or rejected
+     *
+     * @param channel from the channel grant
+     * @param trafficChannel allocated for the grant, or null if the grant was rejected
+     * @param reason for rejecting the grant, or null
+     */
+    private void recordTrafficChannelGrantEvent(MPT1327Channel channel, Channel trafficChannel, String reason)
+    {
+        TrafficChannelGrantEvent event = new TrafficChannelGrantEvent();
+
+        if(event.shouldCommit())
+        {
+            event.protocol = "MPT1327";
+            event.controlChannel = mParentChannelName;
+            event.channel = channel.toString();
+            event.frequency = channel.getDownlinkFrequency();
+            event.rejected = trafficChannel == null;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+
     /**
      * Broadcasts a channel event to a registered external listener (for action).
      */
@@ -236,7 +245,7 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
     @Override
     public void start()
     {
-
+        mTrafficChannelPool.prewarm(this::broadcast);
     }
 
     @Override
@@ -288,12 +297,7 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
     @Override
     public void dispose()
     {
-        for(Channel trafficChannel : mAvailableTrafficChannelQueue)
-        {
-            broadcast(new ChannelEvent(trafficChannel, ChannelEvent.Event.REQUEST_DISABLE));
-        }
-
-        mAvailableTrafficChannelQueue.clear();
+        mTrafficChannelPool.dispose(this::broadcast);
     }
 
 
@@ -320,7 +324,7 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
         {
             Channel channel = channelEvent.getChannel();
 
-            if(channel.isTrafficChannel() && mManagedTrafficChannels.contains(channel))
+            if(channel.isTrafficChannel() && mTrafficChannelPool.contains(channel))
             {
                 switch(channelEvent.getEvent())
                 {
@@ -339,7 +343,7 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
                         if(toRemove != null)
                         {
                             mAllocatedTrafficChannelMap.remove(toRemove);
-                            mAvailableTrafficChannelQueue.add(channel);
+                            mTrafficChannelPool.release(channel);
 
                             MPT1327ChannelGrantEvent event = mChannelGrantEventMap.get(toRemove);
 
@@ -365,7 +369,7 @@ public class MPT1327TrafficChannelManager extends Module implements IDecodeEvent
                         if(rejected != null)
                         {
                             mAllocatedTrafficChannelMap.remove(rejected);
-                            mAvailableTrafficChannelQueue.add(channel);
+                            mTrafficChannelPool.release(channel);
 
                             MPT1327ChannelGrantEvent event = mChannelGrantEventMap.get(rejected);
 
@@ -0,0 +1,155 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.p25;
+
+import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.identifier.patch.PatchGroupManager;
+import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBand;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * P25 network state shared by a control channel and each of the traffic channels that it allocates.
+ *
+ * Frequency bands announced on the control channel's site are held in a site table so that traffic channels can
+ * resolve channel numbers from the first message, without having to relearn the bands.  Frequency bands are not
+ * shared across sites.  Neighbor sites and patch groups are held in a system state.  Until the WACN and System ID
+ * are decoded, the system state is a provisional state private to this network state.  Once the control channel
+ * decodes a network status broadcast, the provisional state is merged into the system state that is shared by all
+ * channels monitoring the same WACN/System ID.
+ *
+ * Network state instances are obtained from the P25NetworkStateManager.
+ */
+public class P25NetworkState
+{
+    private final Map<Integer,IFrequencyBand> mFrequencyBandMap = new ConcurrentHashMap<>();
+    private volatile P25SystemState mSystemState = new P25SystemState();
+
+    /**
+     * Constructs a network state.  Use the P25NetworkStateManager to obtain network states that are shared across
+     * channels.
+     */
+    public P25NetworkState()
+    {
+    }
+
+    /**
+     * Current system state.  This is a provisional state until the WACN/System ID have been decoded.
+     */
+    public P25SystemState getSystemState()
+    {
+        return mSystemState;
+    }
+
+    /**
+     * Binds this network state to the shared system state for the WACN and System ID identifiers decoded from a
+     * network status broadcast.  Does nothing if the identifiers are not integer values or if this network state is
+     * already bound to the system.
+     *
+     * @param wacn identifier
+     * @param system identifier
+     */
+    public void setSystem(Identifier wacn, Identifier system)
+    {
+        if(wacn != null && system != null && wacn.getValue() instanceof Integer && system.getValue() instanceof Integer)
+        {
+            setSystem((Integer)wacn.getValue(), (Integer)system.getValue());
+        }
+    }
+
+    /**
+     * Binds this network state to the shared system state for the WACN and System ID.
+     */
+    public void setSystem(int wacn, int system)
+    {
+        P25SystemState current = mSystemState;
+
+        if(current.getWacn() != wacn || current.getSystem() != system)
+        {
+            P25SystemState shared = P25NetworkStateManager.getInstance().getSystemState(wacn, system);
+
+            if(!current.isBound())
+            {
+                shared.merge(current);
+            }
+
+            mSystemState = shared;
+        }
+    }
+
+    /**
+     * Frequency band for the identifier announced on this site.  Bands are not resolved from other sites of the
+     * system, since each site can assign its own band definitions to the same band identifier.
+     *
+     * @param identifier of the band
+     * @return band or null
+     */
+    public IFrequencyBand getFrequencyBand(int identifier)
+    {
+        return mFrequencyBandMap.get(identifier);
+    }
+
+    /**
+     * Adds a frequency band announced on this site
+     */
+    public void addFrequencyBand(IFrequencyBand band)
+    {
+        mFrequencyBandMap.put(band.getIdentifier(), band);
+    }
+
+    /**
+     * Frequency bands announced on this site, by band identifier
+     */
+    public Map<Integer,IFrequencyBand> getFrequencyBands()
+    {
+        return mFrequencyBandMap;
+    }
+
+    /**
+     * Neighbor (adjacent) site broadcasts of the specified message type for the current system state, by site
+     */
+    public <T> ConcurrentMap<Integer,T> getNeighborSites(Class<T> type)
+    {
+        return mSystemState.getNeighborSites(type);
+    }
+
+    /**
+     * Patch group manager for the current system state
+     */
+    public PatchGroupManager getPatchGroupManager()
+    {
+        return mSystemState.getPatchGroupManager();
+    }
+
+    /**
+     * Clears the site frequency bands and detaches from the shared system state.  Invoked by the owning control
+     * channel when it is reset (e.g. rotated to another control channel frequency).  Shared system state is retained
+     * for the other channels of the system.
+     */
+    public void reset()
+    {
+        mFrequencyBandMap.clear();
+        mSystemState = new P25SystemState();
+    }
+}
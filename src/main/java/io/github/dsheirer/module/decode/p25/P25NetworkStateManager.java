@@ -0,0 +1,132 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.p25;
+
+import io.github.dsheirer.controller.channel.Channel;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Process-wide registry of P25 network state.
+ *
+ * Maintains one P25SystemState per WACN/System ID and one P25NetworkState per control channel.  Traffic channels are
+ * registered against their parent control channel so that they share the control channel's network state and can
+ * resolve channel grants and patch groups from the first decoded message.  Channel registrations are weakly held so
+ * that channels deleted from the playlist don't retain network state.  System states are weakly held and are pruned
+ * once no network state references them.
+ */
+public class P25NetworkStateManager
+{
+    private static final P25NetworkStateManager INSTANCE = new P25NetworkStateManager();
+
+    private final Map<Long,WeakReference<P25SystemState>> mSystemStateMap = new HashMap<>();
+    private final Map<Channel,P25NetworkState> mChannelNetworkStateMap =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Singleton constructor.  Use getInstance()
+     */
+    private P25NetworkStateManager()
+    {
+    }
+
+    /**
+     * Singleton instance
+     */
+    public static P25NetworkStateManager getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Shared system state for the WACN and System ID, created on first access.
+     */
+    public P25SystemState getSystemState(int wacn, int system)
+    {
+        long key = ((long)wacn << 12) | (system & 0xFFF);
+
+        synchronized(mSystemStateMap)
+        {
+            prune();
+
+            WeakReference<P25SystemState> reference = mSystemStateMap.get(key);
+            P25SystemState systemState = reference != null ? reference.get() : null;
+
+            if(systemState == null)
+            {
+                systemState = new P25SystemState(wacn, system);
+                mSystemStateMap.put(key, new WeakReference<>(systemState));
+            }
+
+            return systemState;
+        }
+    }
+
+    /**
+     * Removes system states that are no longer referenced by any network state.  Caller must hold the system state
+     * map lock.
+     */
+    private void prune()
+    {
+        mSystemStateMap.values().removeIf(reference -> reference.get() == null);
+    }
+
+    /**
+     * Network state for the channel.  Traffic channels that were registered via share() receive their parent
+     * control channel's network state.  Otherwise, a network state is created for the channel on first access and
+     * is retained for subsequent restarts of the channel.
+     *
+     * @param channel to lookup
+     * @return network state
+     */
+    public P25NetworkState getNetworkState(Channel channel)
+    {
+        return mChannelNetworkStateMap.computeIfAbsent(channel, c -> new P25NetworkState());
+    }
+
+    /**
+     * Registers the traffic channel to use the network state of the parent control channel.
+     *
+     * @param parentChannel control channel
+     * @param trafficChannel allocated by the control channel
+     */
+    public void share(Channel parentChannel, Channel trafficChannel)
+    {
+        mChannelNetworkStateMap.put(trafficChannel, getNetworkState(parentChannel));
+    }
+
+    /**
+     * Number of P25 systems with shared network state
+     */
+    public int getSystemCount()
+    {
+        synchronized(mSystemStateMap)
+        {
+            prune();
+            return mSystemStateMap.size();
+        }
+    }
+}
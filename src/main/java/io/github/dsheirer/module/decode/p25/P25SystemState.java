@@ -0,0 +1,134 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.decode.p25;
+
+import io.github.dsheirer.identifier.patch.PatchGroupManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Network state for a single P25 system identified by WACN and System ID, shared by every control and traffic channel
+ * that is monitoring the system.  All state is held in concurrent collections so that decoders for each channel can
+ * read and update the state from their own processing threads.
+ *
+ * A system state that is not yet bound to a WACN/System ID is used provisionally by a channel until the channel
+ * decodes a network status broadcast, after which the provisional state is merged into the shared system state.
+ */
+public class P25SystemState
+{
+    public static final int UNKNOWN = -1;
+
+    private final int mWacn;
+    private final int mSystem;
+    private final Map<Class<?>,ConcurrentMap<Integer,?>> mNeighborSiteMaps = new ConcurrentHashMap<>();
+    private final PatchGroupManager mPatchGroupManager = new PatchGroupManager();
+
+    /**
+     * Constructs a system state for the WACN and System ID
+     * @param wacn wide area communications network identifier
+     * @param system identifier
+     */
+    public P25SystemState(int wacn, int system)
+    {
+        mWacn = wacn;
+        mSystem = system;
+    }
+
+    /**
+     * Constructs a provisional system state that is not bound to a WACN/System ID
+     */
+    public P25SystemState()
+    {
+        this(UNKNOWN, UNKNOWN);
+    }
+
+    /**
+     * Wide area communications network identifier or UNKNOWN for a provisional system state
+     */
+    public int getWacn()
+    {
+        return mWacn;
+    }
+
+    /**
+     * System identifier or UNKNOWN for a provisional system state
+     */
+    public int getSystem()
+    {
+        return mSystem;
+    }
+
+    /**
+     * Indicates if this state is bound to a WACN/System ID
+     */
+    public boolean isBound()
+    {
+        return mWacn != UNKNOWN;
+    }
+
+    /**
+     * Neighbor (adjacent) site broadcasts of the specified message type, by site number
+     * @param type of adjacent site broadcast message
+     * @return concurrent map of neighbor sites
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ConcurrentMap<Integer,T> getNeighborSites(Class<T> type)
+    {
+        return (ConcurrentMap<Integer,T>)mNeighborSiteMaps.computeIfAbsent(type, key -> new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Patch groups that are currently active on this system
+     */
+    public PatchGroupManager getPatchGroupManager()
+    {
+        return mPatchGroupManager;
+    }
+
+    /**
+     * Merges the neighbor sites and patch groups from the other (provisional) system state into this system state.
+     */
+    @SuppressWarnings("unchecked")
+    public void merge(P25SystemState other)
+    {
+        for(Map.Entry<Class<?>,ConcurrentMap<Integer,?>> entry : other.mNeighborSiteMaps.entrySet())
+        {
+            ((ConcurrentMap<Integer,Object>)getNeighborSites(entry.getKey()))
+                .putAll((ConcurrentMap<Integer,Object>)entry.getValue());
+        }
+
+        mPatchGroupManager.addPatchGroups(other.mPatchGroupManager);
+    }
+
+    @Override
+    public String toString()
+    {
+        if(isBound())
+        {
+            return "WACN:" + P25Utils.formatHex(mWacn, 5) + " SYSTEM:" + P25Utils.formatHex(mSystem, 3);
+        }
+
+        return "UNKNOWN SYSTEM";
+    }
+}
@@ -22,12 +22,12 @@
 package io.github.dsheirer.module.decode.p25;
 
 import io.github.dsheirer.controller.channel.Channel;
-import io.github.dsheirer.controller.channel.Channel.ChannelType;
 import io.github.dsheirer.controller.channel.ChannelEvent;
 import io.github.dsheirer.controller.channel.ChannelEvent.Event;
 import io.github.dsheirer.controller.channel.ChannelGrantEvent;
 import io.github.dsheirer.controller.channel.IChannelEventListener;
 import io.github.dsheirer.controller.channel.IChannelEventProvider;
+import io.github.dsheirer.controller.channel.TrafficChannelPool;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.MutableIdentifierCollection;
@@ -35,9 +35,9 @@ import io.github.dsheirer.identifier.Role;
 import io.github.dsheirer.identifier.scramble.ScrambleParameterIdentifier;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
+import io.github.dsheirer.metrics.jfr.TrafficChannelGrantEvent;
 import io.github.dsheirer.module.Module;
 import io.github.dsheirer.module.decode.DecoderType;
-import io.github.dsheirer.module.decode.config.DecodeConfiguration;
 import io.github.dsheirer.module.decode.event.DecodeEvent;
 import io.github.dsheirer.module.decode.event.DecodeEventType;
 import io.github.dsheirer.module.decode.event.IDecodeEvent;
@@ -60,13 +60,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Monitors channel grant and channel grant update messages to allocate traffic channels to capture
@@ -92,10 +89,8 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     public static final String CHANNEL_START_REJECTED = "CHANNEL START REJECTED";
     public static final String MAX_TRAFFIC_CHANNELS_EXCEEDED = "MAX TRAFFIC CHANNELS EXCEEDED";
 
-    private Queue<Channel> mAvailablePhase1TrafficChannelQueue = new ConcurrentLinkedQueue<>();
-    private List<Channel> mManagedPhase1TrafficChannels;
-    private Queue<Channel> mAvailablePhase2TrafficChannelQueue = new ConcurrentLinkedQueue<>();
-    private List<Channel> mManagedPhase2TrafficChannels;
+    private TrafficChannelPool mPhase1TrafficChannelPool;
+    private TrafficChannelPool mPhase2TrafficChannelPool;
 
     private Map<APCO25Channel,Channel> mAllocatedTrafficChannelMap = new ConcurrentHashMap<>();
     private Map<APCO25Channel,P25ChannelGrantEvent> mPhase1ChannelGrantEventMap = new ConcurrentHashMap<>();
@@ -128,85 +123,38 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
             mIgnoreDataCalls = ((DecodeConfigP25Phase1)parentChannel.getDecodeConfiguration()).getIgnoreDataCalls();
         }
 
-        createPhase1TrafficChannels();
-        createPhase2TrafficChannels();
+        createTrafficChannelPools();
     }
 
     /**
-     * Creates up to the maximum number of traffic channels for use in allocating traffic channels.
-     *
-     * Note: this method uses lazy initialization and will only create the channels once.  Subsequent calls will be ignored.
+     * Creates the phase 1 and phase 2 traffic channel pools sized from the decode configuration
      */
-    private void createPhase1TrafficChannels()
+    private void createTrafficChannelPools()
     {
-        if(mManagedPhase1TrafficChannels == null)
-        {
-            DecodeConfiguration decodeConfiguration = mParentChannel.getDecodeConfiguration();
-            List<Channel> trafficChannelList = new ArrayList<>();
-
-            if(decodeConfiguration instanceof DecodeConfigP25Phase1)
-            {
-                DecodeConfigP25Phase1 p25DecodeConfig = (DecodeConfigP25Phase1)decodeConfiguration;
+        int poolSize = 0;
 
-                int maxTrafficChannels = p25DecodeConfig.getTrafficChannelPoolSize();
+        if(mParentChannel.getDecodeConfiguration() instanceof DecodeConfigP25Phase1)
+        {
+            poolSize = ((DecodeConfigP25Phase1)mParentChannel.getDecodeConfiguration()).getTrafficChannelPoolSize();
+        }
 
-                if(maxTrafficChannels > 0)
-                {
-                    for(int x = 0; x < maxTrafficChannels; x++)
-                    {
-                        Channel trafficChannel = new Channel("TRAFFIC", ChannelType.TRAFFIC);
-                        trafficChannel.setAliasListName(mParentChannel.getAliasListName());
-                        trafficChannel.setSystem(mParentChannel.getSystem());
-                        trafficChannel.setSite(mParentChannel.getSite());
-                        trafficChannel.setDecodeConfiguration(p25DecodeConfig);
-                        trafficChannel.setEventLogConfiguration(mParentChannel.getEventLogConfiguration());
-                        trafficChannel.setRecordConfiguration(mParentChannel.getRecordConfiguration());
-                        trafficChannelList.add(trafficChannel);
-                    }
-                }
-            }
+        //Phase 1 traffic channels share the control channel's decode configuration.  Each phase 2 traffic channel
+        //has its own decode configuration so that scramble parameters can be applied per channel.
+        mPhase1TrafficChannelPool = new TrafficChannelPool(mParentChannel, mParentChannel::getDecodeConfiguration,
+            Math.max(poolSize, 0));
+        mPhase2TrafficChannelPool = new TrafficChannelPool(mParentChannel, DecodeConfigP25Phase2::new,
+            Math.max(poolSize, 0));
 
-            mAvailablePhase1TrafficChannelQueue.addAll(trafficChannelList);
-            mManagedPhase1TrafficChannels = Collections.unmodifiableList(trafficChannelList);
+        //Traffic channels share the control channel's network state so that they can resolve channel numbers and
+        //patch groups from the first decoded message
+        for(Channel trafficChannel : mPhase1TrafficChannelPool.getChannels())
+        {
+            P25NetworkStateManager.getInstance().share(mParentChannel, trafficChannel);
         }
-    }
 
-    /**
-     * Creates up to the maximum number of traffic channels for use in allocating traffic channels.
-     *
-     * Note: this method uses lazy initialization and will only create the channels once.  Subsequent calls will be ignored.
-     */
-    private void createPhase2TrafficChannels()
-    {
-        if(mManagedPhase2TrafficChannels == null)
+        for(Channel trafficChannel : mPhase2TrafficChannelPool.getChannels())
         {
-            DecodeConfiguration decodeConfiguration = mParentChannel.getDecodeConfiguration();
-            List<Channel> trafficChannelList = new ArrayList<>();
-
-            if(decodeConfiguration instanceof DecodeConfigP25Phase1)
-            {
-                DecodeConfigP25Phase1 p25DecodeConfig = (DecodeConfigP25Phase1)decodeConfiguration;
-
-                int maxTrafficChannels = p25DecodeConfig.getTrafficChannelPoolSize();
-
-                if(maxTrafficChannels > 0)
-                {
-                    for(int x = 0; x < maxTrafficChannels; x++)
-                    {
-                        Channel trafficChannel = new Channel("TRAFFIC", ChannelType.TRAFFIC);
-                        trafficChannel.setAliasListName(mParentChannel.getAliasListName());
-                        trafficChannel.setSystem(mParentChannel.getSystem());
-                        trafficChannel.setSite(mParentChannel.getSite());
-                        trafficChannel.setDecodeConfiguration(new DecodeConfigP25Phase2());
-                        trafficChannel.setEventLogConfiguration(mParentChannel.getEventLogConfiguration());
-                        trafficChannel.setRecordConfiguration(mParentChannel.getRecordConfiguration());
-                        trafficChannelList.add(trafficChannel);
-                    }
-                }
-            }
-
-            mAvailablePhase2TrafficChannelQueue.addAll(trafficChannelList);
-            mManagedPhase2TrafficChannels = Collections.unmodifiableList(trafficChannelList);
+            P25NetworkStateManager.getInstance().share(mParentChannel, trafficChannel);
         }
     }
 
@@ -306,7 +254,7 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
             //is a traffic channel allocated.  If not, allocate one and update the event description.
             if(!mAllocatedTrafficChannelMap.containsKey(apco25Channel) && !(mIgnoreDataCalls && opcode.isDataChannelGrant()))
             {
-                Channel trafficChannel = mAvailablePhase1TrafficChannelQueue.poll();
+                Channel trafficChannel = mPhase1TrafficChannelPool.allocate();
 
                 if(trafficChannel != null)
                 {
@@ -353,12 +301,13 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
         //NOTE: we could also allocate a traffic channel for the uplink frequency here, in the future
         if(!mAllocatedTrafficChannelMap.containsKey(apco25Channel))
         {
-            Channel trafficChannel = mAvailablePhase1TrafficChannelQueue.poll();
+            Channel trafficChannel = mPhase1TrafficChannelPool.allocate();
 
             if(trafficChannel == null)
             {
                 channelGrantEvent.setDetails(MAX_TRAFFIC_CHANNELS_EXCEEDED);
                 channelGrantEvent.setEventDescription(channelGrantEvent.getEventDescription() + " - Ignored");
+                recordTrafficChannelGrantEvent("P25 PHASE 1", apco25Channel, null, MAX_TRAFFIC_CHANNELS_EXCEEDED);
                 return;
             }
 
@@ -366,6 +315,7 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
             sourceConfig.setFrequency(apco25Channel.getDownlinkFrequency());
             trafficChannel.setSourceConfiguration(sourceConfig);
             mAllocatedTrafficChannelMap.put(apco25Channel, trafficChannel);
+            recordTrafficChannelGrantEvent("P25 PHASE 1", apco25Channel, trafficChannel, null);
             broadcast(new ChannelGrantEvent(trafficChannel, Event.REQUEST_ENABLE, apco25Channel, identifierCollection));
         }
 
@@ -385,6 +335,9 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     private void processPhase2ChannelGrant(APCO25Channel apco25Channel, ServiceOptions serviceOptions,
                                            IdentifierCollection identifierCollection, Opcode opcode, long timestamp)
     {
+        //The system supports phase 2 traffic channels - pre-warm the phase 2 traffic channel pool on first use
+        mPhase2TrafficChannelPool.prewarm(this::broadcast);
+
         if(mPhase2ScrambleParameters != null && identifierCollection instanceof MutableIdentifierCollection)
         {
             ((MutableIdentifierCollection)identifierCollection).silentUpdate(ScrambleParameterIdentifier.create(mPhase2ScrambleParameters));
@@ -450,7 +403,7 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
             if(!mAllocatedTrafficChannelMap.containsKey(apco25Channel) &&
                 !(mIgnoreDataCalls && opcode.isDataChannelGrant()))
             {
-                Channel trafficChannel = mAvailablePhase2TrafficChannelQueue.poll();
+                Channel trafficChannel = mPhase2TrafficChannelPool.allocate();
 
                 if(trafficChannel != null)
                 {
@@ -512,12 +465,13 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
         //NOTE: we could also allocate a traffic channel for the uplink frequency here, in the future
         if(!mAllocatedTrafficChannelMap.containsKey(apco25Channel))
         {
-            Channel trafficChannel = mAvailablePhase2TrafficChannelQueue.poll();
+            Channel trafficChannel = mPhase2TrafficChannelPool.allocate();
 
             if(trafficChannel == null)
             {
                 channelGrantEvent.setDetails(MAX_TRAFFIC_CHANNELS_EXCEEDED);
                 channelGrantEvent.setEventDescription(channelGrantEvent.getEventDescription() + " - Ignored");
+                recordTrafficChannelGrantEvent("P25 PHASE 2", apco25Channel, null, MAX_TRAFFIC_CHANNELS_EXCEEDED);
                 return;
             }
 
@@ -525,6 +479,7 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
             sourceConfig.setFrequency(apco25Channel.getDownlinkFrequency());
             trafficChannel.setSourceConfiguration(sourceConfig);
             mAllocatedTrafficChannelMap.put(apco25Channel, trafficChannel);
+            recordTrafficChannelGrantEvent("P25 PHASE 2", apco25Channel, trafficChannel, null);
             broadcast(new ChannelGrantEvent(trafficChannel, Event.REQUEST_ENABLE, apco25Channel, identifierCollection));
         }
 
@@ -591,6 +546,31 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
         return mTrafficChannelTeardownMonitor;
     }
 
+    /**
+     * Commits a flight recorder event for a channel grant that was either allocated to a traffic channel or rejected
+     *
+     * @param protocol for the channel grant
+     * @param channel from the channel grant
+     * @param trafficChannel allocated for the grant, or null if the grant was rejected
+     * @param reason for rejecting the grant, or null
+     */
+    private void recordTrafficChannelGrantEvent(String protocol, APCO25Channel channel, Channel trafficChannel,
+                                                String reason)
+    {
+        TrafficChannelGrantEvent event = new TrafficChannelGrantEvent();
+
+        if(event.shouldCommit())
+        {
+            event.protocol = protocol;
+            event.controlChannel = mParentChannel != null ? mParentChannel.getName() : null;
+            event.channel = channel.toString();
+            event.frequency = channel.getDownlinkFrequency();
+            event.rejected = trafficChannel == null;
+            event.reason = reason;
+            event.commit();
+        }
+    }
+
     /**
      * Broadcasts a channel event to a registered external listener (for action).
      */
@@ -655,10 +635,8 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     @Override
     public void dispose()
     {
-        for(Channel trafficChannel : mAvailablePhase1TrafficChannelQueue)
-        {
-            broadcast(new ChannelEvent(trafficChannel, Event.REQUEST_DISABLE));
-        }
+        mPhase1TrafficChannelPool.dispose(this::broadcast);
+        mPhase2TrafficChannelPool.dispose(this::broadcast);
     }
 
     /**
@@ -684,9 +662,14 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
     {
     }
 
+    /**
+     * Pre-warms the phase 1 traffic channel pool.  The phase 2 traffic channel pool is pre-warmed once the first
+     * phase 2 channel grant is detected.
+     */
     @Override
     public void start()
     {
+        mPhase1TrafficChannelPool.prewarm(this::broadcast);
     }
 
     @Override
@@ -824,8 +807,8 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
             {
                 boolean isPhase1 = channel.getDecodeConfiguration().getDecoderType() == DecoderType.P25_PHASE1;
 
-                if((isPhase1 && mManagedPhase1TrafficChannels.contains(channel)) ||
-                   (!isPhase1 && mManagedPhase2TrafficChannels.contains(channel)))
+                if((isPhase1 && mPhase1TrafficChannelPool.contains(channel)) ||
+                   (!isPhase1 && mPhase2TrafficChannelPool.contains(channel)))
                 {
                     switch(channelEvent.getEvent())
                     {
@@ -847,11 +830,11 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
 
                                 if(isPhase1)
                                 {
-                                    mAvailablePhase1TrafficChannelQueue.add(channel);
+                                    mPhase1TrafficChannelPool.release(channel);
                                 }
                                 else
                                 {
-                                    mAvailablePhase2TrafficChannelQueue.add(channel);
+                                    mPhase2TrafficChannelPool.release(channel);
                                 }
                             }
 
@@ -875,11 +858,11 @@ public class P25TrafficChannelManager extends Module implements IDecodeEventProv
 
                                 if(isPhase1)
                                 {
-                                    mAvailablePhase1TrafficChannelQueue.add(channel);
+                                    mPhase1TrafficChannelPool.release(channel);
                                 }
                                 else
                                 {
-                                    mAvailablePhase2TrafficChannelQueue.add(channel);
+                                    mPhase2TrafficChannelPool.release(channel);
                                 }
 
                                 P25ChannelGrantEvent event = mPhase1ChannelGrantEventMap.get(rejected);
@@ -30,6 +30,7 @@ import io.github.dsheirer.module.decode.p25.phase1.message.ldu.LDU2Message;
 import io.github.dsheirer.module.decode.p25.phase1.message.ldu.LDUMessage;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.sample.Listener;
+import jmbe.iface.IAudioCodec;
 
 public class P25P1AudioModule extends ImbeAudioModule
 {
@@ -60,7 +61,7 @@ public class P25P1AudioModule extends ImbeAudioModule
     @Override
     public void reset()
     {
-        getIdentifierCollection().clear();
+        vocode(() -> getIdentifierCollection().clear());
     }
 
     @Override
@@ -119,6 +120,7 @@ public class P25P1AudioModule extends ImbeAudioModule
 
     /**
      * Processes an audio packet by decoding the IMBE audio frames and rebroadcasting them as PCM audio packets.
+     * Each frame is handed off to the vocoder so that synthesis does not block the decoder.
      */
     private void processAudio(LDUMessage ldu)
     {
@@ -126,9 +128,14 @@ public class P25P1AudioModule extends ImbeAudioModule
         {
             for(byte[] frame : ldu.getIMBEFrames())
             {
-                float[] audio = getAudioCodec().getAudio(frame);
-                audio = mGain.apply(audio);
-                addAudio(audio);
+                vocode(() -> {
+                    IAudioCodec audioCodec = getAudioCodec();
+
+                    if(audioCodec != null)
+                    {
+                        addAudio(mGain.apply(audioCodec.getAudio(frame)));
+                    }
+                });
             }
         }
         else
@@ -149,7 +156,7 @@ public class P25P1AudioModule extends ImbeAudioModule
         {
             if(event.getSquelchState() == SquelchState.SQUELCH)
             {
-                closeAudioSegment();
+                vocode(() -> closeAudioSegment());
                 mEncryptedCallStateEstablished = false;
                 mEncryptedCall = false;
                 mCachedLDU1Message = null;
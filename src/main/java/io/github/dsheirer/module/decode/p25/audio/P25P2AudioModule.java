@@ -36,6 +36,7 @@ import io.github.dsheirer.module.decode.p25.phase2.message.mac.structure.PushToT
 import io.github.dsheirer.module.decode.p25.phase2.timeslot.AbstractVoiceTimeslot;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.sample.Listener;
+import jmbe.iface.IAudioCodec;
 import jmbe.iface.IAudioWithMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,10 +84,11 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
     @Override
     public void reset()
     {
-        //Explicitly clear FROM identifiers to ensure previous call TONE identifiers are cleared.
-        mIdentifierCollection.remove(Role.FROM);
-
-        mToneMetadataProcessor.reset();
+        vocode(() -> {
+            //Explicitly clear FROM identifiers to ensure previous call TONE identifiers are cleared.
+            mIdentifierCollection.remove(Role.FROM);
+            mToneMetadataProcessor.reset();
+        });
         mQueuedAudioTimeslots.clear();
 
         //Reset encrypted call handling flags
@@ -162,6 +164,9 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
         }
     }
 
+    /**
+     * Hands each voice frame off to the vocoder for synthesis so that synthesis does not block the decoder.
+     */
     private void processAudio(List<BinaryMessage> voiceFrames)
     {
         if(hasAudioCodec())
@@ -170,16 +175,23 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
             {
                 byte[] voiceFrameBytes = voiceFrame.getBytes();
 
-                try
-                {
-                    IAudioWithMetadata audioWithMetadata = getAudioCodec().getAudioWithMetadata(voiceFrameBytes);
-                    addAudio(audioWithMetadata.getAudio());
-                    processMetadata(audioWithMetadata);
-                }
-                catch(Exception e)
-                {
-                    mLog.error("Error synthesizing AMBE audio - continuing [" + e.getLocalizedMessage() + "]");
-                }
+                vocode(() -> {
+                    IAudioCodec audioCodec = getAudioCodec();
+
+                    if(audioCodec != null)
+                    {
+                        try
+                        {
+                            IAudioWithMetadata audioWithMetadata = audioCodec.getAudioWithMetadata(voiceFrameBytes);
+                            addAudio(audioWithMetadata.getAudio());
+                            processMetadata(audioWithMetadata);
+                        }
+                        catch(Exception e)
+                        {
+                            mLog.error("Error synthesizing AMBE audio - continuing [" + e.getLocalizedMessage() + "]");
+                        }
+                    }
+                });
             }
         }
     }
@@ -386,7 +398,7 @@ public class P25P2AudioModule extends AmbeAudioModule implements IdentifierUpdat
             {
                 if(event.getSquelchState() == SquelchState.SQUELCH)
                 {
-                    closeAudioSegment();
+                    vocode(() -> closeAudioSegment());
                     reset();
                 }
             }
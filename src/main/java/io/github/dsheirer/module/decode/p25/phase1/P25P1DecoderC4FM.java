@@ -37,9 +37,6 @@ import io.github.dsheirer.source.SourceEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public class P25P1DecoderC4FM extends P25P1Decoder
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P1DecoderC4FM.class);
@@ -51,7 +48,6 @@ public class P25P1DecoderC4FM extends P25P1Decoder
     protected FrequencyCorrectionSyncMonitor mFrequencyCorrectionSyncMonitor;
     protected P25P1MessageFramer mMessageFramer;
     private ComplexFeedForwardGainControl mAGC = new ComplexFeedForwardGainControl(32);
-    private Map<Double,float[]> mBasebandFilters = new HashMap<>();
     private ComplexFIRFilter2 mBasebandFilter;
 
     /**
@@ -89,7 +85,7 @@ public class P25P1DecoderC4FM extends P25P1Decoder
         mMessageFramer.setListener(getMessageProcessor());
         mMessageFramer.setSampleRate(sampleRate);
 
-        mQPSKDemodulator.setSymbolListener(getDibitBroadcaster());
+        mQPSKDemodulator.setSymbolListener(getDibitListener());
         getDibitBroadcaster().addListener(mMessageFramer);
     }
 
@@ -110,6 +106,7 @@ public class P25P1DecoderC4FM extends P25P1Decoder
 
         //User accounting of the filtered buffer is handled by the demodulator
         mQPSKDemodulator.receive(gainApplied);
+        flushDibits();
     }
 
     /**
@@ -124,42 +121,35 @@ public class P25P1DecoderC4FM extends P25P1Decoder
     }
 
     /**
-     * Constructs a baseband filter for this decoder using the current sample rate
+     * Constructs a baseband filter for this decoder using the current sample rate.  Designed filters are reused
+     * from the process-wide filter design cache.
      */
     private float[] getBasebandFilter()
     {
-        //Attempt to reuse a cached (ie already-designed) filter if available
-        float[] filter = mBasebandFilters.get(getSampleRate());
+        FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
+            .sampleRate((int)getSampleRate())
+            .passBandCutoff(5100)
+            .passBandAmplitude(1.0)
+            .passBandRipple(0.01)
+            .stopBandAmplitude(0.0)
+            .stopBandStart(6500)
+            .stopBandRipple(0.01)
+            .build();
+
+        float[] filter = null;
+
+        try
+        {
+            filter = FilterFactory.getTaps(specification);
+        }
+        catch(FilterDesignException fde)
+        {
+            mLog.error("Couldn't design low pass baseband filter for sample rate: " + getSampleRate());
+        }
 
         if(filter == null)
         {
-            FIRFilterSpecification specification = FIRFilterSpecification.lowPassBuilder()
-                .sampleRate((int)getSampleRate())
-                .passBandCutoff(5100)
-                .passBandAmplitude(1.0)
-                .passBandRipple(0.01)
-                .stopBandAmplitude(0.0)
-                .stopBandStart(6500)
-                .stopBandRipple(0.01)
-                .build();
-
-            try
-            {
-                filter = FilterFactory.getTaps(specification);
-            }
-            catch(FilterDesignException fde)
-            {
-                mLog.error("Couldn't design low pass baseband filter for sample rate: " + getSampleRate());
-            }
-
-            if(filter != null)
-            {
-                mBasebandFilters.put(getSampleRate(), filter);
-            }
-            else
-            {
-                throw new IllegalStateException("Couldn't design a C4FM baseband filter for sample rate: " + getSampleRate());
-            }
+            throw new IllegalStateException("Couldn't design a C4FM baseband filter for sample rate: " + getSampleRate());
         }
 
         return filter;
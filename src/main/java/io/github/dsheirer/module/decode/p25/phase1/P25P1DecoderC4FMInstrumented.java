@@ -78,7 +78,7 @@ public class P25P1DecoderC4FMInstrumented extends P25P1DecoderC4FM
         instrumented.setPLLFrequencyListener(mPLLFrequencyListener);
         instrumented.setSymbolDecisionDataListener(mSymbolDecisionDataListener);
         instrumented.setSamplesPerSymbolListener(mSamplesPerSymbolListener);
-        instrumented.setSymbolListener(getDibitBroadcaster());
+        instrumented.setSymbolListener(getDibitListener());
         getDibitBroadcaster().addListener(mMessageFramer);
     }
 
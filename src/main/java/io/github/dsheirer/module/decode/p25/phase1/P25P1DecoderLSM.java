@@ -100,7 +100,7 @@ public class P25P1DecoderLSM extends P25P1Decoder
         mMessageFramer.setSyncDetectListener(mFrequencyCorrectionSyncMonitor);
         mMessageFramer.setListener(getMessageProcessor());
         mMessageFramer.setSampleRate(sampleRate);
-        mQPSKDemodulator.setSymbolListener(getDibitBroadcaster());
+        mQPSKDemodulator.setSymbolListener(getDibitListener());
         getDibitBroadcaster().addListener(mMessageFramer);
     }
 
@@ -120,6 +120,7 @@ public class P25P1DecoderLSM extends P25P1Decoder
 
         //Decoder will decrement the user count when finished
         mQPSKDemodulator.receive(gainApplied);
+        flushDibits();
     }
 
     /**
@@ -79,7 +79,7 @@ public class P25P1DecoderLSMInstrumented extends P25P1DecoderLSM
         instrumented.setPLLFrequencyListener(mPLLFrequencyListener);
         instrumented.setSymbolDecisionDataListener(mSymbolDecisionDataListener);
         instrumented.setSamplesPerSymbolListener(mSamplesPerSymbolListener);
-        instrumented.setSymbolListener(getDibitBroadcaster());
+        instrumented.setSymbolListener(getDibitListener());
         getDibitBroadcaster().addListener(mMessageFramer);
     }
 
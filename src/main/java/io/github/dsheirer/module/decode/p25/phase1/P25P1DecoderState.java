@@ -46,6 +46,8 @@ import io.github.dsheirer.module.decode.ip.ars.ARSPacket;
 import io.github.dsheirer.module.decode.ip.ipv4.IPV4Packet;
 import io.github.dsheirer.module.decode.ip.udp.UDPPacket;
 import io.github.dsheirer.module.decode.p25.P25DecodeEvent;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
+import io.github.dsheirer.module.decode.p25.P25NetworkStateManager;
 import io.github.dsheirer.module.decode.p25.P25TrafficChannelManager;
 import io.github.dsheirer.module.decode.p25.identifier.channel.APCO25Channel;
 import io.github.dsheirer.module.decode.p25.phase1.message.P25Message;
@@ -148,7 +150,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
 
     private ChannelType mChannelType;
     private P25P1Decoder.Modulation mModulation;
-    private PatchGroupManager mPatchGroupManager = new PatchGroupManager();
+    private P25NetworkState mNetworkState;
     private P25P1NetworkConfigurationMonitor mNetworkConfigurationMonitor;
     private P25TrafficChannelManager mTrafficChannelManager;
     private Listener<ChannelEvent> mChannelEventListener;
@@ -163,7 +165,8 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
     {
         mChannelType = channel.getChannelType();
         mModulation = ((DecodeConfigP25Phase1)channel.getDecodeConfiguration()).getModulation();
-        mNetworkConfigurationMonitor = new P25P1NetworkConfigurationMonitor(mModulation);
+        mNetworkState = P25NetworkStateManager.getInstance().getNetworkState(channel);
+        mNetworkConfigurationMonitor = new P25P1NetworkConfigurationMonitor(mModulation, mNetworkState);
 
         if(trafficChannelManager != null)
         {
@@ -187,6 +190,14 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
         this(channel, null);
     }
 
+    /**
+     * Patch group manager for the system, shared with the other channels of the same network
+     */
+    private PatchGroupManager getPatchGroupManager()
+    {
+        return mNetworkState.getPatchGroupManager();
+    }
+
     /**
      * Modulation type for the decoder
      */
@@ -819,7 +830,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                 for(Identifier identifier : headerData.getIdentifiers())
                 {
                     //Add to the identifier collection after filtering through the patch group manager
-                    getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                    getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                 }
 
                 updateCurrentCall(headerData.isEncryptedAudio() ? DecodeEventType.CALL_ENCRYPTED :
@@ -1178,7 +1189,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                         identifiers.remove(IdentifierClass.USER);
                         for(Identifier identifier : gdcg.getIdentifiers())
                         {
-                            identifiers.update(mPatchGroupManager.update(identifier));
+                            identifiers.update(getPatchGroupManager().update(identifier));
                         }
 
                         processChannelGrant(gdcg.getChannel(), gdcg.getDataServiceOptions(),
@@ -1195,7 +1206,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                         identifiers.remove(IdentifierClass.USER);
                         for(Identifier identifier : gvcg.getIdentifiers())
                         {
-                            identifiers.update(mPatchGroupManager.update(identifier));
+                            identifiers.update(getPatchGroupManager().update(identifier));
                         }
 
                         processChannelGrant(gvcg.getChannel(), gvcg.getVoiceServiceOptions(),
@@ -1210,7 +1221,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                         //Make a copy of current identifiers and remove current user identifiers and replace from message
                         MutableIdentifierCollection identifiersA = new MutableIdentifierCollection(getIdentifierCollection().getIdentifiers());
                         identifiersA.remove(IdentifierClass.USER);
-                        identifiersA.update(mPatchGroupManager.update(gvcgu.getGroupAddressA()));
+                        identifiersA.update(getPatchGroupManager().update(gvcgu.getGroupAddressA()));
 
                         processChannelGrant(gvcgu.getChannelA(), null, identifiersA,
                                 tsbk.getOpcode(), gvcgu.getTimestamp());
@@ -1220,7 +1231,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                             //Make a copy of current identifiers and remove current user identifiers and replace from message
                             MutableIdentifierCollection identifiersB = new MutableIdentifierCollection(getIdentifierCollection().getIdentifiers());
                             identifiersB.remove(IdentifierClass.USER);
-                            identifiersB.update(mPatchGroupManager.update(gvcgu.getGroupAddressB()));
+                            identifiersB.update(getPatchGroupManager().update(gvcgu.getGroupAddressB()));
 
                             processChannelGrant(gvcgu.getChannelB(), null, identifiersB,
                                     tsbk.getOpcode(), gvcgu.getTimestamp());
@@ -1235,7 +1246,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                         //Make a copy of current identifiers and remove current user identifiers and replace from message
                         MutableIdentifierCollection identifiers = new MutableIdentifierCollection(getIdentifierCollection().getIdentifiers());
                         identifiers.remove(IdentifierClass.USER);
-                        identifiers.update(mPatchGroupManager.update(gvcgue.getGroupAddress()));
+                        identifiers.update(getPatchGroupManager().update(gvcgue.getGroupAddress()));
 
                         processChannelGrant(gvcgue.getChannel(), gvcgue.getVoiceServiceOptions(),
                                 identifiers, tsbk.getOpcode(), gvcgue.getTimestamp());
@@ -1321,7 +1332,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                         identifiers.remove(IdentifierClass.USER);
                         for(Identifier identifier : pgvcg.getIdentifiers())
                         {
-                            identifiers.update(mPatchGroupManager.update(identifier));
+                            identifiers.update(getPatchGroupManager().update(identifier));
                         }
 
                         processChannelGrant(pgvcg.getChannel(), pgvcg.getVoiceServiceOptions(),
@@ -1336,7 +1347,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                         //Make a copy of current identifiers and remove current user identifiers and replace from message
                         MutableIdentifierCollection identifiersPG1 = new MutableIdentifierCollection(getIdentifierCollection().getIdentifiers());
                         identifiersPG1.remove(IdentifierClass.USER);
-                        identifiersPG1.update(mPatchGroupManager.update(pgvcgu.getPatchGroup1()));
+                        identifiersPG1.update(getPatchGroupManager().update(pgvcgu.getPatchGroup1()));
 
                         processChannelGrant(pgvcgu.getChannel1(), null, identifiersPG1,
                                 tsbk.getOpcode(), pgvcgu.getTimestamp());
@@ -1346,7 +1357,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                             //Make a copy of current identifiers and remove current user identifiers and replace from message
                             MutableIdentifierCollection identifiersPG2 = new MutableIdentifierCollection(getIdentifierCollection().getIdentifiers());
                             identifiersPG2.remove(IdentifierClass.USER);
-                            identifiersPG2.update(mPatchGroupManager.update(pgvcgu.getPatchGroup2()));
+                            identifiersPG2.update(getPatchGroupManager().update(pgvcgu.getPatchGroup2()));
 
                             processChannelGrant(pgvcgu.getChannel2(), null,
                                     identifiersPG2, tsbk.getOpcode(), pgvcgu.getTimestamp());
@@ -1672,10 +1683,10 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
 
                 //MOTOROLA PATCH GROUP OPCODES
                 case MOTOROLA_OSP_PATCH_GROUP_ADD:
-                    mPatchGroupManager.addPatchGroups(tsbk.getIdentifiers());
+                    getPatchGroupManager().addPatchGroups(tsbk.getIdentifiers());
                     break;
                 case MOTOROLA_OSP_PATCH_GROUP_DELETE:
-                    mPatchGroupManager.removePatchGroups(tsbk.getIdentifiers());
+                    getPatchGroupManager().removePatchGroups(tsbk.getIdentifiers());
                     break;
 
                 //STANDARD - INBOUND OPCODES
@@ -2142,7 +2153,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
             for(Identifier identifier : esp.getIdentifiers())
             {
                 //Add to the identifier collection after filtering through the patch group manager
-                getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                getIdentifierCollection().update(getPatchGroupManager().update(identifier));
             }
             Encryption encryption = Encryption.fromValue(esp.getEncryptionKey().getValue().getAlgorithm());
             updateCurrentCall(DecodeEventType.CALL_ENCRYPTED, "ALGORITHM:" + encryption.toString(), timestamp);
@@ -2172,7 +2183,7 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
                 for(Identifier identifier : lcw.getIdentifiers())
                 {
                     //Add to the identifier collection after filtering through the patch group manager
-                    getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                    getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                 }
                 break;
 
@@ -2206,13 +2217,13 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
 
             //Patch Group management
             case MOTOROLA_PATCH_GROUP_ADD:
-                mPatchGroupManager.addPatchGroups(lcw.getIdentifiers());
+                getPatchGroupManager().addPatchGroups(lcw.getIdentifiers());
                 break;
             case MOTOROLA_PATCH_GROUP_DELETE:
-                mPatchGroupManager.removePatchGroups(lcw.getIdentifiers());
+                getPatchGroupManager().removePatchGroups(lcw.getIdentifiers());
                 break;
             case MOTOROLA_PATCH_GROUP_VOICE_CHANNEL_UPDATE:
-                mPatchGroupManager.addPatchGroups(lcw.getIdentifiers());
+                getPatchGroupManager().addPatchGroups(lcw.getIdentifiers());
                 break;
 
             //Other events
@@ -2377,6 +2388,12 @@ public class P25P1DecoderState extends DecoderState implements IChannelEventList
             case RESET:
                 resetState();
                 mNetworkConfigurationMonitor.reset();
+
+                //Only the owning control channel resets the network state that is shared with its traffic channels
+                if(mChannelType == ChannelType.STANDARD)
+                {
+                    mNetworkState.reset();
+                }
                 break;
             default:
                 break;
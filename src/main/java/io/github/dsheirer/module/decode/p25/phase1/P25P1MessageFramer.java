@@ -32,6 +32,7 @@ import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.dsp.psk.pll.IPhaseLockedLoop;
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.DibitBuffer;
 import io.github.dsheirer.dsp.symbol.ISyncDetectListener;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageProvider;
@@ -94,6 +95,7 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
     private double mBitRate;
     private long mCurrentTime = System.currentTimeMillis();
     private ISyncDetectListener mSyncDetectListener;
+    private DibitBuffer mByteBufferDibits = new DibitBuffer(1200);
 
     public P25P1MessageFramer(IPhaseLockedLoop phaseLockedLoop, int bitRate)
     {
@@ -235,6 +237,59 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
         }
     }
 
+    /**
+     * Bulk method for streaming decoded symbol dibits for message framing.  While a message is being assembled, the
+     * dibits between status symbols are transferred directly into the message.  Otherwise, each dibit is processed
+     * individually by the data unit detector.
+     *
+     * @param dibitBuffer containing packed dibits to process
+     */
+    public void receive(DibitBuffer dibitBuffer)
+    {
+        int dibitCount = dibitBuffer.getDibitCount();
+        int index = 0;
+
+        while(index < dibitCount)
+        {
+            if(mAssemblingMessage && mStatusSymbolDibitCounter < 35)
+            {
+                int pointer = mBinaryMessage.pointer();
+
+                //Transfer dibits up to the next status symbol, the end of the message, or the end of the buffer
+                int run = Math.min(35 - mStatusSymbolDibitCounter, dibitCount - index);
+                run = Math.min(run, (mBinaryMessage.size() - pointer) / 2);
+
+                if(run > 0)
+                {
+                    for(int x = 0; x < run; x++)
+                    {
+                        int value = dibitBuffer.getValue(index++);
+                        mBinaryMessage.set(pointer++, (value & 0x2) == 0x2);
+                        mBinaryMessage.set(pointer++, (value & 0x1) == 0x1);
+                    }
+
+                    mBinaryMessage.setPointer(pointer);
+                    mStatusSymbolDibitCounter += run;
+
+                    if(mBinaryMessage.isFull())
+                    {
+                        //TDU's have a trailing status symbol that has to be removed -- set flag to true to suppress it.
+                        if(mDataUnitID.hasTrailingStatusDibit())
+                        {
+                            mTrailingDibitsToSuppress = 1;
+                        }
+
+                        dispatchMessage();
+                    }
+
+                    continue;
+                }
+            }
+
+            receive(dibitBuffer.getDibit(index++));
+        }
+    }
+
     private void dispatchMessage()
     {
         if(mMessageListener != null)
@@ -387,13 +442,8 @@ public class P25P1MessageFramer implements Listener<Dibit>, IP25P1DataUnitDetect
         //Updates current timestamp to the timestamp from the incoming buffer
         setCurrentTime(buffer.getTimestamp());
 
-        for(byte value : buffer.getBytes())
-        {
-            for(int x = 0; x <= 3; x++)
-            {
-                receive(Dibit.parse(value, x));
-            }
-        }
+        mByteBufferDibits.load(buffer.getBytes());
+        receive(mByteBufferDibits);
 
         buffer.decrementUserCount();
     }
@@ -24,6 +24,7 @@ package io.github.dsheirer.module.decode.p25.phase1;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.Message;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBand;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBandReceiver;
 import io.github.dsheirer.sample.Listener;
@@ -31,8 +32,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 public class P25P1MessageProcessor implements Listener<Message>
 {
@@ -40,15 +39,24 @@ public class P25P1MessageProcessor implements Listener<Message>
 
     private Listener<IMessage> mMessageListener;
 
-    /* Map of up to 16 band identifiers per RFSS.  These identifier update
-     * messages are inserted into any message that conveys channel information
-     * so that the uplink/downlink frequencies can be calculated */
-    private Map<Integer,IFrequencyBand> mFrequencyBandMap = new TreeMap<Integer,IFrequencyBand>();
+    //Frequency bands (up to 16 band identifiers per site) shared with the other channels of the same network.  Band
+    //identifier update messages are inserted into any message that conveys channel information so that the
+    //uplink/downlink frequencies can be calculated
+    private P25NetworkState mNetworkState = new P25NetworkState();
 
     public P25P1MessageProcessor()
     {
     }
 
+    /**
+     * Sets the network state used to store and resolve frequency bands.  The network state is shared by the control
+     * and traffic channels of the same network.
+     */
+    public void setNetworkState(P25NetworkState networkState)
+    {
+        mNetworkState = networkState;
+    }
+
     @Override
     public void receive(Message message)
     {
@@ -73,9 +81,11 @@ public class P25P1MessageProcessor implements Listener<Message>
 
                     for(int id : frequencyBandIdentifiers)
                     {
-                        if(mFrequencyBandMap.containsKey(id))
+                        IFrequencyBand band = mNetworkState.getFrequencyBand(id);
+
+                        if(band != null)
                         {
-                            channel.setFrequencyBand(mFrequencyBandMap.get(id));
+                            channel.setFrequencyBand(band);
                         }
                     }
                 }
@@ -86,7 +96,7 @@ public class P25P1MessageProcessor implements Listener<Message>
             if(message instanceof IFrequencyBand)
             {
                 IFrequencyBand bandIdentifier = (IFrequencyBand)message;
-                mFrequencyBandMap.put(bandIdentifier.getIdentifier(), bandIdentifier);
+                mNetworkState.addFrequencyBand(bandIdentifier);
             }
         }
 
@@ -98,7 +108,6 @@ public class P25P1MessageProcessor implements Listener<Message>
 
     public void dispose()
     {
-        mFrequencyBandMap.clear();
         mMessageListener = null;
     }
 
@@ -24,6 +24,7 @@ package io.github.dsheirer.module.decode.p25.phase1;
 
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBand;
 import io.github.dsheirer.module.decode.p25.phase1.message.lc.LinkControlWord;
 import io.github.dsheirer.module.decode.p25.phase1.message.lc.standard.LCAdjacentSiteStatusBroadcast;
@@ -53,7 +54,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -61,13 +61,16 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 /**
- * Tracks the network configuration details of a P25 Phase 1 network from the broadcast messages
+ * Tracks the network configuration details of a P25 Phase 1 network from the broadcast messages.
+ *
+ * Frequency bands and neighbor sites are stored in the network state that is shared with the other channels of the
+ * same network, while the current site details are tracked by this monitor.
  */
 public class P25P1NetworkConfigurationMonitor
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P1NetworkConfigurationMonitor.class);
 
-    private Map<Integer,IFrequencyBand> mFrequencyBandMap = new HashMap<>();
+    private P25NetworkState mNetworkState;
 
     //Network Status Messages
     private AMBTCNetworkStatusBroadcast mAMBTCNetworkStatusBroadcast;
@@ -91,12 +94,6 @@ public class P25P1NetworkConfigurationMonitor
     private SystemServiceBroadcast mTSBKSystemServiceBroadcast;
     private LCSystemServiceBroadcast mLCSystemServiceBroadcast;
 
-    //Neighbor Sites
-    private Map<Integer,AMBTCAdjacentStatusBroadcast> mAMBTCNeighborSites = new HashMap<>();
-    private Map<Integer,LCAdjacentSiteStatusBroadcast> mLCNeighborSites = new HashMap<>();
-    private Map<Integer,LCAdjacentSiteStatusBroadcastExplicit> mLCNeighborSitesExplicit = new HashMap<>();
-    private Map<Integer,AdjacentStatusBroadcast> mTSBKNeighborSites = new HashMap<>();
-
     private MotorolaBaseStationId mMotorolaBaseStationId;
 
     private P25P1Decoder.Modulation mModulation;
@@ -105,10 +102,12 @@ public class P25P1NetworkConfigurationMonitor
      * Constructs a network configuration monitor.
      *
      * @param modulation type used by the decoder
+     * @param networkState shared with the other channels of the same network
      */
-    public P25P1NetworkConfigurationMonitor(P25P1Decoder.Modulation modulation)
+    public P25P1NetworkConfigurationMonitor(P25P1Decoder.Modulation modulation, P25NetworkState networkState)
     {
         mModulation = modulation;
+        mNetworkState = networkState;
     }
 
     /**
@@ -123,14 +122,15 @@ public class P25P1NetworkConfigurationMonitor
             case OSP_IDENTIFIER_UPDATE_VHF_UHF_BANDS:
                 if(tsbk instanceof IFrequencyBand)
                 {
-                    IFrequencyBand frequencyBand = (IFrequencyBand)tsbk;
-                    mFrequencyBandMap.put(frequencyBand.getIdentifier(), frequencyBand);
+                    mNetworkState.addFrequencyBand((IFrequencyBand)tsbk);
                 }
                 break;
             case OSP_NETWORK_STATUS_BROADCAST:
                 if(tsbk instanceof NetworkStatusBroadcast)
                 {
                     mTSBKNetworkStatusBroadcast = (NetworkStatusBroadcast)tsbk;
+                    mNetworkState.setSystem(mTSBKNetworkStatusBroadcast.getWacn(),
+                        mTSBKNetworkStatusBroadcast.getSystem());
                 }
                 break;
             case OSP_SYSTEM_SERVICE_BROADCAST:
@@ -168,7 +168,8 @@ public class P25P1NetworkConfigurationMonitor
                 if(tsbk instanceof AdjacentStatusBroadcast)
                 {
                     AdjacentStatusBroadcast asb = (AdjacentStatusBroadcast)tsbk;
-                    mTSBKNeighborSites.put((int)asb.getSite().getValue(), asb);
+                    mNetworkState.getNeighborSites(AdjacentStatusBroadcast.class)
+                        .put((int)asb.getSite().getValue(), asb);
                 }
                 break;
             case OSP_SNDCP_DATA_CHANNEL_ANNOUNCEMENT_EXPLICIT:
@@ -197,13 +198,16 @@ public class P25P1NetworkConfigurationMonitor
                 if(ambtc instanceof AMBTCAdjacentStatusBroadcast)
                 {
                     AMBTCAdjacentStatusBroadcast aasb = (AMBTCAdjacentStatusBroadcast)ambtc;
-                    mAMBTCNeighborSites.put((int)aasb.getSite().getValue(), aasb);
+                    mNetworkState.getNeighborSites(AMBTCAdjacentStatusBroadcast.class)
+                        .put((int)aasb.getSite().getValue(), aasb);
                 }
                 break;
             case OSP_NETWORK_STATUS_BROADCAST:
                 if(ambtc instanceof AMBTCNetworkStatusBroadcast)
                 {
                     mAMBTCNetworkStatusBroadcast = (AMBTCNetworkStatusBroadcast)ambtc;
+                    mNetworkState.setSystem(mAMBTCNetworkStatusBroadcast.getWacn(),
+                        mAMBTCNetworkStatusBroadcast.getSystem());
                 }
                 break;
             case OSP_RFSS_STATUS_BROADCAST:
@@ -229,34 +233,39 @@ public class P25P1NetworkConfigurationMonitor
                     if(lcw instanceof LCAdjacentSiteStatusBroadcast)
                     {
                         LCAdjacentSiteStatusBroadcast assb = (LCAdjacentSiteStatusBroadcast)lcw;
-                        mLCNeighborSites.put((int)assb.getSite().getValue(), assb);
+                        mNetworkState.getNeighborSites(LCAdjacentSiteStatusBroadcast.class)
+                            .put((int)assb.getSite().getValue(), assb);
                     }
                     break;
                 case ADJACENT_SITE_STATUS_BROADCAST_EXPLICIT:
                     if(lcw instanceof LCAdjacentSiteStatusBroadcastExplicit)
                     {
                         LCAdjacentSiteStatusBroadcastExplicit assbe = (LCAdjacentSiteStatusBroadcastExplicit)lcw;
-                        mLCNeighborSitesExplicit.put((int)assbe.getSite().getValue(), assbe);
+                        mNetworkState.getNeighborSites(LCAdjacentSiteStatusBroadcastExplicit.class)
+                            .put((int)assbe.getSite().getValue(), assbe);
                     }
                     break;
                 case CHANNEL_IDENTIFIER_UPDATE:
                 case CHANNEL_IDENTIFIER_UPDATE_EXPLICIT:
                     if(lcw instanceof IFrequencyBand)
                     {
-                        IFrequencyBand band = (IFrequencyBand)lcw;
-                        mFrequencyBandMap.put(band.getIdentifier(), band);
+                        mNetworkState.addFrequencyBand((IFrequencyBand)lcw);
                     }
                     break;
                 case NETWORK_STATUS_BROADCAST:
                     if(lcw instanceof LCNetworkStatusBroadcast)
                     {
                         mLCNetworkStatusBroadcast = (LCNetworkStatusBroadcast)lcw;
+                        mNetworkState.setSystem(mLCNetworkStatusBroadcast.getWACN(),
+                            mLCNetworkStatusBroadcast.getSystem());
                     }
                     break;
                 case NETWORK_STATUS_BROADCAST_EXPLICIT:
                     if(lcw instanceof LCNetworkStatusBroadcastExplicit)
                     {
                         mLCNetworkStatusBroadcastExplicit = (LCNetworkStatusBroadcastExplicit)lcw;
+                        mNetworkState.setSystem(mLCNetworkStatusBroadcastExplicit.getWACN(),
+                            mLCNetworkStatusBroadcastExplicit.getSystem());
                     }
                     break;
                 case RFSS_STATUS_BROADCAST:
@@ -304,9 +313,12 @@ public class P25P1NetworkConfigurationMonitor
 
     }
 
+    /**
+     * Resets the current site details tracked by this monitor.  Frequency bands and neighbor sites are held in the
+     * shared network state and are not affected.
+     */
     public void reset()
     {
-        mFrequencyBandMap.clear();
         mAMBTCNetworkStatusBroadcast = null;
         mTSBKNetworkStatusBroadcast = null;
         mLCNetworkStatusBroadcast = null;
@@ -318,10 +330,6 @@ public class P25P1NetworkConfigurationMonitor
         mSNDCPDataChannel = null;
         mTSBKSystemServiceBroadcast = null;
         mLCSystemServiceBroadcast = null;
-        mAMBTCNeighborSites = new HashMap<>();
-        mLCNeighborSites.clear();
-        mLCNeighborSitesExplicit.clear();
-        mTSBKNeighborSites.clear();
     }
 
     /**
@@ -478,11 +486,19 @@ public class P25P1NetworkConfigurationMonitor
         }
 
         sb.append("\nNeighbor Sites\n");
+        Map<Integer,AMBTCAdjacentStatusBroadcast> ambtcNeighborSites =
+            mNetworkState.getNeighborSites(AMBTCAdjacentStatusBroadcast.class);
+        Map<Integer,LCAdjacentSiteStatusBroadcast> lcNeighborSites =
+            mNetworkState.getNeighborSites(LCAdjacentSiteStatusBroadcast.class);
+        Map<Integer,LCAdjacentSiteStatusBroadcastExplicit> lcNeighborSitesExplicit =
+            mNetworkState.getNeighborSites(LCAdjacentSiteStatusBroadcastExplicit.class);
+        Map<Integer,AdjacentStatusBroadcast> tsbkNeighborSites =
+            mNetworkState.getNeighborSites(AdjacentStatusBroadcast.class);
         Set<Integer> sites = new TreeSet<>();
-        sites.addAll(mAMBTCNeighborSites.keySet());
-        sites.addAll(mLCNeighborSites.keySet());
-        sites.addAll(mLCNeighborSitesExplicit.keySet());
-        sites.addAll(mTSBKNeighborSites.keySet());
+        sites.addAll(ambtcNeighborSites.keySet());
+        sites.addAll(lcNeighborSites.keySet());
+        sites.addAll(lcNeighborSitesExplicit.keySet());
+        sites.addAll(tsbkNeighborSites.keySet());
 
         if(sites.isEmpty())
         {
@@ -495,9 +511,9 @@ public class P25P1NetworkConfigurationMonitor
 
             for(Integer site : sitesSorted)
             {
-                if(mAMBTCNeighborSites.containsKey(site))
+                if(ambtcNeighborSites.containsKey(site))
                 {
-                    AMBTCAdjacentStatusBroadcast ambtc = mAMBTCNeighborSites.get(site);
+                    AMBTCAdjacentStatusBroadcast ambtc = ambtcNeighborSites.get(site);
                     sb.append("  SYSTEM:").append(format(ambtc.getSystem(), 3));
                     sb.append(" NAC:").append(format(ambtc.getNAC(), 3));
                     sb.append(" RFSS:").append(format(ambtc.getRfss(), 2));
@@ -507,9 +523,9 @@ public class P25P1NetworkConfigurationMonitor
                     sb.append(" DOWNLINK:").append(ambtc.getChannel().getDownlinkFrequency());
                     sb.append(" UPLINK:").append(ambtc.getChannel().getUplinkFrequency()).append("\n");
                 }
-                if(mLCNeighborSites.containsKey(site))
+                if(lcNeighborSites.containsKey(site))
                 {
-                    LCAdjacentSiteStatusBroadcast lc = mLCNeighborSites.get(site);
+                    LCAdjacentSiteStatusBroadcast lc = lcNeighborSites.get(site);
                     sb.append("  SYSTEM:").append(format(lc.getSystem(), 3));
                     sb.append(" RFSS:").append(format(lc.getRfss(), 2));
                     sb.append(" SITE:").append(format(lc.getSite(), 2));
@@ -519,9 +535,9 @@ public class P25P1NetworkConfigurationMonitor
                     sb.append(" UPLINK:").append(lc.getChannel().getUplinkFrequency()).append("\n");
 
                 }
-                if(mLCNeighborSitesExplicit.containsKey(site))
+                if(lcNeighborSitesExplicit.containsKey(site))
                 {
-                    LCAdjacentSiteStatusBroadcastExplicit lce = mLCNeighborSitesExplicit.get(site);
+                    LCAdjacentSiteStatusBroadcastExplicit lce = lcNeighborSitesExplicit.get(site);
                     sb.append("  SYSTEM:---");
                     sb.append(" RFSS:").append(format(lce.getRfss(), 2));
                     sb.append(" SITE:").append(format(lce.getSite(), 2));
@@ -530,9 +546,9 @@ public class P25P1NetworkConfigurationMonitor
                     sb.append(" DOWNLINK:").append(lce.getChannel().getDownlinkFrequency());
                     sb.append(" UPLINK:").append(lce.getChannel().getUplinkFrequency()).append("\n");
                 }
-                if(mTSBKNeighborSites.containsKey(site))
+                if(tsbkNeighborSites.containsKey(site))
                 {
-                    AdjacentStatusBroadcast asb = mTSBKNeighborSites.get(site);
+                    AdjacentStatusBroadcast asb = tsbkNeighborSites.get(site);
                     sb.append("  SYSTEM:").append(format(asb.getSystem(), 3));
                     sb.append(" NAC:").append(format(asb.getNAC(), 3));
                     sb.append(" RFSS:").append(format(asb.getRfss(), 2));
@@ -547,18 +563,20 @@ public class P25P1NetworkConfigurationMonitor
         }
 
         sb.append("\nFrequency Bands\n");
-        if(mFrequencyBandMap.isEmpty())
+        Map<Integer,IFrequencyBand> frequencyBands = mNetworkState.getFrequencyBands();
+
+        if(frequencyBands.isEmpty())
         {
             sb.append("  UNKNOWN");
         }
         else
         {
-            List<Integer> ids = new ArrayList<>(mFrequencyBandMap.keySet());
+            List<Integer> ids = new ArrayList<>(frequencyBands.keySet());
             Collections.sort(ids);
             {
                 for(Integer id : ids)
                 {
-                    sb.append("  ").append(formatFrequencyBand(mFrequencyBandMap.get(id))).append("\n");
+                    sb.append("  ").append(formatFrequencyBand(frequencyBands.get(id))).append("\n");
                 }
             }
         }
@@ -98,6 +98,8 @@ public enum LinkControlOpcode
 
     UNKNOWN("UNKNOWN", -1);
 
+    private static final LinkControlOpcode[] VALUES = values();
+
     private String mLabel;
     private int mCode;
 
@@ -124,7 +126,7 @@ public enum LinkControlOpcode
             case STANDARD:
                 if(0 <= value && value <= 63)
                 {
-                    return values()[value];
+                    return VALUES[value];
                 }
                 break;
             case MOTOROLA:
@@ -146,7 +148,7 @@ public enum LinkControlOpcode
             default:
                 if(0 <= value && value <= 63)
                 {
-                    return values()[value];
+                    return VALUES[value];
                 }
         }
 
@@ -25,6 +25,7 @@ package io.github.dsheirer.module.decode.p25.phase1.message.tsbk;
 import io.github.dsheirer.module.decode.p25.reference.Direction;
 import io.github.dsheirer.module.decode.p25.reference.Vendor;
 
+import java.util.Arrays;
 import java.util.EnumSet;
 
 public enum Opcode
@@ -202,6 +203,41 @@ public enum Opcode
     public static final EnumSet<Opcode> DATA_CHANNEL_GRANT_OPCODES = EnumSet.of(OSP_SNDCP_DATA_CHANNEL_GRANT,
         OSP_INDIVIDUAL_DATA_CHANNEL_GRANT, OSP_GROUP_DATA_CHANNEL_GRANT);
 
+    /**
+     * Standard opcode lookup tables indexed by the 6-bit opcode value.  Populated once so that opcode resolution for
+     * each received TSBK is a single array access rather than a scan of the opcode sets.
+     */
+    private static final Opcode[] VALUES = values();
+    private static final Opcode[] STANDARD_OUTBOUND_LOOKUP = new Opcode[64];
+    private static final Opcode[] STANDARD_INBOUND_LOOKUP = new Opcode[64];
+
+    static
+    {
+        Arrays.fill(STANDARD_OUTBOUND_LOOKUP, OSP_UNKNOWN);
+        Arrays.fill(STANDARD_INBOUND_LOOKUP, ISP_UNKNOWN);
+
+        for(Opcode outboundOpcode : STANDARD_OUTBOUND_OPCODES)
+        {
+            int code = outboundOpcode.getCode();
+
+            //Retain the first opcode declared for a code value, matching the original set scan order
+            if(0 <= code && code <= 63 && STANDARD_OUTBOUND_LOOKUP[code] == OSP_UNKNOWN)
+            {
+                STANDARD_OUTBOUND_LOOKUP[code] = outboundOpcode;
+            }
+        }
+
+        for(Opcode inboundOpcode : STANDARD_INBOUND_OPCODES)
+        {
+            int code = inboundOpcode.getCode();
+
+            if(0 <= code && code <= 63 && STANDARD_INBOUND_LOOKUP[code] == ISP_UNKNOWN)
+            {
+                STANDARD_INBOUND_LOOKUP[code] = inboundOpcode;
+            }
+        }
+    }
+
     Opcode(int code, String label, String description)
     {
         mCode = code;
@@ -252,7 +288,7 @@ public enum Opcode
     {
         if(0 <= value && value <= 63)
         {
-            return values()[value];
+            return VALUES[value];
         }
 
         return OSP_UNKNOWN;
@@ -267,13 +303,7 @@ public enum Opcode
                 {
                     if(0 <= value && value <= 63)
                     {
-                        for(Opcode outboundOpcode : STANDARD_OUTBOUND_OPCODES)
-                        {
-                            if(outboundOpcode.getCode() == value)
-                            {
-                                return outboundOpcode;
-                            }
-                        }
+                        return STANDARD_OUTBOUND_LOOKUP[value];
                     }
 
                     return OSP_UNKNOWN;
@@ -282,13 +312,7 @@ public enum Opcode
                 {
                     if(0 <= value && value <= 63)
                     {
-                        for(Opcode inboundOpcode : STANDARD_INBOUND_OPCODES)
-                        {
-                            if(inboundOpcode.getCode() == value)
-                            {
-                                return inboundOpcode;
-                            }
-                        }
+                        return STANDARD_INBOUND_LOOKUP[value];
                     }
 
                     return ISP_UNKNOWN;
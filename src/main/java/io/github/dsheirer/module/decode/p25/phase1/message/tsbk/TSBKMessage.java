@@ -43,6 +43,8 @@ public abstract class TSBKMessage extends P25Message
     private static final int[] VENDOR = {8, 9, 10, 11, 12, 13, 14, 15};
 
     private P25P1DataUnitID mDataUnitID;
+    private Vendor mVendor;
+    private Opcode mOpcode;
 
     /**
      * Constructs a TSBK from the binary message sequence.
@@ -101,7 +103,12 @@ public abstract class TSBKMessage extends P25Message
      */
     public Vendor getVendor()
     {
-        return getVendor(getMessage());
+        if(mVendor == null)
+        {
+            mVendor = getVendor(getMessage());
+        }
+
+        return mVendor;
     }
 
     /**
@@ -117,7 +124,12 @@ public abstract class TSBKMessage extends P25Message
      */
     public Opcode getOpcode()
     {
-        return getOpcode(getMessage(), getDirection(), getVendor());
+        if(mOpcode == null)
+        {
+            mOpcode = getOpcode(getMessage(), getDirection(), getVendor());
+        }
+
+        return mOpcode;
     }
 
     /**
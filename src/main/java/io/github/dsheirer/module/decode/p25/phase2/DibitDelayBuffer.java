@@ -22,7 +22,6 @@
 
 package io.github.dsheirer.module.decode.p25.phase2;
 
-import io.github.dsheirer.bits.BitSetFullException;
 import io.github.dsheirer.bits.CorrectedBinaryMessage;
 import io.github.dsheirer.dsp.symbol.Dibit;
 import org.slf4j.Logger;
@@ -57,39 +56,27 @@ public class DibitDelayBuffer
      */
     public Dibit[] getBuffer()
     {
-        Dibit[] transferBuffer = new Dibit[mBuffer.length];
-
-        int transferBufferPointer = 0;
-        int bufferPointer = mPointer;
-
-        while(transferBufferPointer < transferBuffer.length)
-        {
-            transferBuffer[transferBufferPointer++] = mBuffer[bufferPointer++];
-
-            if(bufferPointer >= mBuffer.length)
-            {
-                bufferPointer = 0;
-            }
-        }
-
-        return transferBuffer;
+        return getBuffer(0, mBuffer.length);
     }
 
+    /**
+     * Returns an ordered copy of a section of the internal circular buffer contents.
+     *
+     * @param start dibit index where 0 is the oldest dibit and the newest dibit is buffer length - 1
+     * @param length number of dibits to copy
+     */
     public Dibit[] getBuffer(int start, int length)
     {
         Dibit[] transferBuffer = new Dibit[length];
 
-        int transferBufferPointer = 0;
         int bufferPointer = (mPointer + start) % mBuffer.length;
+        int firstRun = Math.min(length, mBuffer.length - bufferPointer);
 
-        while(transferBufferPointer < transferBuffer.length)
-        {
-            transferBuffer[transferBufferPointer++] = mBuffer[bufferPointer++];
+        System.arraycopy(mBuffer, bufferPointer, transferBuffer, 0, firstRun);
 
-            if(bufferPointer >= mBuffer.length)
-            {
-                bufferPointer = 0;
-            }
+        if(firstRun < length)
+        {
+            System.arraycopy(mBuffer, 0, transferBuffer, firstRun, length - firstRun);
         }
 
         return transferBuffer;
@@ -106,31 +93,42 @@ public class DibitDelayBuffer
     {
         CorrectedBinaryMessage message = new CorrectedBinaryMessage(dibitLength * 2);
 
-        int dibitCount = 0;
         int bufferPointer = (mPointer + start) % mBuffer.length;
+        int firstRun = Math.min(dibitLength, mBuffer.length - bufferPointer);
 
-        try
+        //Copy the two contiguous runs on either side of the wrap point, setting bits directly by index
+        load(message, bufferPointer, 0, firstRun);
+        load(message, 0, firstRun, dibitLength - firstRun);
+        message.setPointer(dibitLength * 2);
+
+        return message;
+    }
+
+    /**
+     * Loads a contiguous run of dibits from the internal buffer into the message.
+     *
+     * @param message to load
+     * @param bufferOffset of the first dibit in the internal buffer
+     * @param dibitOffset of the first dibit in the message
+     * @param count of dibits to load
+     */
+    private void load(CorrectedBinaryMessage message, int bufferOffset, int dibitOffset, int count)
+    {
+        for(int x = 0; x < count; x++)
         {
-            while(dibitCount < dibitLength)
+            Dibit dibit = mBuffer[bufferOffset + x];
+            int bit = (dibitOffset + x) * 2;
+
+            if(dibit.getBit1())
             {
-                Dibit dibit = mBuffer[bufferPointer++];
-                message.add(dibit.getBit1());
-                message.add(dibit.getBit2());
-                dibitCount++;
-
-                if(bufferPointer >= mBuffer.length)
-                {
-                    bufferPointer = 0;
-                }
+                message.set(bit);
             }
-        }
-        catch(BitSetFullException e)
-        {
-            //This shouldn't happen
-            mLog.error("Bit set full ??", e);
-        }
 
-        return message;
+            if(dibit.getBit2())
+            {
+                message.set(bit + 1);
+            }
+        }
     }
 
     public int[] getBufferAsArray()
@@ -22,9 +22,12 @@
 package io.github.dsheirer.module.decode.p25.phase2;
 
 import io.github.dsheirer.dsp.symbol.Dibit;
+import io.github.dsheirer.dsp.symbol.DibitBuffer;
+import io.github.dsheirer.dsp.symbol.DibitBufferAssembler;
 import io.github.dsheirer.dsp.symbol.DibitToByteBufferAssembler;
 import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.module.decode.FeedbackDecoder;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
 import io.github.dsheirer.sample.Broadcaster;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.IReusableByteBufferProvider;
@@ -40,8 +43,11 @@ import io.github.dsheirer.source.SourceEvent;
 public abstract class P25P2Decoder extends FeedbackDecoder implements ISourceEventListener,
     IReusableComplexBufferListener, Listener<ReusableComplexBuffer>, IReusableByteBufferProvider
 {
+    private static final int DIBIT_BUFFER_CAPACITY = 1024;
     private double mSampleRate;
     private Broadcaster<Dibit> mDibitBroadcaster = new Broadcaster<>();
+    private DibitBufferAssembler mDibitBufferAssembler = new DibitBufferAssembler(DIBIT_BUFFER_CAPACITY);
+    private Broadcaster<DibitBuffer> mDibitBufferBroadcaster = new Broadcaster<>();
     private DibitToByteBufferAssembler mByteBufferAssembler = new DibitToByteBufferAssembler(300);
     private P25P2MessageProcessor mMessageProcessor;
     private double mSymbolRate;
@@ -51,17 +57,47 @@ public abstract class P25P2Decoder extends FeedbackDecoder implements ISourceEve
         mSymbolRate = symbolRate;
         mMessageProcessor = new P25P2MessageProcessor();
         mMessageProcessor.setMessageListener(getMessageListener());
-        getDibitBroadcaster().addListener(mByteBufferAssembler);
+        mDibitBufferAssembler.setListener(mDibitBufferBroadcaster);
+        getDibitBroadcaster().addListener(mDibitBufferAssembler);
+        getDibitBufferBroadcaster().addListener(mByteBufferAssembler.getDibitBufferListener());
     }
 
     /**
-     * Assembler for packaging Dibit stream into reusable byte buffers.
+     * Symbol listener for the demodulator.  Delegates to the dibit broadcaster.
+     */
+    protected Listener<Dibit> getDibitListener()
+    {
+        return mDibitBroadcaster;
+    }
+
+    /**
+     * Broadcaster for each dibit produced by the demodulator.  Message framers register here so that sync detection
+     * and the resulting PLL/symbol inversion corrections are applied on the symbol where they occur.  Dibits are also
+     * accumulated into dibit buffers for the dibit buffer broadcaster.
      */
     protected Broadcaster<Dibit> getDibitBroadcaster()
     {
         return mDibitBroadcaster;
     }
 
+    /**
+     * Broadcaster for dibit buffers produced by the demodulator.  The byte buffer assembler registers here to receive
+     * dibits in bulk.
+     */
+    protected Broadcaster<DibitBuffer> getDibitBufferBroadcaster()
+    {
+        return mDibitBufferBroadcaster;
+    }
+
+    /**
+     * Delivers any dibits accumulated from the demodulator to the dibit buffer broadcaster.  Sub-classes should invoke
+     * this method after the demodulator has processed each incoming sample buffer.
+     */
+    protected void flushDibits()
+    {
+        mDibitBufferAssembler.flush();
+    }
+
     /**
      * Implements the IByteBufferProvider interface - delegates to the byte buffer assembler
      */
@@ -124,6 +160,15 @@ public abstract class P25P2Decoder extends FeedbackDecoder implements ISourceEve
         return (float)(getSampleRate() / getSymbolRate());
     }
 
+    /**
+     * Sets the network state that is shared with the other channels of the same network so that frequency bands
+     * learned by any of the channels can be used to resolve channel numbers.
+     */
+    public void setNetworkState(P25NetworkState networkState)
+    {
+        mMessageProcessor.setNetworkState(networkState);
+    }
+
     public void dispose()
     {
         super.dispose();
@@ -105,7 +105,7 @@ public class P25P2DecoderHDQPSK extends P25P2Decoder implements IdentifierUpdate
         mMessageFramer.setListener(getMessageProcessor());
         mMessageFramer.setSampleRate(sampleRate);
 
-        mQPSKDemodulator.setSymbolListener(getDibitBroadcaster());
+        mQPSKDemodulator.setSymbolListener(getDibitListener());
         getDibitBroadcaster().addListener(mMessageFramer);
     }
 
@@ -126,6 +126,7 @@ public class P25P2DecoderHDQPSK extends P25P2Decoder implements IdentifierUpdate
 
         //User accounting of the filtered buffer is handled by the demodulator
         mQPSKDemodulator.receive(gainApplied);
+        flushDibits();
     }
 
     /**
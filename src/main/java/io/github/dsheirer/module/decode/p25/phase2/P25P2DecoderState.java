@@ -41,6 +41,8 @@ import io.github.dsheirer.module.decode.DecoderType;
 import io.github.dsheirer.module.decode.event.DecodeEvent;
 import io.github.dsheirer.module.decode.event.DecodeEventType;
 import io.github.dsheirer.module.decode.p25.P25DecodeEvent;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
+import io.github.dsheirer.module.decode.p25.P25NetworkStateManager;
 import io.github.dsheirer.module.decode.p25.identifier.channel.APCO25Channel;
 import io.github.dsheirer.module.decode.p25.identifier.radio.APCO25RadioIdentifier;
 import io.github.dsheirer.module.decode.p25.identifier.talkgroup.APCO25Talkgroup;
@@ -100,8 +102,8 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
     private final static Logger mLog = LoggerFactory.getLogger(P25P2DecoderState.class);
     private static int SYSTEM_CONTROLLER = 0xFFFFFF;
     private ChannelType mChannelType;
-    private PatchGroupManager mPatchGroupManager = new PatchGroupManager();
-    private P25P2NetworkConfigurationMonitor mNetworkConfigurationMonitor = new P25P2NetworkConfigurationMonitor();
+    private P25NetworkState mNetworkState;
+    private P25P2NetworkConfigurationMonitor mNetworkConfigurationMonitor;
     private DecodeEvent mCurrentCallEvent;
     private int mEndPttOnFacchCounter = 0;
 
@@ -113,6 +115,16 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
     {
         super(timeslot);
         mChannelType = channel.getChannelType();
+        mNetworkState = P25NetworkStateManager.getInstance().getNetworkState(channel);
+        mNetworkConfigurationMonitor = new P25P2NetworkConfigurationMonitor(mNetworkState);
+    }
+
+    /**
+     * Patch group manager for the system, shared with the other channels of the same network
+     */
+    private PatchGroupManager getPatchGroupManager()
+    {
+        return mNetworkState.getPatchGroupManager();
     }
 
     /**
@@ -239,7 +251,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                 for(Identifier identifier : mac.getIdentifiers())
                 {
                     //Add to the identifier collection after filtering through the patch group manager
-                    getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                    getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                 }
 
                 PushToTalk ptt = (PushToTalk)mac;
@@ -271,7 +283,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                                     //Group call End PTT uses a FROM value of 0xFFFFFF - don't overwrite the correct id
                                     if(value != SYSTEM_CONTROLLER)
                                     {
-                                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                                     }
                                 }
                             }
@@ -284,13 +296,13 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                                     //Individual call End PTT uses a TO value of 0 - don't overwrite the correct id
                                     if(value != 0)
                                     {
-                                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                                     }
                                 }
                             }
                             else
                             {
-                                getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                                getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                             }
                         }
                     }
@@ -337,7 +349,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
                 }
                 else
@@ -345,7 +357,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
 
                     if(mac instanceof GroupVoiceChannelUserAbbreviated)
@@ -371,7 +383,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
                 }
                 else
@@ -379,7 +391,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
 
                     if(mac instanceof GroupVoiceChannelUserExtended)
@@ -405,7 +417,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
                 }
                 else
@@ -413,7 +425,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
 
                     if(mac instanceof UnitToUnitVoiceChannelUserAbbreviated)
@@ -439,7 +451,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
                 }
                 else
@@ -447,7 +459,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
 
                     if(mac instanceof UnitToUnitVoiceChannelUserExtended)
@@ -473,7 +485,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
                 }
                 else
@@ -481,7 +493,7 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                     for(Identifier identifier : mac.getIdentifiers())
                     {
                         //Add to the identifier collection after filtering through the patch group manager
-                        getIdentifierCollection().update(mPatchGroupManager.update(identifier));
+                        getIdentifierCollection().update(getPatchGroupManager().update(identifier));
                     }
 
                     if(mac instanceof TelephoneInterconnectVoiceChannelUser)
@@ -1251,6 +1263,12 @@ public class P25P2DecoderState extends TimeslotDecoderState implements Identifie
                 case RESET:
                     resetState();
                     mNetworkConfigurationMonitor.reset();
+
+                    //Only the owning control channel resets the network state that is shared with its traffic channels
+                    if(mChannelType == ChannelType.STANDARD)
+                    {
+                        mNetworkState.reset();
+                    }
                     break;
                 default:
                     break;
@@ -24,6 +24,7 @@ package io.github.dsheirer.module.decode.p25.phase2;
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.SyncLossMessage;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBand;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBandReceiver;
 import io.github.dsheirer.module.decode.p25.phase2.message.EncryptionSynchronizationSequence;
@@ -39,8 +40,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 public class P25P2MessageProcessor implements Listener<IMessage>
 {
@@ -50,14 +49,24 @@ public class P25P2MessageProcessor implements Listener<IMessage>
     private EncryptionSynchronizationSequenceProcessor mESSProcessor1 = new EncryptionSynchronizationSequenceProcessor(1);
     private Listener<IMessage> mMessageListener;
 
-    //Map of up to 16 band identifiers per RFSS.  These identifier update messages are inserted into any message that
-    // conveys channel information so that the uplink/downlink frequencies can be calculated
-    private Map<Integer,IFrequencyBand> mFrequencyBandMap = new TreeMap<Integer,IFrequencyBand>();
+    //Frequency bands (up to 16 band identifiers per site) shared with the other channels of the same network.  Band
+    //identifier update messages are inserted into any message that conveys channel information so that the
+    //uplink/downlink frequencies can be calculated
+    private P25NetworkState mNetworkState = new P25NetworkState();
 
     public P25P2MessageProcessor()
     {
     }
 
+    /**
+     * Sets the network state used to store and resolve frequency bands.  The network state is shared by the control
+     * and traffic channels of the same network.
+     */
+    public void setNetworkState(P25NetworkState networkState)
+    {
+        mNetworkState = networkState;
+    }
+
     @Override
     public void receive(IMessage message)
     {
@@ -88,9 +97,11 @@ public class P25P2MessageProcessor implements Listener<IMessage>
 
                                     for(int id : frequencyBandIdentifiers)
                                     {
-                                        if(mFrequencyBandMap.containsKey(id))
+                                        IFrequencyBand band = mNetworkState.getFrequencyBand(id);
+
+                                        if(band != null)
                                         {
-                                            channel.setFrequencyBand(mFrequencyBandMap.get(id));
+                                            channel.setFrequencyBand(band);
                                         }
                                     }
                                 }
@@ -101,7 +112,7 @@ public class P25P2MessageProcessor implements Listener<IMessage>
                             if(macMessage instanceof IFrequencyBand)
                             {
                                 IFrequencyBand bandIdentifier = (IFrequencyBand)macMessage;
-                                mFrequencyBandMap.put(bandIdentifier.getIdentifier(), bandIdentifier);
+                                mNetworkState.addFrequencyBand(bandIdentifier);
                             }
 
                             mMessageListener.receive(macMessage);
@@ -24,6 +24,7 @@ package io.github.dsheirer.module.decode.p25.phase2;
 
 import io.github.dsheirer.channel.IChannelDescriptor;
 import io.github.dsheirer.identifier.Identifier;
+import io.github.dsheirer.module.decode.p25.P25NetworkState;
 import io.github.dsheirer.module.decode.p25.phase1.message.IFrequencyBand;
 import io.github.dsheirer.module.decode.p25.phase2.message.mac.MacMessage;
 import io.github.dsheirer.module.decode.p25.phase2.message.mac.MacStructure;
@@ -44,7 +45,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -52,13 +52,16 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 
 /**
- * Tracks the network configuration details of a P25 Phase 2 network from the broadcast messages
+ * Tracks the network configuration details of a P25 Phase 2 network from the broadcast messages.
+ *
+ * Frequency bands and neighbor sites are stored in the network state that is shared with the other channels of the
+ * same network, while the current site details are tracked by this monitor.
  */
 public class P25P2NetworkConfigurationMonitor
 {
     private final static Logger mLog = LoggerFactory.getLogger(P25P2NetworkConfigurationMonitor.class);
 
-    private Map<Integer,IFrequencyBand> mFrequencyBandMap = new HashMap<>();
+    private P25NetworkState mNetworkState;
 
     //Network Status Messages
     private NetworkStatusBroadcastAbbreviated mNetworkStatusBroadcastAbbreviated;
@@ -74,15 +77,14 @@ public class P25P2NetworkConfigurationMonitor
     //Current Site Services
     private SystemServiceBroadcast mSystemServiceBroadcast;
 
-    //Neighbor Sites
-    private Map<Integer,AdjacentStatusBroadcastAbbreviated> mNeighborSitesAbbreviated = new HashMap<>();
-    private Map<Integer,AdjacentStatusBroadcastExtended> mNeighborSitesExtended = new HashMap<>();
-
     /**
      * Constructs an instance.
+     *
+     * @param networkState shared with the other channels of the same network
      */
-    public P25P2NetworkConfigurationMonitor()
+    public P25P2NetworkConfigurationMonitor(P25NetworkState networkState)
     {
+        mNetworkState = networkState;
     }
 
     /**
@@ -124,15 +126,13 @@ public class P25P2NetworkConfigurationMonitor
             case PHASE1_115_IDENTIFIER_UPDATE_TDMA:
                 if(mac instanceof FrequencyBandUpdateTDMA)
                 {
-                    FrequencyBandUpdateTDMA tdma = (FrequencyBandUpdateTDMA)mac;
-                    mFrequencyBandMap.put(tdma.getIdentifier(), tdma);
+                    mNetworkState.addFrequencyBand((FrequencyBandUpdateTDMA)mac);
                 }
                 break;
             case PHASE1_116_IDENTIFIER_UPDATE_V_UHF:
                 if(mac instanceof FrequencyBandUpdateVUHF)
                 {
-                    FrequencyBandUpdateVUHF vhf = (FrequencyBandUpdateVUHF)mac;
-                    mFrequencyBandMap.put(vhf.getIdentifier(), vhf);
+                    mNetworkState.addFrequencyBand((FrequencyBandUpdateVUHF)mac);
                 }
                 break;
             case PHASE1_120_SYSTEM_SERVICE_BROADCAST:
@@ -162,20 +162,22 @@ public class P25P2NetworkConfigurationMonitor
                 if(mac instanceof NetworkStatusBroadcastAbbreviated)
                 {
                     mNetworkStatusBroadcastAbbreviated = (NetworkStatusBroadcastAbbreviated)mac;
+                    mNetworkState.setSystem(mNetworkStatusBroadcastAbbreviated.getWACN(),
+                        mNetworkStatusBroadcastAbbreviated.getSystem());
                 }
                 break;
             case PHASE1_124_ADJACENT_STATUS_BROADCAST_ABBREVIATED:
                 if(mac instanceof AdjacentStatusBroadcastAbbreviated)
                 {
                     AdjacentStatusBroadcastAbbreviated asba = (AdjacentStatusBroadcastAbbreviated)mac;
-                    mNeighborSitesAbbreviated.put((int)asba.getSite().getValue(), asba);
+                    mNetworkState.getNeighborSites(AdjacentStatusBroadcastAbbreviated.class)
+                        .put((int)asba.getSite().getValue(), asba);
                 }
                 break;
             case PHASE1_125_IDENTIFIER_UPDATE:
                 if(mac instanceof FrequencyBandUpdate)
                 {
-                    FrequencyBandUpdate band = (FrequencyBandUpdate)mac;
-                    mFrequencyBandMap.put(band.getIdentifier(), band);
+                    mNetworkState.addFrequencyBand((FrequencyBandUpdate)mac);
                 }
                 break;
             case PHASE1_233_SECONDARY_CONTROL_CHANNEL_BROADCAST_EXPLICIT:
@@ -199,29 +201,33 @@ public class P25P2NetworkConfigurationMonitor
                 if(mac instanceof NetworkStatusBroadcastExtended)
                 {
                     mNetworkStatusBroadcastExtended = (NetworkStatusBroadcastExtended)mac;
+                    mNetworkState.setSystem(mNetworkStatusBroadcastExtended.getWACN(),
+                        mNetworkStatusBroadcastExtended.getSystem());
                 }
                 break;
             case PHASE1_252_ADJACENT_STATUS_BROADCAST_EXTENDED:
                 if(mac instanceof AdjacentStatusBroadcastExtended)
                 {
                     AdjacentStatusBroadcastExtended asbe = (AdjacentStatusBroadcastExtended)mac;
-                    mNeighborSitesExtended.put((int)asbe.getSite().getValue(), asbe);
+                    mNetworkState.getNeighborSites(AdjacentStatusBroadcastExtended.class)
+                        .put((int)asbe.getSite().getValue(), asbe);
                 }
                 break;
         }
     }
 
+    /**
+     * Resets the current site details tracked by this monitor.  Frequency bands and neighbor sites are held in the
+     * shared network state and are not affected.
+     */
     public void reset()
     {
-        mFrequencyBandMap.clear();
         mNetworkStatusBroadcastAbbreviated = null;
         mNetworkStatusBroadcastExtended = null;
         mRFSSStatusBroadcastAbbreviated = null;
         mRFSSStatusBroadcastExtended = null;
         mSecondaryControlChannels.clear();
         mSystemServiceBroadcast = null;
-        mNeighborSitesAbbreviated.clear();
-        mNeighborSitesExtended.clear();
     }
 
     public String getActivitySummary()
@@ -302,9 +308,13 @@ public class P25P2NetworkConfigurationMonitor
 
 
         sb.append("\nNeighbor Sites\n");
+        Map<Integer,AdjacentStatusBroadcastAbbreviated> neighborSitesAbbreviated =
+            mNetworkState.getNeighborSites(AdjacentStatusBroadcastAbbreviated.class);
+        Map<Integer,AdjacentStatusBroadcastExtended> neighborSitesExtended =
+            mNetworkState.getNeighborSites(AdjacentStatusBroadcastExtended.class);
         Set<Integer> sites = new TreeSet<>();
-        sites.addAll(mNeighborSitesAbbreviated.keySet());
-        sites.addAll(mNeighborSitesExtended.keySet());
+        sites.addAll(neighborSitesAbbreviated.keySet());
+        sites.addAll(neighborSitesExtended.keySet());
 
         if(sites.isEmpty())
         {
@@ -317,9 +327,9 @@ public class P25P2NetworkConfigurationMonitor
 
             for(Integer site : sitesSorted)
             {
-                if(mNeighborSitesAbbreviated.containsKey(site))
+                if(neighborSitesAbbreviated.containsKey(site))
                 {
-                    AdjacentStatusBroadcastAbbreviated asb = mNeighborSitesAbbreviated.get(site);
+                    AdjacentStatusBroadcastAbbreviated asb = neighborSitesAbbreviated.get(site);
                     sb.append("  SYSTEM:").append(format(asb.getSystem(), 3));
                     sb.append(" RFSS:").append(format(asb.getRFSS(), 2));
                     sb.append(" SITE:").append(format(asb.getSite(), 2));
@@ -329,9 +339,9 @@ public class P25P2NetworkConfigurationMonitor
                     sb.append(" UPLINK:").append(asb.getChannel().getUplinkFrequency());
                     sb.append(" STATUS:").append(asb.getSiteFlags()).append("\n");
                 }
-                else if(mNeighborSitesAbbreviated.containsKey(site))
+                else if(neighborSitesAbbreviated.containsKey(site))
                 {
-                    AdjacentStatusBroadcastAbbreviated asb = mNeighborSitesAbbreviated.get(site);
+                    AdjacentStatusBroadcastAbbreviated asb = neighborSitesAbbreviated.get(site);
                     sb.append("  SYSTEM:").append(format(asb.getSystem(), 3));
                     sb.append(" RFSS:").append(format(asb.getRFSS(), 2));
                     sb.append(" SITE:").append(format(asb.getSite(), 2));
@@ -349,18 +359,20 @@ public class P25P2NetworkConfigurationMonitor
         }
 
         sb.append("\nFrequency Bands\n");
-        if(mFrequencyBandMap.isEmpty())
+        Map<Integer,IFrequencyBand> frequencyBands = mNetworkState.getFrequencyBands();
+
+        if(frequencyBands.isEmpty())
         {
             sb.append("  UNKNOWN");
         }
         else
         {
-            List<Integer> ids = new ArrayList<>(mFrequencyBandMap.keySet());
+            List<Integer> ids = new ArrayList<>(frequencyBands.keySet());
             Collections.sort(ids);
             {
                 for(Integer id : ids)
                 {
-                    sb.append("  ").append(formatFrequencyBand(mFrequencyBandMap.get(id))).append("\n");
+                    sb.append("  ").append(formatFrequencyBand(frequencyBands.get(id))).append("\n");
                 }
             }
         }
@@ -24,6 +24,8 @@ package io.github.dsheirer.module.decode.p25.phase2.enumeration;
 
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
 
+import java.util.Objects;
+
 /**
  * APCO25 Linear Feedback Shift Register (LFSR) seed parameters.
  */
@@ -101,6 +103,29 @@ public class ScrambleParameters
         return new ScrambleParameters(mWacn, mSystem, mNac);
     }
 
+    @Override
+    public boolean equals(Object o)
+    {
+        if(this == o)
+        {
+            return true;
+        }
+
+        if(!(o instanceof ScrambleParameters))
+        {
+            return false;
+        }
+
+        ScrambleParameters other = (ScrambleParameters)o;
+        return mWacn == other.mWacn && mSystem == other.mSystem && mNac == other.mNac;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(mWacn, mSystem, mNac);
+    }
+
     @Override
     public String toString()
     {
@@ -22,8 +22,6 @@
 
 package io.github.dsheirer.module.decode.p25.phase2.timeslot;
 
-import io.github.dsheirer.bits.BinaryMessage;
-import io.github.dsheirer.bits.BitSetFullException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,9 +43,6 @@ public class LinearFeedbackShiftRegister
 
     private boolean mCurrentOutput;
     private long mRegisters;
-    private int mWacn;
-    private int mSystem;
-    private int mNac;
 
     /**
      * Constructs an APCO25 Phase II external LFSR generator equivalent to
@@ -59,10 +54,6 @@ public class LinearFeedbackShiftRegister
 
     public void updateSeed(int wacn, int system, int nac)
     {
-        mWacn = wacn;
-        mSystem = system;
-        mNac = nac;
-
         int temp = 0xFFFFF & 1;
         long tempShift = temp << 24;
 
@@ -79,45 +70,30 @@ public class LinearFeedbackShiftRegister
     }
 
     /**
-     * Indicates if the shift register is currently configured for the argument values (and doesn't need updating).
-     *
-     * @param wacn value
-     * @param system value
-     * @param nac value
-     * @return true if the argument values match the current shift register configuration
-     */
-    public boolean isCurrent(int wacn, int system, int nac)
-    {
-        return mWacn == wacn && mSystem == system && mNac == nac;
-    }
-
-    /**
-     * Generates a 4320 bit (de)scrambling sequence for APCO25 Phase II channel superframe.
+     * Generates a 4320 bit (de)scrambling sequence for APCO25 Phase II channel superframe, packed into 64-bit words
+     * using the same little-endian bit order as java.util.BitSet so that the words can be loaded via BitSet.valueOf()
+     * without reordering.
      *
      * @param wacn for the network from the Network Status Broadcast message.
      * @param system for the network from the Network Status Broadcast message.
      * @param nac or color code for the network from the Network Status Broadcast message.
-     * @return scrambling sequence in a binary message
+     * @return scrambling sequence packed as 68 x 64-bit words
      */
-    public BinaryMessage generateScramblingSequence(int wacn, int system, int nac)
+    public long[] generateScramblingWords(int wacn, int system, int nac)
     {
         updateSeed(wacn, system, nac);
 
-        BinaryMessage sequence = new BinaryMessage(4320);
+        long[] words = new long[(4320 + 63) / 64];
 
-        try
+        for(int x = 0; x < 4320; x++)
         {
-            for(int x = 0; x < 4320; x++)
+            if(next())
             {
-                sequence.add(next());
+                words[x >>> 6] |= (1l << (x & 63));
             }
         }
-        catch(BitSetFullException e)
-        {
-            //This shouldn't happen
-        }
 
-        return sequence;
+        return words;
     }
 
     /**
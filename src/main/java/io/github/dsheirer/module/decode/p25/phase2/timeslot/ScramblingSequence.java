@@ -27,29 +27,42 @@ import io.github.dsheirer.module.decode.p25.phase2.enumeration.ScrambleParameter
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * APCO-25 Phase II scrambling sequence utility that provides scrambling sequence snippets for each of the 12 timeslots
  * in a 12-timeslot super frame.
+ *
+ * Generated sequences are held in a process-wide cache keyed by the scramble parameters so that each traffic channel
+ * that starts on the same WACN/SYSTEM/NAC reuses the segments generated for the control channel instead of running
+ * the LFSR again.  Cached segments are shared across decoders and must be treated as read-only.
  */
 public class ScramblingSequence
 {
     private final static Logger mLog = LoggerFactory.getLogger(ScramblingSequence.class);
+    private static final int TIMESLOT_COUNT = 12;
+    private static final int TIMESLOT_LENGTH = 320;
+    private static final BinaryMessage[] UNSCRAMBLED_SEGMENTS = new BinaryMessage[TIMESLOT_COUNT];
+    private static final Map<ScrambleParameters,BinaryMessage[]> SEGMENT_CACHE = new ConcurrentHashMap<>();
 
-    private LinearFeedbackShiftRegister mShiftRegister = new LinearFeedbackShiftRegister();
-    private List<BinaryMessage> mScramblingSegments = new ArrayList<>();
+    static
+    {
+        for(int x = 0; x < TIMESLOT_COUNT; x++)
+        {
+            UNSCRAMBLED_SEGMENTS[x] = new BinaryMessage(TIMESLOT_LENGTH);
+        }
+    }
+
+    private ScrambleParameters mParameters = new ScrambleParameters(0, 0, 0);
+    private volatile BinaryMessage[] mScramblingSegments = UNSCRAMBLED_SEGMENTS;
 
     /**
      * Constructs an instance
      */
     public ScramblingSequence()
     {
-        for(int x = 0; x < 12; x++)
-        {
-            mScramblingSegments.add(new BinaryMessage(320));
-        }
     }
 
     /**
@@ -65,27 +78,46 @@ public class ScramblingSequence
 
     /**
      * Updates this scrambling sequence with the specified parameters from the Network Broadcast Status message and
-     * generates 12 x 320-bit scrambling sequences for each of the superframe's 12 timeslots.
+     * loads the 12 x 320-bit scrambling sequences for each of the superframe's 12 timeslots from the cache, generating
+     * them on first use.
      */
     public void update(int wacn, int system, int nac)
     {
-        if(!mShiftRegister.isCurrent(wacn, system, nac))
+        ScrambleParameters parameters = new ScrambleParameters(wacn, system, nac);
+
+        if(!parameters.equals(mParameters))
         {
-            mScramblingSegments.clear();
+            mParameters = parameters;
+            mScramblingSegments = SEGMENT_CACHE.computeIfAbsent(parameters, ScramblingSequence::generate);
+        }
+    }
+
+    /**
+     * Generates the timeslot scrambling segments for the specified parameters.
+     */
+    private static BinaryMessage[] generate(ScrambleParameters parameters)
+    {
+        long[] words = new LinearFeedbackShiftRegister().generateScramblingWords(parameters.getWACN(),
+            parameters.getSystem(), parameters.getNAC());
+        BitSet sequence = BitSet.valueOf(words);
 
-            BinaryMessage scramblingSequence = mShiftRegister.generateScramblingSequence(wacn, system, nac);
+        BinaryMessage[] segments = new BinaryMessage[TIMESLOT_COUNT];
 
-            //Note: the scrambling sequence starts at halfway through the first ISCH of the superframe, so we start
-            //chopping the LFSR sequence using 320 of each 360 bits starting at bit 20 of 40 of the first ISCH.
-            for(int x = 20; x < 4320; x += 360)
-            {
-                mScramblingSegments.add(scramblingSequence.getSubMessage(x, x + 320));
-            }
+        //Note: the scrambling sequence starts at halfway through the first ISCH of the superframe, so we start
+        //chopping the LFSR sequence using 320 of each 360 bits starting at bit 20 of 40 of the first ISCH.
+        for(int x = 0; x < TIMESLOT_COUNT; x++)
+        {
+            int start = 20 + (x * 360);
+            segments[x] = new BinaryMessage(sequence.get(start, start + TIMESLOT_LENGTH), TIMESLOT_LENGTH);
         }
+
+        return segments;
     }
 
     /**
-     * Accesses the scrambling sequence for the specified timeslot index
+     * Accesses the scrambling sequence for the specified timeslot index.  The returned sequence is shared with other
+     * decoders and must not be modified.
+     *
      * @param timeslot 0 - 11
      * @return scrambling sequence (320-bits) for the specified timeslot
      */
@@ -93,7 +125,7 @@ public class ScramblingSequence
     {
         if(0 <= timeslot && timeslot <= 11)
         {
-            return mScramblingSegments.get(timeslot);
+            return mScramblingSegments[timeslot];
         }
 
         throw new IllegalArgumentException("Unrecognized timeslot index: " + timeslot);
@@ -19,7 +19,7 @@
  */
 package io.github.dsheirer.module.decode.passport;
 
-import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
 import io.github.dsheirer.bits.SyncPattern;
 import io.github.dsheirer.dsp.fsk.LTRDecoder;
 import io.github.dsheirer.module.decode.Decoder;
@@ -34,7 +34,7 @@ public class PassportDecoder extends Decoder implements IReusableBufferListener,
     public static final int PASSPORT_MESSAGE_LENGTH = 68;
 
     private LTRDecoder mLTRDecoder;
-    private MessageFramer mPassportMessageFramer;
+    private PackedMessageFramer mPassportMessageFramer;
     private PassportMessageProcessor mPassportMessageProcessor;
 
     /**
@@ -45,7 +45,7 @@ public class PassportDecoder extends Decoder implements IReusableBufferListener,
     {
         mLTRDecoder = new LTRDecoder(PASSPORT_MESSAGE_LENGTH);
 
-        mPassportMessageFramer = new MessageFramer(SyncPattern.PASSPORT.getPattern(), PASSPORT_MESSAGE_LENGTH);
+        mPassportMessageFramer = new PackedMessageFramer(SyncPattern.PASSPORT.getPattern(), PASSPORT_MESSAGE_LENGTH);
 
         mLTRDecoder.setMessageFramer(mPassportMessageFramer);
         mPassportMessageFramer.setSyncDetectListener(mLTRDecoder);
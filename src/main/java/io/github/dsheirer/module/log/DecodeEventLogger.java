@@ -20,6 +20,7 @@
  *
  */
 package io.github.dsheirer.module.log;
+import io.github.dsheirer.alias.Alias;
 import io.github.dsheirer.alias.AliasList;
 import io.github.dsheirer.alias.AliasModel;
 import io.github.dsheirer.channel.IChannelDescriptor;
@@ -36,6 +37,7 @@ import io.github.dsheirer.sample.Listener;
 
 import java.nio.file.Path;
 import java.text.DecimalFormat;
+import java.text.FieldPosition;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
@@ -46,6 +48,10 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
     private DecimalFormat mFrequencyFormat = new DecimalFormat("0.000000");
     private AliasList mAliasList;
     private AliasModel mAliasModel;
+    private StringBuilder mStringBuilder = new StringBuilder(256);
+    private StringBuffer mFormatBuffer = new StringBuffer(32);
+    private FieldPosition mFieldPosition = new FieldPosition(0);
+    private Date mDate = new Date();
 
     public DecodeEventLogger(AliasModel aliasModel, Path logDirectory, String fileNameSuffix, long frequency)
     {
@@ -54,9 +60,9 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
     }
 
     @Override
-    public void receive(IDecodeEvent decodeEvent)
+    public synchronized void receive(IDecodeEvent decodeEvent)
     {
-                write(toCSV(decodeEvent));
+        write(toCSV(decodeEvent));
     }
 
     @Override
@@ -87,13 +93,27 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
         return "TIMESTAMP,DURATION_MS,PROTOCOL,EVENT,FROM,TO,CHANNEL_NUMBER,FREQUENCY,TIMESLOT,DETAILS";
     }
 
+    /**
+     * Formats the event as a CSV entry.  The entry is formatted into this logger's reusable string builder and format
+     * buffer so that the only object created per event is the entry string handed to the event log writer.
+     */
     private String toCSV(IDecodeEvent event)
     {
+        StringBuilder sb = mStringBuilder;
+        sb.setLength(0);
 
-        StringBuilder sb = new StringBuilder();
+        mDate.setTime(event.getTimeStart());
+        mFormatBuffer.setLength(0);
+        mTimestampFormat.format(mDate, mFormatBuffer, mFieldPosition);
+        sb.append("\"").append(mFormatBuffer).append("\"");
+
+        sb.append(",\"");
+        if(event.getDuration() > 0)
+        {
+            sb.append(event.getDuration());
+        }
+        sb.append("\"");
 
-        sb.append("\"").append(mTimestampFormat.format(new Date(event.getTimeStart()))).append("\"");
-        sb.append(",\"").append(event.getDuration() > 0 ? event.getDuration() : "").append("\"");
         sb.append(",\"").append(event.getProtocol()).append("\"");
 
         String description = event.getEventDescription();
@@ -120,9 +140,14 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
 
             if(mAliasList != null)
             {
-                String mystring = (!mAliasList.getAliases(toIdentifiers.get(0)).isEmpty()) ?
-                    mAliasList.getAliases(toIdentifiers.get(0)).get(0).toString() : "";
-                sb.append(",\"").append(mystring).append(" (").append(toIdentifiers.get(0)).append(")\"");
+                List<Alias> aliases = mAliasList.getAliases(toIdentifiers.get(0));
+
+                sb.append(",\"");
+                if(!aliases.isEmpty())
+                {
+                    sb.append(aliases.get(0));
+                }
+                sb.append(" (").append(toIdentifiers.get(0)).append(")\"");
             }
             else
             {
@@ -136,15 +161,22 @@ public class DecodeEventLogger extends EventLogger implements IDecodeEventListen
 
         IChannelDescriptor descriptor = event.getChannelDescriptor();
 
-        sb.append(",\"").append(descriptor != null ? descriptor : "").append("\"");
+        sb.append(",\"");
+        if(descriptor != null)
+        {
+            sb.append(descriptor);
+        }
+        sb.append("\"");
 
         Identifier frequency = event.getIdentifierCollection()
             .getIdentifier(IdentifierClass.CONFIGURATION, Form.CHANNEL_FREQUENCY, Role.ANY);
 
         if(frequency instanceof FrequencyConfigurationIdentifier)
         {
-            sb.append(",\"").append(mFrequencyFormat
-                .format(((FrequencyConfigurationIdentifier)frequency).getValue() / 1e6d)).append("\"");
+            mFormatBuffer.setLength(0);
+            mFrequencyFormat.format(((FrequencyConfigurationIdentifier)frequency).getValue() / 1e6d, mFormatBuffer,
+                mFieldPosition);
+            sb.append(",\"").append(mFormatBuffer).append("\"");
         }
         else
         {
@@ -0,0 +1,378 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.metrics.PipelineMetrics;
+import io.github.dsheirer.util.TimeStamp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Event log file that is written asynchronously by the event log writer thread.
+ *
+ * Producers (decoder threads) enqueue entries into this file's ring buffer without blocking and without any disk
+ * access.  The writer thread drains the ring buffer in batches into a buffered stream that is written to disk when the
+ * batch buffer fills and flushed at least once per flush interval.  When the ring buffer is full because the disk
+ * can't keep up, new entries are discarded and counted as dropped.
+ *
+ * The file is rotated to a new file, named with the rotation timestamp, when the date changes and/or when the file
+ * exceeds the maximum size, according to the event log writer settings.  Rotated files are optionally gzip compressed.
+ * If the file can't be written or a rotated file can't be created, entries are dropped and a new file is opened on
+ * the next reopen interval.
+ */
+public class EventLogFile
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogFile.class);
+    private static final int BATCH_SIZE_BYTES = 64 * 1024;
+    private static final long DROP_REPORT_INTERVAL_MS = 60000;
+    private static final long REOPEN_INTERVAL_MS = 60000;
+
+    private final EventLogWriter mEventLogWriter;
+    private final EventLogRingBuffer mBuffer;
+    private final AtomicLong mDroppedCount = new AtomicLong();
+    private final int mWakeupThreshold;
+    private final Path mDirectory;
+    private final String mFileNameSuffix;
+    private final long mFrequency;
+    private final String mHeader;
+    private volatile String mFileName;
+    private volatile boolean mClosed;
+
+    //Accessed only by the writer thread after construction
+    private Writer mWriter;
+    private LocalDate mDate;
+    private long mSize;
+    private boolean mDirty;
+    private long mLastFlush;
+    private long mLastDropReport;
+    private long mReportedDropCount;
+    private long mMetricsDropCount;
+    private long mLastOpenAttempt;
+
+    /**
+     * Constructs an instance and creates the log file.  Use EventLogWriter.open() to create an event log file.
+     *
+     * @param eventLogWriter that writes this file
+     * @param directory for the log file
+     * @param fileNameSuffix appended to the timestamp and frequency to create the log file name
+     * @param frequency of the channel
+     * @param header written at the start of the file and at the start of each rotated file
+     * @throws IOException if the log file can't be created
+     */
+    EventLogFile(EventLogWriter eventLogWriter, Path directory, String fileNameSuffix, long frequency, String header)
+        throws IOException
+    {
+        mEventLogWriter = eventLogWriter;
+        mBuffer = new EventLogRingBuffer(eventLogWriter.getBufferSize());
+        mWakeupThreshold = mBuffer.getCapacity() / 2;
+        mDirectory = directory;
+        mFileNameSuffix = fileNameSuffix;
+        mFrequency = frequency;
+        mHeader = header;
+        mLastFlush = System.currentTimeMillis();
+        mLastDropReport = mLastFlush;
+        open();
+    }
+
+    /**
+     * Current log file name
+     */
+    public String getFileName()
+    {
+        return mFileName;
+    }
+
+    /**
+     * Number of entries discarded because the ring buffer was full or the file could not be written
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.get();
+    }
+
+    /**
+     * Enqueues the entry to be written to the log file, followed by a new line.  Does not block.
+     *
+     * @param entry to write
+     */
+    public void write(String entry)
+    {
+        if(mClosed)
+        {
+            return;
+        }
+
+        if(!mBuffer.offer(entry != null ? entry : ""))
+        {
+            mDroppedCount.incrementAndGet();
+            mEventLogWriter.wakeup();
+        }
+        else if(mBuffer.size() >= mWakeupThreshold)
+        {
+            mEventLogWriter.wakeup();
+        }
+    }
+
+    /**
+     * Closes this log file.  Entries already enqueued are written and the file is closed by the writer thread.
+     */
+    public void close()
+    {
+        mClosed = true;
+        mEventLogWriter.wakeup();
+    }
+
+    /**
+     * Drains enqueued entries to the log file, rotating the file and flushing as needed.  Invoked by the writer thread.
+     *
+     * @param now current time in milliseconds
+     * @param today current date
+     * @return true if this file is closed and fully written
+     */
+    boolean process(long now, LocalDate today)
+    {
+        //Read the closed flag before draining so that all entries enqueued prior to close are written
+        boolean closed = mClosed;
+
+        if(mWriter == null)
+        {
+            if(!closed && now - mLastOpenAttempt >= REOPEN_INTERVAL_MS)
+            {
+                reopen();
+            }
+        }
+        else if(mEventLogWriter.isRotateDaily() && !today.equals(mDate))
+        {
+            rotate();
+        }
+
+        long maximumSize = mEventLogWriter.getRotateSize();
+        long written = 0;
+        long failed = 0;
+        String entry = mBuffer.poll();
+
+        while(entry != null)
+        {
+            if(mWriter != null && append(entry))
+            {
+                written++;
+
+                if(maximumSize > 0 && mSize >= maximumSize)
+                {
+                    rotate();
+                }
+            }
+            else
+            {
+                failed++;
+            }
+
+            entry = mBuffer.poll();
+        }
+
+        if(mDirty && (closed || now - mLastFlush >= mEventLogWriter.getFlushInterval()))
+        {
+            flush();
+            mLastFlush = now;
+        }
+
+        long dropped = (failed > 0 ? mDroppedCount.addAndGet(failed) : mDroppedCount.get());
+
+        if(written > 0 || dropped != mMetricsDropCount)
+        {
+            PipelineMetrics.getInstance().getEventLogMetrics().recordEntries(written, dropped - mMetricsDropCount);
+            mMetricsDropCount = dropped;
+        }
+
+        if(dropped != mReportedDropCount && (closed || now - mLastDropReport >= DROP_REPORT_INTERVAL_MS))
+        {
+            mLog.warn("Event log [" + mFileName + "] dropped [" + (dropped - mReportedDropCount) +
+                "] entries - disk writes are not keeping up with logged events");
+            mReportedDropCount = dropped;
+            mLastDropReport = now;
+        }
+
+        if(closed)
+        {
+            closeWriter();
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Writes the entry and a new line to the batch buffer
+     *
+     * @return true if successful
+     */
+    private boolean append(String entry)
+    {
+        try
+        {
+            mWriter.write(entry);
+            mWriter.write('\n');
+            mSize += entry.length() + 1;
+            mDirty = true;
+            return true;
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error writing entry to event log file [" + mFileName + "] - discarding entries until the " +
+                "log file is reopened", ioe);
+            closeWriter();
+            return false;
+        }
+    }
+
+    /**
+     * Flushes the batch buffer to disk
+     */
+    private void flush()
+    {
+        if(mWriter != null)
+        {
+            try
+            {
+                mWriter.flush();
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error flushing event log file [" + mFileName + "] - discarding entries until the log " +
+                    "file is reopened", ioe);
+                closeWriter();
+            }
+        }
+
+        mDirty = false;
+    }
+
+    /**
+     * Closes the current log file and opens a new log file.  The closed file is compressed when enabled.
+     */
+    private void rotate()
+    {
+        String previous = mFileName;
+
+        closeWriter();
+
+        if(mEventLogWriter.isCompress())
+        {
+            mEventLogWriter.compress(new File(previous).toPath());
+        }
+
+        try
+        {
+            open();
+            mLog.info("Rotated event log file [" + previous + "] to [" + mFileName + "]");
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Couldn't create rotated event log file in directory:" + mDirectory, ioe);
+        }
+    }
+
+    /**
+     * Opens a new log file after a failed write or a failed rotation
+     */
+    private void reopen()
+    {
+        try
+        {
+            open();
+            mLog.info("Reopened event log file [" + mFileName + "]");
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Couldn't reopen event log file in directory:" + mDirectory, ioe);
+        }
+    }
+
+    /**
+     * Creates a new log file named for the current time and writes the header
+     */
+    private void open() throws IOException
+    {
+        mLastOpenAttempt = System.currentTimeMillis();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(mDirectory);
+        sb.append(File.separator);
+        sb.append(TimeStamp.getLongTimeStamp("_"));
+        sb.append("_");
+        sb.append(mFrequency);
+        sb.append("_Hz_");
+
+        String prefix = sb.toString();
+        String fileName = prefix + mFileNameSuffix;
+
+        //Rotation can occur more than once per second when size limited
+        for(int x = 2; new File(fileName).exists(); x++)
+        {
+            fileName = prefix + x + "_" + mFileNameSuffix;
+        }
+
+        mLog.info("Creating log file:" + fileName);
+
+        mWriter = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(fileName), BATCH_SIZE_BYTES));
+        mFileName = fileName;
+        mDate = LocalDate.now();
+        mSize = 0;
+
+        if(!append(mHeader != null ? mHeader : ""))
+        {
+            throw new IOException("Couldn't write header to log file:" + fileName);
+        }
+    }
+
+    /**
+     * Flushes and closes the current log file
+     */
+    private void closeWriter()
+    {
+        if(mWriter != null)
+        {
+            try
+            {
+                mWriter.flush();
+                mWriter.close();
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Couldn't close log file:" + mFileName);
+            }
+
+            mWriter = null;
+            mDirty = false;
+        }
+    }
+}
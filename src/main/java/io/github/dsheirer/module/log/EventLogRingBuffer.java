@@ -0,0 +1,139 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free, multiple producer, single consumer ring buffer of event log entries.
+ *
+ * Producers claim a slot by advancing the tail position and publish the entry by advancing the slot's sequence
+ * number.  The single consumer (the event log writer thread) only reads a slot once its sequence number shows that the
+ * entry has been published, and releases the slot for reuse by advancing the sequence number by the capacity.  When
+ * the buffer is full, offer() fails immediately rather than blocking the producer.
+ */
+public class EventLogRingBuffer
+{
+    private final AtomicReferenceArray<String> mEntries;
+    private final AtomicLongArray mSequences;
+    private final AtomicLong mTail = new AtomicLong();
+    private final int mCapacity;
+    private final int mMask;
+    private volatile long mHead;
+
+    /**
+     * Constructs an instance
+     *
+     * @param capacity minimum number of entries, rounded up to the next power of two
+     */
+    public EventLogRingBuffer(int capacity)
+    {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+
+        mCapacity = size;
+        mMask = size - 1;
+        mEntries = new AtomicReferenceArray<>(size);
+        mSequences = new AtomicLongArray(size);
+
+        for(int x = 0; x < size; x++)
+        {
+            mSequences.set(x, x);
+        }
+    }
+
+    /**
+     * Capacity of this buffer
+     */
+    public int getCapacity()
+    {
+        return mCapacity;
+    }
+
+    /**
+     * Approximate number of entries currently held in this buffer
+     */
+    public int size()
+    {
+        return (int)Math.max(0, Math.min(mCapacity, mTail.get() - mHead));
+    }
+
+    /**
+     * Adds the entry to this buffer.  Safe for use by multiple producer threads.
+     *
+     * @param entry to add
+     * @return true if the entry was added or false if the buffer is full
+     */
+    public boolean offer(String entry)
+    {
+        long position = mTail.get();
+
+        while(true)
+        {
+            int index = (int)(position & mMask);
+            long difference = mSequences.get(index) - position;
+
+            if(difference == 0)
+            {
+                if(mTail.compareAndSet(position, position + 1))
+                {
+                    mEntries.set(index, entry);
+                    mSequences.set(index, position + 1);
+                    return true;
+                }
+
+                position = mTail.get();
+            }
+            else if(difference < 0)
+            {
+                return false;
+            }
+            else
+            {
+                position = mTail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the next entry from this buffer.  Must only be invoked by the single consumer thread.
+     *
+     * @return next entry or null if the buffer is empty or the next entry has not yet been published
+     */
+    public String poll()
+    {
+        long head = mHead;
+        int index = (int)(head & mMask);
+
+        if(mSequences.get(index) != head + 1)
+        {
+            return null;
+        }
+
+        String entry = mEntries.get(index);
+        mEntries.lazySet(index, null);
+        mSequences.set(index, head + mCapacity);
+        mHead = head + 1;
+        return entry;
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.module.log;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous event log writer.
+ *
+ * A single writer thread services all event log files.  Event loggers enqueue entries into a per-file lock-free ring
+ * buffer and the writer thread drains each buffer in batches, so decoder threads never block on, or issue a system
+ * call for, an event log entry.  Batches are written to disk when a file's batch buffer fills and are flushed at least
+ * once per flush interval.  The writer thread is woken early when a ring buffer reaches half capacity.
+ *
+ * System properties:
+ *   sdrtrunk.eventlog.buffer.size=N        entries buffered per event log file (default 8192)
+ *   sdrtrunk.eventlog.flush.ms=N           maximum interval between flushes to disk (default 1000)
+ *   sdrtrunk.eventlog.rotate.daily=BOOL    rotates event log files when the date changes (default true)
+ *   sdrtrunk.eventlog.rotate.size.mb=N     rotates event log files that exceed N megabytes (default 0 - disabled)
+ *   sdrtrunk.eventlog.gzip=BOOL            gzip compresses rotated event log files (default false)
+ */
+public class EventLogWriter implements Runnable
+{
+    private final static Logger mLog = LoggerFactory.getLogger(EventLogWriter.class);
+    public static final String BUFFER_SIZE_PROPERTY = "sdrtrunk.eventlog.buffer.size";
+    public static final String FLUSH_INTERVAL_PROPERTY = "sdrtrunk.eventlog.flush.ms";
+    public static final String ROTATE_DAILY_PROPERTY = "sdrtrunk.eventlog.rotate.daily";
+    public static final String ROTATE_SIZE_PROPERTY = "sdrtrunk.eventlog.rotate.size.mb";
+    public static final String GZIP_PROPERTY = "sdrtrunk.eventlog.gzip";
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final EventLogWriter INSTANCE = new EventLogWriter();
+
+    private final List<EventLogFile> mFiles = new CopyOnWriteArrayList<>();
+    private final Object mProcessLock = new Object();
+    private final int mBufferSize;
+    private final long mFlushInterval;
+    private final boolean mRotateDaily;
+    private final long mRotateSize;
+    private final boolean mCompress;
+    private volatile Thread mThread;
+    private volatile boolean mRunning;
+
+    /**
+     * Singleton constructor.  Use getInstance()
+     */
+    private EventLogWriter()
+    {
+        mBufferSize = Math.max(16, Integer.getInteger(BUFFER_SIZE_PROPERTY, 8192));
+        mFlushInterval = Math.max(0, Long.getLong(FLUSH_INTERVAL_PROPERTY, 1000));
+        mRotateDaily = Boolean.parseBoolean(System.getProperty(ROTATE_DAILY_PROPERTY, "true"));
+        mRotateSize = Math.max(0, Long.getLong(ROTATE_SIZE_PROPERTY, 0)) * 1024 * 1024;
+        mCompress = Boolean.getBoolean(GZIP_PROPERTY);
+    }
+
+    /**
+     * Shared event log writer
+     */
+    public static EventLogWriter getInstance()
+    {
+        return INSTANCE;
+    }
+
+    /**
+     * Creates a new event log file and registers it with the writer thread.  The file name is created from the log
+     * directory, the current timestamp, the frequency and the file name suffix.
+     *
+     * @param directory for the log file
+     * @param fileNameSuffix appended to the timestamp and frequency to create the log file name
+     * @param frequency of the channel
+     * @param header written at the start of the file and at the start of each rotated file
+     * @return event log file
+     * @throws IOException if the log file can't be created
+     */
+    public EventLogFile open(Path directory, String fileNameSuffix, long frequency, String header) throws IOException
+    {
+        EventLogFile eventLogFile = new EventLogFile(this, directory, fileNameSuffix, frequency, header);
+        mFiles.add(eventLogFile);
+        startThread();
+        return eventLogFile;
+    }
+
+    /**
+     * Total number of entries discarded by the currently open event log files
+     */
+    public long getDroppedCount()
+    {
+        long dropped = 0;
+
+        for(EventLogFile eventLogFile: mFiles)
+        {
+            dropped += eventLogFile.getDroppedCount();
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Closes all event log files, writes any enqueued entries and stops the writer thread
+     */
+    public void shutdown()
+    {
+        for(EventLogFile eventLogFile: mFiles)
+        {
+            eventLogFile.close();
+        }
+
+        Thread thread;
+
+        synchronized(this)
+        {
+            mRunning = false;
+            thread = mThread;
+            mThread = null;
+        }
+
+        if(thread != null)
+        {
+            LockSupport.unpark(thread);
+
+            try
+            {
+                thread.join(5000);
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //Write any files that were not serviced by the writer thread
+        process();
+    }
+
+    /**
+     * Starts the writer thread if it is not already running
+     */
+    private void startThread()
+    {
+        if(mThread != null)
+        {
+            return;
+        }
+
+        synchronized(this)
+        {
+            if(mThread == null)
+            {
+                mRunning = true;
+                mThread = new NamingThreadFactory("sdrtrunk event log").newThread(this);
+                mThread.setDaemon(true);
+                mThread.start();
+            }
+        }
+    }
+
+    /**
+     * Wakes the writer thread to drain the event log files
+     */
+    void wakeup()
+    {
+        Thread thread = mThread;
+
+        if(thread != null)
+        {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run()
+    {
+        while(mRunning)
+        {
+            process();
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+        }
+
+        process();
+    }
+
+    /**
+     * Drains each of the event log files and removes files that are closed and fully written
+     */
+    private void process()
+    {
+        synchronized(mProcessLock)
+        {
+            long now = System.currentTimeMillis();
+            LocalDate today = LocalDate.now();
+
+            for(EventLogFile eventLogFile: mFiles)
+            {
+                try
+                {
+                    if(eventLogFile.process(now, today))
+                    {
+                        mFiles.remove(eventLogFile);
+                    }
+                }
+                catch(Throwable t)
+                {
+                    mLog.error("Error while writing event log file [" + eventLogFile.getFileName() + "]", t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compresses the rotated log file using gzip on the application thread pool and deletes the original file
+     *
+     * @param path of the rotated log file
+     */
+    void compress(Path path)
+    {
+        ThreadPool.SCHEDULED.execute(() -> {
+            Path compressed = path.resolveSibling(path.getFileName() + ".gz");
+            Path temp = path.resolveSibling(path.getFileName() + ".gz.tmp");
+
+            try
+            {
+                try(InputStream in = Files.newInputStream(path);
+                    OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp)))
+                {
+                    in.transferTo(out);
+                }
+
+                Files.move(temp, compressed, StandardCopyOption.REPLACE_EXISTING);
+                Files.delete(path);
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Couldn't compress rotated event log file [" + path + "]", ioe);
+
+                try
+                {
+                    Files.deleteIfExists(temp);
+                }
+                catch(IOException ioe2)
+                {
+                    //Ignore
+                }
+            }
+        });
+    }
+
+    /**
+     * Entries buffered per event log file
+     */
+    int getBufferSize()
+    {
+        return mBufferSize;
+    }
+
+    /**
+     * Maximum interval between flushes of an event log file to disk, in milliseconds
+     */
+    long getFlushInterval()
+    {
+        return mFlushInterval;
+    }
+
+    /**
+     * Indicates if event log files are rotated when the date changes
+     */
+    boolean isRotateDaily()
+    {
+        return mRotateDaily;
+    }
+
+    /**
+     * Size in bytes that triggers rotation of an event log file, or 0 when size based rotation is disabled
+     */
+    long getRotateSize()
+    {
+        return mRotateSize;
+    }
+
+    /**
+     * Indicates if rotated event log files are gzip compressed
+     */
+    boolean isCompress()
+    {
+        return mCompress;
+    }
+}
@@ -19,26 +19,24 @@
 package io.github.dsheirer.module.log;
 
 import io.github.dsheirer.module.Module;
-import io.github.dsheirer.util.TimeStamp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
+import java.io.IOException;
 import java.nio.file.Path;
 
+/**
+ * Base event logger.  Entries are written asynchronously by the event log writer so that logging does not block the
+ * decoder thread that produces the logged events.
+ */
 public abstract class EventLogger extends Module
 {
     private final static Logger mLog = LoggerFactory.getLogger(EventLogger.class);
 
     private Path mLogDirectory;
     private String mFileNameSuffix;
-    private String mLogFileName;
     private long mFrequency;
-    protected Writer mLogFile;
+    private volatile EventLogFile mLogFile;
 
     public EventLogger(Path logDirectory, String fileNameSuffix, long frequency)
     {
@@ -49,9 +47,11 @@ public abstract class EventLogger extends Module
 
     public String toString()
     {
-        if(mLogFileName != null)
+        EventLogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            return mLogFileName;
+            return logFile.getFileName();
         }
         else
         {
@@ -68,24 +68,9 @@ public abstract class EventLogger extends Module
         {
             try
             {
-                StringBuilder sb = new StringBuilder();
-                sb.append(mLogDirectory);
-                sb.append(File.separator);
-                sb.append(TimeStamp.getLongTimeStamp("_"));
-                sb.append("_");
-                sb.append(mFrequency);
-                sb.append("_Hz_");
-                sb.append(mFileNameSuffix);
-
-                mLogFileName = sb.toString();
-
-                mLog.info("Creating log file:" + mLogFileName);
-
-                mLogFile = new OutputStreamWriter(new FileOutputStream(mLogFileName));
-
-                write(getHeader());
+                mLogFile = EventLogWriter.getInstance().open(mLogDirectory, mFileNameSuffix, mFrequency, getHeader());
             }
-            catch(FileNotFoundException e)
+            catch(IOException e)
             {
                 mLog.error("Couldn't create log file in directory:" + mLogDirectory);
             }
@@ -94,34 +79,25 @@ public abstract class EventLogger extends Module
 
     public void stop()
     {
-        if(mLogFile != null)
+        EventLogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            try
-            {
-                mLogFile.flush();
-                mLogFile.close();
-                mLogFile = null;
-            }
-            catch(Exception e)
-            {
-                mLog.error("Couldn't close log file:" + mFileNameSuffix);
-            }
+            mLogFile = null;
+            logFile.close();
         }
     }
 
+    /**
+     * Enqueues the entry to be written to the event log file, followed by a new line.  Does not block.
+     */
     protected void write(String eventLogEntry)
     {
-        try
-        {
-            if(mLogFile != null)
-            {
-                mLogFile.write((eventLogEntry != null ? eventLogEntry : "") + "\n");
-                mLogFile.flush();
-            }
-        }
-        catch(Exception e)
+        EventLogFile logFile = mLogFile;
+
+        if(logFile != null)
         {
-            mLog.error("Error writing entry to event log file", e);
+            logFile.write(eventLogEntry);
         }
     }
 }
@@ -20,9 +20,11 @@ package io.github.dsheirer.module.log;
 import io.github.dsheirer.message.IMessage;
 import io.github.dsheirer.message.IMessageListener;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.util.TimeStamp;
 
 import java.nio.file.Path;
+import java.text.FieldPosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 public class MessageEventLogger extends EventLogger implements IMessageListener, Listener<IMessage>
 {
@@ -32,6 +34,12 @@ public class MessageEventLogger extends EventLogger implements IMessageListener,
     }
 
     private Type mType;
+    private StringBuilder mStringBuilder = new StringBuilder(256);
+    private StringBuffer mFormatBuffer = new StringBuffer(32);
+    private FieldPosition mFieldPosition = new FieldPosition(0);
+    private Date mDate = new Date();
+    //Per-logger timestamp format, same as TimeStamp.getTimeStamp(timestamp, " "), to avoid a shared lock per message
+    private SimpleDateFormat mTimestampFormat = new SimpleDateFormat("yyyyMMdd HHmmss");
 
     public MessageEventLogger(Path logDirectory, String fileNameSuffix, Type type, long frequency)
     {
@@ -57,10 +65,14 @@ public class MessageEventLogger extends EventLogger implements IMessageListener,
     }
 
     @Override
-    public void receive(IMessage message)
+    public synchronized void receive(IMessage message)
     {
-        StringBuilder sb = new StringBuilder();
-        sb.append(TimeStamp.getTimeStamp(message.getTimestamp(), " "));
+        StringBuilder sb = mStringBuilder;
+        sb.setLength(0);
+        mDate.setTime(message.getTimestamp());
+        mTimestampFormat.format(mDate, mFormatBuffer, mFieldPosition);
+        sb.append(mFormatBuffer);
+        mFormatBuffer.setLength(0);
         sb.append(",");
         sb.append((message.isValid() ? "PASSED" : "FAILED"));
         sb.append(",");
@@ -21,40 +21,78 @@
  */
 package io.github.dsheirer.playlist;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.xml.JacksonXmlAnnotationIntrospector;
 import com.fasterxml.jackson.dataformat.xml.JacksonXmlModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.github.dsheirer.alias.Alias;
 import io.github.dsheirer.alias.AliasEvent;
 import io.github.dsheirer.alias.AliasModel;
 import io.github.dsheirer.audio.broadcast.BroadcastEvent;
+import io.github.dsheirer.audio.broadcast.BroadcastConfiguration;
 import io.github.dsheirer.audio.broadcast.BroadcastModel;
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.controller.channel.Channel;
 import io.github.dsheirer.controller.channel.Channel.ChannelType;
 import io.github.dsheirer.controller.channel.ChannelEvent;
 import io.github.dsheirer.controller.channel.ChannelModel;
+import io.github.dsheirer.controller.channel.map.ChannelMap;
 import io.github.dsheirer.controller.channel.map.ChannelMapEvent;
 import io.github.dsheirer.controller.channel.map.ChannelMapModel;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.preference.playlist.PlaylistPreference;
 import io.github.dsheirer.sample.Listener;
-import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Playlist manager.
+ *
+ * Playlists are read with a streaming parser that deserializes each alias, channel, channel map and stream element
+ * as it is encountered and the aliases are transferred to the alias model in a single bulk operation.  Playlist
+ * saves are coalesced and performed on a dedicated playlist thread so that channel, alias and broadcast events are
+ * never blocked behind serializing a large playlist.
+ *
+ * An optional binary (Smile) snapshot of the playlist can be written next to the playlist file after each save.  On
+ * startup the snapshot is used in place of the XML file only when the snapshot header matches the current size and
+ * modification timestamp of the XML file, so any edit to the XML file causes the XML to be loaded instead.
+ *
+ * System properties:
+ * <ul>
+ *     <li>sdrtrunk.playlist.snapshot - true to write and load the binary playlist snapshot (default: false)</li>
+ * </ul>
+ */
 public class PlaylistManager implements Listener<ChannelEvent>
 {
     private final static Logger mLog = LoggerFactory.getLogger(PlaylistManager.class);
 
     public static final int PLAYLIST_CURRENT_VERSION = 4;
 
+    private static final boolean SNAPSHOT_ENABLED = Boolean.getBoolean("sdrtrunk.playlist.snapshot");
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final int SNAPSHOT_MAGIC = 0x53505353; //SPSS
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final int STREAM_BUFFER_SIZE = 65536;
+
     private AliasModel mAliasModel;
     private BroadcastModel mBroadcastModel;
     private ChannelModel mChannelModel;
@@ -62,6 +100,10 @@ public class PlaylistManager implements Listener<ChannelEvent>
     private UserPreferences mUserPreferences;
     private AtomicBoolean mPlaylistSavePending = new AtomicBoolean();
     private boolean mPlaylistLoading = false;
+    private final XmlMapper mXmlMapper;
+    private ObjectMapper mSnapshotMapper;
+    private final ScheduledExecutorService mSaveExecutor =
+        Executors.newSingleThreadScheduledExecutor(new NamingThreadFactory("sdrtrunk playlist"));
 
     /**
      * Playlist manager - manages all channel configurations, channel maps, and
@@ -81,6 +123,11 @@ public class PlaylistManager implements Listener<ChannelEvent>
         mChannelMapModel = channelMapModel;
         mUserPreferences = userPreferences;
 
+        JacksonXmlModule xmlModule = new JacksonXmlModule();
+        xmlModule.setDefaultUseWrapper(false);
+        mXmlMapper = new XmlMapper(xmlModule);
+        mXmlMapper.enable(SerializationFeature.INDENT_OUTPUT);
+
         //Register for alias, channel and channel map events so that we can
         //save the playlist when there are any changes
         mChannelModel.addListener(this);
@@ -226,13 +273,11 @@ public class PlaylistManager implements Listener<ChannelEvent>
             }
         }
 
-        try(OutputStream out = Files.newOutputStream(files.getPlaylist()))
+        long start = System.currentTimeMillis();
+
+        try(OutputStream out = new BufferedOutputStream(Files.newOutputStream(files.getPlaylist()), STREAM_BUFFER_SIZE))
         {
-            JacksonXmlModule xmlModule = new JacksonXmlModule();
-            xmlModule.setDefaultUseWrapper(false);
-            ObjectMapper objectMapper = new XmlMapper(xmlModule);
-            objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-            objectMapper.writeValue(out, playlist);
+            mXmlMapper.writeValue(out, playlist);
             out.flush();
 
             //Remove the playlist lock file to indicate that we successfully saved the file
@@ -246,10 +291,181 @@ public class PlaylistManager implements Listener<ChannelEvent>
         catch(IOException ioe)
         {
             mLog.error("IO error while writing the playlist to a file [" + files.getPlaylist().toString() + "]", ioe);
+            return;
         }
         catch(Exception e)
         {
             mLog.error("Error while saving playlist [" + files.getPlaylist().toString() + "]", e);
+            return;
+        }
+
+        if(SNAPSHOT_ENABLED)
+        {
+            writeSnapshot(files.getPlaylist(), playlist);
+        }
+
+        mLog.debug("Playlist saved in [" + (System.currentTimeMillis() - start) + "ms]");
+    }
+
+    /**
+     * Streaming read of a playlist file.  Each top-level playlist element is deserialized directly from the parser
+     * as it is encountered and any unrecognized elements are skipped.
+     *
+     * @param path to the playlist file
+     * @return playlist
+     * @throws IOException if there is an error reading or parsing the playlist file
+     */
+    private PlaylistV2 read(Path path) throws IOException
+    {
+        PlaylistV2 playlist = new PlaylistV2();
+
+        try(InputStream in = new BufferedInputStream(Files.newInputStream(path), STREAM_BUFFER_SIZE);
+            JsonParser parser = mXmlMapper.getFactory().createParser(in))
+        {
+            if(parser.nextToken() != JsonToken.START_OBJECT)
+            {
+                throw new IOException("Playlist file does not contain a playlist element [" + path.toString() + "]");
+            }
+
+            while(parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                if("version".equals(name))
+                {
+                    playlist.setVersion(parser.getValueAsInt(playlist.getVersion()));
+                }
+                else if(token != JsonToken.START_OBJECT)
+                {
+                    //Empty element or unrecognized text content
+                    parser.skipChildren();
+                }
+                else if("alias".equals(name))
+                {
+                    playlist.getAliases().add(mXmlMapper.readValue(parser, Alias.class));
+                }
+                else if("channel".equals(name))
+                {
+                    playlist.getChannels().add(mXmlMapper.readValue(parser, Channel.class));
+                }
+                else if("channel_map".equals(name))
+                {
+                    playlist.getChannelMaps().add(mXmlMapper.readValue(parser, ChannelMap.class));
+                }
+                else if("stream".equals(name))
+                {
+                    playlist.getBroadcastConfigurations().add(mXmlMapper.readValue(parser,
+                        BroadcastConfiguration.class));
+                }
+                else
+                {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return playlist;
+    }
+
+    /**
+     * Binary snapshot file that accompanies the playlist file
+     */
+    private static Path getSnapshotPath(Path playlist)
+    {
+        return playlist.resolveSibling(playlist.getFileName().toString() + SNAPSHOT_SUFFIX);
+    }
+
+    /**
+     * Smile object mapper that uses the same XML annotations as the playlist XML mapper so that snapshot property
+     * names and inclusion rules match the XML playlist.
+     */
+    private ObjectMapper getSnapshotMapper()
+    {
+        if(mSnapshotMapper == null)
+        {
+            mSnapshotMapper = new ObjectMapper(new SmileFactory());
+            mSnapshotMapper.setAnnotationIntrospector(new JacksonXmlAnnotationIntrospector(false));
+        }
+
+        return mSnapshotMapper;
+    }
+
+    /**
+     * Writes a binary snapshot of the playlist stamped with the size and modification timestamp of the playlist file
+     * that was just saved.  The snapshot is written to a temporary file and then moved into place.  Any error
+     * removes the snapshot so that the next startup loads the XML playlist.
+     */
+    private void writeSnapshot(Path playlistPath, PlaylistV2 playlist)
+    {
+        Path snapshot = getSnapshotPath(playlistPath);
+        Path temp = snapshot.resolveSibling(snapshot.getFileName().toString() + ".tmp");
+
+        try
+        {
+            long size = Files.size(playlistPath);
+            long modified = Files.getLastModifiedTime(playlistPath).toMillis();
+
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp),
+                STREAM_BUFFER_SIZE)))
+            {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(size);
+                out.writeLong(modified);
+                getSnapshotMapper().writeValue((OutputStream)out, playlist);
+            }
+
+            Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error writing playlist snapshot [" + snapshot.toString() + "]", e);
+
+            try
+            {
+                Files.deleteIfExists(temp);
+                Files.deleteIfExists(snapshot);
+            }
+            catch(IOException ioe)
+            {
+                //Do nothing
+            }
+        }
+    }
+
+    /**
+     * Reads the binary snapshot for the playlist file when the snapshot header matches the playlist file's current
+     * size and modification timestamp.
+     *
+     * @return playlist from the snapshot or null if the snapshot is missing, stale or can't be read
+     */
+    private PlaylistV2 readSnapshot(Path playlistPath)
+    {
+        Path snapshot = getSnapshotPath(playlistPath);
+
+        if(!Files.exists(snapshot))
+        {
+            return null;
+        }
+
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot),
+            STREAM_BUFFER_SIZE)))
+        {
+            if(in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION ||
+               in.readLong() != Files.size(playlistPath) ||
+               in.readLong() != Files.getLastModifiedTime(playlistPath).toMillis())
+            {
+                mLog.info("Playlist snapshot is out of date - loading playlist file");
+                return null;
+            }
+
+            return getSnapshotMapper().readValue((InputStream)in, PlaylistV2.class);
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error reading playlist snapshot [" + snapshot.toString() + "] - loading playlist file", e);
+            return null;
         }
     }
 
@@ -290,15 +506,28 @@ public class PlaylistManager implements Listener<ChannelEvent>
 
         if(Files.exists(files.getPlaylist()))
         {
-            mLog.info("Loading playlist file [" + files.getPlaylist().toString() + "]");
-
-            JacksonXmlModule xmlModule = new JacksonXmlModule();
-            xmlModule.setDefaultUseWrapper(false);
-            ObjectMapper objectMapper = new XmlMapper(xmlModule);
+            long start = System.currentTimeMillis();
 
-            try(InputStream in = Files.newInputStream(files.getPlaylist()))
+            try
             {
-                playlist = objectMapper.readValue(in, PlaylistV2.class);
+                if(SNAPSHOT_ENABLED)
+                {
+                    playlist = readSnapshot(files.getPlaylist());
+
+                    if(playlist != null)
+                    {
+                        mLog.info("Loaded playlist snapshot for [" + files.getPlaylist().toString() + "]");
+                    }
+                }
+
+                if(playlist == null)
+                {
+                    mLog.info("Loading playlist file [" + files.getPlaylist().toString() + "]");
+                    playlist = read(files.getPlaylist());
+                }
+
+                mLog.info("Playlist loaded in [" + (System.currentTimeMillis() - start) + "ms] - aliases [" +
+                    playlist.getAliases().size() + "] channels [" + playlist.getChannels().size() + "]");
 
                 if(PlaylistUpdater.update(playlist))
                 {
@@ -314,13 +543,9 @@ public class PlaylistManager implements Listener<ChannelEvent>
         {
             mLog.info("Loading legacy playlist file [" + files.getLegacyPlaylist().toString() + "]");
 
-            JacksonXmlModule xmlModule = new JacksonXmlModule();
-            xmlModule.setDefaultUseWrapper(false);
-            ObjectMapper objectMapper = new XmlMapper(xmlModule);
-
-            try(InputStream in = Files.newInputStream(files.getLegacyPlaylist()))
+            try
             {
-                playlist = objectMapper.readValue(in, PlaylistV2.class);
+                playlist = read(files.getLegacyPlaylist());
 
                 //Perform any updates that may be needed for the playist.
                 if(PlaylistUpdater.update(playlist))
@@ -349,8 +574,8 @@ public class PlaylistManager implements Listener<ChannelEvent>
     }
 
     /**
-     * Schedules a playlist save task.  Subsequent calls to this method will be ignored until the save event occurs,
-     * thus limiting repetitive playlist saving to a minimum.
+     * Schedules a playlist save task on the playlist thread.  Subsequent calls to this method will be ignored until
+     * the save event occurs, thus limiting repetitive playlist saving to a minimum.
      */
     private void schedulePlaylistSave()
     {
@@ -358,22 +583,30 @@ public class PlaylistManager implements Listener<ChannelEvent>
         {
             if(mPlaylistSavePending.compareAndSet(false, true))
             {
-                ThreadPool.SCHEDULED.schedule(new PlaylistSaveTask(), 2, TimeUnit.SECONDS);
+                mSaveExecutor.schedule(new PlaylistSaveTask(), 2, TimeUnit.SECONDS);
             }
         }
     }
 
     /**
-     * Resets the playlist save pending flag to false and proceeds to save the playlist.
+     * Resets the playlist save pending flag to false and proceeds to save the playlist.  The flag is reset before
+     * saving so that any change that occurs while the playlist is being written schedules a follow-up save.
      */
     public class PlaylistSaveTask implements Runnable
     {
         @Override
         public void run()
         {
-            save();
-
             mPlaylistSavePending.set(false);
+
+            try
+            {
+                save();
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error saving playlist", t);
+            }
         }
     }
 }
@@ -22,6 +22,7 @@ package io.github.dsheirer.preference.record;
 import io.github.dsheirer.preference.Preference;
 import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.record.RecordFormat;
+import io.github.dsheirer.record.RecordingDurability;
 import io.github.dsheirer.sample.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,9 +36,22 @@ public class RecordPreference extends Preference
 {
     private static final String PREFERENCE_KEY_AUDIO_RECORD_FORMAT = "audio.record.format";
     private static final RecordFormat DEFAULT_RECORD_FORMAT = RecordFormat.MP3;
+    private static final String PREFERENCE_KEY_AUDIO_SPILL_THRESHOLD = "audio.segment.spill.threshold";
+    private static final int DEFAULT_AUDIO_SPILL_THRESHOLD = 0;
+    private static final String PREFERENCE_KEY_RECORDING_THREAD_COUNT = "audio.record.thread.count";
+    private static final int DEFAULT_RECORDING_THREAD_COUNT = 2;
+    public static final int MAX_RECORDING_THREAD_COUNT = 16;
+    private static final String PREFERENCE_KEY_RECORDING_DURABILITY = "audio.record.durability";
+    private static final RecordingDurability DEFAULT_RECORDING_DURABILITY = RecordingDurability.FILE;
+    private static final String PREFERENCE_KEY_RECORDING_BACKLOG_BUDGET = "audio.record.backlog.budget";
+    private static final int DEFAULT_RECORDING_BACKLOG_BUDGET = 256;
     private final static Logger mLog = LoggerFactory.getLogger(RecordPreference.class);
     private Preferences mPreferences = Preferences.userNodeForPackage(RecordPreference.class);
     private RecordFormat mAudioRecordFormat;
+    private Integer mAudioSpillThreshold;
+    private Integer mRecordingThreadCount;
+    private RecordingDurability mRecordingDurability;
+    private Integer mRecordingBacklogBudget;
 
     /**
      * Constructs this preference with an update listener
@@ -90,4 +104,112 @@ public class RecordPreference extends Preference
         mPreferences.put(PREFERENCE_KEY_AUDIO_RECORD_FORMAT, audioRecordFormat.name());
         notifyPreferenceUpdated();
     }
+
+    /**
+     * Threshold in megabytes for audio held in memory by all audio segments, beyond which audio segments spill their
+     * audio to temporary files on disk.  A value of zero disables spilling.
+     */
+    public int getAudioSpillThreshold()
+    {
+        if(mAudioSpillThreshold == null)
+        {
+            mAudioSpillThreshold = mPreferences.getInt(PREFERENCE_KEY_AUDIO_SPILL_THRESHOLD,
+                DEFAULT_AUDIO_SPILL_THRESHOLD);
+        }
+
+        return mAudioSpillThreshold;
+    }
+
+    /**
+     * Sets the audio segment spill threshold in megabytes, or zero to disable spilling
+     */
+    public void setAudioSpillThreshold(int thresholdMB)
+    {
+        mAudioSpillThreshold = Math.max(thresholdMB, 0);
+        mPreferences.putInt(PREFERENCE_KEY_AUDIO_SPILL_THRESHOLD, mAudioSpillThreshold);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Number of recording threads used to write completed audio recordings.  Changes take effect on restart.
+     */
+    public int getRecordingThreadCount()
+    {
+        if(mRecordingThreadCount == null)
+        {
+            mRecordingThreadCount = mPreferences.getInt(PREFERENCE_KEY_RECORDING_THREAD_COUNT,
+                DEFAULT_RECORDING_THREAD_COUNT);
+        }
+
+        return mRecordingThreadCount;
+    }
+
+    /**
+     * Sets the number of recording threads, constrained to 1 - 16
+     */
+    public void setRecordingThreadCount(int threadCount)
+    {
+        mRecordingThreadCount = Math.min(Math.max(threadCount, 1), MAX_RECORDING_THREAD_COUNT);
+        mPreferences.putInt(PREFERENCE_KEY_RECORDING_THREAD_COUNT, mRecordingThreadCount);
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Durability mode that determines when recording files are forced to storage
+     */
+    public RecordingDurability getRecordingDurability()
+    {
+        if(mRecordingDurability == null)
+        {
+            String durability = mPreferences.get(PREFERENCE_KEY_RECORDING_DURABILITY,
+                DEFAULT_RECORDING_DURABILITY.name());
+
+            try
+            {
+                mRecordingDurability = RecordingDurability.valueOf(durability);
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error parsing recording durability [" + durability + "]");
+                mRecordingDurability = DEFAULT_RECORDING_DURABILITY;
+            }
+        }
+
+        return mRecordingDurability;
+    }
+
+    /**
+     * Sets the recording durability mode
+     */
+    public void setRecordingDurability(RecordingDurability recordingDurability)
+    {
+        mRecordingDurability = recordingDurability;
+        mPreferences.put(PREFERENCE_KEY_RECORDING_DURABILITY, recordingDurability.name());
+        notifyPreferenceUpdated();
+    }
+
+    /**
+     * Memory budget in megabytes for audio held by completed audio segments waiting to be recorded.  Once the backlog
+     * exceeds this budget, newly queued audio segments spill their audio to disk.  A value of zero disables spilling.
+     */
+    public int getRecordingBacklogBudget()
+    {
+        if(mRecordingBacklogBudget == null)
+        {
+            mRecordingBacklogBudget = mPreferences.getInt(PREFERENCE_KEY_RECORDING_BACKLOG_BUDGET,
+                DEFAULT_RECORDING_BACKLOG_BUDGET);
+        }
+
+        return mRecordingBacklogBudget;
+    }
+
+    /**
+     * Sets the recording backlog memory budget in megabytes, or zero to disable spilling
+     */
+    public void setRecordingBacklogBudget(int budgetMB)
+    {
+        mRecordingBacklogBudget = Math.max(budgetMB, 0);
+        mPreferences.putInt(PREFERENCE_KEY_RECORDING_BACKLOG_BUDGET, mRecordingBacklogBudget);
+        notifyPreferenceUpdated();
+    }
 }
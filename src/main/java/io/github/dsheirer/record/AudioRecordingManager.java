@@ -19,7 +19,11 @@
 
 package io.github.dsheirer.record;
 
+import com.google.common.eventbus.Subscribe;
+import io.github.dsheirer.audio.AudioChunkPool;
 import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.eventbus.MyEventBus;
 import io.github.dsheirer.identifier.Form;
 import io.github.dsheirer.identifier.Identifier;
 import io.github.dsheirer.identifier.IdentifierClass;
@@ -27,31 +31,44 @@ import io.github.dsheirer.identifier.IdentifierCollection;
 import io.github.dsheirer.identifier.Role;
 import io.github.dsheirer.identifier.integer.IntegerIdentifier;
 import io.github.dsheirer.identifier.string.StringIdentifier;
+import io.github.dsheirer.module.decode.event.archive.DecodeEventArchive;
+import io.github.dsheirer.preference.PreferenceType;
 import io.github.dsheirer.preference.UserPreferences;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.util.StringUtils;
-import io.github.dsheirer.util.ThreadPool;
 import io.github.dsheirer.util.TimeStamp;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Monitors audio segments and upon completion records any audio segments that have been flagged as recordable
+ *
+ * Completed audio segments are queued and written by a fixed pool of recording threads, each with its own reusable
+ * recorder/MP3 encoder.  When the audio held in memory by queued audio segments exceeds the configured backlog memory
+ * budget, newly queued audio segments spill their audio to disk until the recording threads catch up.  Recording files
+ * are forced to storage according to the configured durability mode.
  */
 public class AudioRecordingManager implements Listener<AudioSegment>
 {
     private final static Logger mLog = LoggerFactory.getLogger(AudioRecordingManager.class);
-    private LinkedTransferQueue<AudioSegment> mCompletedAudioSegmentQueue = new LinkedTransferQueue<>();
-    private ScheduledFuture<?> mQueueProcessorHandle;
+    private static final long WORKER_POLL_TIMEOUT_MS = 500;
+    private static final int SYNC_BATCH_SIZE = 25;
+    private static final long BACKLOG_WARNING_INTERVAL_MS = 60000;
+    private LinkedBlockingQueue<QueuedAudioSegment> mCompletedAudioSegmentQueue = new LinkedBlockingQueue<>();
+    private AudioRecordingMetrics mMetrics = new AudioRecordingMetrics();
+    private ExecutorService mRecordingExecutor;
+    private volatile boolean mRunning;
+    private long mLastBacklogWarning;
     private UserPreferences mUserPreferences;
     private int mUnknownAudioRecordingIndex = 1;
     private int mDuplicateAudioRecordingSuffix = 1;
@@ -64,6 +81,37 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     public AudioRecordingManager(UserPreferences userPreferences)
     {
         mUserPreferences = userPreferences;
+        updateAudioSpillThreshold();
+        MyEventBus.getEventBus().register(this);
+    }
+
+    /**
+     * Applies audio segment spill threshold changes from the record preferences
+     */
+    @Subscribe
+    public void preferenceUpdated(PreferenceType preferenceType)
+    {
+        if(preferenceType == PreferenceType.RECORD)
+        {
+            updateAudioSpillThreshold();
+        }
+    }
+
+    /**
+     * Updates the audio chunk pool spill threshold from the record preferences
+     */
+    private void updateAudioSpillThreshold()
+    {
+        int thresholdMB = mUserPreferences.getRecordPreference().getAudioSpillThreshold();
+        AudioChunkPool.setSpillThreshold(thresholdMB * 1024L * 1024L);
+    }
+
+    /**
+     * Recording queue and writer statistics
+     */
+    public AudioRecordingMetrics getMetrics()
+    {
+        return mMetrics;
     }
 
     /**
@@ -71,10 +119,18 @@ public class AudioRecordingManager implements Listener<AudioSegment>
      */
     public void start()
     {
-        if(mQueueProcessorHandle == null)
+        if(mRecordingExecutor == null)
         {
-            mQueueProcessorHandle = ThreadPool.SCHEDULED.scheduleAtFixedRate(new QueueProcessor(),
-                0, 1, TimeUnit.SECONDS);
+            int threadCount = mUserPreferences.getRecordPreference().getRecordingThreadCount();
+            mRunning = true;
+            mRecordingExecutor = Executors.newFixedThreadPool(threadCount, new NamingThreadFactory("sdrtrunk recorder"));
+
+            for(int x = 0; x < threadCount; x++)
+            {
+                mRecordingExecutor.submit(new RecordingWorker());
+            }
+
+            mLog.info("Audio recording started with [" + threadCount + "] recording threads");
         }
     }
 
@@ -83,11 +139,29 @@ public class AudioRecordingManager implements Listener<AudioSegment>
      */
     public void stop()
     {
-        if(mQueueProcessorHandle != null)
+        if(mRecordingExecutor != null)
         {
-            mQueueProcessorHandle.cancel(true);
-            processAudioSegments();
-            mQueueProcessorHandle = null;
+            mRunning = false;
+            mRecordingExecutor.shutdown();
+
+            try
+            {
+                if(!mRecordingExecutor.awaitTermination(30, TimeUnit.SECONDS))
+                {
+                    mLog.warn("Timeout while waiting for recording threads to finish");
+                }
+            }
+            catch(InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            mRecordingExecutor = null;
+
+            //Record any audio segments that were queued after the recording threads stopped
+            new RecordingWorker().run();
+
+            mLog.info("Audio recording stopped - " + mMetrics);
         }
     }
 
@@ -107,9 +181,9 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     public void processCompletedAudioSegment(AudioSegment audioSegment)
     {
         //Debug
-        if(audioSegment.getAudioBufferCount() == 0)
+        if(!audioSegment.hasAudio())
         {
-            mLog.debug("Audio Segment detected with 0 audio buffers");
+            mLog.debug("Audio Segment detected with no audio");
         }
 
         List<Identifier> toIdentifiers = audioSegment.getIdentifierCollection().getIdentifiers(Role.TO);
@@ -121,7 +195,7 @@ public class AudioRecordingManager implements Listener<AudioSegment>
 
         if(audioSegment.recordAudioProperty().get())
         {
-            mCompletedAudioSegmentQueue.add(audioSegment);
+            enqueue(audioSegment);
         }
         else
         {
@@ -130,31 +204,36 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     }
 
     /**
-     * Processes any queued audio segments
+     * Queues the audio segment for recording, spilling the audio segment's audio to disk when the recording backlog
+     * exceeds the memory budget.
      */
-    private void processAudioSegments()
+    private void enqueue(AudioSegment audioSegment)
     {
-        RecordFormat recordFormat = mUserPreferences.getRecordPreference().getAudioRecordFormat();
-        AudioSegment audioSegment = mCompletedAudioSegmentQueue.poll();
+        QueuedAudioSegment queuedAudioSegment = new QueuedAudioSegment(audioSegment);
+        mMetrics.queued(queuedAudioSegment.getQueuedBytes());
 
-        while(audioSegment != null)
+        long budget = mUserPreferences.getRecordPreference().getRecordingBacklogBudget() * 1024L * 1024L;
+
+        if(budget > 0 && mMetrics.getQueuedBytes() > budget)
         {
-            Path path = getAudioRecordingPath(audioSegment.getIdentifierCollection(), recordFormat);
+            long released = audioSegment.spillAudio();
 
-            try
-            {
-                AudioSegmentRecorder.record(audioSegment, path, recordFormat);
-            }
-            catch(IOException ioe)
+            if(released > 0)
             {
-                mLog.error("Error recording audio segment to [" + path.toString() + "]");
+                queuedAudioSegment.released(released);
+                mMetrics.spilled(released);
             }
 
-            audioSegment.decrementConsumerCount();
+            long now = System.currentTimeMillis();
 
-            //Grab the next one to record
-            audioSegment = mCompletedAudioSegmentQueue.poll();
+            if(now - mLastBacklogWarning > BACKLOG_WARNING_INTERVAL_MS)
+            {
+                mLastBacklogWarning = now;
+                mLog.warn("Audio recording backlog exceeds memory budget - spilling queued audio to disk - " + mMetrics);
+            }
         }
+
+        mCompletedAudioSegmentQueue.add(queuedAudioSegment);
     }
 
     /**
@@ -169,7 +248,7 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     /**
      * Provides a formatted audio recording filename to use as the final audio filename.
      */
-    private Path getAudioRecordingPath(IdentifierCollection identifierCollection, RecordFormat recordFormat)
+    private synchronized Path getAudioRecordingPath(IdentifierCollection identifierCollection, RecordFormat recordFormat)
     {
         StringBuilder sb = new StringBuilder();
 
@@ -300,20 +379,148 @@ public class AudioRecordingManager implements Listener<AudioSegment>
     }
 
     /**
-     * Threaded queue processor to process/record each recordable audio segment
+     * Completed audio segment waiting to be recorded
      */
-    public class QueueProcessor implements Runnable
+    private static class QueuedAudioSegment
     {
+        private AudioSegment mAudioSegment;
+        private long mTimestamp = System.currentTimeMillis();
+        private long mQueuedBytes;
+
+        public QueuedAudioSegment(AudioSegment audioSegment)
+        {
+            mAudioSegment = audioSegment;
+            mQueuedBytes = audioSegment.getMemoryUsage();
+        }
+
+        public AudioSegment getAudioSegment()
+        {
+            return mAudioSegment;
+        }
+
+        /**
+         * Time the audio segment was queued
+         */
+        public long getTimestamp()
+        {
+            return mTimestamp;
+        }
+
+        /**
+         * Bytes of audio held in memory by the audio segment that are accounted in the recording backlog
+         */
+        public long getQueuedBytes()
+        {
+            return mQueuedBytes;
+        }
+
+        /**
+         * Records that the audio segment released memory by spilling audio to disk
+         */
+        public void released(long bytes)
+        {
+            mQueuedBytes -= bytes;
+        }
+    }
+
+    /**
+     * Recording thread that records queued audio segments using its own reusable audio segment recorder.  Recording
+     * files are synced to storage per the durability mode and, for batch durability, whenever the queue empties or the
+     * batch size is reached.  Once the manager is stopped, the worker records any remaining queued audio segments.
+     */
+    public class RecordingWorker implements Runnable
+    {
+        private AudioSegmentRecorder mAudioSegmentRecorder = new AudioSegmentRecorder();
+        private List<Path> mUnsyncedRecordings = new ArrayList<>();
+
         @Override
         public void run()
         {
             try
             {
-                processAudioSegments();
+                while(mRunning)
+                {
+                    QueuedAudioSegment queuedAudioSegment = mCompletedAudioSegmentQueue.poll(WORKER_POLL_TIMEOUT_MS,
+                        TimeUnit.MILLISECONDS);
+
+                    if(queuedAudioSegment != null)
+                    {
+                        record(queuedAudioSegment);
+                    }
+
+                    if(queuedAudioSegment == null || mUnsyncedRecordings.size() >= SYNC_BATCH_SIZE)
+                    {
+                        syncRecordings();
+                    }
+                }
+            }
+            catch(InterruptedException ie)
+            {
+                syncRecordings();
+                return;
+            }
+
+            QueuedAudioSegment queuedAudioSegment = mCompletedAudioSegmentQueue.poll();
+
+            while(queuedAudioSegment != null)
+            {
+                record(queuedAudioSegment);
+                queuedAudioSegment = mCompletedAudioSegmentQueue.poll();
+            }
+
+            syncRecordings();
+        }
+
+        /**
+         * Records the queued audio segment and releases this manager's consumer reference on the audio segment.
+         */
+        private void record(QueuedAudioSegment queuedAudioSegment)
+        {
+            mMetrics.dequeued(queuedAudioSegment.getQueuedBytes());
+
+            AudioSegment audioSegment = queuedAudioSegment.getAudioSegment();
+            RecordFormat recordFormat = mUserPreferences.getRecordPreference().getAudioRecordFormat();
+            RecordingDurability durability = mUserPreferences.getRecordPreference().getRecordingDurability();
+            Path path = null;
+
+            try
+            {
+                path = getAudioRecordingPath(audioSegment.getIdentifierCollection(), recordFormat);
+                mAudioSegmentRecorder.write(audioSegment, path, recordFormat, durability == RecordingDurability.FILE);
+
+                if(audioSegment.hasAudio())
+                {
+                    DecodeEventArchive.getInstance().linkRecording(audioSegment.getIdentifierCollection(),
+                        audioSegment.getStartTimestamp(), path);
+                }
+
+                if(durability == RecordingDurability.BATCH && audioSegment.hasAudio())
+                {
+                    mUnsyncedRecordings.add(path);
+                }
+
+                mMetrics.recorded(System.currentTimeMillis() - queuedAudioSegment.getTimestamp());
             }
             catch(Throwable t)
             {
-                mLog.error("Error while processing queued audio segments to recordings", t);
+                mMetrics.failed();
+                mLog.error("Error recording audio segment to [" + path + "]", t);
+            }
+            finally
+            {
+                audioSegment.decrementConsumerCount();
+            }
+        }
+
+        /**
+         * Forces any recordings written since the last sync to storage
+         */
+        private void syncRecordings()
+        {
+            if(!mUnsyncedRecordings.isEmpty())
+            {
+                AudioSegmentRecorder.force(mUnsyncedRecordings);
+                mUnsyncedRecordings.clear();
             }
         }
     }
@@ -0,0 +1,185 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record;
+
+import org.apache.commons.io.FileUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audio recording queue and writer statistics.
+ *
+ * Latency is measured from when a completed audio segment is queued for recording until its recording file is
+ * written.  All counters are thread-safe and can be read while the recording workers are updating them.
+ */
+public class AudioRecordingMetrics
+{
+    private AtomicInteger mQueueDepth = new AtomicInteger();
+    private AtomicInteger mPeakQueueDepth = new AtomicInteger();
+    private AtomicLong mQueuedBytes = new AtomicLong();
+    private AtomicLong mRecordedCount = new AtomicLong();
+    private AtomicLong mFailedCount = new AtomicLong();
+    private AtomicLong mSpilledCount = new AtomicLong();
+    private AtomicLong mSpilledBytes = new AtomicLong();
+    private AtomicLong mTotalLatency = new AtomicLong();
+    private AtomicLong mMaxLatency = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     */
+    public AudioRecordingMetrics()
+    {
+    }
+
+    /**
+     * Records that an audio segment was added to the recording queue
+     * @param bytes of audio held in memory by the audio segment
+     */
+    void queued(long bytes)
+    {
+        int depth = mQueueDepth.incrementAndGet();
+        mPeakQueueDepth.accumulateAndGet(depth, Math::max);
+        mQueuedBytes.addAndGet(bytes);
+    }
+
+    /**
+     * Records that an audio segment was removed from the recording queue
+     * @param bytes of audio held in memory that were accounted for the audio segment
+     */
+    void dequeued(long bytes)
+    {
+        mQueueDepth.decrementAndGet();
+        mQueuedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Records that a queued audio segment spilled its audio to disk
+     * @param bytes of memory released by spilling
+     */
+    void spilled(long bytes)
+    {
+        mSpilledCount.incrementAndGet();
+        mSpilledBytes.addAndGet(bytes);
+        mQueuedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Records a completed recording
+     * @param latency in milliseconds from queueing to completion
+     */
+    void recorded(long latency)
+    {
+        mRecordedCount.incrementAndGet();
+        mTotalLatency.addAndGet(latency);
+        mMaxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    /**
+     * Records a failed recording
+     */
+    void failed()
+    {
+        mFailedCount.incrementAndGet();
+    }
+
+    /**
+     * Number of audio segments waiting to be recorded
+     */
+    public int getQueueDepth()
+    {
+        return mQueueDepth.get();
+    }
+
+    /**
+     * Largest number of audio segments that were waiting to be recorded at the same time
+     */
+    public int getPeakQueueDepth()
+    {
+        return mPeakQueueDepth.get();
+    }
+
+    /**
+     * Bytes of audio held in memory by audio segments waiting to be recorded
+     */
+    public long getQueuedBytes()
+    {
+        return mQueuedBytes.get();
+    }
+
+    /**
+     * Number of recordings written
+     */
+    public long getRecordedCount()
+    {
+        return mRecordedCount.get();
+    }
+
+    /**
+     * Number of recordings that failed
+     */
+    public long getFailedCount()
+    {
+        return mFailedCount.get();
+    }
+
+    /**
+     * Number of queued audio segments that were spilled to disk to stay within the backlog memory budget
+     */
+    public long getSpilledCount()
+    {
+        return mSpilledCount.get();
+    }
+
+    /**
+     * Average queue-to-file latency in milliseconds
+     */
+    public long getAverageLatency()
+    {
+        long count = mRecordedCount.get();
+        return count > 0 ? mTotalLatency.get() / count : 0;
+    }
+
+    /**
+     * Maximum queue-to-file latency in milliseconds
+     */
+    public long getMaxLatency()
+    {
+        return mMaxLatency.get();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Recordings [").append(getRecordedCount()).append("]");
+        sb.append(" Failed [").append(getFailedCount()).append("]");
+        sb.append(" Queue Depth [").append(getQueueDepth()).append("]");
+        sb.append(" Peak [").append(getPeakQueueDepth()).append("]");
+        sb.append(" Queued [").append(FileUtils.byteCountToDisplaySize(Math.max(getQueuedBytes(), 0))).append("]");
+        sb.append(" Spilled [").append(getSpilledCount()).append("/");
+        sb.append(FileUtils.byteCountToDisplaySize(mSpilledBytes.get())).append("]");
+        sb.append(" Latency Avg/Max [").append(getAverageLatency()).append("/").append(getMaxLatency()).append(" ms]");
+        return sb.toString();
+    }
+}
@@ -19,8 +19,10 @@
 
 package io.github.dsheirer.record;
 
+import io.github.dsheirer.audio.AudioChunkPool;
 import io.github.dsheirer.audio.AudioFormats;
 import io.github.dsheirer.audio.AudioSegment;
+import io.github.dsheirer.audio.AudioSegmentCursor;
 import io.github.dsheirer.audio.convert.MP3AudioConverter;
 import io.github.dsheirer.record.wave.AudioMetadata;
 import io.github.dsheirer.record.wave.AudioMetadataUtils;
@@ -29,15 +31,23 @@ import io.github.dsheirer.sample.ConversionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Map;
 
 /**
- * Recording utility for audio segments
+ * Recording utility for audio segments.
+ *
+ * Static methods record a single audio segment.  Instances hold a reusable MP3 converter and are intended to be owned
+ * by a single recording thread that writes many audio segments, avoiding per-recording encoder buffer allocations.
+ * Instances are not thread-safe.
  */
 public class AudioSegmentRecorder
 {
@@ -45,6 +55,17 @@ public class AudioSegmentRecorder
 
     public static final int MP3_BIT_RATE = 16;
     public static final boolean CONSTANT_BIT_RATE = false;
+    private static final int OUTPUT_BUFFER_SIZE = 65536;
+
+    private MP3AudioConverter mMP3AudioConverter;
+    private float[] mAudioBuffer = new float[AudioChunkPool.CHUNK_SIZE];
+
+    /**
+     * Constructs a reusable recorder instance
+     */
+    public AudioSegmentRecorder()
+    {
+    }
 
     /**
      * Records the audio segment to the specified path using the specified recording format
@@ -54,14 +75,49 @@ public class AudioSegmentRecorder
      * @throws IOException on any errors
      */
     public static void record(AudioSegment audioSegment, Path path, RecordFormat recordFormat) throws IOException
+    {
+        new AudioSegmentRecorder().write(audioSegment, path, recordFormat, true);
+    }
+
+    /**
+     * Records the audio segment as an MP3 file to the specified path.
+     * @param audioSegment to record
+     * @param path for the recording
+     * @throws IOException on any errors
+     */
+    public static void recordMP3(AudioSegment audioSegment, Path path) throws IOException
+    {
+        new AudioSegmentRecorder().writeMP3(audioSegment, path, true);
+    }
+
+    /**
+     * Records the audio segment as a WAVe file to the specified path.
+     * @param audioSegment to record
+     * @param path for the recording
+     * @throws IOException on any errors
+     */
+    public static void recordWAVE(AudioSegment audioSegment, Path path) throws IOException
+    {
+        new AudioSegmentRecorder().writeWAVE(audioSegment, path, true);
+    }
+
+    /**
+     * Writes the audio segment to the specified path using the specified recording format
+     * @param audioSegment to record
+     * @param path for the recording
+     * @param recordFormat to use (WAVE, MP3)
+     * @param force true to force the recording file contents to storage before closing the file
+     * @throws IOException on any errors
+     */
+    public void write(AudioSegment audioSegment, Path path, RecordFormat recordFormat, boolean force) throws IOException
     {
         switch(recordFormat)
         {
             case MP3:
-                recordMP3(audioSegment, path);
+                writeMP3(audioSegment, path, force);
                 break;
             case WAVE:
-                recordWAVE(audioSegment, path);
+                writeWAVE(audioSegment, path, force);
                 break;
             default:
                 throw new IllegalArgumentException("Unrecognized recording format [" + recordFormat.name() + "]");
@@ -69,54 +125,84 @@ public class AudioSegmentRecorder
     }
 
     /**
-     * Records the audio segment as an MP3 file to the specified path.
+     * Writes the audio segment as an MP3 file to the specified path, streaming the audio through the encoder.
      * @param audioSegment to record
      * @param path for the recording
+     * @param force true to force the recording file contents to storage before closing the file
      * @throws IOException on any errors
      */
-    public static void recordMP3(AudioSegment audioSegment, Path path) throws IOException
+    public void writeMP3(AudioSegment audioSegment, Path path, boolean force) throws IOException
     {
         if(audioSegment.hasAudio())
         {
-            OutputStream outputStream = new FileOutputStream(path.toFile());
-
-            //Write ID3 metadata
-            Map<AudioMetadata,String> metadataMap = AudioMetadataUtils.getMetadataMap(audioSegment.getIdentifierCollection(),
-                audioSegment.getAliasList());
-
-            byte[] id3Bytes = AudioMetadataUtils.getMP3ID3(metadataMap);
-            outputStream.write(id3Bytes);
-
-            //Convert audio to MP3 and write to file
-            MP3AudioConverter converter = new MP3AudioConverter(MP3_BIT_RATE, CONSTANT_BIT_RATE);
-            byte[] mp3 = converter.convertAudio(audioSegment.getAudioBuffers());
-            outputStream.write(mp3);
-
-            byte[] lastFrame = converter.flush();
-
-            if(lastFrame != null && lastFrame.length > 0)
+            if(mMP3AudioConverter == null)
             {
-                outputStream.write(lastFrame);
+                mMP3AudioConverter = new MP3AudioConverter(MP3_BIT_RATE, CONSTANT_BIT_RATE);
             }
 
-            outputStream.flush();
-            outputStream.close();
+            try(FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING))
+            {
+                OutputStream outputStream = new BufferedOutputStream(Channels.newOutputStream(channel),
+                    OUTPUT_BUFFER_SIZE);
+
+                //Write ID3 metadata
+                Map<AudioMetadata,String> metadataMap = AudioMetadataUtils.getMetadataMap(audioSegment.getIdentifierCollection(),
+                    audioSegment.getAliasList());
+
+                byte[] id3Bytes = AudioMetadataUtils.getMP3ID3(metadataMap);
+                outputStream.write(id3Bytes);
+
+                //Convert audio to MP3 and write to file
+                AudioSegmentCursor cursor = audioSegment.getCursor();
+                int read;
+
+                try
+                {
+                    while((read = cursor.read(mAudioBuffer, 0, mAudioBuffer.length)) > 0)
+                    {
+                        mMP3AudioConverter.convert(mAudioBuffer, read, outputStream);
+                    }
+
+                    byte[] lastFrame = mMP3AudioConverter.flush();
+
+                    if(lastFrame != null && lastFrame.length > 0)
+                    {
+                        outputStream.write(lastFrame);
+                    }
+                }
+                finally
+                {
+                    mMP3AudioConverter.reset();
+                }
+
+                outputStream.flush();
+
+                if(force)
+                {
+                    channel.force(true);
+                }
+            }
         }
     }
 
     /**
-     * Records the audio segment as a WAVe file to the specified path.
+     * Writes the audio segment as a WAVe file to the specified path.
      * @param audioSegment to record
      * @param path for the recording
+     * @param force true to force the recording file contents to storage before closing the file
      * @throws IOException on any errors
      */
-    public static void recordWAVE(AudioSegment audioSegment, Path path) throws IOException
+    public void writeWAVE(AudioSegment audioSegment, Path path, boolean force) throws IOException
     {
         if(audioSegment.hasAudio())
         {
             WaveWriter writer = new WaveWriter(AudioFormats.PCM_SIGNED_8KHZ_16BITS_MONO, path);
 
-            for(float[] audioBuffer: audioSegment.getAudioBuffers())
+            AudioSegmentCursor cursor = audioSegment.getCursor();
+            float[] audioBuffer;
+
+            while((audioBuffer = cursor.next(AudioChunkPool.CHUNK_SIZE)) != null)
             {
                 writer.writeData(ConversionUtils.convertToSigned16BitSamples(audioBuffer));
             }
@@ -128,7 +214,26 @@ public class AudioSegmentRecorder
             byte[] id3Bytes = AudioMetadataUtils.getMP3ID3(metadataMap);
             ByteBuffer id3Chunk = AudioMetadataUtils.getID3Chunk(id3Bytes);
             writer.writeMetadata(listChunk, id3Chunk);
-            writer.close();
+            writer.close(null, force);
+        }
+    }
+
+    /**
+     * Forces the contents of previously written recording files to storage.
+     * @param paths of recording files to force
+     */
+    public static void force(List<Path> paths)
+    {
+        for(Path path: paths)
+        {
+            try(FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE))
+            {
+                channel.force(true);
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error syncing recording file to storage [" + path + "]", ioe);
+            }
         }
     }
 }
@@ -0,0 +1,441 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.message.IMessage;
+import io.github.dsheirer.module.decode.p25.phase2.enumeration.ScrambleParameters;
+import io.github.dsheirer.record.binary.BinaryReader;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Headless replay and benchmark harness for demodulated bitstream (.bits) recordings produced by the BinaryRecorder.
+ *
+ * Each recording is replayed as fast as possible through the protocol's message framer, message processor and
+ * decoder state(s) on a single thread.  The harness reports overall message throughput and the exclusive time (and
+ * optionally heap allocation) spent in each stage, and can write the decoded messages to a text file or compare them
+ * against a golden file from an earlier run to validate that decoder changes don't alter the decoded output.
+ *
+ * Usage: BinaryReplayHarness [options] <recording.bits | directory> ...
+ *
+ *   --protocol NAME             P25P1, P25P2, MPT1327, MPT1327F, FLEETSYNC2, LTRNET, LTRNETISW, LTR or LTRISW.
+ *                               Detected from the recording file name when not specified.
+ *   --scramble WACN:SYSTEM:NAC  APCO-25 Phase 2 scrambling parameters (decimal or 0x hex values)
+ *   --warmup N                  replay the recordings N times before the measured pass (default 0)
+ *   --buffer BYTES              bytes per buffer read from the recording (default 1024)
+ *   --alloc                     track per-stage heap allocations (adds overhead to the stage timing)
+ *   --output FILE               write decoded messages to the file, one per line
+ *   --golden FILE               compare decoded messages against the golden file and exit with status 1 on mismatch
+ *
+ * From the project directory: gradlew replay --args="--golden golden.txt /path/to/recordings"
+ */
+public class BinaryReplayHarness
+{
+    private final static Logger mLog = LoggerFactory.getLogger(BinaryReplayHarness.class);
+    private static final String RECORDING_EXTENSION = ".bits";
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private List<Path> mRecordings = new ArrayList<>();
+    private ReplayProtocol mProtocol;
+    private ScrambleParameters mScrambleParameters;
+    private int mWarmupPasses;
+    private int mBufferSize = DEFAULT_BUFFER_SIZE;
+    private boolean mTrackAllocations;
+    private Path mOutputFile;
+    private Path mGoldenFile;
+
+    private StageProfiler mProfiler;
+    private BufferedWriter mOutputWriter;
+    private GoldenFileComparator mGoldenFileComparator;
+    private long mMessageCount;
+    private long mDecodeEventCount;
+    private long mByteCount;
+    private long mRecordedMilliseconds;
+
+    /**
+     * Constructs a harness from the command line arguments
+     *
+     * @param args command line arguments
+     * @throws IllegalArgumentException if the arguments are invalid
+     */
+    public BinaryReplayHarness(String[] args) throws IOException
+    {
+        for(int x = 0; x < args.length; x++)
+        {
+            String arg = args[x];
+
+            switch(arg)
+            {
+                case "--protocol":
+                    mProtocol = ReplayProtocol.fromShortName(getValue(args, ++x, arg));
+
+                    if(mProtocol == null)
+                    {
+                        throw new IllegalArgumentException("Unrecognized protocol: " + args[x]);
+                    }
+                    break;
+                case "--scramble":
+                    mScrambleParameters = parseScrambleParameters(getValue(args, ++x, arg));
+                    break;
+                case "--warmup":
+                    mWarmupPasses = Integer.parseInt(getValue(args, ++x, arg));
+                    break;
+                case "--buffer":
+                    mBufferSize = Integer.parseInt(getValue(args, ++x, arg));
+                    break;
+                case "--alloc":
+                    mTrackAllocations = true;
+                    break;
+                case "--output":
+                    mOutputFile = Path.of(getValue(args, ++x, arg));
+                    break;
+                case "--golden":
+                    mGoldenFile = Path.of(getValue(args, ++x, arg));
+                    break;
+                default:
+                    if(arg.startsWith("--"))
+                    {
+                        throw new IllegalArgumentException("Unrecognized option: " + arg);
+                    }
+
+                    addRecordings(Path.of(arg));
+                    break;
+            }
+        }
+
+        if(mRecordings.isEmpty())
+        {
+            throw new IllegalArgumentException("No " + RECORDING_EXTENSION + " recordings specified");
+        }
+
+        if(mBufferSize <= 0)
+        {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+    }
+
+    private static String getValue(String[] args, int index, String option)
+    {
+        if(index >= args.length)
+        {
+            throw new IllegalArgumentException("Missing value for option: " + option);
+        }
+
+        return args[index];
+    }
+
+    /**
+     * Parses WACN:SYSTEM:NAC scrambling parameters
+     */
+    private static ScrambleParameters parseScrambleParameters(String value)
+    {
+        String[] parts = value.split(":");
+
+        if(parts.length != 3)
+        {
+            throw new IllegalArgumentException("Scramble parameters must be formatted as WACN:SYSTEM:NAC");
+        }
+
+        return new ScrambleParameters(Integer.decode(parts[0]), Integer.decode(parts[1]), Integer.decode(parts[2]));
+    }
+
+    /**
+     * Adds the recording, or each of the recordings in the directory sorted by file name
+     */
+    private void addRecordings(Path path) throws IOException
+    {
+        if(Files.isDirectory(path))
+        {
+            List<Path> recordings = new ArrayList<>();
+
+            try(DirectoryStream<Path> stream = Files.newDirectoryStream(path, "*" + RECORDING_EXTENSION))
+            {
+                stream.forEach(recordings::add);
+            }
+
+            Collections.sort(recordings);
+            mRecordings.addAll(recordings);
+        }
+        else if(Files.exists(path))
+        {
+            mRecordings.add(path);
+        }
+        else
+        {
+            throw new IllegalArgumentException("Recording not found: " + path);
+        }
+    }
+
+    /**
+     * Replays the recordings for the warmup passes and then the measured pass.
+     *
+     * @return true if the replay completed and matched the golden file (when specified)
+     */
+    public boolean run() throws IOException
+    {
+        for(int x = 0; x < mWarmupPasses; x++)
+        {
+            mLog.info("Warmup pass " + (x + 1) + " of " + mWarmupPasses);
+            replay(false);
+        }
+
+        try
+        {
+            if(mOutputFile != null)
+            {
+                mOutputWriter = Files.newBufferedWriter(mOutputFile);
+            }
+
+            if(mGoldenFile != null)
+            {
+                mGoldenFileComparator = new GoldenFileComparator(mGoldenFile);
+            }
+
+            long start = System.nanoTime();
+            replay(true);
+            long elapsed = System.nanoTime() - start;
+
+            if(mGoldenFileComparator != null)
+            {
+                mGoldenFileComparator.finish();
+            }
+
+            System.out.println(getReport(elapsed));
+
+            return mGoldenFileComparator == null || mGoldenFileComparator.isMatch();
+        }
+        finally
+        {
+            if(mOutputWriter != null)
+            {
+                mOutputWriter.close();
+                mOutputWriter = null;
+            }
+
+            if(mGoldenFileComparator != null)
+            {
+                mGoldenFileComparator.close();
+            }
+        }
+    }
+
+    /**
+     * Replays each of the recordings
+     *
+     * @param measured true for the measured pass, false for a warmup pass
+     */
+    private void replay(boolean measured) throws IOException
+    {
+        mProfiler = new StageProfiler(measured && mTrackAllocations);
+        mMessageCount = 0;
+        mDecodeEventCount = 0;
+        mByteCount = 0;
+        mRecordedMilliseconds = 0;
+
+        for(Path recording: mRecordings)
+        {
+            ReplayProtocol protocol = mProtocol != null ? mProtocol :
+                ReplayProtocol.fromFileName(recording.getFileName().toString());
+
+            if(protocol == null)
+            {
+                mLog.warn("Skipping recording - unable to detect protocol from file name [" + recording +
+                    "] - use the --protocol option");
+                continue;
+            }
+
+            replay(recording, protocol, measured);
+        }
+    }
+
+    /**
+     * Replays a single recording through a new pipeline for the protocol
+     */
+    private void replay(Path recording, ReplayProtocol protocol, boolean measured) throws IOException
+    {
+        ReplayPipeline pipeline = ReplayPipelineFactory.create(protocol, mScrambleParameters, mProfiler);
+
+        pipeline.setMessageListener(this::receive);
+        pipeline.setDecodeEventListener(decodeEvent -> mDecodeEventCount++);
+        pipeline.start();
+
+        long bytes = 0;
+
+        try(BinaryReader reader = new BinaryReader(recording, mBufferSize))
+        {
+            while(reader.hasNext())
+            {
+                ReusableByteBuffer buffer = reader.next();
+                bytes += buffer.getBytes().length;
+                pipeline.process(buffer);
+            }
+        }
+        catch(Exception e)
+        {
+            throw new IOException("Error replaying recording [" + recording + "]", e);
+        }
+        finally
+        {
+            pipeline.stop();
+            pipeline.dispose();
+        }
+
+        mByteCount += bytes;
+        mRecordedMilliseconds += bytes * 8 * 1000 / protocol.getProtocol().getBitRate();
+
+        if(measured)
+        {
+            mLog.info("Replayed [" + recording.getFileName() + "] as " + protocol + " - " + bytes + " bytes");
+        }
+    }
+
+    /**
+     * Processes each decoded message for output and golden file comparison
+     */
+    private void receive(IMessage message)
+    {
+        mMessageCount++;
+
+        if(mOutputWriter != null || mGoldenFileComparator != null)
+        {
+            String line = message.toString().replace('\n', ' ');
+
+            try
+            {
+                if(mOutputWriter != null)
+                {
+                    mOutputWriter.write(line);
+                    mOutputWriter.newLine();
+                }
+
+                if(mGoldenFileComparator != null)
+                {
+                    mGoldenFileComparator.compare(line);
+                }
+            }
+            catch(IOException ioe)
+            {
+                mLog.error("Error writing decoded message output", ioe);
+            }
+        }
+    }
+
+    /**
+     * Creates the throughput and per-stage profile report
+     *
+     * @param elapsedNanos for the measured pass
+     */
+    private String getReport(long elapsedNanos)
+    {
+        double elapsedSeconds = elapsedNanos / 1E9;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("\nReplay Summary\n");
+        sb.append("  Recordings: ").append(mRecordings.size()).append("\n");
+        sb.append("  Bytes: ").append(mByteCount).append("\n");
+        sb.append("  Recorded Duration: ").append(String.format("%.1f", mRecordedMilliseconds / 1000.0)).append(" s\n");
+        sb.append("  Elapsed: ").append(String.format("%.3f", elapsedSeconds)).append(" s\n");
+        sb.append("  Messages: ").append(mMessageCount).append("\n");
+        sb.append("  Decode Events: ").append(mDecodeEventCount).append("\n");
+
+        if(elapsedSeconds > 0)
+        {
+            sb.append("  Throughput: ").append(String.format("%.0f", mMessageCount / elapsedSeconds)).append(" messages/s ");
+            sb.append(String.format("%.0f", mByteCount * 8 / elapsedSeconds)).append(" bits/s ");
+            sb.append(String.format("(%.1fx real-time)", mRecordedMilliseconds / 1000.0 / elapsedSeconds)).append("\n");
+        }
+
+        sb.append("\nStage Profile (exclusive)\n");
+        sb.append(String.format("  %-20s %12s %7s %14s %12s", "Stage", "Time (ms)", "%", "Invocations", "ns/Invoke"));
+
+        if(mProfiler.isTrackingAllocations())
+        {
+            sb.append(String.format(" %14s %12s", "Allocated (KB)", "B/Message"));
+        }
+
+        sb.append("\n");
+
+        long stageTotal = mProfiler.getTotalElapsedNanos();
+
+        for(ReplayStage stage: ReplayStage.values())
+        {
+            long elapsed = mProfiler.getElapsedNanos(stage);
+            long invocations = mProfiler.getInvocations(stage);
+
+            sb.append(String.format("  %-20s %12.1f %7.1f %14d %12d", stage.getLabel(), elapsed / 1E6,
+                (elapsedNanos > 0 ? elapsed * 100.0 / elapsedNanos : 0.0), invocations,
+                (invocations > 0 ? elapsed / invocations : 0)));
+
+            if(mProfiler.isTrackingAllocations())
+            {
+                long allocated = mProfiler.getAllocatedBytes(stage);
+                sb.append(String.format(" %14d %12d", allocated / 1024,
+                    (mMessageCount > 0 ? allocated / mMessageCount : 0)));
+            }
+
+            sb.append("\n");
+        }
+
+        long readerElapsed = elapsedNanos - stageTotal;
+        sb.append(String.format("  %-20s %12.1f %7.1f\n", "Reader/Other", readerElapsed / 1E6,
+            (elapsedNanos > 0 ? readerElapsed * 100.0 / elapsedNanos : 0.0)));
+
+        if(mGoldenFileComparator != null)
+        {
+            sb.append("\n").append(mGoldenFileComparator.getSummary());
+        }
+
+        return sb.toString();
+    }
+
+    public static void main(String[] args)
+    {
+        try
+        {
+            BinaryReplayHarness harness = new BinaryReplayHarness(args);
+            System.exit(harness.run() ? 0 : 1);
+        }
+        catch(IllegalArgumentException iae)
+        {
+            System.err.println(iae.getMessage());
+            System.err.println("Usage: BinaryReplayHarness [--protocol NAME] [--scramble WACN:SYSTEM:NAC] [--warmup N] " +
+                "[--buffer BYTES] [--alloc] [--output FILE] [--golden FILE] <recording.bits | directory> ...");
+            System.exit(2);
+        }
+        catch(IOException ioe)
+        {
+            mLog.error("Error replaying recordings", ioe);
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.PackedMessageFramer;
+import io.github.dsheirer.bits.SyncPattern;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replay pipeline for protocols that use the bit-oriented sync pattern message framer (MPT-1327, Fleetsync, LTR).
+ *
+ * Recorded bytes are passed to the framers as packed words and are unpacked most significant bit first, matching the packing
+ * order used by the BinaryToByteBufferAssembler when the bitstream was recorded.
+ */
+public class BitstreamReplayPipeline extends ReplayPipeline
+{
+    private List<PackedMessageFramer> mMessageFramers = new ArrayList<>();
+
+    /**
+     * Constructs an instance
+     *
+     * @param profiler to track stage metrics
+     */
+    public BitstreamReplayPipeline(StageProfiler profiler)
+    {
+        super(profiler);
+    }
+
+    /**
+     * Adds a message framer for the sync pattern that sends framed messages to the message processor.
+     *
+     * @param syncPattern to detect
+     * @param messageLength in bits, including the sync pattern
+     * @param messageProcessor to receive framed messages
+     */
+    public void addMessageFramer(SyncPattern syncPattern, int messageLength,
+                                 Listener<CorrectedBinaryMessage> messageProcessor)
+    {
+        PackedMessageFramer messageFramer = new PackedMessageFramer(syncPattern.getPattern(), messageLength);
+        messageFramer.addMessageListener(getProfiler().wrap(ReplayStage.MESSAGE_PROCESSOR, messageProcessor));
+        mMessageFramers.add(messageFramer);
+    }
+
+    @Override
+    protected void receive(ReusableByteBuffer buffer)
+    {
+        byte[] bytes = buffer.getBytes();
+
+        //Framers are fed alternately, one packed word at a time, so that messages from framers that share a message
+        //processor (e.g. MPT-1327 control and traffic) stay in near bit-stream order
+        for(int x = 0; x < bytes.length; x += 8)
+        {
+            int end = Math.min(x + 8, bytes.length);
+            long word = 0;
+
+            for(int y = x; y < end; y++)
+            {
+                word = (word << 8) | (bytes[y] & 0xFF);
+            }
+
+            int bitCount = (end - x) * 8;
+
+            for(int y = 0; y < mMessageFramers.size(); y++)
+            {
+                mMessageFramers.get(y).process(word, bitCount);
+            }
+        }
+
+        buffer.decrementUserCount();
+    }
+
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+
+        for(PackedMessageFramer messageFramer: mMessageFramers)
+        {
+            messageFramer.dispose();
+        }
+
+        mMessageFramers.clear();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares decoded message text, line by line, against a golden file produced by an earlier replay of the same
+ * recording(s).  Lines are streamed from the golden file so that large replays don't need to be held in memory.
+ */
+public class GoldenFileComparator implements AutoCloseable
+{
+    private static final int MAX_REPORTED_MISMATCHES = 10;
+
+    private BufferedReader mReader;
+    private Path mGoldenFile;
+    private long mLineNumber;
+    private long mMatchCount;
+    private long mMismatchCount;
+    private long mMissingCount;
+    private long mExtraCount;
+    private List<String> mMismatches = new ArrayList<>();
+
+    /**
+     * Constructs a comparator for the golden file.
+     *
+     * @param goldenFile containing the expected decoded message lines
+     * @throws IOException if the golden file can't be opened
+     */
+    public GoldenFileComparator(Path goldenFile) throws IOException
+    {
+        mGoldenFile = goldenFile;
+        mReader = Files.newBufferedReader(goldenFile);
+    }
+
+    /**
+     * Compares the decoded line against the next line from the golden file
+     */
+    public void compare(String actual) throws IOException
+    {
+        mLineNumber++;
+
+        String expected = mReader.readLine();
+
+        if(expected == null)
+        {
+            mExtraCount++;
+            addMismatch("Line " + mLineNumber + " not in golden file - actual [" + actual + "]");
+        }
+        else if(expected.equals(actual))
+        {
+            mMatchCount++;
+        }
+        else
+        {
+            mMismatchCount++;
+            addMismatch("Line " + mLineNumber + " expected [" + expected + "] actual [" + actual + "]");
+        }
+    }
+
+    /**
+     * Counts any remaining golden lines that were not produced by the replay
+     */
+    public void finish() throws IOException
+    {
+        String expected;
+
+        while((expected = mReader.readLine()) != null)
+        {
+            mLineNumber++;
+            mMissingCount++;
+            addMismatch("Line " + mLineNumber + " missing from replay - expected [" + expected + "]");
+        }
+    }
+
+    private void addMismatch(String description)
+    {
+        if(mMismatches.size() < MAX_REPORTED_MISMATCHES)
+        {
+            mMismatches.add(description);
+        }
+    }
+
+    /**
+     * Indicates if the replay exactly matched the golden file
+     */
+    public boolean isMatch()
+    {
+        return mMismatchCount == 0 && mMissingCount == 0 && mExtraCount == 0;
+    }
+
+    /**
+     * Summary of the comparison, including the first few mismatched lines
+     */
+    public String getSummary()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Golden File: ").append(mGoldenFile).append("\n");
+        sb.append("  Result: ").append(isMatch() ? "MATCH" : "MISMATCH").append("\n");
+        sb.append("  Matched: ").append(mMatchCount);
+        sb.append(" Mismatched: ").append(mMismatchCount);
+        sb.append(" Missing: ").append(mMissingCount);
+        sb.append(" Extra: ").append(mExtraCount).append("\n");
+
+        for(String mismatch: mMismatches)
+        {
+            sb.append("  ").append(mismatch).append("\n");
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        mReader.close();
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.bits.CorrectedBinaryMessage;
+import io.github.dsheirer.bits.MessageFramer;
+import io.github.dsheirer.bits.PackedMessageFramer;
+import io.github.dsheirer.bits.SyncPattern;
+import io.github.dsheirer.module.decode.fleetsync2.Fleetsync2Decoder;
+import io.github.dsheirer.module.decode.ltrnet.LTRNetDecoder;
+import io.github.dsheirer.module.decode.ltrstandard.LTRStandardDecoder;
+import io.github.dsheirer.module.decode.mpt1327.MPT1327Decoder;
+import io.github.dsheirer.module.decode.mpt1327.Sync;
+import io.github.dsheirer.record.binary.BinaryReader;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Benchmark comparing the per-bit MessageFramer against the PackedMessageFramer using demodulated bitstream (.bits)
+ * recordings of the AFSK and LTR protocols.
+ *
+ * Each recording is loaded into memory and framed repeatedly by each framer using the sync patterns and message
+ * lengths of the recording's protocol.  The framed messages from both framers are compared once before timing to
+ * verify that the framers produce identical output.
+ *
+ * Usage: MessageFramerBenchmark [--protocol NAME] [--iterations N] <recording.bits> ...
+ *
+ *   --protocol NAME   MPT1327, MPT1327F, FLEETSYNC2, LTRNET, LTRNETISW, LTR or LTRISW.  Detected from the recording
+ *                     file name when not specified.
+ *   --iterations N    measured framing passes per framer (default 20), preceded by the same number of warmup passes
+ */
+public class MessageFramerBenchmark
+{
+    private static final int DEFAULT_ITERATIONS = 20;
+
+    /**
+     * Sync pattern and message length framed for a protocol
+     */
+    private static class FramerSpec
+    {
+        private SyncPattern mSyncPattern;
+        private int mMessageLength;
+
+        FramerSpec(SyncPattern syncPattern, int messageLength)
+        {
+            mSyncPattern = syncPattern;
+            mMessageLength = messageLength;
+        }
+    }
+
+    /**
+     * Sync patterns and message lengths for the protocol, matching the ReplayPipelineFactory framer setup.
+     *
+     * @return framer specifications, or an empty list if the protocol doesn't use a sync pattern message framer
+     */
+    private static List<FramerSpec> getFramerSpecs(ReplayProtocol protocol)
+    {
+        List<FramerSpec> specs = new ArrayList<>();
+
+        switch(protocol)
+        {
+            case MPT1327:
+            case MPT1327_FRENCH:
+                Sync sync = protocol == ReplayProtocol.MPT1327 ? Sync.NORMAL : Sync.FRENCH;
+                specs.add(new FramerSpec(sync.getControlSyncPattern(), MPT1327Decoder.MESSAGE_LENGTH));
+                specs.add(new FramerSpec(sync.getTrafficSyncPattern(), MPT1327Decoder.MESSAGE_LENGTH));
+                break;
+            case FLEETSYNC2:
+                specs.add(new FramerSpec(SyncPattern.FLEETSYNC2, Fleetsync2Decoder.MESSAGE_LENGTH));
+                break;
+            case LTR_NET_OSW:
+                specs.add(new FramerSpec(SyncPattern.LTR_STANDARD_OSW, LTRNetDecoder.LTR_NET_MESSAGE_LENGTH));
+                break;
+            case LTR_NET_ISW:
+                specs.add(new FramerSpec(SyncPattern.LTR_STANDARD_ISW, LTRNetDecoder.LTR_NET_MESSAGE_LENGTH));
+                break;
+            case LTR_STANDARD_OSW:
+                specs.add(new FramerSpec(SyncPattern.LTR_STANDARD_OSW, LTRStandardDecoder.LTR_STANDARD_MESSAGE_LENGTH));
+                break;
+            case LTR_STANDARD_ISW:
+                specs.add(new FramerSpec(SyncPattern.LTR_STANDARD_ISW, LTRStandardDecoder.LTR_STANDARD_MESSAGE_LENGTH));
+                break;
+            default:
+                break;
+        }
+
+        return specs;
+    }
+
+    /**
+     * Reads the full recording into memory
+     */
+    private static byte[] load(Path recording) throws IOException
+    {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        try(BinaryReader reader = new BinaryReader(recording, 8192))
+        {
+            while(reader.hasNext())
+            {
+                ReusableByteBuffer buffer = reader.next();
+                stream.write(buffer.getBytes());
+                buffer.decrementUserCount();
+            }
+        }
+        catch(IOException ioe)
+        {
+            throw ioe;
+        }
+        catch(Exception e)
+        {
+            throw new IOException("Error reading recording [" + recording + "]", e);
+        }
+
+        return stream.toByteArray();
+    }
+
+    /**
+     * Frames the bytes with the per-bit message framer, one framer per spec
+     */
+    private static void frameLegacy(byte[] bytes, List<FramerSpec> specs, List<CorrectedBinaryMessage> messages)
+    {
+        List<MessageFramer> framers = new ArrayList<>();
+
+        for(FramerSpec spec: specs)
+        {
+            MessageFramer framer = new MessageFramer(spec.mSyncPattern.getPattern(), spec.mMessageLength);
+            framer.addMessageListener(messages::add);
+            framers.add(framer);
+        }
+
+        for(byte value: bytes)
+        {
+            for(int mask = 0x80; mask > 0; mask >>= 1)
+            {
+                boolean bit = (value & mask) == mask;
+
+                for(int x = 0; x < framers.size(); x++)
+                {
+                    framers.get(x).process(bit);
+                }
+            }
+        }
+
+        for(MessageFramer framer: framers)
+        {
+            framer.dispose();
+        }
+    }
+
+    /**
+     * Frames the bytes with the packed message framer, one framer per spec
+     */
+    private static void framePacked(byte[] bytes, List<FramerSpec> specs, List<CorrectedBinaryMessage> messages)
+    {
+        for(FramerSpec spec: specs)
+        {
+            PackedMessageFramer framer = new PackedMessageFramer(spec.mSyncPattern.getPattern(), spec.mMessageLength);
+            framer.addMessageListener(messages::add);
+            framer.process(bytes);
+            framer.dispose();
+        }
+    }
+
+    /**
+     * Verifies that both framers produce the same set of messages.  Messages are compared per framer since the
+     * legacy framing interleaves the output of multiple framers.
+     */
+    private static boolean verify(byte[] bytes, List<FramerSpec> specs)
+    {
+        for(FramerSpec spec: specs)
+        {
+            List<FramerSpec> single = Collections.singletonList(spec);
+            List<CorrectedBinaryMessage> legacy = new ArrayList<>();
+            List<CorrectedBinaryMessage> packed = new ArrayList<>();
+            frameLegacy(bytes, single, legacy);
+            framePacked(bytes, single, packed);
+
+            if(!legacy.equals(packed))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public static void main(String[] args) throws IOException
+    {
+        ReplayProtocol protocolOverride = null;
+        int iterations = DEFAULT_ITERATIONS;
+        List<Path> recordings = new ArrayList<>();
+
+        for(int x = 0; x < args.length; x++)
+        {
+            switch(args[x])
+            {
+                case "--protocol":
+                    protocolOverride = ReplayProtocol.fromShortName(args[++x]);
+                    break;
+                case "--iterations":
+                    iterations = Integer.parseInt(args[++x]);
+                    break;
+                default:
+                    recordings.add(Path.of(args[x]));
+                    break;
+            }
+        }
+
+        if(recordings.isEmpty())
+        {
+            System.out.println("Usage: MessageFramerBenchmark [--protocol NAME] [--iterations N] <recording.bits> ...");
+            return;
+        }
+
+        System.out.println(String.format("%-40s %10s %8s %12s %12s %8s %6s", "Recording", "Bits", "Messages",
+            "Legacy ns/b", "Packed ns/b", "Speedup", "Match"));
+
+        for(Path recording: recordings)
+        {
+            ReplayProtocol protocol = protocolOverride != null ? protocolOverride :
+                ReplayProtocol.fromFileName(recording.getFileName().toString());
+            List<FramerSpec> specs = protocol != null ? getFramerSpecs(protocol) : Collections.emptyList();
+
+            if(specs.isEmpty())
+            {
+                System.out.println("Skipping [" + recording.getFileName() + "] - not a message framer protocol");
+                continue;
+            }
+
+            byte[] bytes = load(recording);
+            long bits = bytes.length * 8L;
+            boolean match = verify(bytes, specs);
+            List<CorrectedBinaryMessage> messages = new ArrayList<>();
+
+            for(int x = 0; x < iterations; x++)
+            {
+                messages.clear();
+                frameLegacy(bytes, specs, messages);
+                messages.clear();
+                framePacked(bytes, specs, messages);
+            }
+
+            long legacyNanos = 0;
+            long packedNanos = 0;
+
+            for(int x = 0; x < iterations; x++)
+            {
+                messages.clear();
+                long start = System.nanoTime();
+                frameLegacy(bytes, specs, messages);
+                legacyNanos += System.nanoTime() - start;
+
+                messages.clear();
+                start = System.nanoTime();
+                framePacked(bytes, specs, messages);
+                packedNanos += System.nanoTime() - start;
+            }
+
+            double legacy = bits > 0 ? (double)legacyNanos / iterations / bits : 0.0;
+            double packed = bits > 0 ? (double)packedNanos / iterations / bits : 0.0;
+
+            System.out.println(String.format("%-40s %10d %8d %12.2f %12.2f %7.1fx %6s", recording.getFileName(), bits,
+                messages.size(), legacy, packed, (packed > 0 ? legacy / packed : 0.0), match));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.module.decode.p25.phase1.DecodeConfigP25Phase1;
+import io.github.dsheirer.module.decode.p25.phase1.P25P1DecoderState;
+import io.github.dsheirer.module.decode.p25.phase1.P25P1MessageFramer;
+import io.github.dsheirer.module.decode.p25.phase1.P25P1MessageProcessor;
+import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
+
+/**
+ * APCO-25 Phase 1 replay pipeline
+ */
+public class P25P1ReplayPipeline extends ReplayPipeline
+{
+    private P25P1MessageFramer mMessageFramer;
+    private P25P1MessageProcessor mMessageProcessor;
+
+    /**
+     * Constructs an instance
+     *
+     * @param profiler to track stage metrics
+     */
+    public P25P1ReplayPipeline(StageProfiler profiler)
+    {
+        super(profiler);
+
+        mMessageFramer = new P25P1MessageFramer(Protocol.APCO25.getBitRate());
+        mMessageProcessor = new P25P1MessageProcessor();
+        mMessageFramer.setListener(profiler.wrap(ReplayStage.MESSAGE_PROCESSOR, mMessageProcessor));
+        mMessageProcessor.setMessageListener(getMessageDistributor());
+
+        Channel channel = new Channel("P25P1 Replay", Channel.ChannelType.STANDARD);
+        channel.setDecodeConfiguration(new DecodeConfigP25Phase1());
+        addDecoderState(new P25P1DecoderState(channel));
+    }
+
+    @Override
+    protected void receive(ReusableByteBuffer buffer)
+    {
+        mMessageFramer.receive(buffer);
+    }
+
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+        mMessageFramer.setListener(null);
+        mMessageProcessor.dispose();
+    }
+}
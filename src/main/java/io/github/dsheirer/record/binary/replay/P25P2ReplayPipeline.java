@@ -0,0 +1,89 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.controller.channel.Channel;
+import io.github.dsheirer.module.decode.p25.phase2.DecodeConfigP25Phase2;
+import io.github.dsheirer.module.decode.p25.phase2.P25P2DecoderState;
+import io.github.dsheirer.module.decode.p25.phase2.P25P2MessageFramer;
+import io.github.dsheirer.module.decode.p25.phase2.P25P2MessageProcessor;
+import io.github.dsheirer.module.decode.p25.phase2.enumeration.ScrambleParameters;
+import io.github.dsheirer.protocol.Protocol;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
+
+/**
+ * APCO-25 Phase 2 replay pipeline with a decoder state for each of the two timeslots.
+ */
+public class P25P2ReplayPipeline extends ReplayPipeline
+{
+    private P25P2MessageFramer mMessageFramer;
+    private P25P2MessageProcessor mMessageProcessor;
+
+    /**
+     * Constructs an instance
+     *
+     * @param profiler to track stage metrics
+     * @param scrambleParameters for descrambling the recorded channel, or null
+     */
+    public P25P2ReplayPipeline(StageProfiler profiler, ScrambleParameters scrambleParameters)
+    {
+        super(profiler);
+
+        mMessageFramer = new P25P2MessageFramer(Protocol.APCO25_PHASE2.getBitRate());
+
+        if(scrambleParameters != null)
+        {
+            mMessageFramer.setScrambleParameters(scrambleParameters);
+        }
+
+        mMessageProcessor = new P25P2MessageProcessor();
+        mMessageFramer.setListener(profiler.wrap(ReplayStage.MESSAGE_PROCESSOR, mMessageProcessor));
+        mMessageProcessor.setMessageListener(getMessageDistributor());
+
+        Channel channel = new Channel("P25P2 Replay", Channel.ChannelType.TRAFFIC);
+        DecodeConfigP25Phase2 decodeConfig = new DecodeConfigP25Phase2();
+
+        if(scrambleParameters != null)
+        {
+            decodeConfig.setScrambleParameters(scrambleParameters);
+        }
+
+        channel.setDecodeConfiguration(decodeConfig);
+        addDecoderState(new P25P2DecoderState(channel, 0));
+        addDecoderState(new P25P2DecoderState(channel, 1));
+    }
+
+    @Override
+    protected void receive(ReusableByteBuffer buffer)
+    {
+        mMessageFramer.receive(buffer);
+    }
+
+    @Override
+    public void dispose()
+    {
+        super.dispose();
+        mMessageFramer.setListener(null);
+        mMessageProcessor.dispose();
+    }
+}
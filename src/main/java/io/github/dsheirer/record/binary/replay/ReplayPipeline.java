@@ -0,0 +1,186 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.channel.state.DecoderState;
+import io.github.dsheirer.message.IMessage;
+import io.github.dsheirer.module.decode.event.IDecodeEvent;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.buffer.ReusableByteBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Headless decode pipeline for replaying a demodulated bitstream recording through a protocol's message framer,
+ * message processor and decoder state(s) on the calling thread.
+ *
+ * Sub-class implementations create the framer and message processor for the protocol and deliver fully processed
+ * messages to the listener returned by getMessageDistributor().  Create a new pipeline for each recording so that
+ * framer and decoder state history doesn't carry over between recordings.
+ */
+public abstract class ReplayPipeline
+{
+    private List<DecoderState> mDecoderStates = new ArrayList<>();
+    private StageProfiler mProfiler;
+    private Listener<IMessage> mMessageListener;
+    private Listener<IDecodeEvent> mDecodeEventListener;
+    private Listener<IMessage> mMessageDistributor = new MessageDistributor();
+
+    /**
+     * Constructs an instance
+     *
+     * @param profiler to track stage metrics
+     */
+    protected ReplayPipeline(StageProfiler profiler)
+    {
+        mProfiler = profiler;
+    }
+
+    /**
+     * Profiler for this pipeline
+     */
+    protected StageProfiler getProfiler()
+    {
+        return mProfiler;
+    }
+
+    /**
+     * Adds a decoder state to receive each processed message
+     */
+    protected void addDecoderState(DecoderState decoderState)
+    {
+        mDecoderStates.add(decoderState);
+
+        decoderState.addDecodeEventListener(decodeEvent -> {
+            if(mDecodeEventListener != null)
+            {
+                mProfiler.enter(ReplayStage.OUTPUT);
+                mDecodeEventListener.receive(decodeEvent);
+                mProfiler.exit();
+            }
+        });
+    }
+
+    /**
+     * Listener for fully processed messages.  Messages are dispatched to each of the decoder states and then to the
+     * registered message listener.
+     */
+    protected Listener<IMessage> getMessageDistributor()
+    {
+        return mMessageDistributor;
+    }
+
+    /**
+     * Registers the listener to receive each processed message
+     */
+    public void setMessageListener(Listener<IMessage> listener)
+    {
+        mMessageListener = listener;
+    }
+
+    /**
+     * Registers the listener to receive decode events produced by the decoder state(s)
+     */
+    public void setDecodeEventListener(Listener<IDecodeEvent> listener)
+    {
+        mDecodeEventListener = listener;
+    }
+
+    /**
+     * Processes the buffer of demodulated bits, profiled as the framer stage.
+     */
+    public void process(ReusableByteBuffer buffer)
+    {
+        mProfiler.enter(ReplayStage.FRAMER);
+        receive(buffer);
+        mProfiler.exit();
+    }
+
+    /**
+     * Sub-class implementation to process the buffer of demodulated bits.  Implementations must decrement the user
+     * count on the buffer once processing is complete.
+     */
+    protected abstract void receive(ReusableByteBuffer buffer);
+
+    /**
+     * Starts the decoder state(s)
+     */
+    public void start()
+    {
+        for(DecoderState decoderState: mDecoderStates)
+        {
+            decoderState.start();
+        }
+    }
+
+    /**
+     * Stops the decoder state(s)
+     */
+    public void stop()
+    {
+        for(DecoderState decoderState: mDecoderStates)
+        {
+            decoderState.stop();
+        }
+    }
+
+    /**
+     * Disposes the decoder state(s) and releases listeners
+     */
+    public void dispose()
+    {
+        for(DecoderState decoderState: mDecoderStates)
+        {
+            decoderState.dispose();
+        }
+
+        mDecoderStates.clear();
+        mMessageListener = null;
+        mDecodeEventListener = null;
+    }
+
+    /**
+     * Dispatches processed messages to the decoder states and the message listener, profiling each as its own stage.
+     */
+    private class MessageDistributor implements Listener<IMessage>
+    {
+        @Override
+        public void receive(IMessage message)
+        {
+            for(DecoderState decoderState: mDecoderStates)
+            {
+                mProfiler.enter(ReplayStage.DECODER_STATE);
+                decoderState.receive(message);
+                mProfiler.exit();
+            }
+
+            if(mMessageListener != null)
+            {
+                mProfiler.enter(ReplayStage.OUTPUT);
+                mMessageListener.receive(message);
+                mProfiler.exit();
+            }
+        }
+    }
+}
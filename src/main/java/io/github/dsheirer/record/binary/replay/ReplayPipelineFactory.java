@@ -0,0 +1,147 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.bits.SyncPattern;
+import io.github.dsheirer.controller.channel.Channel.ChannelType;
+import io.github.dsheirer.message.MessageDirection;
+import io.github.dsheirer.module.decode.config.DecodeConfiguration;
+import io.github.dsheirer.module.decode.fleetsync2.Fleetsync2Decoder;
+import io.github.dsheirer.module.decode.fleetsync2.Fleetsync2DecoderState;
+import io.github.dsheirer.module.decode.fleetsync2.Fleetsync2MessageProcessor;
+import io.github.dsheirer.module.decode.ltrnet.LTRNetDecoder;
+import io.github.dsheirer.module.decode.ltrnet.LTRNetDecoderState;
+import io.github.dsheirer.module.decode.ltrnet.LTRNetMessageProcessor;
+import io.github.dsheirer.module.decode.ltrstandard.LTRStandardDecoder;
+import io.github.dsheirer.module.decode.ltrstandard.LTRStandardDecoderState;
+import io.github.dsheirer.module.decode.ltrstandard.LTRStandardMessageProcessor;
+import io.github.dsheirer.module.decode.mpt1327.MPT1327Decoder;
+import io.github.dsheirer.module.decode.mpt1327.MPT1327DecoderState;
+import io.github.dsheirer.module.decode.mpt1327.MPT1327MessageProcessor;
+import io.github.dsheirer.module.decode.mpt1327.Sync;
+import io.github.dsheirer.module.decode.p25.phase2.enumeration.ScrambleParameters;
+
+/**
+ * Factory for creating replay pipelines
+ */
+public class ReplayPipelineFactory
+{
+    /**
+     * Creates a replay pipeline for the protocol.
+     *
+     * @param protocol of the recording
+     * @param scrambleParameters for APCO-25 Phase 2 recordings, or null
+     * @param profiler to track stage metrics
+     * @return pipeline
+     */
+    public static ReplayPipeline create(ReplayProtocol protocol, ScrambleParameters scrambleParameters,
+                                        StageProfiler profiler)
+    {
+        switch(protocol)
+        {
+            case P25_PHASE1:
+                return new P25P1ReplayPipeline(profiler);
+            case P25_PHASE2:
+                return new P25P2ReplayPipeline(profiler, scrambleParameters);
+            case MPT1327:
+                return createMPT1327(Sync.NORMAL, profiler);
+            case MPT1327_FRENCH:
+                return createMPT1327(Sync.FRENCH, profiler);
+            case FLEETSYNC2:
+                return createFleetsync2(profiler);
+            case LTR_NET_OSW:
+                return createLTRNet(MessageDirection.OSW, profiler);
+            case LTR_NET_ISW:
+                return createLTRNet(MessageDirection.ISW, profiler);
+            case LTR_STANDARD_OSW:
+                return createLTRStandard(MessageDirection.OSW, profiler);
+            case LTR_STANDARD_ISW:
+                return createLTRStandard(MessageDirection.ISW, profiler);
+            default:
+                throw new IllegalArgumentException("Unrecognized replay protocol: " + protocol);
+        }
+    }
+
+    /**
+     * Creates an MPT-1327 pipeline with control and traffic channel message framers
+     */
+    private static ReplayPipeline createMPT1327(Sync sync, StageProfiler profiler)
+    {
+        BitstreamReplayPipeline pipeline = new BitstreamReplayPipeline(profiler);
+        MPT1327MessageProcessor messageProcessor = new MPT1327MessageProcessor();
+        messageProcessor.setMessageListener(pipeline.getMessageDistributor());
+        pipeline.addMessageFramer(sync.getControlSyncPattern(), MPT1327Decoder.MESSAGE_LENGTH, messageProcessor);
+        pipeline.addMessageFramer(sync.getTrafficSyncPattern(), MPT1327Decoder.MESSAGE_LENGTH, messageProcessor);
+        pipeline.addDecoderState(new MPT1327DecoderState(ChannelType.STANDARD,
+            DecodeConfiguration.DEFAULT_CALL_TIMEOUT_DELAY_SECONDS * 1000));
+        return pipeline;
+    }
+
+    /**
+     * Creates a Fleetsync II pipeline
+     */
+    private static ReplayPipeline createFleetsync2(StageProfiler profiler)
+    {
+        BitstreamReplayPipeline pipeline = new BitstreamReplayPipeline(profiler);
+        Fleetsync2MessageProcessor messageProcessor = new Fleetsync2MessageProcessor();
+        messageProcessor.setMessageListener(pipeline.getMessageDistributor());
+        pipeline.addMessageFramer(SyncPattern.FLEETSYNC2, Fleetsync2Decoder.MESSAGE_LENGTH, messageProcessor);
+        pipeline.addDecoderState(new Fleetsync2DecoderState());
+        return pipeline;
+    }
+
+    /**
+     * Creates an LTR-Net pipeline for the message direction
+     */
+    private static ReplayPipeline createLTRNet(MessageDirection direction, StageProfiler profiler)
+    {
+        BitstreamReplayPipeline pipeline = new BitstreamReplayPipeline(profiler);
+        LTRNetMessageProcessor messageProcessor = new LTRNetMessageProcessor(direction);
+        messageProcessor.setMessageListener(pipeline.getMessageDistributor());
+        pipeline.addMessageFramer(getLTRSyncPattern(direction), LTRNetDecoder.LTR_NET_MESSAGE_LENGTH, messageProcessor);
+        pipeline.addDecoderState(new LTRNetDecoderState());
+        return pipeline;
+    }
+
+    /**
+     * Creates an LTR-Standard pipeline for the message direction
+     */
+    private static ReplayPipeline createLTRStandard(MessageDirection direction, StageProfiler profiler)
+    {
+        BitstreamReplayPipeline pipeline = new BitstreamReplayPipeline(profiler);
+        LTRStandardMessageProcessor messageProcessor = new LTRStandardMessageProcessor(direction);
+        messageProcessor.setMessageListener(pipeline.getMessageDistributor());
+        pipeline.addMessageFramer(getLTRSyncPattern(direction), LTRStandardDecoder.LTR_STANDARD_MESSAGE_LENGTH,
+            messageProcessor);
+        pipeline.addDecoderState(new LTRStandardDecoderState());
+        return pipeline;
+    }
+
+    /**
+     * LTR sync pattern for the message direction
+     */
+    private static SyncPattern getLTRSyncPattern(MessageDirection direction)
+    {
+        return direction == MessageDirection.OSW ? SyncPattern.LTR_STANDARD_OSW : SyncPattern.LTR_STANDARD_ISW;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.protocol.Protocol;
+
+/**
+ * Protocols supported by the binary (.bits) recording replay harness.
+ */
+public enum ReplayProtocol
+{
+    P25_PHASE1("P25P1", "APCO-25 Phase 1", Protocol.APCO25),
+    P25_PHASE2("P25P2", "APCO-25 Phase 2", Protocol.APCO25_PHASE2),
+    MPT1327("MPT1327", "MPT-1327", Protocol.MPT1327),
+    MPT1327_FRENCH("MPT1327F", "MPT-1327 (French Sync)", Protocol.MPT1327),
+    FLEETSYNC2("FLEETSYNC2", "Fleetsync II", Protocol.FLEETSYNC),
+    LTR_NET_OSW("LTRNET", "LTR-Net Outbound", Protocol.LTR_NET),
+    LTR_NET_ISW("LTRNETISW", "LTR-Net Inbound", Protocol.LTR_NET),
+    LTR_STANDARD_OSW("LTR", "LTR-Standard Outbound", Protocol.LTR_STANDARD),
+    LTR_STANDARD_ISW("LTRISW", "LTR-Standard Inbound", Protocol.LTR_STANDARD);
+
+    private String mShortName;
+    private String mLabel;
+    private Protocol mProtocol;
+
+    ReplayProtocol(String shortName, String label, Protocol protocol)
+    {
+        mShortName = shortName;
+        mLabel = label;
+        mProtocol = protocol;
+    }
+
+    /**
+     * Short name used to specify the protocol on the command line
+     */
+    public String getShortName()
+    {
+        return mShortName;
+    }
+
+    public String getLabel()
+    {
+        return mLabel;
+    }
+
+    /**
+     * Recorded protocol
+     */
+    public Protocol getProtocol()
+    {
+        return mProtocol;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mLabel;
+    }
+
+    /**
+     * Lookup a replay protocol from the command line short name
+     *
+     * @return matching protocol or null
+     */
+    public static ReplayProtocol fromShortName(String shortName)
+    {
+        for(ReplayProtocol protocol: values())
+        {
+            if(protocol.getShortName().equalsIgnoreCase(shortName))
+            {
+                return protocol;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Detects the replay protocol from the protocol label that the BinaryRecorder embeds in each recording file name.
+     *
+     * @param fileName of the recording
+     * @return detected protocol or null if the protocol can't be determined
+     */
+    public static ReplayProtocol fromFileName(String fileName)
+    {
+        if(fileName.contains("_" + Protocol.APCO25_PHASE2.getFileNameLabel() + "_"))
+        {
+            return P25_PHASE2;
+        }
+        else if(fileName.contains("_" + Protocol.APCO25.getFileNameLabel() + "_"))
+        {
+            return P25_PHASE1;
+        }
+        else if(fileName.contains("_" + Protocol.MPT1327.getFileNameLabel() + "_"))
+        {
+            return MPT1327;
+        }
+        else if(fileName.contains("_" + Protocol.FLEETSYNC.getFileNameLabel() + "_"))
+        {
+            return FLEETSYNC2;
+        }
+        else if(fileName.contains("_" + Protocol.LTR_NET.getFileNameLabel() + "_"))
+        {
+            return LTR_NET_OSW;
+        }
+        else if(fileName.contains("_" + Protocol.LTR_STANDARD.getFileNameLabel() + "_"))
+        {
+            return LTR_STANDARD_OSW;
+        }
+
+        return null;
+    }
+}
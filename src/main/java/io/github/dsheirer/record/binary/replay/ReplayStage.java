@@ -0,0 +1,52 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+/**
+ * Processing stages of a replay pipeline that are profiled independently.
+ */
+public enum ReplayStage
+{
+    FRAMER("Framer"),
+    MESSAGE_PROCESSOR("Message Processor"),
+    DECODER_STATE("Decoder State"),
+    OUTPUT("Output");
+
+    private String mLabel;
+
+    ReplayStage(String label)
+    {
+        mLabel = label;
+    }
+
+    public String getLabel()
+    {
+        return mLabel;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mLabel;
+    }
+}
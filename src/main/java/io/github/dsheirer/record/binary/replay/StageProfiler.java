@@ -0,0 +1,209 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+
+package io.github.dsheirer.record.binary.replay;
+
+import io.github.dsheirer.sample.Listener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Single-threaded profiler that accumulates exclusive elapsed time and (optionally) heap allocation for each replay
+ * stage.  Stages are nested as the framer invokes the message processor, which in turn invokes the decoder states, so
+ * each stage is only charged for the work performed between its own entry/exit points and not for the work performed
+ * by the downstream stages that it calls.
+ *
+ * Allocation tracking uses the HotSpot per-thread allocation counter and adds measurable overhead to each stage
+ * transition, so it should be disabled when measuring raw throughput.
+ */
+public class StageProfiler
+{
+    private final static Logger mLog = LoggerFactory.getLogger(StageProfiler.class);
+    private static final int MAX_DEPTH = 16;
+
+    private long[] mElapsedNanos = new long[ReplayStage.values().length];
+    private long[] mAllocatedBytes = new long[ReplayStage.values().length];
+    private long[] mInvocations = new long[ReplayStage.values().length];
+    private ReplayStage[] mStack = new ReplayStage[MAX_DEPTH];
+    private int mDepth;
+    private long mLastTimestamp;
+    private long mLastAllocation;
+    private com.sun.management.ThreadMXBean mThreadMXBean;
+    private long mThreadId;
+
+    /**
+     * Constructs a profiler.
+     *
+     * @param trackAllocations to track per-stage heap allocations, when supported by the JVM
+     */
+    public StageProfiler(boolean trackAllocations)
+    {
+        if(trackAllocations)
+        {
+            ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+            if(threadMXBean instanceof com.sun.management.ThreadMXBean &&
+                ((com.sun.management.ThreadMXBean)threadMXBean).isThreadAllocatedMemorySupported())
+            {
+                mThreadMXBean = (com.sun.management.ThreadMXBean)threadMXBean;
+                mThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+                mThreadId = Thread.currentThread().getId();
+            }
+            else
+            {
+                mLog.warn("Per-thread allocation tracking is not supported by this JVM - allocations will not be reported");
+            }
+        }
+    }
+
+    /**
+     * Indicates if this profiler is tracking allocations
+     */
+    public boolean isTrackingAllocations()
+    {
+        return mThreadMXBean != null;
+    }
+
+    /**
+     * Enters the stage.  Time and allocations since the previous transition are charged to the enclosing stage.
+     */
+    public void enter(ReplayStage stage)
+    {
+        mark();
+
+        if(mDepth < MAX_DEPTH)
+        {
+            mStack[mDepth] = stage;
+        }
+
+        mDepth++;
+        mInvocations[stage.ordinal()]++;
+    }
+
+    /**
+     * Exits the current stage.  Time and allocations since the previous transition are charged to the current stage.
+     */
+    public void exit()
+    {
+        mark();
+
+        if(mDepth > 0)
+        {
+            mDepth--;
+        }
+    }
+
+    /**
+     * Charges the elapsed time and allocations since the last transition to the stage at the top of the stack
+     */
+    private void mark()
+    {
+        long now = System.nanoTime();
+        long allocation = mThreadMXBean != null ? mThreadMXBean.getThreadAllocatedBytes(mThreadId) : 0;
+
+        if(mDepth > 0 && mDepth <= MAX_DEPTH)
+        {
+            int index = mStack[mDepth - 1].ordinal();
+            mElapsedNanos[index] += now - mLastTimestamp;
+            mAllocatedBytes[index] += allocation - mLastAllocation;
+        }
+
+        mLastTimestamp = now;
+        mLastAllocation = allocation;
+    }
+
+    /**
+     * Wraps the listener so that each invocation is profiled as the specified stage.
+     */
+    public <T> Listener<T> wrap(ReplayStage stage, Listener<T> listener)
+    {
+        return t -> {
+            enter(stage);
+
+            try
+            {
+                listener.receive(t);
+            }
+            finally
+            {
+                exit();
+            }
+        };
+    }
+
+    /**
+     * Exclusive elapsed time for the stage in nanoseconds
+     */
+    public long getElapsedNanos(ReplayStage stage)
+    {
+        return mElapsedNanos[stage.ordinal()];
+    }
+
+    /**
+     * Exclusive heap allocation for the stage in bytes, or zero when allocation tracking is disabled
+     */
+    public long getAllocatedBytes(ReplayStage stage)
+    {
+        return mAllocatedBytes[stage.ordinal()];
+    }
+
+    /**
+     * Number of times the stage was entered
+     */
+    public long getInvocations(ReplayStage stage)
+    {
+        return mInvocations[stage.ordinal()];
+    }
+
+    /**
+     * Total elapsed time across all stages in nanoseconds
+     */
+    public long getTotalElapsedNanos()
+    {
+        long total = 0;
+
+        for(long elapsed: mElapsedNanos)
+        {
+            total += elapsed;
+        }
+
+        return total;
+    }
+
+    /**
+     * Resets all accumulated stage metrics
+     */
+    public void reset()
+    {
+        for(int x = 0; x < mElapsedNanos.length; x++)
+        {
+            mElapsedNanos[x] = 0;
+            mAllocatedBytes[x] = 0;
+            mInvocations[x] = 0;
+        }
+
+        mDepth = 0;
+    }
+}
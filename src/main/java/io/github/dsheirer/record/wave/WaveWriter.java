@@ -145,7 +145,21 @@ public class WaveWriter implements AutoCloseable
      */
     public void close(Path path) throws IOException
     {
-        mFileChannel.force(true);
+        close(path, true);
+    }
+
+    /**
+     * Closes the file and renames/moves the contents to the specified path
+     * @param path for the closed file, or null to leave the file in place
+     * @param force true to force the file contents to storage before closing
+     */
+    public void close(Path path, boolean force) throws IOException
+    {
+        if(force)
+        {
+            mFileChannel.force(true);
+        }
+
         mFileChannel.close();
 
         rename(path);
@@ -19,6 +19,8 @@
  */
 package io.github.dsheirer.sample;
 
+import io.github.dsheirer.metrics.BroadcastMetrics;
+import io.github.dsheirer.metrics.PipelineMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +34,7 @@ public class Broadcaster<T> implements Listener<T>
 {
     private final static Logger mLog = LoggerFactory.getLogger(Broadcaster.class);
     private boolean mDebug;
+    private BroadcastMetrics mMetrics;
 
     protected List<Listener<T>> mListeners = new CopyOnWriteArrayList<>();
 
@@ -47,6 +50,36 @@ public class Broadcaster<T> implements Listener<T>
         mDebug = debug;
     }
 
+    /**
+     * Assigns pipeline metrics to time each delivery to a listener while pipeline metrics collection is enabled.
+     *
+     * @param metrics to record deliveries, or null to stop recording
+     */
+    public void setMetrics(BroadcastMetrics metrics)
+    {
+        mMetrics = metrics;
+    }
+
+    /**
+     * Delivers the element to the listener, recording the delivery time when pipeline metrics are assigned and
+     * collection is enabled.
+     */
+    protected void deliver(Listener<T> listener, T t)
+    {
+        BroadcastMetrics metrics = mMetrics;
+
+        if(metrics != null && PipelineMetrics.isCollecting())
+        {
+            long start = System.nanoTime();
+            listener.receive(t);
+            metrics.record(listener, System.nanoTime() - start);
+        }
+        else
+        {
+            listener.receive(t);
+        }
+    }
+
     /**
      * Implements the Listener<T> interface to receive an element and broadcast that element to all registered
      * listeners.
@@ -120,6 +153,13 @@ public class Broadcaster<T> implements Listener<T>
         if(listener != null && mListeners.contains(listener))
         {
             mListeners.remove(listener);
+
+            BroadcastMetrics metrics = mMetrics;
+
+            if(metrics != null)
+            {
+                metrics.remove(listener);
+            }
         }
     }
 
@@ -141,7 +181,7 @@ public class Broadcaster<T> implements Listener<T>
             for(Listener<T> listener : mListeners)
             {
                 mLog.debug("Sending [" + t + "] to listener [" + listener.getClass() + "]");
-                listener.receive(t);
+                deliver(listener, t);
                 mLog.debug("Finished sending to listener [" + listener.getClass() + "]");
             }
         }
@@ -149,7 +189,7 @@ public class Broadcaster<T> implements Listener<T>
         {
             for(Listener<T> listener : mListeners)
             {
-                listener.receive(t);
+                deliver(listener, t);
             }
         }
     }
@@ -18,6 +18,7 @@
  ******************************************************************************/
 package io.github.dsheirer.sample;
 
+import io.github.dsheirer.metrics.jfr.BufferOverflowEvent;
 import io.github.dsheirer.source.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +27,7 @@ import java.util.Collection;
 import java.util.concurrent.LinkedTransferQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 public class OverflowableTransferQueue<E>
 {
@@ -40,6 +42,11 @@ public class OverflowableTransferQueue<E>
     protected AtomicBoolean mOverflow = new AtomicBoolean();
     private int mMaximumSize;
     private int mResetThreshold;
+    private LongAdder mOverflowCount = new LongAdder();
+    private LongAdder mDroppedCount = new LongAdder();
+    private String mName;
+    private long mOverflowStartNanos;
+    private long mOverflowStartDropped;
 
     /**
      * Concurrent transfer queue that couples a higher-throughput linked transfer queue with an atomic integer for
@@ -81,6 +88,7 @@ public class OverflowableTransferQueue<E>
         }
         else
         {
+            mDroppedCount.increment();
             overflow(e);
         }
     }
@@ -145,6 +153,22 @@ public class OverflowableTransferQueue<E>
         return drainCount;
     }
 
+    /**
+     * Sets the name used to identify this queue in overflow flight recorder events
+     */
+    public void setName(String name)
+    {
+        mName = name;
+    }
+
+    /**
+     * Name of this queue, or the simple class name if a name has not been assigned
+     */
+    public String getName()
+    {
+        return mName != null ? mName : getClass().getSimpleName();
+    }
+
     /**
      * Sets a listener to receive overflow state change events.
      */
@@ -169,6 +193,13 @@ public class OverflowableTransferQueue<E>
     {
         if(mOverflow.compareAndSet(!overflow, overflow))
         {
+            if(overflow)
+            {
+                mOverflowCount.increment();
+            }
+
+            recordOverflowEvent(overflow);
+
             if(mOverflowListener != null)
             {
                 mOverflowListener.sourceOverflow(overflow);
@@ -181,6 +212,78 @@ public class OverflowableTransferQueue<E>
         }
     }
 
+    /**
+     * Commits a flight recorder event for the overflow state change.  The reset event carries the duration of the
+     * overflow and the number of elements dropped during the overflow.
+     */
+    private void recordOverflowEvent(boolean overflow)
+    {
+        BufferOverflowEvent event = new BufferOverflowEvent();
+
+        if(overflow)
+        {
+            mOverflowStartNanos = System.nanoTime();
+            mOverflowStartDropped = mDroppedCount.sum();
+        }
+
+        if(event.shouldCommit())
+        {
+            event.queue = getName();
+            event.overflow = overflow;
+            event.size = mCounter.get();
+            event.maximumSize = mMaximumSize;
+            event.resetThreshold = mResetThreshold;
+
+            if(!overflow)
+            {
+                event.dropped = mDroppedCount.sum() - mOverflowStartDropped;
+                event.overflowDuration = System.nanoTime() - mOverflowStartNanos;
+            }
+
+            event.commit();
+        }
+    }
+
+    /**
+     * Current number of elements in the queue
+     */
+    public int getSize()
+    {
+        return mCounter.get();
+    }
+
+    /**
+     * Queue size that triggers an overflow state
+     */
+    public int getMaximumSize()
+    {
+        return mMaximumSize;
+    }
+
+    /**
+     * Indicates if the queue is currently in an overflow state and ignoring inbound elements
+     */
+    public boolean isOverflow()
+    {
+        return mOverflow.get();
+    }
+
+    /**
+     * Number of times the queue has entered an overflow state
+     */
+    public long getOverflowCount()
+    {
+        return mOverflowCount.sum();
+    }
+
+    /**
+     * Number of inbound elements ignored while the queue was in an overflow state
+     */
+    public long getDroppedCount()
+    {
+        return mDroppedCount.sum();
+    }
+
     /**
      * Clears all elements from the queue and resets the internal counter to 0
      */
@@ -39,7 +39,7 @@ public class ReusableBufferBroadcaster<T extends AbstractReusableBuffer> extends
         for(Listener<T> listener : mListeners)
         {
             reusableBuffer.incrementUserCount();
-            listener.receive(reusableBuffer);
+            deliver(listener, reusableBuffer);
         }
 
         //Decrement user counter for this broadcaster
@@ -29,6 +29,7 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
     private LinkedList<float[]> mEmptyBuffers = new LinkedList<>();
     private LinkedList<float[]> mFilledBuffers = new LinkedList<>();
     private Integer mLength;
+    private boolean mTopBlock = true;
 
     /**
      * Reusable buffer for storing polyphase channelizer results arrays.  This buffer is NOT thread safe and is
@@ -50,6 +51,28 @@ public class ReusableChannelResultsBuffer extends AbstractReusableBuffer
         mEmptyBuffers.addAll(mFilledBuffers);
         mFilledBuffers.clear();
         mLength = null;
+        mTopBlock = true;
+    }
+
+    /**
+     * Sets the top block indicator for the first channel results array in this buffer.  Subsequent channel results
+     * arrays alternate between bottom and top blocks.
+     *
+     * @param topBlock true if the first channel results array is a top block
+     */
+    public void setTopBlock(boolean topBlock)
+    {
+        mTopBlock = topBlock;
+    }
+
+    /**
+     * Indicates if the first channel results array in this buffer was produced by the channelizer as a top block.
+     * Synthesizers that recombine more than two channels use this to stay aligned with the channelizer's M/2 phase
+     * shift sequence.
+     */
+    public boolean isTopBlock()
+    {
+        return mTopBlock;
     }
 
     /**
@@ -54,6 +54,7 @@ public class SourceManager
      */
     public void shutdown()
     {
+        mTunerModel.getTunerPool().dispose();
         mTunerManager.releaseTuners();
         mTunerManager.dispose();
     }
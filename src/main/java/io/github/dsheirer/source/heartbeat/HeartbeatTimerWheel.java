@@ -0,0 +1,158 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.heartbeat;
+
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single timer that drives periodic heartbeat callbacks for many registrants.
+ *
+ * Registrants are distributed round-robin across the slots of the wheel and the wheel visits one slot per tick, so
+ * each registrant is invoked once per rotation (tick interval x slot count) and the callbacks for a large number of
+ * registrants are spread evenly across the rotation instead of firing in a single burst.  The timer only runs while
+ * there are registrants.
+ *
+ * Callbacks are invoked on the timer thread and must be short, non-blocking operations, e.g. flagging that a
+ * heartbeat is due and signalling another thread to deliver it.
+ */
+public class HeartbeatTimerWheel
+{
+    private final static Logger mLog = LoggerFactory.getLogger(HeartbeatTimerWheel.class);
+
+    private List<List<Runnable>> mSlots = new ArrayList<>();
+    private long mTickInterval;
+    private int mSlotPointer;
+    private AtomicInteger mNextSlot = new AtomicInteger();
+    private AtomicInteger mRegistrantCount = new AtomicInteger();
+    private ScheduledFuture<?> mTimerFuture;
+
+    /**
+     * Constructs an instance
+     * @param tickInterval in milliseconds between slot visits
+     * @param slotCount number of slots, where tickInterval x slotCount is the callback period for each registrant
+     */
+    public HeartbeatTimerWheel(long tickInterval, int slotCount)
+    {
+        mTickInterval = tickInterval;
+
+        for(int x = 0; x < slotCount; x++)
+        {
+            mSlots.add(new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * Callback period for each registrant
+     * @return period in milliseconds
+     */
+    public long getPeriod()
+    {
+        return mTickInterval * mSlots.size();
+    }
+
+    /**
+     * Registers the callback to be invoked once per wheel rotation.
+     */
+    public void add(Runnable callback)
+    {
+        int slot = Math.floorMod(mNextSlot.getAndIncrement(), mSlots.size());
+        mSlots.get(slot).add(callback);
+
+        if(mRegistrantCount.incrementAndGet() == 1)
+        {
+            startTimer();
+        }
+    }
+
+    /**
+     * Deregisters the callback
+     */
+    public void remove(Runnable callback)
+    {
+        for(List<Runnable> slot: mSlots)
+        {
+            if(slot.remove(callback))
+            {
+                if(mRegistrantCount.decrementAndGet() == 0)
+                {
+                    stopTimer();
+                }
+
+                return;
+            }
+        }
+    }
+
+    private synchronized void startTimer()
+    {
+        if(mTimerFuture == null)
+        {
+            mTimerFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::tick, mTickInterval, mTickInterval,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void stopTimer()
+    {
+        if(mTimerFuture != null && mRegistrantCount.get() == 0)
+        {
+            mTimerFuture.cancel(false);
+            mTimerFuture = null;
+        }
+    }
+
+    /**
+     * Visits the next slot and invokes each of the callbacks in the slot
+     */
+    private void tick()
+    {
+        List<Runnable> slot = mSlots.get(mSlotPointer);
+
+        mSlotPointer++;
+
+        if(mSlotPointer >= mSlots.size())
+        {
+            mSlotPointer = 0;
+        }
+
+        for(Runnable callback: slot)
+        {
+            try
+            {
+                callback.run();
+            }
+            catch(Throwable t)
+            {
+                mLog.error("Error during heartbeat timer callback", t);
+            }
+        }
+    }
+}
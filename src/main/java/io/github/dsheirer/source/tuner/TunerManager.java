@@ -233,6 +233,8 @@ public class TunerManager
 
     private void updateUSBBusTunerMap(int bus, Tuner tuner)
     {
+        mTunerModel.getTunerPool().setUSBBus(tuner, bus);
+
         if(mUSBBusTunerMap.containsKey(bus))
         {
             mUSBBusTunerMap.get(bus).add(tuner);
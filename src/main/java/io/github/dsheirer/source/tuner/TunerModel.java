@@ -28,7 +28,6 @@ import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerEvent.Event;
 import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
-import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import io.github.dsheirer.source.tuner.configuration.TunerConfiguration;
 import io.github.dsheirer.source.tuner.configuration.TunerConfigurationModel;
 import io.github.dsheirer.source.tuner.recording.RecordingTuner;
@@ -40,7 +39,6 @@ import org.slf4j.LoggerFactory;
 import javax.swing.table.AbstractTableModel;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -70,10 +68,12 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
     private DecimalFormat mFrequencyErrorPPMFormat = new DecimalFormat("0.0");
 
     private TunerConfigurationModel mTunerConfigurationModel;
+    private TunerPool mTunerPool;
 
     public TunerModel(TunerConfigurationModel tunerConfigurationModel)
     {
         mTunerConfigurationModel = tunerConfigurationModel;
+        mTunerPool = new TunerPool(this);
     }
 
     public TunerConfigurationModel getTunerConfigurationModel()
@@ -81,6 +81,14 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
         return mTunerConfigurationModel;
     }
 
+    /**
+     * Tuner pool that allocates tuner channel sources across the tuners in this model
+     */
+    public TunerPool getTunerPool()
+    {
+        return mTunerPool;
+    }
+
     /**
      * List of Tuners currently in the model
      */
@@ -395,63 +403,17 @@ public class TunerModel extends AbstractTableModel implements Listener<TunerEven
     }
 
     /**
-     * Iterates current tuners to get a tuner channel source for the specified frequency and bandwidth
+     * Obtains a tuner channel source for the specified frequency and bandwidth from the tuner pool.
      *
      * Returns null if no tuner can source the channel
      */
     public Source getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification, String preferredTuner)
     {
-        TunerChannelSource source = null;
-
         if(tunerChannel != null && channelSpecification != null)
         {
-            Tuner tuner;
-
-            if(preferredTuner != null)
-            {
-                tuner = getTuner(preferredTuner);
-
-                if(tuner != null)
-                {
-                    try
-                    {
-                        source = tuner.getChannelSourceManager().getSource(tunerChannel, channelSpecification);
-
-                        if(source != null)
-                        {
-                            return source;
-                        }
-                    }
-                    catch(Exception e)
-                    {
-                        //Fall through to logger below
-                    }
-                }
-
-                mLog.info("Unable to source channel [" + tunerChannel.getFrequency() + "] from preferred tuner [" +
-                    preferredTuner + "] - searching for another tuner");
-            }
-
-            Iterator<Tuner> it = mTuners.iterator();
-
-            while(it.hasNext() && source == null)
-            {
-                tuner = it.next();
-
-                if(!tuner.hasError())
-                {
-                    try
-                    {
-                        source = tuner.getChannelSourceManager().getSource(tunerChannel, channelSpecification);
-                    }
-                    catch(Exception e)
-                    {
-                        mLog.error("Error obtaining channel from tuner [" + tuner.getName() + "]", e);
-                    }
-                }
-            }
+            return mTunerPool.getSource(tunerChannel, channelSpecification, preferredTuner);
         }
 
-        return source;
+        return null;
     }
 }
\ No newline at end of file
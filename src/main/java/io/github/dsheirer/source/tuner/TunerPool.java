@@ -0,0 +1,616 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner;
+
+import io.github.dsheirer.source.SourceException;
+import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
+import io.github.dsheirer.source.tuner.channel.PooledTunerChannelSource;
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
+import io.github.dsheirer.source.tuner.manager.CenterFrequencyCalculator;
+import io.github.dsheirer.util.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tuner pool that treats all of the available tuners as a single pool of wideband channel capacity.
+ *
+ * The pool periodically plans center frequency placement across all tuners for the set of active channels plus the
+ * predicted channel set, which is the set of channels that were requested recently.  The plan partitions the
+ * frequency-ordered channel set into contiguous windows that each fit one tuner's usable bandwidth and assigns each
+ * window to a tuner, preferring the tuner that already sources most of the window's channels.
+ *
+ * Channel requests are offered to tuners in this order: the preferred tuner, the tuner planned for the channel's
+ * frequency, streaming tuners that can provide the channel at their current center frequency, idle tuners, and
+ * finally streaming tuners that would have to retune.  Packing channels onto streaming tuners avoids starting another
+ * tuner's sample stream and channelizer, while a retune perturbs every channel on the tuner, so it is the last resort.
+ * Within each group, tuners on the USB bus with the lowest combined data rate are preferred.  When no tuner can
+ * provide the channel, the pool migrates one of the blocking tuner's channels to another tuner to make room.
+ * Migrated channels keep running without interruption (see PooledTunerChannelSource).
+ *
+ * System properties:
+ *   sdrtrunk.tuner.pool.plan.interval=N     seconds between placement plans (default 5)
+ *   sdrtrunk.tuner.pool.history=N           seconds a requested channel remains in the predicted set (default 300)
+ *   sdrtrunk.tuner.pool.migration=BOOL      migrates channels between tuners to make room (default true)
+ *   sdrtrunk.tuner.pool.preposition=BOOL    tunes idle tuners to their planned center frequency (default false)
+ */
+public class TunerPool
+{
+    private final static Logger mLog = LoggerFactory.getLogger(TunerPool.class);
+    public static final String PLAN_INTERVAL_PROPERTY = "sdrtrunk.tuner.pool.plan.interval";
+    public static final String HISTORY_PROPERTY = "sdrtrunk.tuner.pool.history";
+    public static final String MIGRATION_PROPERTY = "sdrtrunk.tuner.pool.migration";
+    public static final String PREPOSITION_PROPERTY = "sdrtrunk.tuner.pool.preposition";
+    private static final int NO_BUS = -1;
+
+    private TunerModel mTunerModel;
+    private Map<Tuner,Integer> mTunerBusMap = new ConcurrentHashMap<>();
+    private Map<Long,PredictedChannel> mPredictedChannels = new ConcurrentHashMap<>();
+    private Set<PooledTunerChannelSource> mSources = ConcurrentHashMap.newKeySet();
+    private volatile List<Assignment> mPlan = Collections.emptyList();
+    private final Object mMigrationLock = new Object();
+    private ScheduledFuture<?> mPlanFuture;
+    private long mPlanInterval;
+    private long mHistory;
+    private boolean mMigrationEnabled;
+    private boolean mPrepositionEnabled;
+
+    /**
+     * Constructs an instance
+     *
+     * @param tunerModel containing the tuners for this pool
+     */
+    public TunerPool(TunerModel tunerModel)
+    {
+        mTunerModel = tunerModel;
+        mPlanInterval = Math.max(1, Long.getLong(PLAN_INTERVAL_PROPERTY, 5));
+        mHistory = TimeUnit.SECONDS.toMillis(Math.max(0, Long.getLong(HISTORY_PROPERTY, 300)));
+        mMigrationEnabled = Boolean.parseBoolean(System.getProperty(MIGRATION_PROPERTY, "true"));
+        mPrepositionEnabled = Boolean.getBoolean(PREPOSITION_PROPERTY);
+    }
+
+    /**
+     * Registers the USB bus number for the tuner so that the pool can balance sample stream data rates across buses.
+     */
+    public void setUSBBus(Tuner tuner, int bus)
+    {
+        mTunerBusMap.put(tuner, bus);
+    }
+
+    /**
+     * Stops the placement planner
+     */
+    public synchronized void dispose()
+    {
+        if(mPlanFuture != null)
+        {
+            mPlanFuture.cancel(false);
+            mPlanFuture = null;
+        }
+    }
+
+    /**
+     * Starts the placement planner on first use
+     */
+    private synchronized void startPlanner()
+    {
+        if(mPlanFuture == null)
+        {
+            mPlanFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this::plan, mPlanInterval, mPlanInterval,
+                TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Obtains a tuner channel source from the pool.
+     *
+     * @param tunerChannel for the requested channel
+     * @param channelSpecification for the requested channel
+     * @param preferredTuner name or null
+     * @return tuner channel source or null if none of the tuners can provide the channel
+     */
+    public TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification,
+                                        String preferredTuner)
+    {
+        startPlanner();
+        mPredictedChannels.put(tunerChannel.getFrequency(), new PredictedChannel(tunerChannel));
+
+        Tuner preferred = mTunerModel.getTuner(preferredTuner);
+
+        if(preferred != null)
+        {
+            TunerChannelSource source = getSource(preferred, tunerChannel, channelSpecification);
+
+            if(source != null)
+            {
+                return source;
+            }
+
+            mLog.info("Unable to source channel [" + tunerChannel.getFrequency() + "] from preferred tuner [" +
+                preferredTuner + "] - searching for another tuner");
+        }
+
+        for(Tuner tuner: getCandidates(tunerChannel))
+        {
+            if(tuner != preferred)
+            {
+                TunerChannelSource source = getSource(tuner, tunerChannel, channelSpecification);
+
+                if(source != null)
+                {
+                    return source;
+                }
+            }
+        }
+
+        if(mMigrationEnabled)
+        {
+            return migrateAndGetSource(tunerChannel, channelSpecification);
+        }
+
+        return null;
+    }
+
+    /**
+     * Obtains a tuner channel source from the tuner and wraps it as a pooled source.
+     */
+    private TunerChannelSource getSource(Tuner tuner, TunerChannel tunerChannel,
+                                         ChannelSpecification channelSpecification)
+    {
+        if(tuner.hasError())
+        {
+            return null;
+        }
+
+        try
+        {
+            TunerChannelSource source = tuner.getChannelSourceManager().getSource(tunerChannel, channelSpecification);
+
+            if(source != null)
+            {
+                PooledTunerChannelSource pooled = new PooledTunerChannelSource(tuner, source, channelSpecification,
+                    mSources::remove);
+                mSources.add(pooled);
+                return pooled;
+            }
+        }
+        catch(Exception e)
+        {
+            mLog.error("Error obtaining channel from tuner [" + tuner.getName() + "]", e);
+        }
+
+        return null;
+    }
+
+    /**
+     * Orders the available tuners for a channel request: the tuner planned for the channel first, then streaming
+     * tuners that don't need a retune, then idle tuners, then streaming tuners that need a retune.  Each group is
+     * ordered by the combined data rate of the tuner's USB bus.
+     */
+    private List<Tuner> getCandidates(TunerChannel tunerChannel)
+    {
+        List<Tuner> candidates = new ArrayList<>();
+        Map<Integer,Long> busLoads = getBusLoads();
+
+        for(Tuner tuner: new ArrayList<>(mTunerModel.getTuners()))
+        {
+            if(!tuner.hasError())
+            {
+                candidates.add(tuner);
+            }
+        }
+
+        Tuner planned = getPlannedTuner(tunerChannel);
+
+        candidates.sort(Comparator.comparing((Tuner tuner) -> tuner != planned)
+            .thenComparingInt(tuner -> getRetuneRank(tuner, tunerChannel))
+            .thenComparingLong(tuner -> busLoads.getOrDefault(getBus(tuner), 0L)));
+
+        return candidates;
+    }
+
+    /**
+     * Frees room on a tuner that can tune the channel by migrating one of its channels to another tuner and then
+     * obtains the requested channel from the freed tuner.
+     */
+    private TunerChannelSource migrateAndGetSource(TunerChannel tunerChannel,
+                                                   ChannelSpecification channelSpecification)
+    {
+        synchronized(mMigrationLock)
+        {
+            for(Tuner tuner: getCandidates(tunerChannel))
+            {
+                TunerController controller = tuner.getTunerController();
+
+                if(!isStreaming(tuner) || !controller.canTune(tunerChannel.getMinFrequency()) ||
+                    !controller.canTune(tunerChannel.getMaxFrequency()))
+                {
+                    continue;
+                }
+
+                for(PooledTunerChannelSource pooled: new ArrayList<>(mSources))
+                {
+                    if(pooled.getTuner() != tuner || !pooled.isMigratable())
+                    {
+                        continue;
+                    }
+
+                    SortedSet<TunerChannel> remaining =
+                        new TreeSet<>(tuner.getChannelSourceManager().getTunerChannels());
+                    remaining.remove(pooled.getTunerChannel());
+
+                    if(CenterFrequencyCalculator.canTune(tunerChannel, controller, remaining) &&
+                        migrate(pooled, tuner))
+                    {
+                        TunerChannelSource source = getSource(tuner, tunerChannel, channelSpecification);
+
+                        if(source != null)
+                        {
+                            return source;
+                        }
+
+                        //Another request claimed the freed room - don't migrate more channels from this tuner
+                        break;
+                    }
+                }
+            }
+        }
+
+        mLog.info("Unable to source channel [" + tunerChannel.getFrequency() + "] from any tuner in the pool");
+        return null;
+    }
+
+    /**
+     * Migrates the pooled source from its current tuner to any other tuner that can provide it.
+     *
+     * @return true if the source was migrated
+     */
+    private boolean migrate(PooledTunerChannelSource pooled, Tuner current)
+    {
+        for(Tuner tuner: getCandidates(pooled.getTunerChannel()))
+        {
+            if(tuner == current)
+            {
+                continue;
+            }
+
+            try
+            {
+                TunerChannelSource replacement = tuner.getChannelSourceManager()
+                    .getSource(pooled.getTunerChannel(), pooled.getChannelSpecification());
+
+                if(replacement != null && pooled.migrate(tuner, replacement))
+                {
+                    return true;
+                }
+            }
+            catch(Exception e)
+            {
+                mLog.error("Error obtaining replacement channel from tuner [" + tuner.getName() + "]", e);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Plans center frequency placement across all tuners for the active and predicted channel set.
+     */
+    private void plan()
+    {
+        try
+        {
+            long cutoff = System.currentTimeMillis() - mHistory;
+            mPredictedChannels.values().removeIf(predicted -> predicted.getTimestamp() < cutoff);
+
+            SortedSet<TunerChannel> channels = new TreeSet<>();
+            List<Tuner> tuners = new ArrayList<>();
+
+            for(Tuner tuner: new ArrayList<>(mTunerModel.getTuners()))
+            {
+                if(!tuner.hasError())
+                {
+                    tuners.add(tuner);
+                    channels.addAll(tuner.getChannelSourceManager().getTunerChannels());
+                }
+            }
+
+            for(PredictedChannel predicted: mPredictedChannels.values())
+            {
+                channels.add(predicted.getTunerChannel());
+            }
+
+            List<Assignment> plan = plan(channels, tuners);
+            mPlan = plan;
+
+            if(mPrepositionEnabled)
+            {
+                preposition(plan);
+            }
+        }
+        catch(Throwable t)
+        {
+            mLog.error("Error while planning tuner pool center frequencies", t);
+        }
+    }
+
+    /**
+     * Partitions the frequency-ordered channels into windows that each fit one tuner and assigns a tuner to each
+     * window.
+     *
+     * @param channels ordered by frequency
+     * @param tuners available for assignment
+     * @return tuner assignments
+     */
+    private List<Assignment> plan(SortedSet<TunerChannel> channels, List<Tuner> tuners)
+    {
+        List<Assignment> plan = new ArrayList<>();
+        Map<Integer,Long> busLoads = getBusLoads();
+
+        while(!channels.isEmpty() && !tuners.isEmpty())
+        {
+            TunerChannel first = channels.first();
+            Tuner best = null;
+            int bestScore = -1;
+
+            for(Tuner tuner: tuners)
+            {
+                TunerController controller = tuner.getTunerController();
+
+                if(controller.canTune(first.getMinFrequency()) && controller.canTune(first.getMaxFrequency()))
+                {
+                    int score = getSourcedCount(tuner, first.getMinFrequency(),
+                        first.getMinFrequency() + controller.getUsableBandwidth());
+
+                    if(score > bestScore || (score == bestScore &&
+                        busLoads.getOrDefault(getBus(tuner), 0L) < busLoads.getOrDefault(getBus(best), 0L)))
+                    {
+                        best = tuner;
+                        bestScore = score;
+                    }
+                }
+            }
+
+            if(best == null)
+            {
+                //None of the remaining tuners can tune this channel
+                channels.remove(first);
+                continue;
+            }
+
+            SortedSet<TunerChannel> window = new TreeSet<>();
+            long center = CenterFrequencyCalculator.INVALID_FREQUENCY;
+
+            for(TunerChannel channel: channels)
+            {
+                if(!CenterFrequencyCalculator.canTune(channel, best.getTunerController(), window))
+                {
+                    break;
+                }
+
+                window.add(channel);
+                center = CenterFrequencyCalculator.getCenterFrequency(best.getTunerController(), window);
+            }
+
+            if(window.isEmpty())
+            {
+                channels.remove(first);
+                continue;
+            }
+
+            channels.removeAll(window);
+            tuners.remove(best);
+            plan.add(new Assignment(best, window.first().getMinFrequency(), window.last().getMaxFrequency(), center));
+        }
+
+        return plan;
+    }
+
+    /**
+     * Tunes idle tuners to the planned center frequency so that the channels predicted for the tuner fit without
+     * retuning when they are requested.
+     */
+    private void preposition(List<Assignment> plan)
+    {
+        for(Assignment assignment: plan)
+        {
+            Tuner tuner = assignment.getTuner();
+            TunerController controller = tuner.getTunerController();
+
+            if(!isStreaming(tuner) && !controller.isLocked() &&
+                assignment.getCenterFrequency() != CenterFrequencyCalculator.INVALID_FREQUENCY &&
+                controller.getFrequency() != assignment.getCenterFrequency())
+            {
+                try
+                {
+                    controller.setFrequency(assignment.getCenterFrequency());
+                }
+                catch(SourceException se)
+                {
+                    mLog.error("Error prepositioning tuner [" + tuner.getName() + "] to planned center frequency [" +
+                        assignment.getCenterFrequency() + "]", se);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tuner that is planned to provide the channel, or null
+     */
+    private Tuner getPlannedTuner(TunerChannel tunerChannel)
+    {
+        for(Assignment assignment: mPlan)
+        {
+            if(assignment.contains(tunerChannel))
+            {
+                return assignment.getTuner();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Ranks the tuner by the disruption caused by sourcing the channel: 0 for a streaming tuner that is already tuned
+     * for the channel, 1 for an idle tuner and 2 for a streaming tuner that would have to retune.
+     */
+    private int getRetuneRank(Tuner tuner, TunerChannel tunerChannel)
+    {
+        if(!isStreaming(tuner))
+        {
+            return 1;
+        }
+
+        return tuner.getTunerController().isTunedFor(tunerChannel) ? 0 : 2;
+    }
+
+    /**
+     * Indicates if the tuner is sourcing channels and therefore streaming samples
+     */
+    private boolean isStreaming(Tuner tuner)
+    {
+        return tuner.getChannelSourceManager().getTunerChannelCount() > 0;
+    }
+
+    /**
+     * Count of channels sourced by the tuner within the frequency range
+     */
+    private int getSourcedCount(Tuner tuner, long minimum, long maximum)
+    {
+        int count = 0;
+
+        for(TunerChannel channel: tuner.getChannelSourceManager().getTunerChannels())
+        {
+            if(minimum <= channel.getMinFrequency() && channel.getMaxFrequency() <= maximum)
+            {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * USB bus for the tuner or NO_BUS
+     */
+    private int getBus(Tuner tuner)
+    {
+        if(tuner == null)
+        {
+            return NO_BUS;
+        }
+
+        return mTunerBusMap.getOrDefault(tuner, NO_BUS);
+    }
+
+    /**
+     * Combined maximum data rate of the streaming tuners on each USB bus
+     */
+    private Map<Integer,Long> getBusLoads()
+    {
+        Map<Integer,Long> busLoads = new HashMap<>();
+
+        for(Tuner tuner: new ArrayList<>(mTunerModel.getTuners()))
+        {
+            if(!tuner.hasError() && isStreaming(tuner))
+            {
+                busLoads.merge(getBus(tuner), (long)tuner.getMaximumUSBBitsPerSecond(), Long::sum);
+            }
+        }
+
+        return busLoads;
+    }
+
+    /**
+     * Planned frequency window and center frequency for a tuner
+     */
+    private static class Assignment
+    {
+        private Tuner mTuner;
+        private long mMinFrequency;
+        private long mMaxFrequency;
+        private long mCenterFrequency;
+
+        public Assignment(Tuner tuner, long minFrequency, long maxFrequency, long centerFrequency)
+        {
+            mTuner = tuner;
+            mMinFrequency = minFrequency;
+            mMaxFrequency = maxFrequency;
+            mCenterFrequency = centerFrequency;
+        }
+
+        public Tuner getTuner()
+        {
+            return mTuner;
+        }
+
+        public long getCenterFrequency()
+        {
+            return mCenterFrequency;
+        }
+
+        /**
+         * Indicates if the channel falls within this planned window
+         */
+        public boolean contains(TunerChannel tunerChannel)
+        {
+            return mMinFrequency <= tunerChannel.getMinFrequency() && tunerChannel.getMaxFrequency() <= mMaxFrequency;
+        }
+    }
+
+    /**
+     * Recently requested channel and the time of the most recent request
+     */
+    private static class PredictedChannel
+    {
+        private TunerChannel mTunerChannel;
+        private long mTimestamp = System.currentTimeMillis();
+
+        public PredictedChannel(TunerChannel tunerChannel)
+        {
+            mTunerChannel = tunerChannel;
+        }
+
+        public TunerChannel getTunerChannel()
+        {
+            return mTunerChannel;
+        }
+
+        public long getTimestamp()
+        {
+            return mTimestamp;
+        }
+    }
+}
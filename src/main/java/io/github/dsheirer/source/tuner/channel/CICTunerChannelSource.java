@@ -15,25 +15,30 @@
  ******************************************************************************/
 package io.github.dsheirer.source.tuner.channel;
 
-import io.github.dsheirer.dsp.filter.cic.ComplexPrimeCICDecimate;
+import io.github.dsheirer.dsp.filter.cic.ComplexFusedCICDecimate;
 import io.github.dsheirer.dsp.filter.design.FilterDesignException;
-import io.github.dsheirer.dsp.mixer.IOscillator;
-import io.github.dsheirer.dsp.mixer.LowPhaseNoiseOscillator;
 import io.github.dsheirer.sample.IOverflowListener;
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
 import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
-import io.github.dsheirer.sample.buffer.ReusableComplexBufferQueue;
-import io.github.dsheirer.sample.complex.Complex;
 import io.github.dsheirer.source.SourceEvent;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Complex sample source that provides a frequency-translated and decimated sample buffer stream.  Uses a
  * CIC decimation filter that requires the decimation rate to be an integer multiple.  Sample buffer processing
  * occurs on a scheduled runnable thread.
+ *
+ * Frequency translation, CIC decimation and the cleanup filter are performed by a fused decimator in a single pass
+ * over each sample buffer.  When this source is a member of a channel source group, the group processes the queued
+ * sample buffers for all member channels, sharing one pass over each sample buffer across the member channels.  The
+ * decimated output is queued and each channel delivers its own output on its own processing thread so that the
+ * downstream processing for each channel is not serialized with other member channels.
  */
 public class CICTunerChannelSource extends TunerChannelSource implements Listener<ReusableComplexBuffer>
 {
@@ -46,10 +51,11 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     private static final int BUFFER_OVERFLOW_RESET_THRESHOLD = 100;
 
     private OverflowableReusableBufferTransferQueue<ReusableComplexBuffer> mBuffer;
-    private ReusableComplexBufferQueue mReusableComplexBufferQueue = new ReusableComplexBufferQueue("CICTunerChannelSource");
-    private IOscillator mFrequencyCorrectionMixer;
-    private ComplexPrimeCICDecimate mDecimationFilter;
+    private ComplexFusedCICDecimate mDecimationFilter;
     private List<ReusableComplexBuffer> mSampleBuffers = new ArrayList<>();
+    private CICTunerChannelSourceGroup mChannelSourceGroup;
+    private Queue<ReusableComplexBuffer> mDecimatedBuffers = new ConcurrentLinkedQueue<>();
+    private Listener<ReusableComplexBuffer> mComplexBufferListener;
     private double mChannelSampleRate;
     private long mChannelFrequencyCorrection = 0;
     private long mTunerFrequency;
@@ -71,17 +77,49 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
 
         int decimation = (int)(sampleRate / channelSpecification.getMinimumSampleRate());
 
-        mDecimationFilter = new ComplexPrimeCICDecimate(sampleRate, decimation, channelSpecification.getPassFrequency(),
-            channelSpecification.getStopFrequency());
-
-        mBuffer = new OverflowableReusableBufferTransferQueue<>(BUFFER_MAX_CAPACITY, BUFFER_OVERFLOW_RESET_THRESHOLD);
-
         //Setup the frequency mixer to the current source frequency
         mChannelSampleRate = sampleRate / (double)decimation;
         mTunerFrequency = tunerChannel.getFrequency();
         long frequencyOffset = mTunerFrequency - getTunerChannel().getFrequency();
 
-        mFrequencyCorrectionMixer = new LowPhaseNoiseOscillator(frequencyOffset, sampleRate);
+        mDecimationFilter = new ComplexFusedCICDecimate(sampleRate, decimation, channelSpecification.getPassFrequency(),
+            channelSpecification.getStopFrequency(), frequencyOffset);
+        mDecimationFilter.setListener(new DecimatedBufferProcessor());
+
+        mBuffer = new OverflowableReusableBufferTransferQueue<>(BUFFER_MAX_CAPACITY, BUFFER_OVERFLOW_RESET_THRESHOLD);
+    }
+
+    /**
+     * Sets the channel source group that processes sample buffers for this channel, or null to process sample
+     * buffers independently.
+     */
+    public void setChannelSourceGroup(CICTunerChannelSourceGroup channelSourceGroup)
+    {
+        mChannelSourceGroup = channelSourceGroup;
+    }
+
+    /**
+     * Fused mixer and decimation filter for this channel
+     */
+    ComplexFusedCICDecimate getDecimationFilter()
+    {
+        return mDecimationFilter;
+    }
+
+    /**
+     * Indicates if decimated buffers produced by the channel source group are waiting to be delivered
+     */
+    boolean hasDecimatedBuffers()
+    {
+        return !mDecimatedBuffers.isEmpty();
+    }
+
+    /**
+     * Transfers any queued sample buffers to the list
+     */
+    void drainSampleBuffers(List<ReusableComplexBuffer> sampleBuffers)
+    {
+        mBuffer.drainTo(sampleBuffers);
     }
 
     /**
@@ -96,6 +134,12 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
         mBuffer.setOverflowListener(listener);
     }
 
+    @Override
+    public OverflowableTransferQueue<?> getSampleQueue()
+    {
+        return mBuffer;
+    }
+
     @Override
     public void dispose()
     {
@@ -109,6 +153,7 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     public void receive(ReusableComplexBuffer buffer)
     {
         mBuffer.offer(buffer);
+        signalSamplesAvailable();
     }
 
     /**
@@ -152,7 +197,7 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     private void updateMixerFrequencyOffset()
     {
         long offset = mTunerFrequency - getTunerChannel().getFrequency() - mChannelFrequencyCorrection;
-        mFrequencyCorrectionMixer.setFrequency(offset);
+        mDecimationFilter.setMixerFrequency(offset);
     }
 
     /**
@@ -196,13 +241,13 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     @Override
     public void setListener(Listener<ReusableComplexBuffer> complexBufferListener)
     {
-        mDecimationFilter.setListener(complexBufferListener);
+        mComplexBufferListener = complexBufferListener;
     }
 
     @Override
     public void removeListener(Listener<ReusableComplexBuffer> listener)
     {
-        mDecimationFilter.removeListener();
+        mComplexBufferListener = null;
     }
 
 
@@ -215,35 +260,74 @@ public class CICTunerChannelSource extends TunerChannelSource implements Listene
     /**
      * Primary processing method that is invoked on a recurring basis to process any queued complex buffers.
      *
-     * Mixes the target frequency to baseband and then passes the buffer to the CIC decimation filter
+     * Mixes the target frequency to baseband and decimates each buffer with the fused decimation filter.  Channels
+     * that belong to a channel source group defer to the group so that member channels share input passes.
      */
     protected void processSamples()
     {
-        mBuffer.drainTo(mSampleBuffers);
+        CICTunerChannelSourceGroup channelSourceGroup = mChannelSourceGroup;
 
-        for(ReusableComplexBuffer complexBuffer : mSampleBuffers)
+        if(channelSourceGroup != null)
         {
-            float[] samples = complexBuffer.getSamples();
-
-            ReusableComplexBuffer translatedComplexBuffer = mReusableComplexBufferQueue.getBuffer(samples.length);
-            float[] translatedSamples = translatedComplexBuffer.getSamples();
+            channelSourceGroup.processSamples();
+        }
+        else
+        {
+            mBuffer.drainTo(mSampleBuffers);
 
-            /* Perform frequency translation */
-            for(int x = 0; x < samples.length; x += 2)
+            for(ReusableComplexBuffer complexBuffer : mSampleBuffers)
             {
-                mFrequencyCorrectionMixer.rotate();
+                mDecimationFilter.process(complexBuffer.getSamples());
+                complexBuffer.decrementUserCount();
+            }
 
-                translatedSamples[x] = Complex.multiplyInphase(samples[x], samples[x + 1],
-                    mFrequencyCorrectionMixer.inphase(), mFrequencyCorrectionMixer.quadrature());
+            mSampleBuffers.clear();
+        }
 
-                translatedSamples[x + 1] = Complex.multiplyQuadrature(samples[x], samples[x + 1],
-                    mFrequencyCorrectionMixer.inphase(), mFrequencyCorrectionMixer.quadrature());
-            }
+        ReusableComplexBuffer decimatedBuffer = mDecimatedBuffers.poll();
+
+        while(decimatedBuffer != null)
+        {
+            deliver(decimatedBuffer);
+            decimatedBuffer = mDecimatedBuffers.poll();
+        }
+    }
+
+    /**
+     * Delivers the decimated buffer to the registered listener
+     */
+    private void deliver(ReusableComplexBuffer decimatedBuffer)
+    {
+        Listener<ReusableComplexBuffer> listener = mComplexBufferListener;
 
-            mDecimationFilter.receive(translatedComplexBuffer);
-            complexBuffer.decrementUserCount();
+        if(listener != null)
+        {
+            listener.receive(decimatedBuffer);
+        }
+        else
+        {
+            decimatedBuffer.decrementUserCount();
         }
+    }
 
-        mSampleBuffers.clear();
+    /**
+     * Receives decimated buffers from the decimation filter.  Buffers are delivered directly when this channel
+     * processes its own samples, or queued for delivery on this channel's thread when a channel source group
+     * performed the decimation.
+     */
+    public class DecimatedBufferProcessor implements Listener<ReusableComplexBuffer>
+    {
+        @Override
+        public void receive(ReusableComplexBuffer reusableComplexBuffer)
+        {
+            if(mChannelSourceGroup != null)
+            {
+                mDecimatedBuffers.add(reusableComplexBuffer);
+            }
+            else
+            {
+                deliver(reusableComplexBuffer);
+            }
+        }
     }
 }
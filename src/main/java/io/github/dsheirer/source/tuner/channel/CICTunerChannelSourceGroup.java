@@ -0,0 +1,231 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.channel;
+
+import io.github.dsheirer.dsp.filter.cic.ComplexFusedCICDecimate;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group of CIC tuner channel sources that share passes over the incoming tuner sample buffers.
+ *
+ * Member channels receive the same sample buffer instances from the tuner.  Whichever member's processing interval
+ * runs first drains the queued buffers for all members and, for each buffer that is at the head of more than one
+ * member's queue, runs the fused decimators for those members in a single pass over the buffer.  Buffers that are
+ * unique to a member (e.g. delayed buffers preloaded when a channel starts) are processed for that member alone, so
+ * each member still sees its buffers in order.
+ *
+ * Group size is capped so that decimation work for a wideband tuner with many channels is spread across several
+ * groups, and therefore several threads.
+ */
+public class CICTunerChannelSourceGroup
+{
+    public static final int MAX_GROUP_SIZE = 4;
+
+    private List<CICTunerChannelSource> mChannelSources = new CopyOnWriteArrayList<>();
+    private ReentrantLock mLock = new ReentrantLock();
+    private AtomicBoolean mProcessingRequested = new AtomicBoolean();
+    private List<List<ReusableComplexBuffer>> mPendingBuffers = new ArrayList<>();
+    private int[] mPendingPointers = new int[MAX_GROUP_SIZE];
+    private ComplexFusedCICDecimate[] mDecimators = new ComplexFusedCICDecimate[MAX_GROUP_SIZE];
+    private CICTunerChannelSource[] mActiveSources = new CICTunerChannelSource[MAX_GROUP_SIZE];
+    private int[] mActiveIndexes = new int[MAX_GROUP_SIZE];
+    private double[] mMixerAngles = new double[2 * MAX_GROUP_SIZE];
+
+    /**
+     * Constructs an empty group
+     */
+    public CICTunerChannelSourceGroup()
+    {
+        for(int x = 0; x < MAX_GROUP_SIZE; x++)
+        {
+            mPendingBuffers.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Indicates if this group can accept another channel source
+     */
+    public boolean hasCapacity()
+    {
+        return mChannelSources.size() < MAX_GROUP_SIZE;
+    }
+
+    /**
+     * Indicates if this group has no member channel sources
+     */
+    public boolean isEmpty()
+    {
+        return mChannelSources.isEmpty();
+    }
+
+    /**
+     * Adds the channel source to this group
+     */
+    public void add(CICTunerChannelSource channelSource)
+    {
+        mLock.lock();
+
+        try
+        {
+            if(hasCapacity() && !mChannelSources.contains(channelSource))
+            {
+                mChannelSources.add(channelSource);
+                channelSource.setChannelSourceGroup(this);
+            }
+        }
+        finally
+        {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the channel source from this group.  Any sample buffers that remain queued for the channel source will
+     * be processed by the channel source independently.
+     */
+    public void remove(CICTunerChannelSource channelSource)
+    {
+        mLock.lock();
+
+        try
+        {
+            if(mChannelSources.remove(channelSource))
+            {
+                channelSource.setChannelSourceGroup(null);
+            }
+        }
+        finally
+        {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Processes queued sample buffers for all member channel sources.  If another thread is currently processing
+     * this group, this method flags that processing is requested and returns immediately, and the processing thread
+     * makes another pass over the member queues before releasing the group.
+     */
+    public void processSamples()
+    {
+        mProcessingRequested.set(true);
+
+        while(mProcessingRequested.get() && mLock.tryLock())
+        {
+            try
+            {
+                mProcessingRequested.set(false);
+                processMemberSamples();
+            }
+            finally
+            {
+                mLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Processes queued sample buffers for all member channel sources and signals each member that has decimated
+     * output waiting to be delivered on its own processing thread.  Invoke only while holding the group lock.
+     */
+    private void processMemberSamples()
+    {
+        int memberCount = mChannelSources.size();
+
+        for(int x = 0; x < memberCount; x++)
+        {
+            mChannelSources.get(x).drainSampleBuffers(mPendingBuffers.get(x));
+            mPendingPointers[x] = 0;
+        }
+
+        boolean processing = true;
+
+        while(processing)
+        {
+            processing = false;
+
+            for(int x = 0; x < memberCount; x++)
+            {
+                List<ReusableComplexBuffer> pending = mPendingBuffers.get(x);
+
+                if(mPendingPointers[x] < pending.size())
+                {
+                    processing = true;
+                    process(pending.get(mPendingPointers[x]), x, memberCount);
+                }
+            }
+        }
+
+        for(int x = 0; x < memberCount; x++)
+        {
+            mPendingBuffers.get(x).clear();
+
+            CICTunerChannelSource channelSource = mChannelSources.get(x);
+
+            if(channelSource.hasDecimatedBuffers())
+            {
+                channelSource.signalSamplesAvailable();
+            }
+        }
+    }
+
+    /**
+     * Processes the buffer at the head of the specified member's pending buffers along with any other members that
+     * have the same buffer at the head of their pending buffers.
+     *
+     * @param buffer to process
+     * @param firstMember index of the member with the buffer at the head of its pending buffers
+     * @param memberCount number of members
+     */
+    private void process(ReusableComplexBuffer buffer, int firstMember, int memberCount)
+    {
+        int activeCount = 0;
+
+        for(int x = firstMember; x < memberCount; x++)
+        {
+            List<ReusableComplexBuffer> pending = mPendingBuffers.get(x);
+
+            if(mPendingPointers[x] < pending.size() && pending.get(mPendingPointers[x]) == buffer)
+            {
+                mActiveSources[activeCount] = mChannelSources.get(x);
+                mDecimators[activeCount] = mActiveSources[activeCount].getDecimationFilter();
+                mActiveIndexes[activeCount] = x;
+                activeCount++;
+            }
+        }
+
+        ComplexFusedCICDecimate.process(buffer.getSamples(), mDecimators, activeCount, mMixerAngles);
+
+        for(int x = 0; x < activeCount; x++)
+        {
+            mPendingPointers[mActiveIndexes[x]]++;
+            buffer.decrementUserCount();
+            mActiveSources[x] = null;
+            mDecimators[x] = null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.channel;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Processing statistics for a single tuner channel source.
+ *
+ * Queue delay is the time between a channel being scheduled for processing (sample data or a heartbeat became
+ * available) and the channel's processing starting on a scheduler thread.  Processing time is the time spent
+ * delivering heartbeats and processing samples.  Values are updated by the (single) processing thread for the channel
+ * and may be read from any thread.
+ */
+public class ChannelProcessingMetrics
+{
+    private volatile long mRunCount;
+    private volatile long mTotalQueueDelay;
+    private volatile long mMaxQueueDelay;
+    private volatile long mTotalProcessingTime;
+    private volatile long mMaxProcessingTime;
+
+    /**
+     * Records a processing run
+     * @param queueDelay in nanoseconds
+     * @param processingTime in nanoseconds
+     */
+    void update(long queueDelay, long processingTime)
+    {
+        mRunCount++;
+        mTotalQueueDelay += queueDelay;
+        mTotalProcessingTime += processingTime;
+
+        if(queueDelay > mMaxQueueDelay)
+        {
+            mMaxQueueDelay = queueDelay;
+        }
+
+        if(processingTime > mMaxProcessingTime)
+        {
+            mMaxProcessingTime = processingTime;
+        }
+    }
+
+    /**
+     * Number of processing runs
+     */
+    public long getRunCount()
+    {
+        return mRunCount;
+    }
+
+    /**
+     * Average queue delay in microseconds
+     */
+    public long getAverageQueueDelay()
+    {
+        long count = mRunCount;
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(mTotalQueueDelay / count) : 0;
+    }
+
+    /**
+     * Maximum queue delay in microseconds
+     */
+    public long getMaxQueueDelay()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(mMaxQueueDelay);
+    }
+
+    /**
+     * Average processing time per run in microseconds
+     */
+    public long getAverageProcessingTime()
+    {
+        long count = mRunCount;
+        return count > 0 ? TimeUnit.NANOSECONDS.toMicros(mTotalProcessingTime / count) : 0;
+    }
+
+    /**
+     * Maximum processing time for a run in microseconds
+     */
+    public long getMaxProcessingTime()
+    {
+        return TimeUnit.NANOSECONDS.toMicros(mMaxProcessingTime);
+    }
+
+    /**
+     * Total processing time in milliseconds
+     */
+    public long getTotalProcessingTime()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(mTotalProcessingTime);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Runs [" + getRunCount() + "] Queue Delay Avg/Max [" + getAverageQueueDelay() + "/" +
+            getMaxQueueDelay() + " us] Processing Avg/Max [" + getAverageProcessingTime() + "/" +
+            getMaxProcessingTime() + " us] Total [" + getTotalProcessingTime() + " ms]";
+    }
+}
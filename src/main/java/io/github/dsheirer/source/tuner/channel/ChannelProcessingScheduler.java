@@ -0,0 +1,106 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.channel;
+
+import io.github.dsheirer.controller.NamingThreadFactory;
+import io.github.dsheirer.source.heartbeat.HeartbeatTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application-wide scheduler for tuner channel source processing.
+ *
+ * Channels are processed on a dedicated fixed-size thread pool when they have sample data to process, instead of each
+ * channel polling on its own fixed interval timer.  Each channel submits a single serial task (see
+ * TunerChannelSource.ChannelProcessingTask) that is never queued or run more than once at a time, so per-channel
+ * processing remains ordered and single-threaded while different channels run in parallel.  Since a channel can have
+ * at most one queued task, the pool's work queue is bounded by the number of active channels.
+ *
+ * Channel tasks run the downstream decoders, which can block (e.g. on audio or recording queues), so the pool uses
+ * plain worker threads rather than a work-stealing pool where a blocked task cannot be compensated.
+ *
+ * Heartbeats are driven by a single timer wheel that flags a heartbeat as due for each channel and schedules the
+ * channel's task, so that heartbeats are delivered on the same serial task as the channel's sample processing.
+ */
+public class ChannelProcessingScheduler
+{
+    private final static Logger mLog = LoggerFactory.getLogger(ChannelProcessingScheduler.class);
+
+    /**
+     * Heartbeat timer wheel tick interval and slot count for a 50 ms heartbeat period per channel
+     */
+    private static final long HEARTBEAT_TICK_INTERVAL_MILLISECONDS = 10;
+    private static final int HEARTBEAT_SLOT_COUNT = 5;
+
+    private static final ThreadPoolExecutor sPool;
+    private static final HeartbeatTimerWheel sHeartbeatTimerWheel =
+        new HeartbeatTimerWheel(HEARTBEAT_TICK_INTERVAL_MILLISECONDS, HEARTBEAT_SLOT_COUNT);
+
+    static
+    {
+        int threads = Math.max(Runtime.getRuntime().availableProcessors(), 2);
+
+        sPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+            new NamingThreadFactory("sdrtrunk channel"));
+        mLog.info("Channel processing thread pool created with [" + threads + "] threads");
+    }
+
+    private ChannelProcessingScheduler()
+    {
+    }
+
+    /**
+     * Schedules the channel task to run on the channel processing thread pool
+     */
+    static void execute(Runnable channelTask)
+    {
+        sPool.execute(channelTask);
+    }
+
+    /**
+     * Timer wheel that drives channel heartbeats
+     */
+    static HeartbeatTimerWheel getHeartbeatTimerWheel()
+    {
+        return sHeartbeatTimerWheel;
+    }
+
+    /**
+     * Number of threads in the channel processing thread pool
+     */
+    public static int getThreadCount()
+    {
+        return sPool.getMaximumPoolSize();
+    }
+
+    /**
+     * Number of channel tasks waiting to run
+     */
+    public static long getQueuedTaskCount()
+    {
+        return sPool.getQueue().size();
+    }
+}
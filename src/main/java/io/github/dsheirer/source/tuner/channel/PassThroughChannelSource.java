@@ -17,6 +17,7 @@
 package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
 import io.github.dsheirer.sample.buffer.OverflowableReusableBufferTransferQueue;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ISourceEventListener;
@@ -56,6 +57,12 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
         mTunerController = tunerController;
     }
 
+    @Override
+    public OverflowableTransferQueue<?> getSampleQueue()
+    {
+        return mBufferQueue;
+    }
+
     @Override
     public void setFrequency(long frequency)
     {
@@ -122,5 +129,6 @@ public class PassThroughChannelSource extends TunerChannelSource implements ISou
     public void receive(ReusableComplexBuffer reusableComplexBuffer)
     {
         mBufferQueue.offer(reusableComplexBuffer);
+        signalSamplesAvailable();
     }
 }
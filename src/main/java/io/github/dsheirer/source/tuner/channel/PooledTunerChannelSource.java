@@ -0,0 +1,372 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.channel;
+
+import io.github.dsheirer.sample.IOverflowListener;
+import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import io.github.dsheirer.source.SourceEvent;
+import io.github.dsheirer.source.SourceException;
+import io.github.dsheirer.source.heartbeat.Heartbeat;
+import io.github.dsheirer.source.tuner.Tuner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tuner channel source provided by the tuner pool.  Wraps a tuner channel source obtained from one of the pool's
+ * tuners and allows the pool to migrate the channel to a different tuner while the consumer keeps running.
+ *
+ * Migration is make-before-break: the replacement source is started before the consumer is switched over to it and
+ * the existing source is stopped only after the switch.  Sample buffers from each wrapped source pass through a gate
+ * that only forwards buffers from the current source, so the consumer never receives buffers from two sources at
+ * the same time.
+ */
+public class PooledTunerChannelSource extends TunerChannelSource
+{
+    private final static Logger mLog = LoggerFactory.getLogger(PooledTunerChannelSource.class);
+
+    private final Object mDeliveryLock = new Object();
+    private Listener<PooledTunerChannelSource> mDisposalListener;
+    private ChannelSpecification mChannelSpecification;
+    private volatile Tuner mTuner;
+    private volatile TunerChannelSource mTunerChannelSource;
+    private volatile Listener<ReusableComplexBuffer> mReusableComplexBufferListener;
+    private Listener<Heartbeat> mHeartbeatListener;
+    private IOverflowListener mOverflowListener;
+    private boolean mStarted;
+
+    /**
+     * Constructs an instance
+     *
+     * @param tuner that provides the tuner channel source
+     * @param tunerChannelSource to wrap
+     * @param channelSpecification used to obtain the tuner channel source
+     * @param disposalListener to be notified when this source is stopped
+     */
+    public PooledTunerChannelSource(Tuner tuner, TunerChannelSource tunerChannelSource,
+                                    ChannelSpecification channelSpecification,
+                                    Listener<PooledTunerChannelSource> disposalListener)
+    {
+        super(null, tunerChannelSource.getTunerChannel());
+        mTuner = tuner;
+        mChannelSpecification = channelSpecification;
+        mDisposalListener = disposalListener;
+        attach(tunerChannelSource);
+        mTunerChannelSource = tunerChannelSource;
+    }
+
+    /**
+     * Tuner that is currently providing this channel
+     */
+    public Tuner getTuner()
+    {
+        return mTuner;
+    }
+
+    /**
+     * Channel specification used to obtain this channel
+     */
+    public ChannelSpecification getChannelSpecification()
+    {
+        return mChannelSpecification;
+    }
+
+    /**
+     * Indicates if this source is started and can be migrated to another tuner
+     */
+    public synchronized boolean isMigratable()
+    {
+        return mStarted;
+    }
+
+    /**
+     * Migrates this channel to the replacement tuner channel source.  The replacement must provide the same channel
+     * sample rate as the current source.
+     *
+     * @param tuner that provides the replacement source
+     * @param replacement tuner channel source for the same tuner channel
+     * @return true if the channel was migrated, or false if the replacement was released without being used
+     */
+    public synchronized boolean migrate(Tuner tuner, TunerChannelSource replacement)
+    {
+        TunerChannelSource existing = mTunerChannelSource;
+
+        if(!mStarted || existing == null || Math.abs(existing.getSampleRate() - replacement.getSampleRate()) > 1.0)
+        {
+            replacement.stop();
+            return false;
+        }
+
+        attach(replacement);
+        replacement.setChannelFrequencyCorrection(existing.getChannelFrequencyCorrection());
+        replacement.start();
+
+        synchronized(mDeliveryLock)
+        {
+            mTunerChannelSource = replacement;
+            mTuner = tuner;
+        }
+
+        if(mHeartbeatListener != null)
+        {
+            existing.removeHeartbeatListener(mHeartbeatListener);
+            replacement.addHeartbeatListener(mHeartbeatListener);
+        }
+
+        if(mOverflowListener != null)
+        {
+            existing.setOverflowListener(null);
+            replacement.setOverflowListener(mOverflowListener);
+        }
+
+        existing.stop();
+        existing.removeSourceEventListener();
+
+        mLog.info("Migrated channel [" + getFrequency() + "] to tuner [" + tuner.getName() + "]");
+        return true;
+    }
+
+    /**
+     * Registers gated buffer and source event listeners on the tuner channel source
+     */
+    private void attach(TunerChannelSource tunerChannelSource)
+    {
+        tunerChannelSource.setListener(new BufferGate(tunerChannelSource));
+        tunerChannelSource.setSourceEventListener(new SourceEventGate(tunerChannelSource));
+    }
+
+    @Override
+    public synchronized void start()
+    {
+        if(mTunerChannelSource != null && !mStarted)
+        {
+            mTunerChannelSource.start();
+            mStarted = true;
+        }
+    }
+
+    @Override
+    public void stop()
+    {
+        synchronized(this)
+        {
+            mStarted = false;
+
+            if(mTunerChannelSource != null)
+            {
+                mTunerChannelSource.stop();
+                mTunerChannelSource.removeSourceEventListener();
+            }
+        }
+
+        if(mDisposalListener != null)
+        {
+            mDisposalListener.receive(this);
+        }
+    }
+
+    @Override
+    public synchronized void addHeartbeatListener(Listener<Heartbeat> listener)
+    {
+        mHeartbeatListener = listener;
+
+        if(mTunerChannelSource != null)
+        {
+            mTunerChannelSource.addHeartbeatListener(listener);
+        }
+    }
+
+    @Override
+    public synchronized void removeHeartbeatListener(Listener<Heartbeat> listener)
+    {
+        mHeartbeatListener = null;
+
+        if(mTunerChannelSource != null)
+        {
+            mTunerChannelSource.removeHeartbeatListener(listener);
+        }
+    }
+
+    @Override
+    public synchronized void setOverflowListener(IOverflowListener listener)
+    {
+        mOverflowListener = listener;
+
+        if(mTunerChannelSource != null)
+        {
+            mTunerChannelSource.setOverflowListener(listener);
+        }
+    }
+
+    @Override
+    public void setFrequency(long frequency)
+    {
+        TunerChannelSource source = mTunerChannelSource;
+
+        if(source != null)
+        {
+            source.setFrequency(frequency);
+        }
+    }
+
+    @Override
+    protected void setSampleRate(double sampleRate)
+    {
+        TunerChannelSource source = mTunerChannelSource;
+
+        if(source != null)
+        {
+            source.setSampleRate(sampleRate);
+        }
+    }
+
+    @Override
+    protected void setChannelFrequencyCorrection(long correction)
+    {
+        TunerChannelSource source = mTunerChannelSource;
+
+        if(source != null)
+        {
+            source.setChannelFrequencyCorrection(correction);
+        }
+    }
+
+    @Override
+    public long getChannelFrequencyCorrection()
+    {
+        TunerChannelSource source = mTunerChannelSource;
+        return source != null ? source.getChannelFrequencyCorrection() : 0;
+    }
+
+    @Override
+    protected void processSamples()
+    {
+        TunerChannelSource source = mTunerChannelSource;
+
+        if(source != null)
+        {
+            source.processSamples();
+        }
+    }
+
+    @Override
+    public OverflowableTransferQueue<?> getSampleQueue()
+    {
+        TunerChannelSource source = mTunerChannelSource;
+        return source != null ? source.getSampleQueue() : null;
+    }
+
+    @Override
+    public ChannelProcessingMetrics getChannelProcessingMetrics()
+    {
+        TunerChannelSource source = mTunerChannelSource;
+        return source != null ? source.getChannelProcessingMetrics() : super.getChannelProcessingMetrics();
+    }
+
+    @Override
+    public void setListener(Listener<ReusableComplexBuffer> complexBufferListener)
+    {
+        mReusableComplexBufferListener = complexBufferListener;
+    }
+
+    @Override
+    public void removeListener(Listener<ReusableComplexBuffer> listener)
+    {
+        mReusableComplexBufferListener = null;
+    }
+
+    @Override
+    public double getSampleRate()
+    {
+        TunerChannelSource source = mTunerChannelSource;
+        return source != null ? source.getSampleRate() : 0;
+    }
+
+    /**
+     * Passes source events from the consumer to the current tuner channel source.
+     */
+    @Override
+    public void process(SourceEvent sourceEvent) throws SourceException
+    {
+        TunerChannelSource source = mTunerChannelSource;
+
+        if(source != null)
+        {
+            source.process(sourceEvent);
+        }
+    }
+
+    /**
+     * Forwards sample buffers from a wrapped tuner channel source to the consumer only while that source is the
+     * current source for this channel.  Buffers from a source that is being replaced are released.
+     */
+    private class BufferGate implements Listener<ReusableComplexBuffer>
+    {
+        private TunerChannelSource mSource;
+
+        public BufferGate(TunerChannelSource source)
+        {
+            mSource = source;
+        }
+
+        @Override
+        public void receive(ReusableComplexBuffer buffer)
+        {
+            synchronized(mDeliveryLock)
+            {
+                Listener<ReusableComplexBuffer> listener = mReusableComplexBufferListener;
+
+                if(mSource == mTunerChannelSource && listener != null)
+                {
+                    listener.receive(buffer);
+                    return;
+                }
+            }
+
+            buffer.decrementUserCount();
+        }
+    }
+
+    /**
+     * Rebroadcasts source events from a wrapped tuner channel source to the consumer while that source is the
+     * current source for this channel.
+     */
+    private class SourceEventGate implements Listener<SourceEvent>
+    {
+        private TunerChannelSource mSource;
+
+        public SourceEventGate(TunerChannelSource source)
+        {
+            mSource = source;
+        }
+
+        @Override
+        public void receive(SourceEvent sourceEvent)
+        {
+            if(mSource == mTunerChannelSource)
+            {
+                broadcastConsumerSourceEvent(sourceEvent);
+            }
+        }
+    }
+}
@@ -22,28 +22,27 @@
 package io.github.dsheirer.source.tuner.channel;
 
 import io.github.dsheirer.sample.Listener;
+import io.github.dsheirer.sample.OverflowableTransferQueue;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.ComplexSource;
 import io.github.dsheirer.source.ISourceEventProcessor;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceEventListenerToProcessorAdapter;
 import io.github.dsheirer.source.SourceException;
-import io.github.dsheirer.util.ThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class TunerChannelSource extends ComplexSource implements ISourceEventProcessor
 {
     private final static Logger mLog = LoggerFactory.getLogger(TunerChannelSource.class);
-    private static final long BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS = 50;
     private SourceEventListenerToProcessorAdapter mConsumerSourceEventListenerAdapter;
     private TunerChannel mTunerChannel;
     private Listener<SourceEvent> mProducerSourceEventListener;
     private Listener<SourceEvent> mConsumerSourceEventListener;
-    private ScheduledIntervalProcessor mScheduledIntervalProcessor = new ScheduledIntervalProcessor();
+    private ChannelProcessingTask mChannelProcessingTask = new ChannelProcessingTask();
+    private ChannelProcessingMetrics mChannelProcessingMetrics = new ChannelProcessingMetrics();
 
     /**
      * Tuner Channel Source is a Digital Drop Channel (DDC) abstract class that defines the minimum functionality
@@ -104,11 +103,39 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     public abstract void setListener(Listener<ReusableComplexBuffer> complexBufferListener);
 
     /**
-     * Commands sub-class to process queued samples and distribute them to the consumer.  This method will be invoked
-     * by an interval timer.
+     * Commands sub-class to process queued samples and distribute them to the consumer.  This method is invoked on a
+     * channel processing scheduler thread after the sub-class signals that samples are available, and with each
+     * heartbeat.  Invocations for a channel never overlap.
      */
     protected abstract void processSamples();
 
+    /**
+     * Signals that samples are queued and schedules this channel for processing.  Sub-classes should invoke this
+     * method after queueing sample data received from the producer.
+     */
+    protected void signalSamplesAvailable()
+    {
+        mChannelProcessingTask.signal();
+    }
+
+    /**
+     * Queue delay and processing time statistics for this channel
+     */
+    public ChannelProcessingMetrics getChannelProcessingMetrics()
+    {
+        return mChannelProcessingMetrics;
+    }
+
+    /**
+     * Inbound sample queue for this channel, for depth and overflow monitoring.
+     *
+     * @return queue or null if this channel source doesn't use an overflowable queue
+     */
+    public OverflowableTransferQueue<?> getSampleQueue()
+    {
+        return null;
+    }
+
     /**
      * Tuner channel for this tuner channel source
      */
@@ -131,7 +158,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
         //Broadcast current frequency and sample rate so consumer can configure correctly
         broadcastConsumerSourceEvent(SourceEvent.frequencyChange(this, getFrequency(), "Startup"));
         broadcastProducerSourceEvent(SourceEvent.startSampleStreamRequest(this));
-        mScheduledIntervalProcessor.start();
+        mChannelProcessingTask.start();
     }
 
     /**
@@ -142,7 +169,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     {
         broadcastProducerSourceEvent(SourceEvent.stopSampleStreamRequest(this));
         broadcastProducerSourceEvent(SourceEvent.sourceDisposeRequest(this));
-        mScheduledIntervalProcessor.stop();
+        mChannelProcessingTask.stop();
     }
 
     @Override
@@ -264,58 +291,102 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
     }
 
     /**
-     * Processor to periodically invoke buffer sample processing on an interval timer.  At each interval this processor
-     * sends a heartbeat to the registered consumer and then commands the sub-class implementation to process any
-     * queued buffers and distribute complex buffer sample(s) to the registered consumer.
+     * Serial processing task for this channel.  The task is scheduled on the channel processing scheduler whenever
+     * samples are signalled as available or a heartbeat is due, and is never queued or running more than once at a
+     * time.  Each run delivers any due heartbeat to the registered consumer and then commands the sub-class
+     * implementation to process any queued buffers and distribute complex buffer sample(s) to the registered consumer.
      */
-    public class ScheduledIntervalProcessor implements Runnable
+    public class ChannelProcessingTask implements Runnable
     {
-        private ScheduledFuture<?> mScheduledFuture;
-        private boolean mStopped = false;
+        private AtomicBoolean mScheduled = new AtomicBoolean();
+        private AtomicBoolean mPending = new AtomicBoolean();
+        private AtomicBoolean mHeartbeatDue = new AtomicBoolean();
+        private Runnable mHeartbeatCallback = this::heartbeat;
+        private volatile long mScheduledTimestamp;
+        private volatile boolean mStarted = false;
+        private volatile boolean mStopped = false;
+        private boolean mDisposed = false;
 
         /**
-         * Commands this processor to do a shutdown at the end of this or the next iteration.  Once successfully
-         * shutdown, it will invoke the performDisposal() method to cleanup this instance.
+         * Registers with the heartbeat timer and schedules the first processing run.
          */
-        public void stop()
+        public void start()
         {
-            mStopped = true;
+            if(!mStarted && !mStopped)
+            {
+                mStarted = true;
+                ChannelProcessingScheduler.getHeartbeatTimerWheel().add(mHeartbeatCallback);
+                signal();
+            }
         }
 
         /**
-         * Starts buffer processing on a fixed interval using a scheduled thread pool
+         * Commands this task to do a shutdown on the next run.  Once successfully shutdown, it will invoke the
+         * performDisposal() method to cleanup this instance.
          */
-        public void start()
+        public void stop()
         {
-            if(mScheduledFuture == null)
+            mStopped = true;
+            ChannelProcessingScheduler.getHeartbeatTimerWheel().remove(mHeartbeatCallback);
+
+            if(mStarted)
             {
-                mScheduledFuture = ThreadPool.SCHEDULED.scheduleAtFixedRate(this, 0,
-                    BUFFER_PROCESSOR_RUN_INTERVAL_MILLISECONDS, TimeUnit.MILLISECONDS);
+                signal();
             }
         }
 
         /**
-         * Implementation of the Runnable interface to periodically send a heartbeat and then process buffer samples.
+         * Heartbeat timer callback - flags that a heartbeat is due and schedules this task
+         */
+        private void heartbeat()
+        {
+            mHeartbeatDue.set(true);
+            signal();
+        }
+
+        /**
+         * Schedules this task to run, unless it is already scheduled.  If the task is currently running, it will be
+         * rescheduled once the current run completes.
          */
+        public void signal()
+        {
+            mPending.set(true);
+
+            if(mScheduled.compareAndSet(false, true))
+            {
+                mScheduledTimestamp = System.nanoTime();
+                ChannelProcessingScheduler.execute(this);
+            }
+        }
+
         @Override
         public void run()
         {
+            if(mDisposed)
+            {
+                return;
+            }
+
+            long start = System.nanoTime();
+            long queueDelay = start - mScheduledTimestamp;
+            mPending.set(false);
+
             try
             {
                 if(!mStopped)
                 {
-                    try
-                    {
-                        getHeartbeatManager().broadcast();
-                    }
-                    catch(Throwable t)
+                    if(mHeartbeatDue.getAndSet(false))
                     {
-                        mLog.error("Error while sending heartbeat", t);
+                        try
+                        {
+                            getHeartbeatManager().broadcast();
+                        }
+                        catch(Throwable t)
+                        {
+                            mLog.error("Error while sending heartbeat", t);
+                        }
                     }
-                }
 
-                if(!mStopped)
-                {
                     try
                     {
                         processSamples();
@@ -328,13 +399,7 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
 
                 if(mStopped)
                 {
-                    if(mScheduledFuture != null)
-                    {
-                        //Set may-interrupt to false so that we can complete this iteration
-                        mScheduledFuture.cancel(false);
-                    }
-
-                    mScheduledFuture = null;
+                    mDisposed = true;
 
                     try
                     {
@@ -349,7 +414,25 @@ public abstract class TunerChannelSource extends ComplexSource implements ISourc
             }
             catch(Throwable t)
             {
-                mLog.error("Error during heartbeat processing", t);
+                mLog.error("Error during channel processing", t);
+            }
+
+            mChannelProcessingMetrics.update(queueDelay, System.nanoTime() - start);
+
+            if(mDisposed)
+            {
+                mLog.debug("Channel [" + getTunerChannel().getFrequency() + "] processing - " +
+                    mChannelProcessingMetrics);
+                return;
+            }
+
+            mScheduled.set(false);
+
+            //Reschedule if samples or a heartbeat arrived while we were running
+            if(mPending.get() && mScheduled.compareAndSet(false, true))
+            {
+                mScheduledTimestamp = System.nanoTime();
+                ChannelProcessingScheduler.execute(this);
             }
         }
     }
@@ -0,0 +1,258 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.source.tuner.manager;
+
+import io.github.dsheirer.source.tuner.channel.TunerChannel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+
+/**
+ * Tracks channel frequency usage history for a tuner and selects tuner center frequencies that cover the historically
+ * busiest set of channels, so that channels requested later are more likely to fit without a retune.
+ *
+ * Each channel request adds one unit of weight to the channel's frequency and weights decay exponentially with the
+ * configured half-life.  The planner also applies a minimum dwell time after each retune during which the owning
+ * source manager should not retune for optimization only, and counts retunes and the time spent retuning.
+ *
+ * System properties:
+ *   sdrtrunk.tuner.retune.dwell.ms=N          minimum time between optimization retunes (default 30000)
+ *   sdrtrunk.tuner.history.halflife.seconds=N half-life of channel usage history weights (default 600)
+ */
+public class CenterFrequencyPlanner
+{
+    public static final String DWELL_PROPERTY = "sdrtrunk.tuner.retune.dwell.ms";
+    public static final String HALF_LIFE_PROPERTY = "sdrtrunk.tuner.history.halflife.seconds";
+    private static final int MAXIMUM_HISTORY_SIZE = 256;
+    private static final double MINIMUM_WEIGHT = 0.05;
+
+    private Map<Long,Usage> mUsageMap = new HashMap<>();
+    private long mDwellTime;
+    private double mHalfLife;
+    private long mLastRetuneTimestamp;
+    private AtomicLong mRetuneCount = new AtomicLong();
+    private AtomicLong mRetuneNanos = new AtomicLong();
+    private AtomicLong mRetunesAvoided = new AtomicLong();
+
+    /**
+     * Constructs an instance
+     */
+    public CenterFrequencyPlanner()
+    {
+        mDwellTime = Math.max(0, Long.getLong(DWELL_PROPERTY, 30000));
+        mHalfLife = TimeUnit.SECONDS.toMillis(Math.max(1, Long.getLong(HALF_LIFE_PROPERTY, 600)));
+    }
+
+    /**
+     * Records an allocated tuner channel in the usage history
+     */
+    public synchronized void record(TunerChannel tunerChannel)
+    {
+        long now = System.currentTimeMillis();
+        Usage usage = mUsageMap.get(tunerChannel.getFrequency());
+
+        if(usage == null)
+        {
+            if(mUsageMap.size() >= MAXIMUM_HISTORY_SIZE)
+            {
+                prune(now);
+            }
+
+            usage = new Usage(tunerChannel);
+            mUsageMap.put(tunerChannel.getFrequency(), usage);
+        }
+
+        usage.increment(now);
+    }
+
+    /**
+     * Removes history entries whose weight has decayed below the minimum, or the lightest entry when none have.
+     */
+    private void prune(long now)
+    {
+        Usage lightest = null;
+        Iterator<Usage> it = mUsageMap.values().iterator();
+
+        while(it.hasNext())
+        {
+            Usage usage = it.next();
+
+            if(usage.getWeight(now) < MINIMUM_WEIGHT)
+            {
+                it.remove();
+            }
+            else if(lightest == null || usage.getWeight(now) < lightest.getWeight(now))
+            {
+                lightest = usage;
+            }
+        }
+
+        if(mUsageMap.size() >= MAXIMUM_HISTORY_SIZE && lightest != null)
+        {
+            mUsageMap.remove(lightest.getTunerChannel().getFrequency());
+        }
+    }
+
+    /**
+     * Selects the candidate center frequency that covers the highest decayed usage weight.  Ties are resolved in favor
+     * of the candidate nearest the preferred frequency.
+     *
+     * @param candidates to evaluate, each of which is valid for the currently sourced channels
+     * @param fits indicates if a channel from the history fits within the tuner bandwidth at a candidate center
+     * @param preferred frequency for resolving ties
+     * @return selected center frequency
+     * @throws IllegalArgumentException if the candidate list is empty
+     */
+    public synchronized long select(List<Long> candidates, BiPredicate<TunerChannel,Long> fits, long preferred)
+    {
+        if(candidates.isEmpty())
+        {
+            throw new IllegalArgumentException("Candidates cannot be empty");
+        }
+
+        long now = System.currentTimeMillis();
+        List<Usage> usages = new ArrayList<>(mUsageMap.values());
+        long best = candidates.get(0);
+        double bestScore = -1.0;
+
+        for(long candidate: candidates)
+        {
+            double score = 0.0;
+
+            for(Usage usage: usages)
+            {
+                if(fits.test(usage.getTunerChannel(), candidate))
+                {
+                    score += usage.getWeight(now);
+                }
+            }
+
+            if(score > bestScore ||
+                (score == bestScore && Math.abs(candidate - preferred) < Math.abs(best - preferred)))
+            {
+                best = candidate;
+                bestScore = score;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Indicates if the minimum dwell time since the most recent retune has not yet elapsed
+     */
+    public synchronized boolean isDwelling()
+    {
+        return System.currentTimeMillis() - mLastRetuneTimestamp < mDwellTime;
+    }
+
+    /**
+     * Records a completed retune
+     *
+     * @param nanos elapsed while retuning
+     */
+    public void retuned(long nanos)
+    {
+        synchronized(this)
+        {
+            mLastRetuneTimestamp = System.currentTimeMillis();
+        }
+
+        mRetuneCount.incrementAndGet();
+        mRetuneNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Records a retune that was avoided by keeping the current center frequency
+     */
+    public void retuneAvoided()
+    {
+        mRetunesAvoided.incrementAndGet();
+    }
+
+    /**
+     * Number of retunes performed
+     */
+    public long getRetuneCount()
+    {
+        return mRetuneCount.get();
+    }
+
+    /**
+     * Total time spent retuning in nanoseconds
+     */
+    public long getRetuneNanos()
+    {
+        return mRetuneNanos.get();
+    }
+
+    /**
+     * Number of optimization retunes avoided
+     */
+    public long getRetunesAvoided()
+    {
+        return mRetunesAvoided.get();
+    }
+
+    /**
+     * Decayed usage weight for a channel frequency
+     */
+    private class Usage
+    {
+        private TunerChannel mTunerChannel;
+        private double mWeight;
+        private long mTimestamp;
+
+        public Usage(TunerChannel tunerChannel)
+        {
+            mTunerChannel = tunerChannel;
+        }
+
+        public TunerChannel getTunerChannel()
+        {
+            return mTunerChannel;
+        }
+
+        /**
+         * Weight decayed to the specified time
+         */
+        public double getWeight(long now)
+        {
+            return mWeight * Math.pow(0.5, (now - mTimestamp) / mHalfLife);
+        }
+
+        /**
+         * Decays the weight to the specified time and adds one unit of weight
+         */
+        public void increment(long now)
+        {
+            mWeight = getWeight(now) + 1.0;
+            mTimestamp = now;
+        }
+    }
+}
@@ -56,6 +56,9 @@ public abstract class ChannelSourceManager implements ISourceEventProcessor
      * Note: you MUST invoke start() on the obtained source to start the sample flow and invoke stop() to release all
      * resources allocated for the tuner channel source.
      *
+     * Note: channels can be requested concurrently from multiple threads.  Implementations serialize channel
+     * allocation and release for their tuner so that allocations against different tuners can proceed in parallel.
+     *
      * @param tunerChannel for requested source
      * @param channelSpecification for the requested channel
      * @return tuner channel source or null
@@ -28,12 +28,15 @@ import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerController;
 import io.github.dsheirer.source.tuner.channel.CICTunerChannelSource;
+import io.github.dsheirer.source.tuner.channel.CICTunerChannelSourceGroup;
 import io.github.dsheirer.source.tuner.channel.ChannelSpecification;
 import io.github.dsheirer.source.tuner.channel.TunerChannel;
 import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -41,6 +44,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Channel provider for heterodyne and decimate method of channel provisioning.
+ *
+ * Channel sources are assigned to channel source groups so that up to CICTunerChannelSourceGroup.MAX_GROUP_SIZE
+ * channels share a single pass over each tuner sample buffer.
  */
 public class HeterodyneChannelSourceManager extends ChannelSourceManager
 {
@@ -49,6 +55,7 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
     private final static int DELAY_BUFFER_DURATION_MILLISECONDS = 2000;
 
     private List<CICTunerChannelSource> mChannelSources = new CopyOnWriteArrayList<>();
+    private List<CICTunerChannelSourceGroup> mChannelSourceGroups = new ArrayList<>();
     private SortedSet<TunerChannel> mTunerChannels = new TreeSet<>();
     private TunerController mTunerController;
     private ChannelSourceEventProcessor mChannelSourceEventProcessor = new ChannelSourceEventProcessor();
@@ -73,7 +80,7 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
     }
 
     @Override
-    public TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
+    public synchronized TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
     {
         if(CenterFrequencyCalculator.canTune(tunerChannel, mTunerController, mTunerChannels))
         {
@@ -85,6 +92,7 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
 
                 //Add to the list of channel sources so that it will receive the tuner frequency change
                 mChannelSources.add(tunerChannelSource);
+                addToChannelSourceGroup(tunerChannelSource);
 
                 //Set the current tuner frequency
                 tunerChannelSource.setFrequency(mTunerController.getFrequency());
@@ -109,6 +117,50 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
         return null;
     }
 
+    /**
+     * Adds the channel source to a channel source group that has capacity, creating a new group as needed.
+     */
+    private void addToChannelSourceGroup(CICTunerChannelSource channelSource)
+    {
+        synchronized(mChannelSourceGroups)
+        {
+            for(CICTunerChannelSourceGroup group: mChannelSourceGroups)
+            {
+                if(group.hasCapacity())
+                {
+                    group.add(channelSource);
+                    return;
+                }
+            }
+
+            CICTunerChannelSourceGroup group = new CICTunerChannelSourceGroup();
+            group.add(channelSource);
+            mChannelSourceGroups.add(group);
+        }
+    }
+
+    /**
+     * Removes the channel source from its channel source group and removes the group once it is empty.
+     */
+    private void removeFromChannelSourceGroup(CICTunerChannelSource channelSource)
+    {
+        synchronized(mChannelSourceGroups)
+        {
+            Iterator<CICTunerChannelSourceGroup> it = mChannelSourceGroups.iterator();
+
+            while(it.hasNext())
+            {
+                CICTunerChannelSourceGroup group = it.next();
+                group.remove(channelSource);
+
+                if(group.isEmpty())
+                {
+                    it.remove();
+                }
+            }
+        }
+    }
+
     @Override
     public void setErrorMessage(String errorMessage)
     {
@@ -273,8 +325,14 @@ public class HeterodyneChannelSourceManager extends ChannelSourceManager
                     if(sourceEvent.getSource() instanceof CICTunerChannelSource)
                     {
                         CICTunerChannelSource channelSource = (CICTunerChannelSource)sourceEvent.getSource();
-                        mChannelSources.remove(channelSource);
-                        mTunerChannels.remove(channelSource.getTunerChannel());
+
+                        synchronized(HeterodyneChannelSourceManager.this)
+                        {
+                            mChannelSources.remove(channelSource);
+                            removeFromChannelSourceGroup(channelSource);
+                            mTunerChannels.remove(channelSource.getTunerChannel());
+                        }
+
                         channelSource.dispose();
 
                         //Unlock the tuner controller if there are no more channels
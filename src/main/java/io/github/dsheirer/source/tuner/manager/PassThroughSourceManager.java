@@ -67,7 +67,7 @@ public class PassThroughSourceManager extends ChannelSourceManager
     }
 
     @Override
-    public TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
+    public synchronized TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
     {
         PassThroughChannelSource channelSource = new PassThroughChannelSource(new SourceEventProxy(),
                 mTunerController, tunerChannel);
@@ -95,8 +95,13 @@ public class PassThroughSourceManager extends ChannelSourceManager
                 {
                     PassThroughChannelSource source = (PassThroughChannelSource)event.getSource();
                     mTunerController.removeBufferListener(source);
-                    mTunerChannels.remove(source.getTunerChannel());
-                    mTunerChannelSources.remove(source);
+
+                    synchronized(this)
+                    {
+                        mTunerChannels.remove(source.getTunerChannel());
+                        mTunerChannelSources.remove(source);
+                    }
+
                     broadcast(SourceEvent.channelCountChange(mTunerChannels.size()));
                 }
                 break;
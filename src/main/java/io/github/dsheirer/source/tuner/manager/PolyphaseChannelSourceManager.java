@@ -22,6 +22,7 @@
 package io.github.dsheirer.source.tuner.manager;
 
 import io.github.dsheirer.dsp.filter.channelizer.PolyphaseChannelManager;
+import io.github.dsheirer.metrics.PipelineMetrics;
 import io.github.dsheirer.source.SourceEvent;
 import io.github.dsheirer.source.SourceException;
 import io.github.dsheirer.source.tuner.TunerController;
@@ -31,6 +32,8 @@ import io.github.dsheirer.source.tuner.channel.TunerChannelSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.SortedSet;
 
 public class PolyphaseChannelSourceManager extends ChannelSourceManager
@@ -38,6 +41,7 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
     private final static Logger mLog = LoggerFactory.getLogger(PolyphaseChannelSourceManager.class);
     private PolyphaseChannelManager mPolyphaseChannelManager;
     private TunerController mTunerController;
+    private CenterFrequencyPlanner mCenterFrequencyPlanner = new CenterFrequencyPlanner();
 
     /**
      * PolyphaseChannelSourceManager is responsible for managing the tuner's center tuned frequency and providing access to
@@ -182,10 +186,60 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         long bestIntegralFrequency = getIntegralFrequency(channels);
 
         //Strategy 1: reuse the current frequency if it's a good integral and the channels fit
-        if(isIntegralSpacing(currentCenterFrequency, bestIntegralFrequency) &&
-            isValidCenterFrequency(channels, currentCenterFrequency))
+        if(isValidCenterFrequency(channels, currentCenterFrequency))
         {
-            return currentCenterFrequency;
+            if(isIntegralSpacing(currentCenterFrequency, bestIntegralFrequency))
+            {
+                return currentCenterFrequency;
+            }
+
+            //Hysteresis: a realignment retune perturbs every active channel, so keep the current frequency while it
+            //still fits all channels and either channels are active or the minimum dwell time hasn't elapsed
+            if(getTunerChannelCount() > 0 || mCenterFrequencyPlanner.isDwelling())
+            {
+                //Only count an avoided retune when realignment would have moved the center frequency
+                try
+                {
+                    if(getRealignedCenterFrequency(channels, bestIntegralFrequency, channelSetBandwidth) !=
+                        currentCenterFrequency)
+                    {
+                        mCenterFrequencyPlanner.retuneAvoided();
+                        PipelineMetrics.getInstance().getRetuneMetrics().recordRetuneAvoided();
+                    }
+                }
+                catch(IllegalArgumentException iae)
+                {
+                    //No realigned center frequency fits the channels - nothing was avoided
+                }
+
+                return currentCenterFrequency;
+            }
+        }
+
+        return getRealignedCenterFrequency(channels, bestIntegralFrequency, channelSetBandwidth);
+    }
+
+    /**
+     * Calculates a center frequency for the channels, preferring an integrally spaced frequency that covers the
+     * historically busiest channels.
+     *
+     * @param channels that are currently sourced by this source manager
+     * @param bestIntegralFrequency for the channel set
+     * @param channelSetBandwidth spanned by the channels
+     * @return center frequency for the set of tuner channels
+     * @throws IllegalArgumentException if a center frequency cannot be determined for the set of tuner channels
+     */
+    private long getRealignedCenterFrequency(SortedSet<TunerChannel> channels, long bestIntegralFrequency,
+                                             long channelSetBandwidth) throws IllegalArgumentException
+    {
+        //Planned strategy: choose the integrally spaced frequency that covers the historically busiest channels
+        List<Long> candidates = getIntegralCandidates(channels, bestIntegralFrequency);
+
+        if(!candidates.isEmpty())
+        {
+            //Without history, prefer the same placement as strategy 2 below: one channel width below the first channel
+            long preferred = channels.first().getFrequency() - (int)mPolyphaseChannelManager.getChannelBandwidth();
+            return mCenterFrequencyPlanner.select(candidates, this::isValidCenterFrequency, preferred);
         }
 
         double usableHalfBandwidth = mTunerController.getUsableHalfBandwidth();
@@ -265,6 +319,52 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
         throw new IllegalArgumentException("Can't calculate valid center frequency for the channel set");
     }
 
+    /**
+     * Creates a list of candidate center frequencies that are spaced at integral multiples of the channel bandwidth
+     * from the best integral frequency and that are valid for the set of channels.
+     *
+     * @param channels to fit
+     * @param bestIntegralFrequency for aligning the candidates
+     * @return candidate center frequencies, lowest to highest
+     */
+    private List<Long> getIntegralCandidates(SortedSet<TunerChannel> channels, long bestIntegralFrequency)
+    {
+        List<Long> candidates = new ArrayList<>();
+        double channelBandwidth = mPolyphaseChannelManager.getChannelBandwidth();
+
+        if(channelBandwidth <= 0)
+        {
+            return candidates;
+        }
+
+        long minimum = channels.last().getMaxFrequency() - mTunerController.getUsableHalfBandwidth();
+        long maximum = channels.first().getMinFrequency() + mTunerController.getUsableHalfBandwidth();
+
+        long step = (long)Math.ceil((minimum - bestIntegralFrequency) / channelBandwidth);
+        long candidate = bestIntegralFrequency + (long)(step * channelBandwidth);
+
+        while(candidate <= maximum)
+        {
+            if(isValidCenterFrequency(channels, candidate))
+            {
+                candidates.add(candidate);
+            }
+
+            step++;
+            candidate = bestIntegralFrequency + (long)(step * channelBandwidth);
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Center frequency planner with the channel usage history and retune metrics for this tuner
+     */
+    public CenterFrequencyPlanner getCenterFrequencyPlanner()
+    {
+        return mCenterFrequencyPlanner;
+    }
+
     @Override
     public void setErrorMessage(String errorMessage)
     {
@@ -401,13 +501,14 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
     }
 
     /**
-     * Allocates a tuner channel source for the tuner channel.
+     * Allocates a tuner channel source for the tuner channel.  Allocations are serialized for this tuner since the
+     * tuner center frequency may be changed to accommodate the new channel.
      *
      * @param tunerChannel for requested source
      * @return allocated DDC tuner channel source, or null if the channel cannot be provided by this source manager
      */
     @Override
-    public TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
+    public synchronized TunerChannelSource getSource(TunerChannel tunerChannel, ChannelSpecification channelSpecification)
     {
         if(isTunable(tunerChannel))
         {
@@ -429,11 +530,25 @@ public class PolyphaseChannelSourceManager extends ChannelSourceManager
 
                     if(updatedCenterFrequency != currentCenterFrequency && updatedCenterFrequency != 0)
                     {
+                        long start = System.nanoTime();
                         mTunerController.setFrequency(updatedCenterFrequency);
+                        long elapsed = System.nanoTime() - start;
+                        mCenterFrequencyPlanner.retuned(elapsed);
+                        PipelineMetrics.getInstance().getRetuneMetrics().recordRetune(elapsed);
                     }
 
                     //If we're successful to here, allocate the channel
-                    return mPolyphaseChannelManager.getChannel(tunerChannel, channelSpecification);
+                    TunerChannelSource source = mPolyphaseChannelManager.getChannel(tunerChannel,
+                        channelSpecification);
+
+                    //Only record usage for channels this tuner actually sources, since the tuner pool may probe
+                    //several tuners for each channel request
+                    if(source != null)
+                    {
+                        mCenterFrequencyPlanner.record(tunerChannel);
+                    }
+
+                    return source;
                 }
                 catch(SourceException se)
                 {
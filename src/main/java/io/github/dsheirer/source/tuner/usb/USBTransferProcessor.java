@@ -21,6 +21,7 @@
  */
 package io.github.dsheirer.source.tuner.usb;
 
+import io.github.dsheirer.metrics.jfr.UsbTransferErrorEvent;
 import io.github.dsheirer.sample.Listener;
 import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
 import io.github.dsheirer.source.tuner.ITunerErrorListener;
@@ -292,12 +293,14 @@ public class USBTransferProcessor implements TransferCallback
                             break;
                         case LibUsb.ERROR_PIPE:
                             mLog.warn("[" + mDeviceName + "] - USB Pipe Error while submitting transfer buffers");
+                            recordTransferError(getErrorStatus(status), 0, false);
                             LibUsb.clearHalt(mUsbBulkTransferDeviceHandle, USB_BULK_TRANSFER_ENDPOINT);
                             mTransfersToDispose.add(transfer);
                             transfer = null;
                             break;
                         default:
                             mLog.error("[" + mDeviceName + "] - " + getErrorStatus(status) + " while submitting transfer buffers");
+                            recordTransferError(getErrorStatus(status), 0, false);
                             mTransfersToDispose.add(transfer);
                             transfer = null;
                             break;
@@ -437,6 +440,8 @@ public class USBTransferProcessor implements TransferCallback
                 }
                 break;
             case LibUsb.TRANSFER_ERROR:
+                recordTransferError(getTransferStatus(transfer.status()), transfer.actualLength(), false);
+
                 if(transfer.actualLength() > 0)
                 {
                     mCompletedTransfers.add(transfer);
@@ -467,6 +472,7 @@ public class USBTransferProcessor implements TransferCallback
                 //Unexpected transfer error - need to reset the bulk transfer interface
                 mLog.error("[" + mDeviceName + "] - transfer error [" + getTransferStatus(transfer.status()) +
                     "] transferred actual: " + transfer.actualLength());
+                recordTransferError(getTransferStatus(transfer.status()), transfer.actualLength(), true);
                 transfer.buffer().rewind();
                 mAvailableTransfers.add(transfer);
                 restart();
@@ -474,6 +480,27 @@ public class USBTransferProcessor implements TransferCallback
         }
     }
 
+    /**
+     * Commits a flight recorder event for a USB transfer error
+     *
+     * @param status description of the error
+     * @param actualLength of bytes transferred
+     * @param restart indicates if the error causes a restart of transfer processing
+     */
+    private void recordTransferError(String status, int actualLength, boolean restart)
+    {
+        UsbTransferErrorEvent event = new UsbTransferErrorEvent();
+
+        if(event.shouldCommit())
+        {
+            event.device = mDeviceName;
+            event.status = status;
+            event.actualLength = actualLength;
+            event.restart = restart;
+            event.commit();
+        }
+    }
+
     /**
      * Converts the error status code to a textual description
      */
@@ -0,0 +1,54 @@
+/*
+ *
+ *  * ******************************************************************************
+ *  * Copyright (C) 2014-2020 Dennis Sheirer
+ *  *
+ *  * This program is free software: you can redistribute it and/or modify
+ *  * it under the terms of the GNU General Public License as published by
+ *  * the Free Software Foundation, either version 3 of the License, or
+ *  * (at your option) any later version.
+ *  *
+ *  * This program is distributed in the hope that it will be useful,
+ *  * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  * GNU General Public License for more details.
+ *  *
+ *  * You should have received a copy of the GNU General Public License
+ *  * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ *  * *****************************************************************************
+ *
+ *
+ */
+package io.github.dsheirer.util;
+
+import ch.qos.logback.classic.pattern.ClassicConverter;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import io.github.dsheirer.audio.AudioChunkPool;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Custom logging plugin for logging audio segment memory usage with logback
+ *
+ * Add the following to the logback.xml configuration file to use this custom converter:
+ *
+ * <conversionRule conversionWord="audio_memory_usage" converterClass="AudioMemoryUsageLogger" />
+ *
+ * Update the encoder pattern to include %audio_memory_usage within the pattern.  Output is formatted as
+ * [audio in-use/pooled/spilled].
+ */
+public class AudioMemoryUsageLogger extends ClassicConverter
+{
+    @Override
+    public String convert(ILoggingEvent iLoggingEvent)
+    {
+        //Method argument is ignored - we simply return audio chunk pool statistics
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("[audio ").append(FileUtils.byteCountToDisplaySize(AudioChunkPool.getInUseBytes()).replace(" ", ""));
+        sb.append("/").append(FileUtils.byteCountToDisplaySize(AudioChunkPool.getPooledBytes()).replace(" ", ""));
+        sb.append("/").append(FileUtils.byteCountToDisplaySize(AudioChunkPool.getSpilledBytes()).replace(" ", ""));
+        sb.append("]");
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * ******************************************************************************
+ * sdrtrunk
+ * Copyright (C) 2014-2020 Dennis Sheirer
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>
+ * *****************************************************************************
+ */
+package io.github.dsheirer.dsp.filter.channelizer;
+
+import io.github.dsheirer.dsp.filter.FilterFactory;
+import io.github.dsheirer.dsp.filter.design.FilterDesignException;
+import io.github.dsheirer.sample.buffer.ReusableComplexBuffer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Verifies the N channel synthesizer against the direct form of the M-path, M/2 output synthesis equation.
+ */
+public class NChannelSynthesizerM2Test
+{
+    private static final double CHANNEL_SAMPLE_RATE = 25000.0;
+    private static final double CHANNEL_BANDWIDTH = 12500.0;
+    private static final int TAPS_PER_CHANNEL = 18;
+    private static final int FRAMES = 64;
+
+    @Test
+    public void fourChannelsMatchDirectForm() throws FilterDesignException
+    {
+        assertMatchesDirectForm(4);
+    }
+
+    @Test
+    public void sixChannelsMatchDirectForm() throws FilterDesignException
+    {
+        assertMatchesDirectForm(6);
+    }
+
+    @Test
+    public void eightChannelsMatchDirectForm() throws FilterDesignException
+    {
+        assertMatchesDirectForm(8);
+    }
+
+    /**
+     * Processes a random full band input stream, starting on a bottom block, and compares the synthesizer output to
+     * y[nL + r] = L * sum(h[r + jL] * IFFT(frame n - j)[(r + (n + 1) * L) mod M]) with L = M / 2
+     *
+     * @param channelCount of synthesis channels
+     */
+    private static void assertMatchesDirectForm(int channelCount) throws FilterDesignException
+    {
+        int halfChannelCount = channelCount / 2;
+        float[] filter = FilterFactory.getSincM2Synthesizer(CHANNEL_SAMPLE_RATE, CHANNEL_BANDWIDTH, halfChannelCount,
+            TAPS_PER_CHANNEL);
+
+        Random random = new Random(0);
+        int[] channelOffsets = new int[channelCount];
+        List<float[]> channelResults = new ArrayList<>();
+
+        for(int x = 0; x < channelCount; x++)
+        {
+            channelOffsets[x] = x * 2;
+        }
+
+        for(int x = 0; x < FRAMES; x++)
+        {
+            float[] results = new float[channelCount * 2];
+
+            for(int y = 0; y < results.length; y++)
+            {
+                results[y] = (float)random.nextGaussian();
+            }
+
+            channelResults.add(results);
+        }
+
+        NChannelSynthesizerM2 synthesizer = new NChannelSynthesizerM2(filter, channelCount);
+        synthesizer.setChannelOffsets(channelOffsets);
+        ReusableComplexBuffer actual = synthesizer.process(channelResults, false);
+        float[] samples = actual.getSamples();
+
+        int firstBin = -((channelCount - 1) / 2);
+        double peak = 0.0;
+        double error = 0.0;
+
+        for(int n = 0; n < FRAMES; n++)
+        {
+            for(int r = 0; r < halfChannelCount; r++)
+            {
+                double i = 0.0;
+                double q = 0.0;
+
+                for(int j = 0; j <= n && r + j * halfChannelCount < filter.length; j++)
+                {
+                    float[] results = channelResults.get(n - j);
+                    int sample = (r + (n + 1) * halfChannelCount) % channelCount;
+                    double tap = filter[r + j * halfChannelCount] * halfChannelCount;
+
+                    for(int k = 0; k < channelCount; k++)
+                    {
+                        int bin = (firstBin + k + channelCount) % channelCount;
+                        double angle = 2.0 * Math.PI * bin * sample / channelCount;
+                        i += tap * (results[k * 2] * Math.cos(angle) - results[k * 2 + 1] * Math.sin(angle));
+                        q += tap * (results[k * 2] * Math.sin(angle) + results[k * 2 + 1] * Math.cos(angle));
+                    }
+                }
+
+                int index = (n * halfChannelCount + r) * 2;
+                peak = Math.max(peak, Math.hypot(i, q));
+                error = Math.max(error, Math.hypot(samples[index] - i, samples[index + 1] - q));
+            }
+        }
+
+        actual.decrementUserCount();
+
+        assertTrue(channelCount + " channel synthesizer error [" + error + "] exceeds tolerance for peak [" + peak +
+            "]", error <= peak * 1E-4);
+    }
+}